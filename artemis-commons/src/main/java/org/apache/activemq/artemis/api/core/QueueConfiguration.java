@@ -77,6 +77,8 @@ public class QueueConfiguration implements Serializable {
    public static final String INTERNAL = "internal";
    public static final String TRANSIENT = "transient";
    public static final String AUTO_CREATED = "auto-created";
+   public static final String SHARD_OF = "shard-of";
+   public static final String SHARD_INDEX = "shard-index";
 
    private Long id; // internal use
    private SimpleString name;
@@ -109,6 +111,8 @@ public class QueueConfiguration implements Serializable {
    private Boolean internal;
    private Boolean _transient;
    private Boolean autoCreated;
+   private SimpleString shardOf;
+   private Integer shardIndex;
 
    /**
     * Instantiate this object and invoke {@link #setName(SimpleString)}
@@ -165,6 +169,8 @@ public class QueueConfiguration implements Serializable {
     * <li>internal: {@link #INTERNAL}
     * <li>transient: {@link #TRANSIENT}
     * <li>auto-created: {@link #AUTO_CREATED}
+    * <li>shard-of: {@link #SHARD_OF}
+    * <li>shard-index: {@link #SHARD_INDEX}
     * </ul><p>
     * The {@code String}-based values will be converted to the proper value types based on the underlying property. For
     * example, if you pass the value "TRUE" for the key "auto-created" the {@code String} "TRUE" will be converted to
@@ -234,6 +240,10 @@ public class QueueConfiguration implements Serializable {
             setTransient(Boolean.valueOf(value));
          } else if (key.equals(AUTO_CREATED)) {
             setAutoCreated(Boolean.valueOf(value));
+         } else if (key.equals(SHARD_OF)) {
+            setShardOf(value);
+         } else if (key.equals(SHARD_INDEX)) {
+            setShardIndex(Integer.valueOf(value));
          }
       }
       return this;
@@ -602,6 +612,34 @@ public class QueueConfiguration implements Serializable {
       return this;
    }
 
+   /**
+    * @return the name of the sharded queue this queue is a shard of, {@code null} if it isn't a shard
+    */
+   public SimpleString getShardOf() {
+      return shardOf;
+   }
+
+   public QueueConfiguration setShardOf(SimpleString shardOf) {
+      this.shardOf = shardOf;
+      return this;
+   }
+
+   public QueueConfiguration setShardOf(String shardOf) {
+      return setShardOf(SimpleString.toSimpleString(shardOf));
+   }
+
+   /**
+    * @return the index of this queue among the shards of its sharded queue, the sharded queue itself being 0
+    */
+   public Integer getShardIndex() {
+      return shardIndex;
+   }
+
+   public QueueConfiguration setShardIndex(Integer shardIndex) {
+      this.shardIndex = shardIndex;
+      return this;
+   }
+
    /**
     * This method returns a JSON-formatted {@code String} representation of this {@code QueueConfiguration}. It is a
     * simple collection of key/value pairs. The keys used are referenced in {@link #set(String, String)}.
@@ -704,6 +742,12 @@ public class QueueConfiguration implements Serializable {
       if (isAutoCreated() != null) {
          builder.add(AUTO_CREATED, isAutoCreated());
       }
+      if (getShardOf() != null) {
+         builder.add(SHARD_OF, getShardOf().toString());
+      }
+      if (getShardIndex() != null) {
+         builder.add(SHARD_INDEX, getShardIndex());
+      }
 
       return builder.build().toString();
    }
@@ -802,6 +846,10 @@ public class QueueConfiguration implements Serializable {
          return false;
       if (!Objects.equals(autoCreated, that.autoCreated))
          return false;
+      if (!Objects.equals(shardOf, that.shardOf))
+         return false;
+      if (!Objects.equals(shardIndex, that.shardIndex))
+         return false;
 
       return true;
    }
@@ -839,6 +887,8 @@ public class QueueConfiguration implements Serializable {
       result = 31 * result + Objects.hashCode(internal);
       result = 31 * result + Objects.hashCode(_transient);
       result = 31 * result + Objects.hashCode(autoCreated);
+      result = 31 * result + Objects.hashCode(shardOf);
+      result = 31 * result + Objects.hashCode(shardIndex);
       return result;
    }
 
@@ -875,6 +925,8 @@ public class QueueConfiguration implements Serializable {
          + ", autoCreateAddress=" + autoCreateAddress
          + ", internal=" + internal
          + ", transient=" + _transient
-         + ", autoCreated=" + autoCreated + ']';
+         + ", autoCreated=" + autoCreated
+         + ", shardOf=" + shardOf
+         + ", shardIndex=" + shardIndex + ']';
    }
 }
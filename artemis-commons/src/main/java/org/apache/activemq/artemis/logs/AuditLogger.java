@@ -2925,4 +2925,12 @@ public interface AuditLogger extends BasicLogger {
    @LogMessage(level = Logger.Level.INFO)
    @Message(id = 601757, value = "User {0} is getting acceptors as json on target resource: {1} {2}", format = Message.Format.MESSAGE_FORMAT)
    void getAcceptorsAsJSON(String user, Object source, Object... args);
+
+   static void getReplicaSyncProgress(Object source) {
+      BASE_LOGGER.getReplicaSyncProgress(getCaller(), source);
+   }
+
+   @LogMessage(level = Logger.Level.INFO)
+   @Message(id = 601758, value = "User {0} is getting replica sync progress on target resource: {1} {2}", format = Message.Format.MESSAGE_FORMAT)
+   void getReplicaSyncProgress(String user, Object source, Object... args);
 }
@@ -117,6 +117,27 @@ public class LinkedListImpl<E> implements LinkedList<E> {
       return node.val();
    }
 
+   /**
+    * Removes {@code e} in constant time if it's an intrusive {@link Node} linked to this list.<br>
+    * The caller must ensure {@code e} isn't linked to a different list.
+    *
+    * @return {@code false} if {@code e} isn't an intrusive node linked to a list
+    */
+   public boolean removeLinked(E e) {
+      if (!isLinked(e)) {
+         return false;
+      }
+      removeAfter(((Node<E>) e).prev);
+      return true;
+   }
+
+   /**
+    * @return {@code true} if {@code e} is an intrusive {@link Node} currently linked to a list
+    */
+   public static boolean isLinked(Object e) {
+      return e instanceof Node && ((Node) e).prev != null;
+   }
+
    private void itemAdded(Node<E> node, E item) {
       if (nodeStore != null) {
          putID(item, node);
@@ -216,6 +237,27 @@ public class LinkedListImpl<E> implements LinkedList<E> {
       }
    }
 
+   /**
+    * @return the last element of this list, {@code null} if it's empty
+    */
+   public E peekTail() {
+      return size == 0 ? null : tail.val();
+   }
+
+   /**
+    * Removes the last element of this list.
+    *
+    * @return the removed element, {@code null} if the list was empty
+    */
+   public E pollTail() {
+      if (size == 0) {
+         return null;
+      }
+      final Node<E> ret = tail;
+      removeAfter(ret.prev);
+      return ret.val();
+   }
+
    @Override
    public void clear() {
       // Clearing all of the links between nodes is "unnecessary", but:
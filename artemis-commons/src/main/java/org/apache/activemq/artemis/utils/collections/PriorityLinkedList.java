@@ -31,6 +31,18 @@ public interface PriorityLinkedList<E> {
 
    E poll();
 
+   /**
+    * @return the last element of this list with {@code priority}, {@code null} if there's none
+    */
+   E peekTail(int priority);
+
+   /**
+    * Removes the last element of this list with {@code priority}.
+    *
+    * @return the removed element, {@code null} if there's none
+    */
+   E pollTail(int priority);
+
    void clear();
 
    /**
@@ -41,12 +53,25 @@ public interface PriorityLinkedList<E> {
 
    E removeWithID(String listID, long id);
 
+   /**
+    * Removes {@code e} in constant time if it's an intrusive node linked to this list with {@code priority}.
+    *
+    * @see LinkedListImpl#removeLinked(Object)
+    */
+   boolean removeLinked(E e, int priority);
+
    /**
     * Returns the size of this list.<br>
     * It is safe to be called concurrently.
     */
    int size();
 
+   /**
+    * Returns the number of elements of this list with {@code priority}.<br>
+    * It is not safe to be called concurrently.
+    */
+   int size(int priority);
+
    LinkedListIterator<E> iterator();
 
    /**
@@ -126,6 +126,19 @@ public class PriorityLinkedListImpl<E> implements PriorityLinkedList<E> {
       return null;
    }
 
+   @Override
+   public boolean removeLinked(E e, int priority) {
+      final LinkedListImpl<E> ll = levels[priority];
+      if (!ll.removeLinked(e)) {
+         return false;
+      }
+      exclusiveIncrementSize(-1);
+      if (ll.size() == 0 && highestPriority == priority) {
+         highestPriority--;
+      }
+      return true;
+   }
+
 
    @Override
    public E poll() {
@@ -160,6 +173,24 @@ public class PriorityLinkedListImpl<E> implements PriorityLinkedList<E> {
       return e;
    }
 
+   @Override
+   public E peekTail(int priority) {
+      return levels[priority].peekTail();
+   }
+
+   @Override
+   public E pollTail(int priority) {
+      final LinkedListImpl<E> ll = levels[priority];
+      final E e = ll.pollTail();
+      if (e != null) {
+         exclusiveIncrementSize(-1);
+         if (ll.size() == 0 && highestPriority == priority) {
+            highestPriority--;
+         }
+      }
+      return e;
+   }
+
    @Override
    public void clear() {
       for (LinkedListImpl<E> list : levels) {
@@ -182,6 +213,11 @@ public class PriorityLinkedListImpl<E> implements PriorityLinkedList<E> {
       return size;
    }
 
+   @Override
+   public int size(int priority) {
+      return levels[priority].size();
+   }
+
    @Override
    public boolean isEmpty() {
       return size == 0;
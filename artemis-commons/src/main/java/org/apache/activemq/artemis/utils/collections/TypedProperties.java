@@ -393,6 +393,18 @@ public class TypedProperties {
     * @throws IllegalStateException if any not-valid property is found while searching the {@code key} property
     */
    public static boolean searchProperty(SimpleString key, ByteBuf buffer, int startIndex) {
+      return searchPropertyValue(key, buffer, startIndex) >= 0;
+   }
+
+   /**
+    * Same as {@link #searchProperty(SimpleString, ByteBuf, int)}, but returning where the value of the {@code key}
+    * property is, to read it in place.
+    *
+    * @return the index of the type of the {@code key} property value (followed by the value itself) or {@code -1}
+    * if there is no such property
+    * @throws IllegalStateException if any not-valid property is found while searching the {@code key} property
+    */
+   public static int searchPropertyValue(SimpleString key, ByteBuf buffer, int startIndex) {
       // It won't implement a straight linear search for key
       // because it would risk to find a SimpleString encoded property value
       // equals to the key we're searching for!
@@ -400,7 +412,7 @@ public class TypedProperties {
       byte b = buffer.getByte(index);
       index++;
       if (b == DataConstants.NULL) {
-         return false;
+         return -1;
       }
       final int numHeaders = buffer.getInt(index);
       index += Integer.BYTES;
@@ -408,10 +420,10 @@ public class TypedProperties {
          final int keyLength = buffer.getInt(index);
          index += Integer.BYTES;
          if (key.equals(buffer, index, keyLength)) {
-            return true;
+            return index + keyLength;
          }
          if (i == numHeaders - 1) {
-            return false;
+            return -1;
          }
          index += keyLength;
          byte type = buffer.getByte(index);
@@ -456,7 +468,7 @@ public class TypedProperties {
             }
          }
       }
-      return false;
+      return -1;
    }
 
    public synchronized void decode(final ByteBuf buffer,
@@ -32,6 +32,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 
 import static org.apache.activemq.artemis.utils.collections.TypedProperties.searchProperty;
+import static org.apache.activemq.artemis.utils.collections.TypedProperties.searchPropertyValue;
 import static org.hamcrest.Matchers.greaterThan;
 
 public class TypedPropertiesTest {
@@ -293,6 +294,27 @@ public class TypedPropertiesTest {
       });
    }
 
+   @Test
+   public void testSearchPropertyValue() {
+      TypedProperties props = new TypedProperties();
+      final SimpleString byteKey = RandomUtil.randomSimpleString();
+      final byte byteValue = RandomUtil.randomByte();
+      final SimpleString longKey = RandomUtil.randomSimpleString();
+      final long longValue = RandomUtil.randomLong();
+      props.putSimpleStringProperty(RandomUtil.randomSimpleString(), RandomUtil.randomSimpleString());
+      props.putByteProperty(byteKey, byteValue);
+      props.putLongProperty(longKey, longValue);
+      ByteBuf buf = Unpooled.buffer();
+      props.encode(buf);
+      final int byteIndex = searchPropertyValue(byteKey, buf, 0);
+      Assert.assertEquals(DataConstants.BYTE, buf.getByte(byteIndex));
+      Assert.assertEquals(byteValue, buf.getByte(byteIndex + 1));
+      final int longIndex = searchPropertyValue(longKey, buf, 0);
+      Assert.assertEquals(DataConstants.LONG, buf.getByte(longIndex));
+      Assert.assertEquals(longValue, buf.getLong(longIndex + 1));
+      Assert.assertEquals(-1, searchPropertyValue(RandomUtil.randomSimpleString(), buf, 0));
+   }
+
    @Test(expected = IndexOutOfBoundsException.class)
    public void testSearchPartiallyEncodedBuffer() {
       final int expectedLength = Integer.BYTES + Byte.BYTES;
@@ -142,6 +142,9 @@ public final class ActiveMQDefaultConfiguration {
    // true means that the server will sync data files
    private static boolean DEFAULT_JOURNAL_DATASYNC = true;
 
+   // true means that the journal buffer won't wait for the buffer timeout when no other sync request is expected
+   private static boolean DEFAULT_JOURNAL_BUFFER_ADAPTIVE_TIMEOUT = false;
+
    // Maximum number of threads to use for the scheduled thread pool
    private static int DEFAULT_SCHEDULED_THREAD_POOL_MAX_SIZE = 5;
 
@@ -261,6 +264,12 @@ public final class ActiveMQDefaultConfiguration {
    // If true the whole page would be read, otherwise just seek and read while getting message
    private static boolean DEFAULT_READ_WHOLE_PAGE = false;
 
+   // If true page files are memory mapped while reading, instead of being copied into buffers
+   private static boolean DEFAULT_READ_MAPPED_PAGE = false;
+
+   // If true every page file keeps a sidecar index with the file offsets of its messages
+   private static boolean DEFAULT_PAGE_OFFSET_INDEX = false;
+
    // the directory to store the journal files in
    private static String DEFAULT_JOURNAL_DIR = "data/journal";
 
@@ -297,6 +306,9 @@ public final class ActiveMQDefaultConfiguration {
    // The maximal number of data files before we can start deleting corrupted files instead of moving them to attic.
    private static int DEFAULT_JOURNAL_MAX_ATTIC_FILES = 10;
 
+   // The number of journal files read concurrently while loading the journal on startup, 1 means sequential loading.
+   private static int DEFAULT_JOURNAL_LOAD_PARALLELISM = 1;
+
    // Interval to log server specific information (e.g. memory usage etc)
    private static long DEFAULT_SERVER_DUMP_INTERVAL = -1;
 
@@ -428,6 +440,9 @@ public final class ActiveMQDefaultConfiguration {
    // When a replica comes online this is how long the replicating server will wait for a confirmation from the replica that the replication synchronization process is complete
    private static long DEFAULT_INITIAL_REPLICATION_SYNC_TIMEOUT = 30000;
 
+   // How many files the replicating server sends at once to a replica during the initial replication synchronization
+   private static int DEFAULT_INITIAL_REPLICATION_SYNC_PARALLELISM = 1;
+
    // Will this backup server come live on a normal server shutdown
    private static boolean DEFAULT_FAILOVER_ON_SERVER_SHUTDOWN = false;
 
@@ -487,6 +502,14 @@ public final class ActiveMQDefaultConfiguration {
 
    private static final long DEFAULT_JDBC_JOURNAL_SYNC_PERIOD_MILLIS = 5;
 
+   private static final int DEFAULT_JDBC_JOURNAL_SYNC_CONNECTIONS = 1;
+
+   private static final int DEFAULT_JDBC_JOURNAL_LOAD_FETCH_SIZE = 1000;
+
+   private static final int DEFAULT_JDBC_JOURNAL_LOAD_PARTITIONS = 1;
+
+   private static final boolean DEFAULT_JDBC_JOURNAL_BULK_INSERT = false;
+
    private static final long DEFAULT_JDBC_LOCK_ACQUISITION_TIMEOUT_MILLIS = -1;
 
    // Default period to wait between connection TTL checks
@@ -669,6 +692,13 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_JOURNAL_DATASYNC;
    }
 
+   /**
+    * true means that the journal buffer won't wait for the buffer timeout when no other sync request is expected
+    */
+   public static boolean isDefaultJournalBufferAdaptiveTimeout() {
+      return DEFAULT_JOURNAL_BUFFER_ADAPTIVE_TIMEOUT;
+   }
+
    /**
     * Maximum number of threads to use for the scheduled thread pool
     */
@@ -947,6 +977,20 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_READ_WHOLE_PAGE;
    }
 
+   /**
+    * If true page files are memory mapped while reading, instead of being copied into buffers
+    */
+   public static boolean isDefaultReadMappedPage() {
+      return DEFAULT_READ_MAPPED_PAGE;
+   }
+
+   /**
+    * If true every page file keeps a sidecar index with the file offsets of its messages
+    */
+   public static boolean isDefaultPageOffsetIndex() {
+      return DEFAULT_PAGE_OFFSET_INDEX;
+   }
+
    /**
     * the directory to store the journal files in
     */
@@ -1037,6 +1081,13 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_JOURNAL_MAX_ATTIC_FILES;
    }
 
+   /**
+    * how many journal files are read concurrently when loading the journal.
+    */
+   public static int getDefaultJournalLoadParallelism() {
+      return DEFAULT_JOURNAL_LOAD_PARALLELISM;
+   }
+
    /**
     * Interval to log server specific information (e.g. memory usage etc)
     */
@@ -1342,6 +1393,13 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_INITIAL_REPLICATION_SYNC_TIMEOUT;
    }
 
+   /**
+    * How many files the replicating server sends at once to a replica during the initial replication synchronization
+    */
+   public static int getDefaultInitialReplicationSyncParallelism() {
+      return DEFAULT_INITIAL_REPLICATION_SYNC_PARALLELISM;
+   }
+
    /**
     * if we have to start as a replicated server this is the delay to wait before fail-back occurs
     *
@@ -1462,6 +1520,22 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_JDBC_JOURNAL_SYNC_PERIOD_MILLIS;
    }
 
+   public static int getDefaultJdbcJournalSyncConnections() {
+      return DEFAULT_JDBC_JOURNAL_SYNC_CONNECTIONS;
+   }
+
+   public static int getDefaultJdbcJournalLoadFetchSize() {
+      return DEFAULT_JDBC_JOURNAL_LOAD_FETCH_SIZE;
+   }
+
+   public static int getDefaultJdbcJournalLoadPartitions() {
+      return DEFAULT_JDBC_JOURNAL_LOAD_PARTITIONS;
+   }
+
+   public static boolean isDefaultJdbcJournalBulkInsert() {
+      return DEFAULT_JDBC_JOURNAL_BULK_INSERT;
+   }
+
    public static long getDefaultJdbcLockExpirationMillis() {
       return DEFAULT_JDBC_LOCK_EXPIRATION_MILLIS;
    }
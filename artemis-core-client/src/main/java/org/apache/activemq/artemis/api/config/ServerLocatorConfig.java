@@ -26,6 +26,7 @@ public class ServerLocatorConfig {
    public int minLargeMessageSize = ActiveMQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE;
    public int consumerWindowSize = ActiveMQClient.DEFAULT_CONSUMER_WINDOW_SIZE;
    public int consumerMaxRate = ActiveMQClient.DEFAULT_CONSUMER_MAX_RATE;
+   public boolean adaptiveConsumerWindow = ActiveMQClient.DEFAULT_ADAPTIVE_CONSUMER_WINDOW;
    public int confirmationWindowSize = ActiveMQClient.DEFAULT_CONFIRMATION_WINDOW_SIZE;
    public int producerWindowSize = ActiveMQClient.DEFAULT_PRODUCER_WINDOW_SIZE;
    public int producerMaxRate = ActiveMQClient.DEFAULT_PRODUCER_MAX_RATE;
@@ -62,6 +63,7 @@ public class ServerLocatorConfig {
       minLargeMessageSize = locator.minLargeMessageSize;
       consumerWindowSize = locator.consumerWindowSize;
       consumerMaxRate = locator.consumerMaxRate;
+      adaptiveConsumerWindow = locator.adaptiveConsumerWindow;
       confirmationWindowSize = locator.confirmationWindowSize;
       producerWindowSize = locator.producerWindowSize;
       producerMaxRate = locator.producerMaxRate;
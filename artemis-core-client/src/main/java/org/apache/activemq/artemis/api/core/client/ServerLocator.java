@@ -283,6 +283,26 @@ public interface ServerLocator extends AutoCloseable {
     */
    ServerLocator setConsumerMaxRate(int consumerMaxRate);
 
+   /**
+    * Returns whether consumers created through this factory size their window from their consumption.
+    * <p>
+    * Default value is {@link ActiveMQClient#DEFAULT_ADAPTIVE_CONSUMER_WINDOW}.
+    *
+    * @return {@code true} if consumers use adaptive flow control
+    */
+   boolean isAdaptiveConsumerWindow();
+
+   /**
+    * Sets whether consumers created through this factory size their window from their consumption.
+    * <p>
+    * An adaptive consumer buffers the messages it consumes in twice the latency of the server to refill its buffer,
+    * up to the consumer window size. It has no effect on consumers with a window size of -1 or 0.
+    *
+    * @param adaptiveConsumerWindow {@code true} to enable adaptive flow control
+    * @return this ServerLocator
+    */
+   ServerLocator setAdaptiveConsumerWindow(boolean adaptiveConsumerWindow);
+
    /**
     * Returns the size for the confirmation window of clients using this factory.
     * <p>
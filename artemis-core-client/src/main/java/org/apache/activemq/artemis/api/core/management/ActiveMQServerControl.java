@@ -30,6 +30,10 @@ public interface ActiveMQServerControl {
    String ADDRESS_MEMORY_USAGE_DESCRIPTION = "Memory used by all the addresses on broker for in-memory messages";
    String ADDRESS_MEMORY_USAGE_PERCENTAGE_DESCRIPTION = "Memory used by all the addresses on broker as a percentage of the global-max-size";
    String DISK_STORE_USAGE_DESCRIPTION = "Fraction of total disk store used";
+   String JOURNAL_COMPACT_BYTES_RECLAIMED_DESCRIPTION = "Bytes of message journal files reclaimed by compacting since the broker was started";
+   String JOURNAL_COMPACT_PAUSE_TIME_DESCRIPTION = "Time in milliseconds appends to the message journal were blocked by compacting since the broker was started";
+   String JOURNAL_BUFFER_IMMEDIATE_FLUSH_COUNT_DESCRIPTION = "Number of message journal buffer timer flushes after which the next sync request is flushed without waiting for the buffer timeout";
+   String JOURNAL_BUFFER_TIMED_FLUSH_COUNT_DESCRIPTION = "Number of message journal buffer timer flushes after which the next sync request waits for the buffer timeout, to batch more sync requests";
 
    /**
     * Returns this server's version.
@@ -463,6 +467,13 @@ public interface ActiveMQServerControl {
    @Attribute(desc = "Whether the initial replication synchronization process with the backup server is complete")
    boolean isReplicaSync();
 
+   /**
+    * Returns the progress of the initial replication synchronization process with the backup server as a JSON object
+    * (files and bytes sent so far, elapsed time and throughput); applicable for the live server only.
+    */
+   @Attribute(desc = "Progress of the initial replication synchronization process with the backup server, as a JSON object")
+   String getReplicaSyncProgress();
+
    /**
     * Returns how often the server checks for disk space usage.
     */
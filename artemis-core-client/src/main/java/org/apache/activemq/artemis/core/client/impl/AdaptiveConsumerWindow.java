@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes the credit window of a consumer from the rate its application consumes messages and from the latency the
+ * server refills its buffer with, so a fast consumer buffers enough messages to never wait for the server while a
+ * slow one buffers only the messages it can consume in a short time, leaving the others to the other consumers.
+ * <p>
+ * The window is the bytes the consumer consumes in twice the refill latency, or at least in
+ * {@link #MIN_BUFFERED_NANOS}: the refill latency is measured from the moment the consumer finds its buffer empty to
+ * the arrival of the next message, and the consumption rate over the time the consumer isn't waiting for messages.
+ * The window shrinks by withholding the credits of the consumed messages and grows by sending more credits than
+ * the bytes consumed.
+ */
+final class AdaptiveConsumerWindow {
+
+   /**
+    * The window a consumer starts with, if its maximum window isn't smaller.
+    */
+   static final int INITIAL_WINDOW_SIZE = 64 * 1024;
+
+   // the minimum time of consumption a window holds
+   private static final long MIN_BUFFERED_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+   // the waits for messages longer than this are due to an empty queue rather than to the refill latency
+   private static final long MAX_REFILL_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+   private static final long SAMPLE_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+   // the weight of a new sample in the moving averages
+   private static final double ALPHA = 0.25;
+
+   private final int maxWindowSize;
+
+   private int windowSize;
+
+   // the window the server has been granted credits for
+   private int grantedWindowSize;
+
+   // the bytes consumed and not given back as credits yet
+   private int pendingCredits;
+
+   // bytes per second, 0 until the first sample
+   private double consumptionRate;
+
+   private double refillLatencyNanos;
+
+   private long sampleStart;
+
+   private long sampleBytes;
+
+   private long sampleIdleNanos;
+
+   // when the consumer found its buffer empty, 0 if it isn't waiting for messages
+   private long starvedSince;
+
+   AdaptiveConsumerWindow(int maxWindowSize, long now) {
+      this.maxWindowSize = maxWindowSize;
+      this.windowSize = Math.min(maxWindowSize, INITIAL_WINDOW_SIZE);
+      this.grantedWindowSize = windowSize;
+      this.sampleStart = now;
+   }
+
+   /**
+    * @return the window the consumer is currently sized for
+    */
+   synchronized int getWindowSize() {
+      return windowSize;
+   }
+
+   synchronized double getConsumptionRate() {
+      return consumptionRate;
+   }
+
+   synchronized long getRefillLatency(TimeUnit unit) {
+      return unit.convert((long) refillLatencyNanos, TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * The consumer found its buffer empty.
+    */
+   synchronized void starved(long now) {
+      if (starvedSince == 0) {
+         starvedSince = now;
+      }
+   }
+
+   /**
+    * A message arrived to the buffer of the consumer.
+    */
+   synchronized void arrived(long now) {
+      if (starvedSince == 0) {
+         return;
+      }
+      final long waited = now - starvedSince;
+      starvedSince = 0;
+      sampleIdleNanos += waited;
+      if (waited <= MAX_REFILL_LATENCY_NANOS) {
+         refillLatencyNanos = refillLatencyNanos == 0 ? waited : refillLatencyNanos + ALPHA * (waited - refillLatencyNanos);
+      }
+   }
+
+   /**
+    * The application consumed {@code bytes}.
+    *
+    * @return the credits to send to the server, 0 if none are due yet
+    */
+   synchronized int consumed(int bytes, long now) {
+      pendingCredits += bytes;
+      sampleBytes += bytes;
+      final long elapsed = now - sampleStart;
+      if (elapsed >= SAMPLE_PERIOD_NANOS) {
+         final long busy = elapsed - sampleIdleNanos;
+         if (busy > 0) {
+            final double rate = sampleBytes * (double) TimeUnit.SECONDS.toNanos(1) / busy;
+            consumptionRate = consumptionRate == 0 ? rate : consumptionRate + ALPHA * (rate - consumptionRate);
+            resize();
+         }
+         sampleStart = now;
+         sampleBytes = 0;
+         sampleIdleNanos = 0;
+      }
+      // the difference with the granted window is sent along the consumed bytes, or withheld from them
+      final long credits = (long) pendingCredits + windowSize - grantedWindowSize;
+      if (credits > 0 && credits >= windowSize >> 1) {
+         pendingCredits = 0;
+         grantedWindowSize = windowSize;
+         return (int) Math.min(Integer.MAX_VALUE, credits);
+      }
+      return 0;
+   }
+
+   /**
+    * The consumer was recreated on a new server granting it {@code grantedWindowSize} credits.
+    */
+   synchronized void failedOver(int grantedWindowSize) {
+      this.grantedWindowSize = grantedWindowSize;
+      this.pendingCredits = 0;
+      this.starvedSince = 0;
+   }
+
+   private void resize() {
+      final double bufferedNanos = Math.max(2 * refillLatencyNanos, MIN_BUFFERED_NANOS);
+      final double size = consumptionRate * bufferedNanos / TimeUnit.SECONDS.toNanos(1);
+      windowSize = (int) Math.max(1, Math.min(maxWindowSize, size));
+   }
+
+   @Override
+   public synchronized String toString() {
+      return "AdaptiveConsumerWindow(windowSize=" + windowSize + ", maxWindowSize=" + maxWindowSize + ", consumptionRate=" + (long) consumptionRate + " B/s, refillLatency=" + (long) refillLatencyNanos + " ns)";
+   }
+}
@@ -88,6 +88,9 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
    private final int clientWindowSize;
 
+   // sizes the window from the consumption of the application, null unless adaptive flow control is enabled
+   private final AdaptiveConsumerWindow adaptiveWindow;
+
    private final int ackBatchSize;
 
    private final PriorityLinkedList<ClientMessageInternal> buffer = new PriorityLinkedListImpl<>(ClientConsumerImpl.NUM_PRIORITIES);
@@ -147,6 +150,29 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
                              final SessionContext sessionContext,
                              final ClientSession.QueueQuery queueInfo,
                              final ClassLoader contextClassLoader) {
+      this(session, consumerContext, queueName, filterString, priority, browseOnly, initialWindow, clientWindowSize, false, ackBatchSize, rateLimiter, executor, flowControlExecutor, sessionContext, queueInfo, contextClassLoader);
+   }
+
+   /**
+    * @param adaptiveWindow {@code true} to size the window of the consumer from its consumption, {@code initialWindow}
+    *                       being its maximum size; ignored unless the window is bounded
+    */
+   public ClientConsumerImpl(final ClientSessionInternal session,
+                             final ConsumerContext consumerContext,
+                             final SimpleString queueName,
+                             final SimpleString filterString,
+                             final int priority,
+                             final boolean browseOnly,
+                             final int initialWindow,
+                             final int clientWindowSize,
+                             final boolean adaptiveWindow,
+                             final int ackBatchSize,
+                             final TokenBucketLimiter rateLimiter,
+                             final Executor executor,
+                             final Executor flowControlExecutor,
+                             final SessionContext sessionContext,
+                             final ClientSession.QueueQuery queueInfo,
+                             final ClassLoader contextClassLoader) {
       this.consumerContext = consumerContext;
 
       this.queueName = queueName;
@@ -165,7 +191,13 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
       sessionExecutor = executor;
 
-      this.initialWindow = initialWindow;
+      if (adaptiveWindow && initialWindow > 1 && clientWindowSize > 0) {
+         this.adaptiveWindow = new AdaptiveConsumerWindow(initialWindow, System.nanoTime());
+         this.initialWindow = this.adaptiveWindow.getWindowSize();
+      } else {
+         this.adaptiveWindow = null;
+         this.initialWindow = initialWindow;
+      }
 
       this.clientWindowSize = clientWindowSize;
 
@@ -243,6 +275,9 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
                while ((stopped || (m = buffer.poll()) == null) && !closed && toWait > 0) {
                   if (start == -1) {
                      start = System.currentTimeMillis();
+                     if (adaptiveWindow != null && !stopped) {
+                        adaptiveWindow.starved(System.nanoTime());
+                     }
                   }
 
                   if (m == null && forcingDelivery) {
@@ -525,6 +560,11 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
       creditsToSend = 0;
 
+      if (adaptiveWindow != null) {
+         // the consumer is recreated granting it a new window
+         adaptiveWindow.failedOver(clientWindowSize);
+      }
+
       failedOver = true;
 
       ackIndividually = false;
@@ -603,6 +643,10 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
          ackIndividually = true;
       }
 
+      if (adaptiveWindow != null) {
+         adaptiveWindow.arrived(System.nanoTime());
+      }
+
       // Add it to the buffer
       buffer.addTail(message, message.getPriority());
 
@@ -759,6 +803,11 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       return clientWindowSize;
    }
 
+   @Override
+   public int getAdaptiveWindowSize() {
+      return adaptiveWindow == null ? -1 : adaptiveWindow.getWindowSize();
+   }
+
    @Override
    public int getBufferSize() {
       return buffer.size();
@@ -819,7 +868,15 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
     */
    @Override
    public void flowControl(final int messageBytes, final boolean discountSlowConsumer) throws ActiveMQException {
-      if (clientWindowSize >= 0) {
+      if (adaptiveWindow != null) {
+         final int credits = adaptiveWindow.consumed(messageBytes, System.nanoTime());
+         if (credits > 0) {
+            if (logger.isTraceEnabled()) {
+               logger.trace(this + "::FlowControl::Sending " + credits + " credits for " + adaptiveWindow);
+            }
+            sendCredits(credits, adaptiveWindow.getWindowSize());
+         }
+      } else if (clientWindowSize >= 0) {
          creditsToSend += messageBytes;
 
          if (creditsToSend >= clientWindowSize) {
@@ -912,12 +969,23 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
     * @param credits
     */
    private void sendCredits(final int credits) {
+      sendCredits(credits, -1);
+   }
+
+   /**
+    * @param windowSize the window the credits size the consumer to, -1 if it isn't adaptive
+    */
+   private void sendCredits(final int credits, final int windowSize) {
       pendingFlowControl.countUp();
       flowControlExecutor.execute(new Runnable() {
          @Override
          public void run() {
             try {
-               sessionContext.sendConsumerCredits(ClientConsumerImpl.this, credits);
+               if (windowSize < 0) {
+                  sessionContext.sendConsumerCredits(ClientConsumerImpl.this, credits);
+               } else {
+                  sessionContext.sendConsumerCredits(ClientConsumerImpl.this, credits, windowSize);
+               }
             } finally {
                pendingFlowControl.countDown();
             }
@@ -1024,6 +1092,14 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
             if (clientWindowSize == 0) {
                startSlowConsumer();
             }
+
+            if (adaptiveWindow != null) {
+               synchronized (this) {
+                  if (buffer.isEmpty()) {
+                     adaptiveWindow.starved(System.nanoTime());
+                  }
+               }
+            }
          }
       }
    }
@@ -59,6 +59,11 @@ public interface ClientConsumerInternal extends ClientConsumer {
 
    int getInitialWindowSize();
 
+   /**
+    * @return the window the consumer is sized to by adaptive flow control, -1 if it isn't enabled
+    */
+   int getAdaptiveWindowSize();
+
    int getBufferSize();
 
    void cleanUp() throws ActiveMQException;
@@ -2015,7 +2015,9 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
       // consumer
 
       // TODO: this could semantically change on other servers. I know for instance on stomp this is just an ignore
-      if (consumer.getClientWindowSize() != 0) {
+      if (consumer.getAdaptiveWindowSize() > 0) {
+         sessionContext.sendConsumerCredits(consumer, consumer.getInitialWindowSize(), consumer.getAdaptiveWindowSize());
+      } else if (consumer.getClientWindowSize() != 0) {
          sessionContext.sendConsumerCredits(consumer, consumer.getInitialWindowSize());
       }
 
@@ -955,6 +955,18 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       return this;
    }
 
+   @Override
+   public boolean isAdaptiveConsumerWindow() {
+      return config.adaptiveConsumerWindow;
+   }
+
+   @Override
+   public ServerLocatorImpl setAdaptiveConsumerWindow(final boolean adaptiveConsumerWindow) {
+      checkWrite();
+      this.config.adaptiveConsumerWindow = adaptiveConsumerWindow;
+      return this;
+   }
+
    @Override
    public int getConfirmationWindowSize() {
       return config.confirmationWindowSize;
@@ -108,6 +108,10 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    private int propertiesLocation = -1;
 
+   private static final int PROPERTY_NOT_FOUND = -1;
+
+   private static final int PROPERTIES_DECODED = -2;
+
    protected volatile TypedProperties properties;
 
    private final CoreMessageObjectPools coreMessageObjectPools;
@@ -170,6 +174,17 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public RoutingType getRoutingType() {
+      if (properties == null) {
+         synchronized (this) {
+            final int valueIndex = searchPropertyValue(Message.HDR_ROUTING_TYPE);
+            if (valueIndex == PROPERTY_NOT_FOUND) {
+               return null;
+            }
+            if (valueIndex >= 0 && buffer.getByte(valueIndex) == DataConstants.BYTE) {
+               return RoutingType.getType(buffer.getByte(valueIndex + 1));
+            }
+         }
+      }
       final Byte maybeByte = getProperties().getByteProperty(Message.HDR_ROUTING_TYPE, () -> null);
       if (maybeByte == null) {
          return null;
@@ -358,6 +373,17 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public Long getScheduledDeliveryTime() {
+      if (properties == null) {
+         synchronized (this) {
+            final int valueIndex = searchPropertyValue(Message.HDR_SCHEDULED_DELIVERY_TIME);
+            if (valueIndex == PROPERTY_NOT_FOUND) {
+               return 0L;
+            }
+            if (valueIndex >= 0 && buffer.getByte(valueIndex) == DataConstants.LONG) {
+               return buffer.getLong(valueIndex + 1);
+            }
+         }
+      }
       Object property = getProperties().getProperty(Message.HDR_SCHEDULED_DELIVERY_TIME);
 
       if (property != null && property instanceof Number) {
@@ -1075,6 +1101,9 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public Object getObjectProperty(final SimpleString key) {
+      if (isPropertyMissing(key)) {
+         return null;
+      }
       return getProperties().getProperty(key);
    }
 
@@ -1121,6 +1150,9 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public SimpleString getSimpleStringProperty(final SimpleString key) throws ActiveMQPropertyConversionException {
+      if (isPropertyMissing(key)) {
+         return null;
+      }
       return getProperties().getSimpleStringProperty(key);
    }
 
@@ -1176,9 +1208,47 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public boolean containsProperty(final SimpleString key) {
+      if (isPropertyMissing(key)) {
+         return false;
+      }
       return getProperties().containsProperty(key);
    }
 
+   /**
+    * @return {@code true} if {@code key} is known to be missing without decoding the properties
+    */
+   private boolean isPropertyMissing(final SimpleString key) {
+      if (properties != null) {
+         return false;
+      }
+      synchronized (this) {
+         return searchPropertyValue(key) == PROPERTY_NOT_FOUND;
+      }
+   }
+
+   /**
+    * Looks up {@code key} among the encoded properties, if not decoded yet: reading a single property in place
+    * saves decoding (and allocating) all of them. It must be called while holding the message lock, because the
+    * buffer could be modified by a racing thread.
+    *
+    * @return the index of the type of the {@code key} property value in {@link #buffer} (followed by the value),
+    * {@link #PROPERTY_NOT_FOUND} if there is no such property or {@link #PROPERTIES_DECODED} if it must be read
+    * from {@link #getProperties()}
+    */
+   private int searchPropertyValue(final SimpleString key) {
+      final ByteBuf buffer = this.buffer;
+      final int propertiesLocation = this.propertiesLocation;
+      if (properties != null || buffer == null || propertiesLocation < 0) {
+         return PROPERTIES_DECODED;
+      }
+      try {
+         return TypedProperties.searchPropertyValue(key, buffer, propertiesLocation);
+      } catch (Throwable e) {
+         // let the properties decoding report it
+         return PROPERTIES_DECODED;
+      }
+   }
+
    @Override
    public boolean containsProperty(final String key) {
       return containsProperty(key(key));
@@ -396,7 +396,9 @@ public class ActiveMQSessionContext extends SessionContext {
       // The value we send is just a hint
       final int consumerWindowSize = windowSize == ActiveMQClient.DEFAULT_CONSUMER_WINDOW_SIZE ? this.getDefaultConsumerWindowSize(queueInfo) : windowSize;
 
-      return new ClientConsumerImpl(session, consumerContext, queueName, filterString, priority, browseOnly, consumerWindowSize, calcWindowSize(consumerWindowSize), ackBatchSize, maxRate > 0 ? new TokenBucketLimiterImpl(maxRate, false) : null, executor, flowControlExecutor, this, queueInfo.toQueueQuery(), lookupTCCL());
+      final boolean adaptiveWindow = session.getSessionFactory().getServerLocator().isAdaptiveConsumerWindow();
+
+      return new ClientConsumerImpl(session, consumerContext, queueName, filterString, priority, browseOnly, consumerWindowSize, calcWindowSize(consumerWindowSize), adaptiveWindow, ackBatchSize, maxRate > 0 ? new TokenBucketLimiterImpl(maxRate, false) : null, executor, flowControlExecutor, this, queueInfo.toQueueQuery(), lookupTCCL());
    }
 
    @Override
@@ -435,6 +437,11 @@ public class ActiveMQSessionContext extends SessionContext {
       sessionChannel.send(new SessionConsumerFlowCreditMessage(getConsumerID(consumer), credits));
    }
 
+   @Override
+   public void sendConsumerCredits(final ClientConsumer consumer, final int credits, final int windowSize) {
+      sessionChannel.send(new SessionConsumerFlowCreditMessage(getConsumerID(consumer), credits, windowSize));
+   }
+
    @Override
    public void forceDelivery(final ClientConsumer consumer, final long sequence) throws ActiveMQException {
       SessionForceConsumerDelivery request = new SessionForceConsumerDelivery(getConsumerID(consumer), sequence);
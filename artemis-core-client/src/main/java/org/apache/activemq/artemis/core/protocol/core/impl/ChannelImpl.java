@@ -188,6 +188,8 @@ public final class ChannelImpl implements Channel {
          case PacketImpl.CREATESESSION_V2:
          case PacketImpl.DISCONNECT_V3:
             return version >= PacketImpl.ARTEMIS_2_18_0_VERSION;
+         case PacketImpl.REPLICATION_RESPONSE_V3:
+            return version >= PacketImpl.ARTEMIS_2_21_0_VERSION;
          default:
             return true;
       }
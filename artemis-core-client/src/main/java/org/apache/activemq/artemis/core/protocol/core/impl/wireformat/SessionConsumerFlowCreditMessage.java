@@ -23,6 +23,8 @@ public class SessionConsumerFlowCreditMessage extends PacketImpl {
 
    private long consumerID;
    private int credits;
+   // the window of a consumer sized by adaptive flow control, -1 if it isn't
+   private int windowSize = -1;
 
    public SessionConsumerFlowCreditMessage(final long consumerID, final int credits) {
       super(SESS_FLOWTOKEN);
@@ -30,6 +32,11 @@ public class SessionConsumerFlowCreditMessage extends PacketImpl {
       this.credits = credits;
    }
 
+   public SessionConsumerFlowCreditMessage(final long consumerID, final int credits, final int windowSize) {
+      this(consumerID, credits);
+      this.windowSize = windowSize;
+   }
+
    public SessionConsumerFlowCreditMessage() {
       super(SESS_FLOWTOKEN);
    }
@@ -42,21 +49,32 @@ public class SessionConsumerFlowCreditMessage extends PacketImpl {
       return credits;
    }
 
+   public int getWindowSize() {
+      return windowSize;
+   }
+
    @Override
    public void encodeRest(final ActiveMQBuffer buffer) {
       buffer.writeLong(consumerID);
       buffer.writeInt(credits);
+      // only written when set, so the older servers can still read the message
+      if (windowSize >= 0) {
+         buffer.writeInt(windowSize);
+      }
    }
 
    @Override
    public void decodeRest(final ActiveMQBuffer buffer) {
       consumerID = buffer.readLong();
       credits = buffer.readInt();
+      if (buffer.readableBytes() > 0) {
+         windowSize = buffer.readInt();
+      }
    }
 
    @Override
    protected String getPacketString() {
-      return super.getPacketString() + ", consumerID=" + consumerID + ", credits=" + credits;
+      return super.getPacketString() + ", consumerID=" + consumerID + ", credits=" + credits + ", windowSize=" + windowSize;
    }
 
    @Override
@@ -65,6 +83,7 @@ public class SessionConsumerFlowCreditMessage extends PacketImpl {
       int result = super.hashCode();
       result = prime * result + (int) (consumerID ^ (consumerID >>> 32));
       result = prime * result + credits;
+      result = prime * result + windowSize;
       return result;
    }
 
@@ -81,6 +100,8 @@ public class SessionConsumerFlowCreditMessage extends PacketImpl {
          return false;
       if (credits != other.credits)
          return false;
+      if (windowSize != other.windowSize)
+         return false;
       return true;
    }
 }
@@ -91,6 +91,15 @@ public abstract class SessionContext {
 
    public abstract void sendConsumerCredits(ClientConsumer consumer, int credits);
 
+   /**
+    * Sends credits to a consumer whose window is sized by adaptive flow control, reporting its current window.
+    * <p>
+    * Protocols not carrying the window just send the credits.
+    */
+   public void sendConsumerCredits(ClientConsumer consumer, int credits, int windowSize) {
+      sendConsumerCredits(consumer, credits);
+   }
+
    public abstract boolean supportsLargeMessage();
 
    protected void handleReceiveLargeMessage(ConsumerContext consumerID,
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveConsumerWindowTest extends Assert {
+
+   private static final int MESSAGE_SIZE = 1000;
+
+   private long now = TimeUnit.SECONDS.toNanos(1);
+
+   // the credits granted to the server and not consumed yet
+   private long outstanding;
+
+   @Test
+   public void testInitialWindow() {
+      assertEquals(AdaptiveConsumerWindow.INITIAL_WINDOW_SIZE, new AdaptiveConsumerWindow(1024 * 1024, now).getWindowSize());
+      assertEquals(1000, new AdaptiveConsumerWindow(1000, now).getWindowSize());
+   }
+
+   @Test
+   public void testFastConsumerGrowsToMaxWindow() {
+      final int maxWindowSize = 1024 * 1024;
+      final AdaptiveConsumerWindow window = newWindow(maxWindowSize);
+
+      // 1000 bytes every 10 us is 100 MB/s, the buffer being refilled in 5 ms after it empties every 1000 messages
+      for (int i = 0; i < 100_000; i++) {
+         if (i % 1000 == 999) {
+            window.starved(now);
+            now += TimeUnit.MILLISECONDS.toNanos(5);
+            window.arrived(now);
+         }
+         now += TimeUnit.MICROSECONDS.toNanos(10);
+         consume(window);
+      }
+
+      assertEquals(5, window.getRefillLatency(TimeUnit.MILLISECONDS));
+      assertEquals(100_000_000, window.getConsumptionRate(), 1_000_000);
+      assertEquals(maxWindowSize, window.getWindowSize());
+      // the credits are sent back once half the window is consumed
+      assertTrue(outstanding > maxWindowSize >> 1);
+   }
+
+   @Test
+   public void testSlowConsumerShrinksWindow() {
+      final AdaptiveConsumerWindow window = newWindow(1024 * 1024);
+
+      // 1000 bytes every 10 ms is 100 KB/s, buffering 2 KB in the minimum 20 ms
+      for (int i = 0; i < 1000; i++) {
+         now += TimeUnit.MILLISECONDS.toNanos(10);
+         consume(window);
+      }
+
+      assertEquals(100_000, window.getConsumptionRate(), 1000);
+      assertEquals(2000, window.getWindowSize(), 50);
+      // the credits of the consumed messages were withheld until the window shrank to its size
+      assertTrue(outstanding <= window.getWindowSize() + MESSAGE_SIZE);
+   }
+
+   @Test
+   public void testWaitOnEmptyQueueIsNotRefillLatency() {
+      final AdaptiveConsumerWindow window = newWindow(1024 * 1024);
+
+      window.starved(now);
+      now += TimeUnit.SECONDS.toNanos(10);
+      window.arrived(now);
+      assertEquals(0, window.getRefillLatency(TimeUnit.NANOSECONDS));
+
+      // the time spent waiting doesn't count in the consumption rate
+      for (int i = 0; i < 100; i++) {
+         now += TimeUnit.MILLISECONDS.toNanos(1);
+         consume(window);
+      }
+      assertEquals(1_000_000, window.getConsumptionRate(), 10_000);
+   }
+
+   @Test
+   public void testFailover() {
+      final AdaptiveConsumerWindow window = newWindow(1024 * 1024);
+
+      for (int i = 0; i < 1000; i++) {
+         now += TimeUnit.MILLISECONDS.toNanos(10);
+         consume(window);
+      }
+      final int windowSize = window.getWindowSize();
+
+      // the recreated consumer was granted half its maximum window
+      window.failedOver(512 * 1024);
+      outstanding = 512 * 1024;
+      for (int i = 0; i < 1000; i++) {
+         now += TimeUnit.MILLISECONDS.toNanos(10);
+         consume(window);
+      }
+      assertEquals(windowSize, window.getWindowSize(), 50);
+      assertTrue(outstanding <= window.getWindowSize() + MESSAGE_SIZE);
+   }
+
+   private AdaptiveConsumerWindow newWindow(int maxWindowSize) {
+      final AdaptiveConsumerWindow window = new AdaptiveConsumerWindow(maxWindowSize, now);
+      outstanding = window.getWindowSize();
+      return window;
+   }
+
+   private void consume(AdaptiveConsumerWindow window) {
+      outstanding -= MESSAGE_SIZE;
+      final int credits = window.consumed(MESSAGE_SIZE, now);
+      if (credits > 0) {
+         outstanding += credits;
+         // the credits sent fill the window again
+         assertEquals(window.getWindowSize(), outstanding);
+      }
+   }
+}
@@ -25,6 +25,7 @@ import io.netty.buffer.Unpooled;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.RoutingType;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.client.impl.ClientMessageImpl;
 import org.apache.activemq.artemis.core.message.impl.CoreMessage;
@@ -390,6 +391,32 @@ public class CoreMessageTest {
       Assert.assertEquals(copy.getEncodeSize(), copy.getBuffer().capacity());
    }
 
+   @Test
+   public void testReadPropertiesInPlace() {
+      final CoreMessage msg = new CoreMessage(1, 1024);
+      msg.setAddress("a");
+      msg.setRoutingType(RoutingType.ANYCAST);
+      msg.setScheduledDeliveryTime(1234L);
+      msg.putStringProperty(PROP1_NAME, PROP1_VALUE);
+      final ActiveMQBuffer record = ActiveMQBuffers.fixedBuffer(msg.getPersistSize());
+      msg.persist(record);
+
+      final CoreMessage reloaded = new CoreMessage();
+      reloaded.reloadPersistence(record, null);
+      Assert.assertEquals(RoutingType.ANYCAST, reloaded.getRoutingType());
+      Assert.assertEquals(1234L, reloaded.getScheduledDeliveryTime().longValue());
+      Assert.assertNull(reloaded.getDuplicateProperty());
+      Assert.assertNull(reloaded.getGroupID());
+      Assert.assertFalse(reloaded.containsProperty(Message.HDR_LAST_VALUE_NAME));
+      Assert.assertEquals(PROP1_VALUE, reloaded.getSimpleStringProperty(PROP1_NAME));
+
+      // the in place reads must not see stale values once the properties are modified
+      reloaded.setScheduledDeliveryTime(0L);
+      reloaded.setRoutingType(RoutingType.MULTICAST);
+      Assert.assertEquals(RoutingType.MULTICAST, reloaded.getRoutingType());
+      Assert.assertEquals(0L, reloaded.getScheduledDeliveryTime().longValue());
+   }
+
    private void printVariable(String body, String encode) {
       System.out.println("// body = \"" + body + "\";");
       System.out.println("private final String STRING_ENCODE = \"" + encode + "\";");
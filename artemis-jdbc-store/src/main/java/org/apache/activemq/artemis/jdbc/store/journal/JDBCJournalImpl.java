@@ -21,16 +21,26 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
 import org.apache.activemq.artemis.api.core.ActiveMQShutdownException;
@@ -52,7 +62,9 @@ import org.apache.activemq.artemis.core.journal.impl.SimpleWaitIOCallback;
 import org.apache.activemq.artemis.core.server.ActiveMQScheduledComponent;
 import org.apache.activemq.artemis.jdbc.store.drivers.AbstractJDBCDriver;
 import org.apache.activemq.artemis.jdbc.store.drivers.JDBCConnectionProvider;
+import org.apache.activemq.artemis.jdbc.store.sql.JournalRecordsBulkInsert;
 import org.apache.activemq.artemis.jdbc.store.sql.SQLProvider;
+import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
 import org.apache.activemq.artemis.utils.collections.SparseArrayLinkedList;
 import org.jboss.logging.Logger;
 
@@ -73,16 +85,50 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       return false;
    }
 
+   public int getLoadFetchSize() {
+      return loadFetchSize;
+   }
+
+   public void setLoadFetchSize(int loadFetchSize) {
+      this.loadFetchSize = loadFetchSize;
+   }
+
+   public int getLoadPartitions() {
+      return loadPartitions;
+   }
+
+   public void setLoadPartitions(int loadPartitions) {
+      this.loadPartitions = loadPartitions;
+   }
+
+   public boolean isBulkInsert() {
+      return bulkInsert;
+   }
+
+   public void setBulkInsert(boolean bulkInsert) {
+      this.bulkInsert = bulkInsert;
+   }
+
    private long syncDelay;
 
    private static int USER_VERSION = 1;
 
+   private static final Object END_OF_PARTITION = new Object();
+
    private final List<JDBCJournalRecord> records;
 
    private String insertJournalRecords;
 
+   // null when the records are inserted through a JDBC batch of insertJournalRecords
+   private JournalRecordsBulkInsert bulkInsertJournalRecords;
+
    private String selectJournalRecords;
 
+   // null when the journal can only be loaded by selectJournalRecords
+   private String selectJournalRecordsRange;
+
+   private String selectJournalSeqRange;
+
    private String countJournalRecords;
 
    private String deleteJournalRecords;
@@ -107,18 +153,50 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
 
    private final IOCriticalErrorListener criticalIOErrorListener;
 
+   // Number of sync batches that can be written at the same time, each one on its own connection
+   private final int syncConnections;
+
+   // Writes the sync batches when syncConnections > 1, null otherwise
+   private ExecutorService syncExecutor;
+
+   // Batches handed to the syncExecutor, in the order their callbacks have to be completed
+   private final ArrayDeque<SyncBatch> pendingBatches = new ArrayDeque<>();
+
+   // guarded by pendingBatches
+   private int runningBatches;
+
+   // Number of records fetched at once by the loading cursors
+   private int loadFetchSize = ActiveMQDefaultConfiguration.getDefaultJdbcJournalLoadFetchSize();
+
+   // Number of seq ranges the journal is read in when loading, each one on its own connection
+   private int loadPartitions = ActiveMQDefaultConfiguration.getDefaultJdbcJournalLoadPartitions();
+
+   // Whether the records are inserted through the bulk insert of the SQLProvider, if it has one
+   private boolean bulkInsert = ActiveMQDefaultConfiguration.isDefaultJdbcJournalBulkInsert();
+
    public JDBCJournalImpl(JDBCConnectionProvider connectionProvider,
                           SQLProvider provider,
                           ScheduledExecutorService scheduledExecutorService,
                           Executor completeExecutor,
                           IOCriticalErrorListener criticalIOErrorListener,
                           long syncDelay) {
+      this(connectionProvider, provider, scheduledExecutorService, completeExecutor, criticalIOErrorListener, syncDelay, 1);
+   }
+
+   public JDBCJournalImpl(JDBCConnectionProvider connectionProvider,
+                          SQLProvider provider,
+                          ScheduledExecutorService scheduledExecutorService,
+                          Executor completeExecutor,
+                          IOCriticalErrorListener criticalIOErrorListener,
+                          long syncDelay,
+                          int syncConnections) {
       super(connectionProvider, provider);
       records = new ArrayList<>();
       this.scheduledExecutorService = scheduledExecutorService;
       this.completeExecutor = completeExecutor;
       this.criticalIOErrorListener = criticalIOErrorListener;
       this.syncDelay = syncDelay;
+      this.syncConnections = syncConnections;
    }
 
    @Override
@@ -135,6 +213,10 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
    public void start() throws SQLException {
       super.start();
       syncTimer = new JDBCJournalSync(scheduledExecutorService, completeExecutor, syncDelay, TimeUnit.MILLISECONDS, this);
+      if (syncConnections > 1) {
+         final ActiveMQThreadFactory threadFactory = new ActiveMQThreadFactory("ActiveMQ-JDBC-journal-sync-" + sqlProvider.getTableName(), true, JDBCJournalImpl.class.getClassLoader());
+         syncExecutor = Executors.newFixedThreadPool(syncConnections, threadFactory);
+      }
       started = true;
    }
 
@@ -161,7 +243,10 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
    protected void prepareStatements() {
       logger.tracef("preparing statements");
       insertJournalRecords = sqlProvider.getInsertJournalRecordsSQL();
+      bulkInsertJournalRecords = bulkInsert ? sqlProvider.getJournalRecordsBulkInsert() : null;
       selectJournalRecords = sqlProvider.getSelectJournalRecordsSQL();
+      selectJournalRecordsRange = sqlProvider.getSelectJournalRecordsRangeSQL();
+      selectJournalSeqRange = sqlProvider.getSelectJournalSeqRangeSQL();
       countJournalRecords = sqlProvider.getCountJournalRecordsSQL();
       deleteJournalRecords = sqlProvider.getDeleteJournalRecordsSQL();
       deleteJournalTxRecords = sqlProvider.getDeleteJournalTxRecordsSQL();
@@ -176,6 +261,11 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       if (started) {
          if (sync)
             sync();
+         if (syncExecutor != null) {
+            awaitSyncBatches(sync);
+            syncExecutor.shutdown();
+            syncExecutor = null;
+         }
          started = false;
          super.stop();
       }
@@ -188,14 +278,13 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
    }
 
    public synchronized int sync() {
+      if (syncExecutor != null) {
+         return syncPipelined();
+      }
 
-      List<JDBCJournalRecord> recordRef;
-      synchronized (records) {
-         if (records.isEmpty()) {
-            return 0;
-         }
-         recordRef = new ArrayList<>(records);
-         records.clear();
+      List<JDBCJournalRecord> recordRef = drainRecords();
+      if (recordRef == null) {
+         return 0;
       }
 
       if (!started || failed.get()) {
@@ -203,77 +292,110 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          return 0;
       }
 
+      try {
+         SyncBatch batch = new SyncBatch(recordRef);
+         batch.prepare();
+         batch.write();
+         executeCallbacks(recordRef, true);
 
-      // We keep a list of deleted records and committed tx (used for cleaning up old transaction data).
-      List<Long> deletedRecords = new ArrayList<>();
-      List<Long> committedTransactions = new ArrayList<>();
-
-      TransactionHolder holder;
-
-      try (Connection connection = connectionProvider.getConnection();
-           PreparedStatement deleteJournalRecords = connection.prepareStatement(this.deleteJournalRecords);
-           PreparedStatement deleteJournalTxRecords = connection.prepareStatement(this.deleteJournalTxRecords);
-           PreparedStatement insertJournalRecords = connection.prepareStatement(this.insertJournalRecords)) {
+         return recordRef.size();
+      } catch (Exception e) {
+         handleException(recordRef, e);
+         return 0;
+      }
+   }
 
-         connection.setAutoCommit(false);
+   /* Hands the pending records to the sync executor as a new batch. Batches touching disjoint record and transaction
+      IDs are written concurrently on their own connections, while the callbacks are always completed in the order
+      the batches were drained. Must be called holding the journal lock. */
+   private int syncPipelined() {
+      synchronized (pendingBatches) {
+         if (runningBatches >= syncConnections) {
+            // every connection is busy: the records keep piling up until a running batch is done
+            return 0;
+         }
 
-         for (JDBCJournalRecord record : recordRef) {
+         List<JDBCJournalRecord> recordRef = drainRecords();
+         if (recordRef == null) {
+            return 0;
+         }
 
-            if (logger.isTraceEnabled()) {
-               logger.trace("sync::preparing JDBC statement for " + record);
+         SyncBatch batch = new SyncBatch(recordRef);
+         if (started && !failed.get()) {
+            try {
+               batch.prepare();
+            } catch (Exception e) {
+               handleException(null, e);
             }
+         }
 
+         if (!started || failed.get()) {
+            batch.done = true;
+            pendingBatches.add(batch);
+            completeBatches();
+            return 0;
+         }
 
-            switch (record.getRecordType()) {
-               case JDBCJournalRecord.DELETE_RECORD:
-                  // Standard SQL Delete Record, Non transactional delete
-                  deletedRecords.add(record.getId());
-                  record.writeDeleteRecord(deleteJournalRecords);
-                  break;
-               case JDBCJournalRecord.ROLLBACK_RECORD:
-                  // Roll back we remove all records associated with this TX ID.  This query is always performed last.
-                  deleteJournalTxRecords.setLong(1, record.getTxId());
-                  deleteJournalTxRecords.addBatch();
-                  break;
-               case JDBCJournalRecord.COMMIT_RECORD:
-                  // We perform all the deletes and add the commit record in the same Database TX
-                  holder = transactions.get(record.getTxId());
-                  for (RecordInfo info : holder.recordsToDelete) {
-                     deletedRecords.add(record.getId());
-                     deletedRecords.add(info.id);
-                     deleteJournalRecords.setLong(1, info.id);
-                     deleteJournalRecords.addBatch();
-                  }
-                  record.writeRecord(insertJournalRecords);
-                  committedTransactions.add(record.getTxId());
-                  break;
-               default:
-                  // Default we add a new record to the DB
-                  record.writeRecord(insertJournalRecords);
-                  break;
+         for (SyncBatch pending : pendingBatches) {
+            if (!pending.done && pending.conflictsWith(batch)) {
+               batch.predecessors.add(pending);
             }
          }
+         pendingBatches.add(batch);
+         runningBatches++;
+         syncExecutor.execute(batch);
 
-         insertJournalRecords.executeBatch();
-         deleteJournalRecords.executeBatch();
-         deleteJournalTxRecords.executeBatch();
+         return recordRef.size();
+      }
+   }
 
-         connection.commit();
-         if (logger.isTraceEnabled()) {
-            logger.trace("JDBC commit worked");
+   private List<JDBCJournalRecord> drainRecords() {
+      synchronized (records) {
+         if (records.isEmpty()) {
+            return null;
          }
+         List<JDBCJournalRecord> recordRef = new ArrayList<>(records);
+         records.clear();
+         return recordRef;
+      }
+   }
 
-         if (cleanupTxRecords(deletedRecords, committedTransactions, deleteJournalTxRecords)) {
-            deleteJournalTxRecords.executeBatch();
-            connection.commit();
-            logger.trace("JDBC commit worked on cleanupTxRecords");
-         }
-         executeCallbacks(recordRef, true);
+   private void batchDone(SyncBatch batch, boolean success) {
+      synchronized (pendingBatches) {
+         batch.success = success;
+         batch.done = true;
+         runningBatches--;
+         completeBatches();
+         pendingBatches.notifyAll();
+      }
+      // records appended while every connection was busy are still waiting for a sync
+      syncTimer.delay();
+   }
 
-         return recordRef.size();
-      } catch (Exception e) {
-         handleException(recordRef, e);
-         return 0;
+   // Must be called holding pendingBatches
+   private void completeBatches() {
+      SyncBatch head;
+      while ((head = pendingBatches.peek()) != null && head.done) {
+         pendingBatches.poll();
+         executeCallbacks(head.records, head.success);
+      }
+   }
+
+   /* Waits for the batches handed to the sync executor, syncing again whatever was appended meanwhile if required.
+      The batches never take the journal lock, so it is safe to wait for them while holding it. */
+   private void awaitSyncBatches(boolean sync) {
+      try {
+         do {
+            synchronized (pendingBatches) {
+               while (!pendingBatches.isEmpty()) {
+                  pendingBatches.wait();
+               }
+            }
+         }
+         while (sync && syncPipelined() > 0);
+      } catch (InterruptedException e) {
+         logger.warn("Interrupted while waiting for the pending JDBC journal batches", e);
+         Thread.currentThread().interrupt();
       }
    }
 
@@ -293,9 +415,8 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
    }
 
    /* We store Transaction reference in memory (once all records associated with a Tranascation are Deleted,
-      we remove the Tx Records (i.e. PREPARE, COMMIT). */
-   private synchronized boolean cleanupTxRecords(List<Long> deletedRecords, List<Long> committedTx,
-                                                 PreparedStatement deleteJournalTxRecords) throws SQLException {
+      we remove the Tx Records (i.e. PREPARE, COMMIT). Returns the IDs of the transactions whose records can be deleted. */
+   private synchronized List<Long> cleanupTxRecords(List<Long> deletedRecords, List<Long> committedTx) {
       List<RecordInfo> iterableCopy;
       List<TransactionHolder> iterableCopyTx = new ArrayList<>();
       iterableCopyTx.addAll(transactions.values());
@@ -303,7 +424,7 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       for (Long txId : committedTx) {
          transactions.get(txId).committed = true;
       }
-      boolean hasDeletedJournalTxRecords = false;
+      List<Long> deletedJournalTxRecords = new ArrayList<>();
       // TODO (mtaylor) perhaps we could store a reverse mapping of IDs to prevent this O(n) loop
       for (TransactionHolder h : iterableCopyTx) {
 
@@ -317,13 +438,11 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          }
 
          if (h.recordInfos.isEmpty() && h.committed) {
-            deleteJournalTxRecords.setLong(1, h.transactionID);
-            deleteJournalTxRecords.addBatch();
-            hasDeletedJournalTxRecords = true;
+            deletedJournalTxRecords.add(h.transactionID);
             transactions.remove(h.transactionID);
          }
       }
-      return hasDeletedJournalTxRecords;
+      return deletedJournalTxRecords;
    }
 
    private void executeCallbacks(final List<JDBCJournalRecord> records, final boolean success) {
@@ -859,62 +978,130 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
    public synchronized JournalLoadInformation load(LoaderCallback reloadManager) {
       JournalLoadInformation jli = new JournalLoadInformation();
       JDBCJournalReaderCallback jrc = new JDBCJournalReaderCallback(reloadManager);
-      JDBCJournalRecord r;
 
-      try (Connection connection = connectionProvider.getConnection();
-           PreparedStatement selectJournalRecords = connection.prepareStatement(this.selectJournalRecords)) {
-         try (ResultSet rs = selectJournalRecords.executeQuery()) {
-            int noRecords = 0;
-            while (rs.next()) {
-               r = JDBCJournalRecord.readRecord(rs);
-               switch (r.getRecordType()) {
-                  case JDBCJournalRecord.ADD_RECORD:
-                     jrc.onReadAddRecord(r.toRecordInfo());
-                     break;
-                  case JDBCJournalRecord.UPDATE_RECORD:
-                     jrc.onReadUpdateRecord(r.toRecordInfo());
-                     break;
-                  case JDBCJournalRecord.DELETE_RECORD:
-                     jrc.onReadDeleteRecord(r.getId());
-                     break;
-                  case JDBCJournalRecord.ADD_RECORD_TX:
-                     jrc.onReadAddRecordTX(r.getTxId(), r.toRecordInfo());
-                     break;
-                  case JDBCJournalRecord.UPDATE_RECORD_TX:
-                     jrc.onReadUpdateRecordTX(r.getTxId(), r.toRecordInfo());
-                     break;
-                  case JDBCJournalRecord.DELETE_RECORD_TX:
-                     jrc.onReadDeleteRecordTX(r.getTxId(), r.toRecordInfo());
-                     break;
-                  case JDBCJournalRecord.PREPARE_RECORD:
-                     jrc.onReadPrepareRecord(r.getTxId(), r.getTxDataAsByteArray(), r.getTxCheckNoRecords());
-                     break;
-                  case JDBCJournalRecord.COMMIT_RECORD:
-                     jrc.onReadCommitRecord(r.getTxId(), r.getTxCheckNoRecords());
-                     break;
-                  case JDBCJournalRecord.ROLLBACK_RECORD:
-                     jrc.onReadRollbackRecord(r.getTxId());
-                     break;
-                  default:
-                     throw new Exception("Error Reading Journal, Unknown Record Type: " + r.getRecordType());
-               }
-               noRecords++;
-               if (r.getSeq() > seq.longValue()) {
-                  seq.set(r.getSeq());
-               }
-            }
-            jrc.checkPreparedTx();
-
-            jli.setMaxID(((JDBCJournalLoaderCallback) reloadManager).getMaxId());
-            jli.setNumberOfRecords(noRecords);
-            transactions = jrc.getTransactions();
+      try {
+         final int noRecords;
+         if (loadPartitions > 1 && selectJournalRecordsRange != null && selectJournalSeqRange != null) {
+            noRecords = loadPartitions(jrc);
+         } else {
+            noRecords = loadRecords(jrc);
          }
+         jrc.checkPreparedTx();
+
+         jli.setMaxID(((JDBCJournalLoaderCallback) reloadManager).getMaxId());
+         jli.setNumberOfRecords(noRecords);
+         transactions = jrc.getTransactions();
       } catch (Throwable e) {
          handleException(null, e);
       }
       return jli;
    }
 
+   private int loadRecords(JDBCJournalReaderCallback jrc) throws Exception {
+      int noRecords = 0;
+      try (Connection connection = connectionProvider.getConnection()) {
+         // some drivers (e.g. PostgreSQL) only fetch the results through a cursor within a transaction
+         connection.setAutoCommit(false);
+         try (PreparedStatement selectJournalRecords = connection.prepareStatement(this.selectJournalRecords)) {
+            selectJournalRecords.setFetchSize(loadFetchSize);
+            try (ResultSet rs = selectJournalRecords.executeQuery()) {
+               while (rs.next()) {
+                  onReadRecord(jrc, JDBCJournalRecord.readRecord(rs));
+                  noRecords++;
+               }
+            }
+         }
+         connection.commit();
+      }
+      return noRecords;
+   }
+
+   /* Splits the seq range of the journal in loadPartitions ranges, each one read on its own connection. The records
+      are still fed to the callback in seq order, the readers of the following ranges prefetching up to loadFetchSize
+      records each meanwhile. */
+   private int loadPartitions(JDBCJournalReaderCallback jrc) throws Exception {
+      final long minSeq;
+      final long maxSeq;
+      try (Connection connection = connectionProvider.getConnection();
+           PreparedStatement selectJournalSeqRange = connection.prepareStatement(this.selectJournalSeqRange);
+           ResultSet rs = selectJournalSeqRange.executeQuery()) {
+         rs.next();
+         minSeq = rs.getLong(1);
+         if (rs.wasNull()) {
+            // empty journal
+            return 0;
+         }
+         maxSeq = rs.getLong(2);
+      }
+
+      final long seqs = maxSeq - minSeq + 1;
+      final int partitions = (int) Math.min(loadPartitions, seqs);
+      final long partitionSeqs = (seqs + partitions - 1) / partitions;
+      final PartitionReader[] readers = new PartitionReader[partitions];
+      final ActiveMQThreadFactory threadFactory = new ActiveMQThreadFactory("ActiveMQ-JDBC-journal-load-" + sqlProvider.getTableName(), true, JDBCJournalImpl.class.getClassLoader());
+      final ExecutorService loadExecutor = Executors.newFixedThreadPool(partitions, threadFactory);
+      try {
+         for (int i = 0; i < partitions; i++) {
+            final long fromSeq = minSeq + i * partitionSeqs;
+            readers[i] = new PartitionReader(fromSeq, Math.min(fromSeq + partitionSeqs, maxSeq + 1));
+            loadExecutor.execute(readers[i]);
+         }
+         int noRecords = 0;
+         for (PartitionReader reader : readers) {
+            JDBCJournalRecord r;
+            while ((r = reader.take()) != null) {
+               onReadRecord(jrc, r);
+               noRecords++;
+            }
+         }
+         return noRecords;
+      } finally {
+         for (PartitionReader reader : readers) {
+            if (reader != null) {
+               reader.cancel();
+            }
+         }
+         loadExecutor.shutdown();
+      }
+   }
+
+   private void onReadRecord(JDBCJournalReaderCallback jrc, JDBCJournalRecord r) throws Exception {
+      switch (r.getRecordType()) {
+         case JDBCJournalRecord.ADD_RECORD:
+            jrc.onReadAddRecord(r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.UPDATE_RECORD:
+            jrc.onReadUpdateRecord(r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.DELETE_RECORD:
+            jrc.onReadDeleteRecord(r.getId());
+            break;
+         case JDBCJournalRecord.ADD_RECORD_TX:
+            jrc.onReadAddRecordTX(r.getTxId(), r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.UPDATE_RECORD_TX:
+            jrc.onReadUpdateRecordTX(r.getTxId(), r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.DELETE_RECORD_TX:
+            jrc.onReadDeleteRecordTX(r.getTxId(), r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.PREPARE_RECORD:
+            jrc.onReadPrepareRecord(r.getTxId(), r.getTxDataAsByteArray(), r.getTxCheckNoRecords());
+            break;
+         case JDBCJournalRecord.COMMIT_RECORD:
+            jrc.onReadCommitRecord(r.getTxId(), r.getTxCheckNoRecords());
+            break;
+         case JDBCJournalRecord.ROLLBACK_RECORD:
+            jrc.onReadRollbackRecord(r.getTxId());
+            break;
+         default:
+            throw new Exception("Error Reading Journal, Unknown Record Type: " + r.getRecordType());
+      }
+      if (r.getSeq() > seq.longValue()) {
+         seq.set(r.getSeq());
+      }
+   }
+
    @Override
    public JournalLoadInformation loadInternalOnly() throws Exception {
       return null;
@@ -1030,6 +1217,260 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       return started;
    }
 
+   /**
+    * The records of a single sync, written to the database in one transaction. Everything depending on the in memory
+    * transaction state is resolved by {@link #prepare()} while holding the journal lock, so that {@link #write()} can
+    * run on any thread.
+    */
+   private final class SyncBatch implements Runnable {
+
+      final List<JDBCJournalRecord> records;
+
+      // The records deleted by each COMMIT record of the batch, in record order
+      final List<long[]> commitDeletes = new ArrayList<>();
+
+      // Transactions whose records are all gone once the batch is committed
+      List<Long> cleanedTransactions = Collections.emptyList();
+
+      // Record and transaction IDs touched by the batch: batches sharing any of them are written one after the other
+      final Set<Long> recordIds = new HashSet<>();
+
+      final Set<Long> txIds = new HashSet<>();
+
+      // Batches in flight touching the same IDs, which must be committed before this one is written
+      final List<SyncBatch> predecessors = new ArrayList<>();
+
+      final CountDownLatch written = new CountDownLatch(1);
+
+      // guarded by pendingBatches
+      boolean done;
+
+      boolean success;
+
+      SyncBatch(List<JDBCJournalRecord> records) {
+         this.records = records;
+      }
+
+      // Must be called holding the journal lock
+      void prepare() {
+         // We keep a list of deleted records and committed tx (used for cleaning up old transaction data).
+         List<Long> deletedRecords = new ArrayList<>();
+         List<Long> committedTransactions = new ArrayList<>();
+
+         for (JDBCJournalRecord record : records) {
+            switch (record.getRecordType()) {
+               case JDBCJournalRecord.DELETE_RECORD:
+                  deletedRecords.add(record.getId());
+                  recordIds.add(record.getId());
+                  break;
+               case JDBCJournalRecord.ROLLBACK_RECORD:
+               case JDBCJournalRecord.PREPARE_RECORD:
+                  txIds.add(record.getTxId());
+                  break;
+               case JDBCJournalRecord.COMMIT_RECORD:
+                  TransactionHolder holder = transactions.get(record.getTxId());
+                  long[] deletes = new long[holder.recordsToDelete.size()];
+                  for (int i = 0; i < deletes.length; i++) {
+                     deletes[i] = holder.recordsToDelete.get(i).id;
+                     deletedRecords.add(record.getId());
+                     deletedRecords.add(deletes[i]);
+                     recordIds.add(deletes[i]);
+                  }
+                  commitDeletes.add(deletes);
+                  committedTransactions.add(record.getTxId());
+                  txIds.add(record.getTxId());
+                  break;
+               default:
+                  recordIds.add(record.getId());
+                  if (record.isTransactional()) {
+                     txIds.add(record.getTxId());
+                  }
+                  break;
+            }
+         }
+
+         cleanedTransactions = cleanupTxRecords(deletedRecords, committedTransactions);
+         txIds.addAll(cleanedTransactions);
+      }
+
+      boolean conflictsWith(SyncBatch other) {
+         return !Collections.disjoint(recordIds, other.recordIds) || !Collections.disjoint(txIds, other.txIds);
+      }
+
+      void write() throws SQLException {
+         try (Connection connection = connectionProvider.getConnection();
+              PreparedStatement deleteJournalRecords = connection.prepareStatement(JDBCJournalImpl.this.deleteJournalRecords);
+              PreparedStatement deleteJournalTxRecords = connection.prepareStatement(JDBCJournalImpl.this.deleteJournalTxRecords);
+              PreparedStatement insertJournalRecords = bulkInsertJournalRecords == null ? connection.prepareStatement(JDBCJournalImpl.this.insertJournalRecords) : null;
+              JournalRecordsBulkInsert.Batch bulkInserts = insertJournalRecords == null ? bulkInsertJournalRecords.prepare(connection) : null) {
+
+            connection.setAutoCommit(false);
+
+            int commits = 0;
+            for (JDBCJournalRecord record : records) {
+
+               if (logger.isTraceEnabled()) {
+                  logger.trace("sync::preparing JDBC statement for " + record);
+               }
+
+               switch (record.getRecordType()) {
+                  case JDBCJournalRecord.DELETE_RECORD:
+                     // Standard SQL Delete Record, Non transactional delete
+                     record.writeDeleteRecord(deleteJournalRecords);
+                     break;
+                  case JDBCJournalRecord.ROLLBACK_RECORD:
+                     // Roll back we remove all records associated with this TX ID.  This query is always performed last.
+                     deleteJournalTxRecords.setLong(1, record.getTxId());
+                     deleteJournalTxRecords.addBatch();
+                     break;
+                  case JDBCJournalRecord.COMMIT_RECORD:
+                     // We perform all the deletes and add the commit record in the same Database TX
+                     for (long id : commitDeletes.get(commits++)) {
+                        deleteJournalRecords.setLong(1, id);
+                        deleteJournalRecords.addBatch();
+                     }
+                     insert(record, insertJournalRecords, bulkInserts);
+                     break;
+                  default:
+                     // Default we add a new record to the DB
+                     insert(record, insertJournalRecords, bulkInserts);
+                     break;
+               }
+            }
+
+            if (insertJournalRecords != null) {
+               insertJournalRecords.executeBatch();
+            } else {
+               bulkInserts.execute();
+            }
+            deleteJournalRecords.executeBatch();
+            deleteJournalTxRecords.executeBatch();
+
+            connection.commit();
+            if (logger.isTraceEnabled()) {
+               logger.trace("JDBC commit worked");
+            }
+
+            if (!cleanedTransactions.isEmpty()) {
+               for (Long txId : cleanedTransactions) {
+                  deleteJournalTxRecords.setLong(1, txId);
+                  deleteJournalTxRecords.addBatch();
+               }
+               deleteJournalTxRecords.executeBatch();
+               connection.commit();
+               logger.trace("JDBC commit worked on cleanupTxRecords");
+            }
+         }
+      }
+
+      private void insert(JDBCJournalRecord record,
+                          PreparedStatement insertJournalRecords,
+                          JournalRecordsBulkInsert.Batch bulkInserts) throws Exception {
+         if (insertJournalRecords != null) {
+            record.writeRecord(insertJournalRecords);
+         } else {
+            record.writeRecord(bulkInserts);
+         }
+      }
+
+      @Override
+      public void run() {
+         boolean success = false;
+         try {
+            for (SyncBatch predecessor : predecessors) {
+               predecessor.written.await();
+            }
+            // a failed predecessor fails the journal, and the records depending on it with it
+            if (!failed.get()) {
+               write();
+               success = true;
+            }
+         } catch (Throwable e) {
+            handleException(null, e);
+         } finally {
+            written.countDown();
+            batchDone(this, success);
+         }
+      }
+   }
+
+   /**
+    * Reads the records of a seq range into a buffer of up to {@code loadFetchSize} records, from which they are taken
+    * in order by the loading thread.
+    */
+   private final class PartitionReader implements Runnable {
+
+      private final long fromSeq;
+
+      private final long toSeq;
+
+      // records, then END_OF_PARTITION or the Throwable that stopped the reader
+      private final BlockingQueue<Object> buffer = new LinkedBlockingQueue<>(loadFetchSize);
+
+      private volatile boolean cancelled;
+
+      PartitionReader(long fromSeq, long toSeq) {
+         this.fromSeq = fromSeq;
+         this.toSeq = toSeq;
+      }
+
+      @Override
+      public void run() {
+         try {
+            try (Connection connection = connectionProvider.getConnection()) {
+               connection.setAutoCommit(false);
+               try (PreparedStatement selectJournalRecordsRange = connection.prepareStatement(JDBCJournalImpl.this.selectJournalRecordsRange)) {
+                  selectJournalRecordsRange.setFetchSize(loadFetchSize);
+                  selectJournalRecordsRange.setLong(1, fromSeq);
+                  selectJournalRecordsRange.setLong(2, toSeq);
+                  try (ResultSet rs = selectJournalRecordsRange.executeQuery()) {
+                     while (rs.next()) {
+                        if (!put(JDBCJournalRecord.readRecord(rs))) {
+                           return;
+                        }
+                     }
+                  }
+               }
+               connection.commit();
+            }
+            put(END_OF_PARTITION);
+         } catch (Throwable e) {
+            try {
+               put(e);
+            } catch (InterruptedException ie) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
+
+      private boolean put(Object element) throws InterruptedException {
+         while (!cancelled) {
+            if (buffer.offer(element, 100, TimeUnit.MILLISECONDS)) {
+               return true;
+            }
+         }
+         return false;
+      }
+
+      /**
+       * Returns the next record of the range, or {@code null} once all of them have been taken.
+       */
+      JDBCJournalRecord take() throws Exception {
+         final Object element = buffer.take();
+         if (element == END_OF_PARTITION) {
+            return null;
+         }
+         if (element instanceof Throwable) {
+            throw new SQLException("Failed to read the journal records with seq in [" + fromSeq + ", " + toSeq + ")", (Throwable) element);
+         }
+         return (JDBCJournalRecord) element;
+      }
+
+      void cancel() {
+         cancelled = true;
+      }
+   }
+
    private static class JDBCJournalSync extends ActiveMQScheduledComponent {
 
       private final JDBCJournalImpl journal;
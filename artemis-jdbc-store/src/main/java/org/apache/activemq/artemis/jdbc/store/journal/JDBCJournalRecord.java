@@ -31,6 +31,7 @@ import org.apache.activemq.artemis.core.journal.EncodingSupport;
 import org.apache.activemq.artemis.core.journal.IOCompletion;
 import org.apache.activemq.artemis.core.persistence.Persister;
 import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.jdbc.store.sql.JournalRecordsBulkInsert;
 import org.apache.activemq.artemis.journal.ActiveMQJournalLogger;
 import org.apache.activemq.artemis.utils.ActiveMQBufferInputStream;
 
@@ -133,13 +134,7 @@ class JDBCJournalRecord {
       byte[] recordBytes = new byte[variableSize];
       byte[] txDataBytes = new byte[txDataSize];
 
-      try {
-         record.read(recordBytes);
-         txData.read(txDataBytes);
-      } catch (IOException e) {
-         ActiveMQJournalLogger.LOGGER.error("Error occurred whilst reading Journal Record", e);
-         throw e;
-      }
+      readData(recordBytes, txDataBytes);
 
       statement.setLong(1, id);
       statement.setByte(2, recordType);
@@ -155,6 +150,26 @@ class JDBCJournalRecord {
       statement.addBatch();
    }
 
+   void writeRecord(JournalRecordsBulkInsert.Batch batch) throws Exception {
+
+      byte[] recordBytes = new byte[variableSize];
+      byte[] txDataBytes = new byte[txDataSize];
+
+      readData(recordBytes, txDataBytes);
+
+      batch.addRecord(id, recordType, compactCount, txId, userRecordType, variableSize, recordBytes, txDataSize, txDataBytes, txCheckNoRecords, seq);
+   }
+
+   private void readData(byte[] recordBytes, byte[] txDataBytes) throws IOException {
+      try {
+         record.read(recordBytes);
+         txData.read(txDataBytes);
+      } catch (IOException e) {
+         ActiveMQJournalLogger.LOGGER.error("Error occurred whilst reading Journal Record", e);
+         throw e;
+      }
+   }
+
    void writeDeleteRecord(PreparedStatement deleteStatement) throws SQLException {
       deleteStatement.setLong(1, id);
       deleteStatement.addBatch();
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.jdbc.store.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Inserts journal records with a single statement binding one array per column, e.g. on PostgreSQL:
+ * <pre>
+ * INSERT INTO journal(id, ...) SELECT * FROM UNNEST(?::bigint[], ...)
+ * </pre>
+ * The arrays are created with {@link Connection#createArrayOf(String, Object[])} using the SQL type names of the
+ * columns: {@code bigint}, {@code smallint}, {@code integer} and {@code bytea}.
+ */
+final class ArrayJournalRecordsBulkInsert implements JournalRecordsBulkInsert {
+
+   private final String insertSQL;
+
+   ArrayJournalRecordsBulkInsert(String insertSQL) {
+      this.insertSQL = insertSQL;
+   }
+
+   @Override
+   public Batch prepare(Connection connection) {
+      return new JournalRowsBatch(connection) {
+         @Override
+         protected void insert(List<Row> rows) throws SQLException {
+            final int size = rows.size();
+            final Long[] id = new Long[size];
+            final Short[] recordType = new Short[size];
+            final Short[] compactCount = new Short[size];
+            final Long[] txId = new Long[size];
+            final Short[] userRecordType = new Short[size];
+            final Integer[] variableSize = new Integer[size];
+            final byte[][] record = new byte[size][];
+            final Integer[] txDataSize = new Integer[size];
+            final byte[][] txData = new byte[size][];
+            final Integer[] txCheckNoRecords = new Integer[size];
+            final Long[] seq = new Long[size];
+            for (int i = 0; i < size; i++) {
+               final Row row = rows.get(i);
+               id[i] = row.id;
+               recordType[i] = (short) row.recordType;
+               compactCount[i] = (short) row.compactCount;
+               txId[i] = row.txId;
+               userRecordType[i] = (short) row.userRecordType;
+               variableSize[i] = row.variableSize;
+               record[i] = row.record;
+               txDataSize[i] = row.txDataSize;
+               txData[i] = row.txData;
+               txCheckNoRecords[i] = row.txCheckNoRecords;
+               seq[i] = row.seq;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(insertSQL)) {
+               statement.setArray(1, connection.createArrayOf("bigint", id));
+               statement.setArray(2, connection.createArrayOf("smallint", recordType));
+               statement.setArray(3, connection.createArrayOf("smallint", compactCount));
+               statement.setArray(4, connection.createArrayOf("bigint", txId));
+               statement.setArray(5, connection.createArrayOf("smallint", userRecordType));
+               statement.setArray(6, connection.createArrayOf("integer", variableSize));
+               statement.setArray(7, connection.createArrayOf("bytea", record));
+               statement.setArray(8, connection.createArrayOf("integer", txDataSize));
+               statement.setArray(9, connection.createArrayOf("bytea", txData));
+               statement.setArray(10, connection.createArrayOf("integer", txCheckNoRecords));
+               statement.setArray(11, connection.createArrayOf("bigint", seq));
+               statement.executeUpdate();
+            }
+         }
+      };
+   }
+}
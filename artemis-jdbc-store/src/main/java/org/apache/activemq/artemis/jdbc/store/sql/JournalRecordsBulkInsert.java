@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.jdbc.store.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Inserts many journal records at once in a way native to a database (e.g. array binds or multi-row inserts), in
+ * place of a JDBC batch of {@link SQLProvider#getInsertJournalRecordsSQL()}.
+ *
+ * @see SQLProvider#getJournalRecordsBulkInsert()
+ */
+public interface JournalRecordsBulkInsert {
+
+   /**
+    * Starts collecting records to be inserted on the given connection, as part of its current transaction.
+    */
+   Batch prepare(Connection connection) throws SQLException;
+
+   interface Batch extends AutoCloseable {
+
+      /**
+       * Adds a record to the batch, with the columns of the journal table in their declaration order.
+       */
+      void addRecord(long id,
+                     byte recordType,
+                     byte compactCount,
+                     long txId,
+                     byte userRecordType,
+                     int variableSize,
+                     byte[] record,
+                     int txDataSize,
+                     byte[] txData,
+                     int txCheckNoRecords,
+                     long seq) throws SQLException;
+
+      /**
+       * Inserts the records added since the last execution.
+       */
+      void execute() throws SQLException;
+
+      @Override
+      void close() throws SQLException;
+   }
+}
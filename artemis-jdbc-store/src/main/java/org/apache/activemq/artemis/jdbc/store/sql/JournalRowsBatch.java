@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.jdbc.store.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the records of a {@link JournalRecordsBulkInsert.Batch} in memory, until they are inserted all at once.
+ */
+abstract class JournalRowsBatch implements JournalRecordsBulkInsert.Batch {
+
+   static final class Row {
+
+      final long id;
+      final byte recordType;
+      final byte compactCount;
+      final long txId;
+      final byte userRecordType;
+      final int variableSize;
+      final byte[] record;
+      final int txDataSize;
+      final byte[] txData;
+      final int txCheckNoRecords;
+      final long seq;
+
+      Row(long id,
+          byte recordType,
+          byte compactCount,
+          long txId,
+          byte userRecordType,
+          int variableSize,
+          byte[] record,
+          int txDataSize,
+          byte[] txData,
+          int txCheckNoRecords,
+          long seq) {
+         this.id = id;
+         this.recordType = recordType;
+         this.compactCount = compactCount;
+         this.txId = txId;
+         this.userRecordType = userRecordType;
+         this.variableSize = variableSize;
+         this.record = record;
+         this.txDataSize = txDataSize;
+         this.txData = txData;
+         this.txCheckNoRecords = txCheckNoRecords;
+         this.seq = seq;
+      }
+
+      /**
+       * Binds the row to the 11 parameters of {@code statement} starting at {@code index}, as
+       * {@link SQLProvider#getInsertJournalRecordsSQL()} does.
+       */
+      void bind(PreparedStatement statement, int index) throws SQLException {
+         statement.setLong(index, id);
+         statement.setByte(index + 1, recordType);
+         statement.setByte(index + 2, compactCount);
+         statement.setLong(index + 3, txId);
+         statement.setByte(index + 4, userRecordType);
+         statement.setInt(index + 5, variableSize);
+         statement.setBytes(index + 6, record);
+         statement.setInt(index + 7, txDataSize);
+         statement.setBytes(index + 8, txData);
+         statement.setInt(index + 9, txCheckNoRecords);
+         statement.setLong(index + 10, seq);
+      }
+   }
+
+   static final String COLUMNS = "id,recordType,compactCount,txId,userRecordType,variableSize,record,txDataSize,txData,txCheckNoRecords,seq";
+
+   static final int COLUMN_COUNT = 11;
+
+   protected final Connection connection;
+
+   private final List<Row> rows = new ArrayList<>();
+
+   JournalRowsBatch(Connection connection) {
+      this.connection = connection;
+   }
+
+   @Override
+   public void addRecord(long id,
+                         byte recordType,
+                         byte compactCount,
+                         long txId,
+                         byte userRecordType,
+                         int variableSize,
+                         byte[] record,
+                         int txDataSize,
+                         byte[] txData,
+                         int txCheckNoRecords,
+                         long seq) {
+      rows.add(new Row(id, recordType, compactCount, txId, userRecordType, variableSize, record, txDataSize, txData, txCheckNoRecords, seq));
+   }
+
+   @Override
+   public void execute() throws SQLException {
+      if (rows.isEmpty()) {
+         return;
+      }
+      try {
+         insert(rows);
+      } finally {
+         rows.clear();
+      }
+   }
+
+   protected abstract void insert(List<Row> rows) throws SQLException;
+
+   @Override
+   public void close() throws SQLException {
+      rows.clear();
+   }
+}
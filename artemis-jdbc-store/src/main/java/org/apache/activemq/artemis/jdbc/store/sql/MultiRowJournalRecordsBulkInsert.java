@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.jdbc.store.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Inserts journal records with {@code INSERT INTO ... VALUES (...), (...)} statements of up to {@code maxRows} rows,
+ * for the databases supporting multi-row inserts.
+ */
+public class MultiRowJournalRecordsBulkInsert implements JournalRecordsBulkInsert {
+
+   private final String tableName;
+
+   private final int maxRows;
+
+   private final String maxRowsInsert;
+
+   public MultiRowJournalRecordsBulkInsert(String tableName, int maxRows) {
+      if (maxRows <= 0) {
+         throw new IllegalArgumentException("maxRows must be greater than 0");
+      }
+      this.tableName = tableName;
+      this.maxRows = maxRows;
+      this.maxRowsInsert = insertSQL(maxRows);
+   }
+
+   public int getMaxRows() {
+      return maxRows;
+   }
+
+   String insertSQL(int rows) {
+      final StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append('(').append(JournalRowsBatch.COLUMNS).append(") VALUES ");
+      for (int i = 0; i < rows; i++) {
+         if (i > 0) {
+            sql.append(',');
+         }
+         sql.append('(');
+         for (int c = 0; c < JournalRowsBatch.COLUMN_COUNT; c++) {
+            if (c > 0) {
+               sql.append(',');
+            }
+            sql.append('?');
+         }
+         sql.append(')');
+      }
+      return sql.toString();
+   }
+
+   @Override
+   public Batch prepare(Connection connection) {
+      return new JournalRowsBatch(connection) {
+
+         // the statement for the chunks of maxRows rows, reused by every execution of the batch
+         private PreparedStatement maxRowsStatement;
+
+         @Override
+         protected void insert(List<Row> rows) throws SQLException {
+            final int size = rows.size();
+            final int fullChunksEnd = size - size % maxRows;
+            if (fullChunksEnd > 0) {
+               if (maxRowsStatement == null) {
+                  maxRowsStatement = connection.prepareStatement(maxRowsInsert);
+               }
+               for (int chunk = 0; chunk < fullChunksEnd; chunk += maxRows) {
+                  bind(maxRowsStatement, rows, chunk, maxRows);
+                  maxRowsStatement.addBatch();
+               }
+               maxRowsStatement.executeBatch();
+            }
+            final int remaining = size - fullChunksEnd;
+            if (remaining > 0) {
+               try (PreparedStatement statement = connection.prepareStatement(insertSQL(remaining))) {
+                  bind(statement, rows, fullChunksEnd, remaining);
+                  statement.executeUpdate();
+               }
+            }
+         }
+
+         @Override
+         public void close() throws SQLException {
+            super.close();
+            if (maxRowsStatement != null) {
+               maxRowsStatement.close();
+               maxRowsStatement = null;
+            }
+         }
+      };
+   }
+
+   private static void bind(PreparedStatement statement, List<JournalRowsBatch.Row> rows, int from, int count) throws SQLException {
+      for (int i = 0; i < count; i++) {
+         rows.get(from + i).bind(statement, 1 + i * JournalRowsBatch.COLUMN_COUNT);
+      }
+   }
+}
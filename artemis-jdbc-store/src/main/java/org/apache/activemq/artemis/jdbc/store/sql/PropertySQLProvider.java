@@ -98,11 +98,30 @@ public class PropertySQLProvider implements SQLProvider {
       return format(sql("insert-journal-record"), tableName);
    }
 
+   @Override
+   public JournalRecordsBulkInsert getJournalRecordsBulkInsert() {
+      final String bulkInsertJournalRecords = sql("bulk-insert-journal-record");
+      if (bulkInsertJournalRecords == null) {
+         return null;
+      }
+      return new ArrayJournalRecordsBulkInsert(format(bulkInsertJournalRecords, tableName));
+   }
+
    @Override
    public String getSelectJournalRecordsSQL() {
       return format(sql("select-journal-record"), tableName);
    }
 
+   @Override
+   public String getSelectJournalRecordsRangeSQL() {
+      return format(sql("select-journal-record-range"), tableName);
+   }
+
+   @Override
+   public String getSelectJournalSeqRangeSQL() {
+      return format(sql("select-journal-seq-range"), tableName);
+   }
+
    @Override
    public String getDeleteJournalRecordsSQL() {
       return format(sql("delete-journal-record"), tableName);
@@ -30,10 +30,34 @@ public interface SQLProvider {
 
    String getSelectJournalRecordsSQL();
 
+   /**
+    * Returns the SQL selecting the journal records whose seq is between the 2 parameters (inclusive and exclusive),
+    * ordered by seq, or {@code null} if the journal can only be loaded through {@link #getSelectJournalRecordsSQL()}.
+    */
+   default String getSelectJournalRecordsRangeSQL() {
+      return null;
+   }
+
+   /**
+    * Returns the SQL selecting the minimum and maximum seq of the journal records, or {@code null} if the journal can
+    * only be loaded through {@link #getSelectJournalRecordsSQL()}.
+    */
+   default String getSelectJournalSeqRangeSQL() {
+      return null;
+   }
+
    String getDeleteJournalRecordsSQL();
 
    String getDeleteJournalTxRecordsSQL();
 
+   /**
+    * Returns a way to insert many journal records at once native to the database, or {@code null} to insert them
+    * with a JDBC batch of {@link #getInsertJournalRecordsSQL()}.
+    */
+   default JournalRecordsBulkInsert getJournalRecordsBulkInsert() {
+      return null;
+   }
+
    String getTableName();
 
    String getCreateFileTableSQL();
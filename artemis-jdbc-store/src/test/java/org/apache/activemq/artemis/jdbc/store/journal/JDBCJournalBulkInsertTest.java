@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.jdbc.store.journal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
+import org.apache.activemq.artemis.core.journal.PreparedTransactionInfo;
+import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.jdbc.store.drivers.JDBCConnectionProvider;
+import org.apache.activemq.artemis.jdbc.store.drivers.JDBCDataSourceUtils;
+import org.apache.activemq.artemis.jdbc.store.sql.JournalRecordsBulkInsert;
+import org.apache.activemq.artemis.jdbc.store.sql.MultiRowJournalRecordsBulkInsert;
+import org.apache.activemq.artemis.jdbc.store.sql.PropertySQLProvider;
+import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
+import org.apache.activemq.artemis.utils.ThreadLeakCheckRule;
+import org.apache.derby.jdbc.EmbeddedDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.apache.activemq.artemis.jdbc.store.sql.PropertySQLProvider.Factory.SQLDialect.DERBY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JDBCJournalBulkInsertTest {
+
+   @Rule
+   public ThreadLeakCheckRule leakCheckRule = new ThreadLeakCheckRule();
+
+   private static final String TABLE_NAME = "BULK_JOURNAL";
+
+   private ScheduledExecutorService scheduledExecutor;
+
+   private ExecutorService executor;
+
+   private JDBCConnectionProvider connectionProvider;
+
+   private CountingBulkInsert bulkInsert;
+
+   private JDBCJournalImpl journal;
+
+   /**
+    * Derby supports multi-row inserts, which makes it good enough to exercise a bulk insert.
+    */
+   private final class BulkInsertSQLProvider extends PropertySQLProvider {
+
+      BulkInsertSQLProvider(Properties sqlProperties) {
+         super(DERBY, TABLE_NAME, sqlProperties);
+      }
+
+      @Override
+      public JournalRecordsBulkInsert getJournalRecordsBulkInsert() {
+         return bulkInsert;
+      }
+   }
+
+   private static final class CountingBulkInsert implements JournalRecordsBulkInsert {
+
+      private final JournalRecordsBulkInsert delegate;
+
+      final AtomicInteger records = new AtomicInteger();
+
+      final AtomicInteger executions = new AtomicInteger();
+
+      CountingBulkInsert(JournalRecordsBulkInsert delegate) {
+         this.delegate = delegate;
+      }
+
+      @Override
+      public Batch prepare(Connection connection) throws SQLException {
+         final Batch batch = delegate.prepare(connection);
+         return new Batch() {
+            @Override
+            public void addRecord(long id,
+                                  byte recordType,
+                                  byte compactCount,
+                                  long txId,
+                                  byte userRecordType,
+                                  int variableSize,
+                                  byte[] record,
+                                  int txDataSize,
+                                  byte[] txData,
+                                  int txCheckNoRecords,
+                                  long seq) throws SQLException {
+               records.incrementAndGet();
+               batch.addRecord(id, recordType, compactCount, txId, userRecordType, variableSize, record, txDataSize, txData, txCheckNoRecords, seq);
+            }
+
+            @Override
+            public void execute() throws SQLException {
+               executions.incrementAndGet();
+               batch.execute();
+            }
+
+            @Override
+            public void close() throws SQLException {
+               batch.close();
+            }
+         };
+      }
+   }
+
+   @Before
+   public void setup() throws Exception {
+      scheduledExecutor = new ScheduledThreadPoolExecutor(1, ActiveMQThreadFactory.defaultThreadFactory());
+      executor = Executors.newSingleThreadExecutor(ActiveMQThreadFactory.defaultThreadFactory());
+      Map<String, Object> dataSourceProperties = new HashMap<>();
+      dataSourceProperties.put("url", "jdbc:derby:target/data;create=true");
+      dataSourceProperties.put("driverClassName", EmbeddedDriver.class.getCanonicalName());
+      connectionProvider = new JDBCConnectionProvider(JDBCDataSourceUtils.getDataSource(ActiveMQDefaultConfiguration.getDefaultDataSourceClassName(), dataSourceProperties));
+      bulkInsert = new CountingBulkInsert(new MultiRowJournalRecordsBulkInsert(TABLE_NAME, 4));
+      journal = createJournal();
+      journal.start();
+   }
+
+   private JDBCJournalImpl createJournal() throws IOException {
+      final Properties sqlProperties = new Properties();
+      try (InputStream stream = PropertySQLProvider.class.getClassLoader().getResourceAsStream("journal-sql.properties")) {
+         sqlProperties.load(stream);
+      }
+      final JDBCJournalImpl created = new JDBCJournalImpl(connectionProvider, new BulkInsertSQLProvider(sqlProperties), scheduledExecutor, executor, (code, message, file) -> {
+      }, 5);
+      created.setBulkInsert(true);
+      return created;
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      journal.destroy();
+      try {
+         DriverManager.getConnection("jdbc:derby:;shutdown=true");
+      } catch (Exception ignored) {
+      }
+      scheduledExecutor.shutdownNow();
+      scheduledExecutor.awaitTermination(5, TimeUnit.SECONDS);
+      executor.shutdown();
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+   }
+
+   @Test
+   public void testInsertRecords() throws Exception {
+      final int noRecords = 10;
+      for (int i = 0; i < noRecords; i++) {
+         journal.appendAddRecord(i, (byte) 1, new byte[]{(byte) i}, i == noRecords - 1);
+      }
+
+      assertEquals(noRecords, journal.getNumberOfRecords());
+      assertEquals(noRecords, bulkInsert.records.get());
+      assertTrue(bulkInsert.executions.get() > 0);
+   }
+
+   @Test
+   public void testBulkInsertIsOptIn() throws Exception {
+      journal.stop();
+      journal = createJournal();
+      journal.setBulkInsert(false);
+      journal.start();
+
+      final int noRecords = 10;
+      for (int i = 0; i < noRecords; i++) {
+         journal.appendAddRecord(i, (byte) 1, new byte[]{(byte) i}, i == noRecords - 1);
+      }
+
+      assertEquals(noRecords, journal.getNumberOfRecords());
+      assertEquals(0, bulkInsert.records.get());
+      assertEquals(0, bulkInsert.executions.get());
+   }
+
+   @Test
+   public void testLoadBulkInsertedRecords() throws Exception {
+      // enough records for several full statements and a partial one
+      for (int i = 0; i < 10; i++) {
+         journal.appendAddRecord(i, (byte) 1, new byte[]{(byte) i}, false);
+      }
+      journal.appendUpdateRecord(1, (byte) 2, new byte[]{42}, false);
+      journal.appendDeleteRecord(2, false);
+      journal.appendAddRecordTransactional(100, 20, (byte) 1, new byte[]{20});
+      journal.appendAddRecordTransactional(100, 21, (byte) 1, new byte[]{21});
+      journal.appendCommitRecord(100, false);
+      journal.appendAddRecordTransactional(101, 30, (byte) 1, new byte[]{30});
+      journal.appendPrepareRecord(101, new byte[]{1, 2, 3}, true);
+      journal.stop();
+
+      final JDBCJournalImpl reloaded = createJournal();
+      reloaded.start();
+      try {
+         final List<RecordInfo> committedRecords = new ArrayList<>();
+         final List<PreparedTransactionInfo> preparedTransactions = new ArrayList<>();
+         reloaded.load(committedRecords, preparedTransactions, null, false);
+
+         final Map<Long, byte[]> loaded = new HashMap<>();
+         for (RecordInfo info : committedRecords) {
+            loaded.put(info.id, info.data);
+         }
+         assertEquals(11, loaded.size());
+         assertArrayEquals(new byte[]{42}, loaded.get(1L));
+         assertArrayEquals(new byte[]{0}, loaded.get(0L));
+         assertArrayEquals(new byte[]{21}, loaded.get(21L));
+
+         assertEquals(1, preparedTransactions.size());
+         assertEquals(101, preparedTransactions.get(0).getId());
+         assertArrayEquals(new byte[]{1, 2, 3}, preparedTransactions.get(0).getExtraData());
+      } finally {
+         reloaded.stop();
+      }
+   }
+}
@@ -587,6 +587,15 @@ public class ActiveMQConnectionFactory extends JNDIStorable implements Connectio
       serverLocator.setConsumerMaxRate(consumerMaxRate);
    }
 
+   public synchronized boolean isAdaptiveConsumerWindow() {
+      return serverLocator.isAdaptiveConsumerWindow();
+   }
+
+   public synchronized void setAdaptiveConsumerWindow(final boolean adaptiveConsumerWindow) {
+      checkWrite();
+      serverLocator.setAdaptiveConsumerWindow(adaptiveConsumerWindow);
+   }
+
    public synchronized int getConfirmationWindowSize() {
       return serverLocator.getConfirmationWindowSize();
    }
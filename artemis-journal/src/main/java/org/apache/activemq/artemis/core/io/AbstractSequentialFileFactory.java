@@ -110,6 +110,11 @@ public abstract class AbstractSequentialFileFactory implements SequentialFileFac
       return bufferSize;
    }
 
+   @Override
+   public TimedBuffer getTimedBuffer() {
+      return timedBuffer;
+   }
+
    @Override
    public int getAlignment() {
       if (alignment < 0) {
@@ -20,6 +20,7 @@ import java.io.File;
 import java.nio.ByteBuffer;
 import java.util.List;
 
+import org.apache.activemq.artemis.core.io.buffer.TimedBuffer;
 import org.apache.activemq.artemis.utils.critical.CriticalAnalyzer;
 
 /**
@@ -125,4 +126,24 @@ public interface SequentialFileFactory {
    boolean isDatasync();
 
    long getBufferSize();
+
+   /**
+    * @return the {@link TimedBuffer} shared by the files of this factory, {@code null} if not buffered
+    */
+   default TimedBuffer getTimedBuffer() {
+      return null;
+   }
+
+   /**
+    * Enables the adaptive group commit of the {@link TimedBuffer}, if any.
+    *
+    * @see TimedBuffer#setAdaptive(boolean)
+    */
+   default SequentialFileFactory setAdaptiveBufferTimeout(boolean adaptive) {
+      final TimedBuffer timedBuffer = getTimedBuffer();
+      if (timedBuffer != null) {
+         timedBuffer.setAdaptive(adaptive);
+      }
+      return this;
+   }
 }
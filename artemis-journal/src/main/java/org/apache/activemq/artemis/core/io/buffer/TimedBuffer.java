@@ -88,6 +88,20 @@ public final class TimedBuffer extends CriticalComponentImpl {
    // no need to be volatile as every access is synchronized
    private boolean spinning = false;
 
+   // When adaptive, the timer doesn't wait for the rest of the timeout after a flush if the observed rate of sync
+   // requests won't bring any other sync request in the meantime: in that case waiting would just add latency
+   private volatile boolean adaptive = false;
+
+   // moving average of the time between sync requests, 0 means not known yet; guarded by this
+   private long syncInterArrivalNanos = 0;
+
+   // guarded by this
+   private long lastSyncArrivalNanos = 0;
+
+   private final AtomicLong immediateFlushes = new AtomicLong(0);
+
+   private final AtomicLong timedFlushes = new AtomicLong(0);
+
 
 
    public TimedBuffer(CriticalAnalyzer analyzer, final int size, final int timeout, final boolean logRates) {
@@ -115,6 +129,42 @@ public final class TimedBuffer extends CriticalComponentImpl {
       this.timeout = timeout;
    }
 
+   /**
+    * Enables the adaptive group commit: after a flush the timer only waits for the rest of the timeout if the
+    * current rate of sync requests is expected to bring more of them within that time, otherwise the next sync
+    * request is flushed right away.
+    */
+   public TimedBuffer setAdaptive(boolean adaptive) {
+      this.adaptive = adaptive;
+      return this;
+   }
+
+   public boolean isAdaptive() {
+      return adaptive;
+   }
+
+   /**
+    * @return the number of flushes of the timer after which the next sync request is flushed as soon as it comes,
+    * because the flush took the whole timeout or, on adaptive mode, no other sync request was expected in the rest of it
+    */
+   public long getImmediateFlushes() {
+      return immediateFlushes.get();
+   }
+
+   /**
+    * @return the number of flushes of the timer after which the next sync request waits for the rest of the timeout
+    */
+   public long getTimedFlushes() {
+      return timedFlushes.get();
+   }
+
+   /**
+    * @return the moving average of the time between sync requests in nanoseconds, {@code 0} if not known yet
+    */
+   public synchronized long getSyncInterArrivalNanos() {
+      return syncInterArrivalNanos;
+   }
+
    public void start() {
       try (ArtemisCloseable critical = measureCritical(CRITICAL_PATH_START)) {
          synchronized (this) {
@@ -268,6 +318,10 @@ public final class TimedBuffer extends CriticalComponentImpl {
             callbacks.add(callback);
 
             if (sync) {
+               if (adaptive) {
+                  onSyncArrival();
+               }
+
                pendingSync = true;
 
                startSpin();
@@ -290,6 +344,10 @@ public final class TimedBuffer extends CriticalComponentImpl {
             callbacks.add(callback);
 
             if (sync) {
+               if (adaptive) {
+                  onSyncArrival();
+               }
+
                pendingSync = true;
 
                startSpin();
@@ -344,6 +402,46 @@ public final class TimedBuffer extends CriticalComponentImpl {
       }
    }
 
+   /**
+    * Must be called holding the lock on this.
+    */
+   private void onSyncArrival() {
+      final long now = System.nanoTime();
+      if (lastSyncArrivalNanos != 0) {
+         // cap idle periods: a long pause shouldn't take many samples to be forgotten once the load is back
+         final long interArrival = Math.min(now - lastSyncArrivalNanos, 2L * timeout);
+         if (syncInterArrivalNanos == 0) {
+            syncInterArrivalNanos = interArrival;
+         } else {
+            // exponential moving average with 1/8 weight for the new sample
+            syncInterArrivalNanos += (interArrival - syncInterArrivalNanos) >> 3;
+         }
+      }
+      lastSyncArrivalNanos = now;
+   }
+
+   /**
+    * Decides, once per flush of the timer, if the next sync request waits for {@code timeToSleep}, the rest of the
+    * timeout, to be batched with other ones.
+    * <p>
+    * The timeout is the budget of flushes given to the device, so the wait is either kept or skipped, never shortened:
+    * on adaptive mode it's skipped when no other sync request is expected before it's over. Shortening it while sync
+    * requests keep coming would just flush more often than the timeout allows.
+    */
+   private boolean waitsAfterFlush(long timeToSleep) {
+      if (timeToSleep <= 0 || adaptive && isSyncUnexpected(timeToSleep)) {
+         immediateFlushes.incrementAndGet();
+         return false;
+      }
+      timedFlushes.incrementAndGet();
+      return true;
+   }
+
+   private boolean isSyncUnexpected(long timeToSleep) {
+      final long interArrival = getSyncInterArrivalNanos();
+      return interArrival != 0 && interArrival >= timeToSleep;
+   }
+
    /**
     * Sub classes (tests basically) can use this to override how the sleep is being done
     *
@@ -432,6 +530,8 @@ public final class TimedBuffer extends CriticalComponentImpl {
       public void run() {
          long lastFlushTime = System.nanoTime();
          boolean useSleep = true;
+         // when spinning, whether the next sync request waits for the timeout since the last flush
+         boolean waitTimeout = true;
 
          while (!closed) {
             // We flush on the timer if there are pending syncs there and we've waited at least one
@@ -452,14 +552,16 @@ public final class TimedBuffer extends CriticalComponentImpl {
                      //          timeFromTheLastFlush would be the difference
                      //          And if the device took more than that time, there's no need to wait at all.
                      final long timeToSleep = timeout - timeFromTheLastFlush;
-                     if (timeToSleep > 0) {
+                     if (waitsAfterFlush(timeToSleep)) {
                         useSleep = sleepIfPossible(timeToSleep);
                      }
                   }
-               } else if (bufferObserver != null && System.nanoTime() - lastFlushTime > timeout) {
+               } else if (bufferObserver != null && System.nanoTime() - lastFlushTime > (waitTimeout ? timeout : 0)) {
                   lastFlushTime = System.nanoTime();
                   // if not using flush we will spin and do the time checks manually
-                  flush();
+                  if (flushBatch()) {
+                     waitTimeout = waitsAfterFlush(timeout - (System.nanoTime() - lastFlushTime));
+                  }
                }
             }
 
@@ -349,6 +349,22 @@ public interface Journal extends ActiveMQComponent {
 
    int getFileSize();
 
+   /**
+    * Returns the total number of bytes freed by compacting since this journal was created.
+    */
+   default long getCompactBytesReclaimed() {
+      return 0;
+   }
+
+   /**
+    * Returns the total time, in nanoseconds, appends were blocked by compacting since this journal was created.
+    * <p>
+    * Compacting only blocks appends while it swaps the journal structures, at its start and at its end.
+    */
+   default long getCompactPauseTime() {
+      return 0;
+   }
+
    /**
     * This method will start compact using the compactorExecutor and block up to timeout seconds
     *
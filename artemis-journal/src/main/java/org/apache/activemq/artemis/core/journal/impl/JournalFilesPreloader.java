@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.journal.impl;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.util.collection.ByteObjectHashMap;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
+
+/**
+ * Reads and parses journal files ahead of {@link JournalImpl#load} on a bounded pool of threads.
+ *
+ * <p>Every file is parsed into a list of recorded reader events, which are later replayed on the loading thread
+ * in the same order as the files were given. The state of the journal is only ever touched by the replay, so the
+ * result of the load is the same as reading the files one by one.</p>
+ *
+ * <p>At most {@code parallelism} files are parsed ahead of the file being replayed, as the next one is submitted
+ * before replaying: up to {@code parallelism + 1} parsed files, each holding a copy of its record data, are kept in
+ * memory at once. Every file being parsed also holds a direct buffer as large as the file while it is read.</p>
+ */
+final class JournalFilesPreloader implements AutoCloseable {
+
+   private final SequentialFileFactory fileFactory;
+
+   private final List<JournalFile> files;
+
+   private final ByteObjectHashMap<Boolean> replaceableRecords;
+
+   private final ExecutorService executor;
+
+   private final ArrayDeque<Future<RecordedFile>> pending;
+
+   private int nextFile = 0;
+
+   JournalFilesPreloader(final SequentialFileFactory fileFactory,
+                         final List<JournalFile> files,
+                         final ByteObjectHashMap<Boolean> replaceableRecords,
+                         final int parallelism) {
+      this.fileFactory = fileFactory;
+      this.files = files;
+      this.replaceableRecords = replaceableRecords;
+      this.pending = new ArrayDeque<>(parallelism);
+
+      ThreadFactory factory = AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
+         @Override
+         public ThreadFactory run() {
+            return new ActiveMQThreadFactory("ArtemisJournalLoader", true, JournalImpl.class.getClassLoader());
+         }
+      });
+
+      this.executor = Executors.newFixedThreadPool(parallelism, factory);
+
+      for (int i = 0; i < parallelism; i++) {
+         submitNext();
+      }
+   }
+
+   private void submitNext() {
+      if (nextFile < files.size()) {
+         final JournalFile file = files.get(nextFile++);
+         pending.add(executor.submit(() -> {
+            RecordedFile recorded = new RecordedFile(file);
+            recorded.lastDataPos = JournalImpl.readJournalFile(fileFactory, file, recorded, null, false, replaceableRecords);
+            return recorded;
+         }));
+      }
+   }
+
+   /**
+    * Replays the events of the next file on {@code reader}, the same way {@link JournalImpl#readJournalFile} would
+    * have called it.
+    *
+    * @return the last valid data position of the file, as returned by {@link JournalImpl#readJournalFile}
+    */
+   int replay(final JournalFile file, final JournalReaderCallback reader) throws Exception {
+      final Future<RecordedFile> future = pending.poll();
+      if (future == null) {
+         throw new IllegalStateException("No more files to replay, expected " + file.getFile().getFileName());
+      }
+      // keep the pool busy while this file is being replayed
+      submitNext();
+
+      final RecordedFile recorded;
+      try {
+         recorded = future.get();
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof Exception) {
+            throw (Exception) e.getCause();
+         }
+         throw e;
+      }
+
+      if (recorded.file != file) {
+         throw new IllegalStateException("Journal files replayed out of order, expected " + file.getFile().getFileName() +
+                                            " but got " + recorded.file.getFile().getFileName());
+      }
+
+      recorded.replay(reader);
+
+      return recorded.lastDataPos;
+   }
+
+   @Override
+   public void close() {
+      for (Future<RecordedFile> future : pending) {
+         future.cancel(false);
+      }
+      pending.clear();
+      executor.shutdown();
+   }
+
+   private interface ReaderEvent {
+
+      void replay(JournalReaderCallback reader) throws Exception;
+   }
+
+   /**
+    * Records every call made by {@link JournalImpl#readJournalFile} so it can be replayed later.
+    */
+   private static final class RecordedFile implements JournalReaderCallback {
+
+      private final JournalFile file;
+
+      private final List<ReaderEvent> events = new ArrayList<>();
+
+      private int lastDataPos;
+
+      private RecordedFile(final JournalFile file) {
+         this.file = file;
+      }
+
+      void replay(final JournalReaderCallback reader) throws Exception {
+         for (ReaderEvent event : events) {
+            event.replay(reader);
+         }
+         events.clear();
+      }
+
+      @Override
+      public void onReadEventRecord(final RecordInfo info) {
+         events.add(reader -> reader.onReadEventRecord(info));
+      }
+
+      @Override
+      public void done() {
+         events.add(JournalReaderCallback::done);
+      }
+
+      @Override
+      public void onReadAddRecord(final RecordInfo info) {
+         events.add(reader -> reader.onReadAddRecord(info));
+      }
+
+      @Override
+      public void onReadUpdateRecord(final RecordInfo info) {
+         events.add(reader -> reader.onReadUpdateRecord(info));
+      }
+
+      @Override
+      public void onReadDeleteRecord(final long recordID) {
+         events.add(reader -> reader.onReadDeleteRecord(recordID));
+      }
+
+      @Override
+      public void onReadAddRecordTX(final long transactionID, final RecordInfo info) {
+         events.add(reader -> reader.onReadAddRecordTX(transactionID, info));
+      }
+
+      @Override
+      public void onReadUpdateRecordTX(final long transactionID, final RecordInfo info) {
+         events.add(reader -> reader.onReadUpdateRecordTX(transactionID, info));
+      }
+
+      @Override
+      public void onReadDeleteRecordTX(final long transactionID, final RecordInfo info) {
+         events.add(reader -> reader.onReadDeleteRecordTX(transactionID, info));
+      }
+
+      @Override
+      public void onReadPrepareRecord(final long transactionID, final byte[] extraData, final int numberOfRecords) {
+         events.add(reader -> reader.onReadPrepareRecord(transactionID, extraData, numberOfRecords));
+      }
+
+      @Override
+      public void onReadCommitRecord(final long transactionID, final int numberOfRecords) {
+         events.add(reader -> reader.onReadCommitRecord(transactionID, numberOfRecords));
+      }
+
+      @Override
+      public void onReadRollbackRecord(final long transactionID) {
+         events.add(reader -> reader.onReadRollbackRecord(transactionID));
+      }
+
+      @Override
+      public void markAsDataFile(final JournalFile file) {
+         events.add(reader -> reader.markAsDataFile(file));
+      }
+   }
+}
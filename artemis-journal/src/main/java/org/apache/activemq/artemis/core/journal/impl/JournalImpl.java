@@ -207,6 +207,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    private volatile boolean autoReclaim = true;
 
+   private int loadParallelism = 1;
+
    private final int userVersion;
 
    private final int minFiles;
@@ -339,12 +341,29 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       replaceableRecords.put(recordType, Boolean.TRUE);
    }
 
+   /**
+    * Number of journal files read and parsed concurrently during {@link #load(LoaderCallback)}.
+    * Records are still applied in file order, so values {@code <= 1} and any value {@code > 1} load the same data.
+    */
+   public JournalImpl setLoadParallelism(int loadParallelism) {
+      this.loadParallelism = loadParallelism;
+      return this;
+   }
+
+   public int getLoadParallelism() {
+      return loadParallelism;
+   }
+
    private volatile JournalFile currentFile;
 
    private volatile JournalState state = JournalState.STOPPED;
 
    private volatile int compactCount = 0;
 
+   private final AtomicLong compactBytesReclaimed = new AtomicLong(0);
+
+   private final AtomicLong compactPauseTime = new AtomicLong(0);
+
    public float getCompactPercentage() {
       return compactPercentage;
    }
@@ -1910,6 +1929,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             SequentialFile controlFile = createControlFile(dataFilesToProcess, compactor.getNewDataFiles(), null);
 
             journalLock.writeLock().lock();
+            final long lockedAt = System.nanoTime();
             try {
                // Need to clear the compactor here, or the replay commands will send commands back (infinite loop)
                compactor = null;
@@ -1966,12 +1986,18 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                return;
             } finally {
                journalLock.writeLock().unlock();
+               compactPauseTime.addAndGet(System.nanoTime() - lockedAt);
             }
 
             // At this point the journal is unlocked. We keep renaming files while the journal is already operational
             renameFiles(dataFilesToProcess, newDatafiles);
             deleteControlFile(controlFile);
 
+            final int reclaimedFiles = dataFilesToProcess.size() - newDatafiles.size();
+            if (reclaimedFiles > 0) {
+               compactBytesReclaimed.addAndGet((long) reclaimedFiles * fileSize);
+            }
+
             if (logger.isDebugEnabled()) {
                logger.debug("Flushing compacting on journal " + this);
             }
@@ -1979,7 +2005,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             setAutoReclaim(previousReclaimValue);
 
             if (logger.isDebugEnabled()) {
-               logger.debug("Finished compacting on journal " + this);
+               logger.debug("Finished compacting on journal " + this + ", " + dataFilesToProcess.size() + " files compacted into " + newDatafiles.size() +
+                               ", total bytes reclaimed = " + compactBytesReclaimed.get() + ", total pause time = " + TimeUnit.NANOSECONDS.toMillis(compactPauseTime.get()) + " ms");
             }
 
          } catch (Throwable e) {
@@ -2008,6 +2035,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       // We need to guarantee that the journal is frozen for this short time
       // We don't freeze the journal as we compact, only for the short time where we replace records
       journalLock.writeLock().lock();
+      final long lockedAt = System.nanoTime();
       try {
          if (state != JournalState.LOADED) {
             return null;
@@ -2047,6 +2075,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          records.clear();
       } finally {
          journalLock.writeLock().unlock();
+         compactPauseTime.addAndGet(System.nanoTime() - lockedAt);
       }
 
       processBackup();
@@ -2106,7 +2135,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    private synchronized JournalLoadInformation load(final LoaderCallback loadManager,
                                                     final boolean changeData,
                                                     final JournalState replicationSync,
-                                                    final AtomicReference<ByteBuffer> wholeFileBufferRef) throws Exception {
+                                                    final AtomicReference<ByteBuffer> wholeFileBufferRef,
+                                                    final AtomicReference<JournalFilesPreloader> preloaderRef) throws Exception {
       JournalState state;
       assert (state = this.state) != JournalState.STOPPED &&
          state != JournalState.LOADED &&
@@ -2132,12 +2162,15 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       // AtomicLong is used only as a reference, not as an Atomic value
       final AtomicLong maxID = new AtomicLong(-1);
 
+      final JournalFilesPreloader preloader = loadParallelism > 1 && orderedFiles.size() > 1 ? new JournalFilesPreloader(fileFactory, orderedFiles, this.replaceableRecords, loadParallelism) : null;
+      preloaderRef.lazySet(preloader);
+
       for (final JournalFile file : orderedFiles) {
          logger.trace("Loading file " + file.getFile().getFileName());
 
          final AtomicBoolean hasData = new AtomicBoolean(false);
 
-         int resultLastPost = JournalImpl.readJournalFile(fileFactory, file, new JournalReaderCallback() {
+         int resultLastPost = readOrReplayJournalFile(preloader, file, new JournalReaderCallback() {
 
             private void checkID(final long id) {
                if (id > maxID.longValue()) {
@@ -2359,7 +2392,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                hasData.lazySet(true);
             }
 
-         }, wholeFileBufferRef, false, this.replaceableRecords);
+         }, wholeFileBufferRef);
 
          if (hasData.get()) {
             lastDataPos = resultLastPost;
@@ -2429,15 +2462,34 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       }
       // AtomicReference is used only as a reference, not as an Atomic value
       final AtomicReference<ByteBuffer> wholeFileBufferRef = new AtomicReference<>();
+      final AtomicReference<JournalFilesPreloader> preloaderRef = new AtomicReference<>();
       try {
-         return load(loadManager, changeData, replicationSync, wholeFileBufferRef);
+         return load(loadManager, changeData, replicationSync, wholeFileBufferRef, preloaderRef);
       } finally {
          final ByteBuffer wholeFileBuffer = wholeFileBufferRef.get();
          if (wholeFileBuffer != null) {
             fileFactory.releaseDirectBuffer(wholeFileBuffer);
             wholeFileBufferRef.lazySet(null);
          }
+         final JournalFilesPreloader preloader = preloaderRef.get();
+         if (preloader != null) {
+            preloader.close();
+            preloaderRef.lazySet(null);
+         }
+      }
+   }
+
+   /**
+    * Reads {@code file} on {@code reader}, replaying it from {@code preloader} if the files are being preloaded.
+    */
+   private int readOrReplayJournalFile(final JournalFilesPreloader preloader,
+                                       final JournalFile file,
+                                       final JournalReaderCallback reader,
+                                       final AtomicReference<ByteBuffer> wholeFileBufferRef) throws Exception {
+      if (preloader != null) {
+         return preloader.replay(file, reader);
       }
+      return JournalImpl.readJournalFile(fileFactory, file, reader, wholeFileBufferRef, false, this.replaceableRecords);
    }
 
 
@@ -3694,4 +3746,14 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    public int getCompactCount() {
       return compactCount;
    }
+
+   @Override
+   public long getCompactBytesReclaimed() {
+      return compactBytesReclaimed.get();
+   }
+
+   @Override
+   public long getCompactPauseTime() {
+      return compactPauseTime.get();
+   }
 }
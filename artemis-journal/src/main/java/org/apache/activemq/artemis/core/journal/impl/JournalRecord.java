@@ -26,8 +26,12 @@ import static org.apache.activemq.artemis.utils.Preconditions.checkNotNull;
  */
 public class JournalRecord {
 
-   // use a very small size to account for near empty cases
-   private static int INITIAL_FILES_CAPACITY = 5;
+   // most updated records (eg delivery count and scheduled delivery updates) only ever have updates on a single
+   // file, given that consecutive updates on the same file are merged: start with a single slot, that saves 48 bytes
+   // per updated live record with compressed oops (Object[1] and long[1] instead of Object[5] and long[5])
+   private static final int INITIAL_FILES_CAPACITY = 1;
+   // records updated across files grow straight to the capacity they used to start with, to not reallocate per file
+   private static final int MULTIPLE_FILES_CAPACITY = 5;
    private final JournalFile addFile;
    private final int size;
 
@@ -67,6 +71,9 @@ public class JournalRecord {
             return;
          }
       }
+      if (files == INITIAL_FILES_CAPACITY) {
+         fileUpdates.ensureCapacity(MULTIPLE_FILES_CAPACITY);
+      }
       fileUpdates.add(updateFile, bytes, 1);
       updateFile.incPosCount();
       updateFile.addSize(bytes);
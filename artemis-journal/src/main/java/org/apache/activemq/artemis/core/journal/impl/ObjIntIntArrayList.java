@@ -62,6 +62,17 @@ final class ObjIntIntArrayList<T> {
       grow(expectedCapacity, currentCapacity);
    }
 
+   /**
+    * Grows the capacity, if needed, to hold at least {@code minCapacity} elements without further allocations.
+    */
+   void ensureCapacity(int minCapacity) {
+      final int currentCapacity = objects.length;
+      if (minCapacity - currentCapacity <= 0) {
+         return;
+      }
+      grow(minCapacity, currentCapacity);
+   }
+
    private void grow(int expectedCapacity, int currentCapacity) {
       assert expectedCapacity - currentCapacity > 0;
       int newCapacity = currentCapacity + (currentCapacity >> 1);
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.journal.impl;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
+import org.jboss.logging.Logger;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * It measures the heap allocated on the update path of {@link JournalRecord} with the allocated bytes of the current
+ * thread, against an {@link ObjIntIntArrayList} created with the initial capacity of 5 files records used to have.
+ */
+public class JournalRecordTest {
+
+   private static final Logger log = Logger.getLogger(JournalRecordTest.class);
+
+   private static final int RECORDS = 10_000;
+
+   private static final int PREVIOUS_FILES_CAPACITY = 5;
+
+   @Rule
+   public TemporaryFolder temporaryFolder;
+
+   private JournalFile[] files;
+
+   public JournalRecordTest() {
+      File parent = new File("./target");
+      parent.mkdirs();
+      temporaryFolder = new TemporaryFolder(parent);
+   }
+
+   @Before
+   public void createFiles() {
+      final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+      Assume.assumeTrue(((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled());
+      final SequentialFileFactory factory = new NIOSequentialFileFactory(temporaryFolder.getRoot(), 1);
+      files = new JournalFile[PREVIOUS_FILES_CAPACITY + 1];
+      for (int i = 0; i < files.length; i++) {
+         files[i] = new JournalFileImpl(factory.createSequentialFile("test-" + i + ".amq"), i, JournalImpl.FORMAT_VERSION);
+      }
+      // warm up: don't account class loading and initialization
+      allocatedBytesPerRecord(PREVIOUS_FILES_CAPACITY, 2);
+      allocatedBytesPerList(PREVIOUS_FILES_CAPACITY, PREVIOUS_FILES_CAPACITY);
+   }
+
+   @Test
+   public void updatesOnSingleFileShouldAllocateOneSlot() {
+      final long updates = allocatedBytesPerRecord(1, 10) - allocatedBytesPerRecord(0, 0);
+      final long previousUpdates = allocatedBytesPerList(PREVIOUS_FILES_CAPACITY, 1);
+      log.debug("bytes allocated per record by updates on a single file: " + updates + ", previously " + previousUpdates);
+      // Object[5] and long[5] vs Object[1] and long[1]: 48 bytes with compressed oops, 64 bytes without
+      Assert.assertTrue("saved bytes = " + (previousUpdates - updates), previousUpdates - updates >= 48);
+   }
+
+   @Test
+   public void updatesAcrossFilesShouldReallocateOnce() {
+      final long updates = allocatedBytesPerRecord(PREVIOUS_FILES_CAPACITY, 1) - allocatedBytesPerRecord(0, 0);
+      final long previousUpdates = allocatedBytesPerList(PREVIOUS_FILES_CAPACITY, PREVIOUS_FILES_CAPACITY);
+      final long singleSlot = allocatedBytesPerList(1, 0) - allocatedBytesPerList(0, 0);
+      log.debug("bytes allocated per record by updates across " + PREVIOUS_FILES_CAPACITY + " files: " + updates +
+                   ", previously " + previousUpdates + ", single slot arrays: " + singleSlot);
+      // the only additional cost is the single slot arrays, replaced on the update of the second file
+      Assert.assertEquals(previousUpdates + singleSlot, updates);
+   }
+
+   private long allocatedBytesPerRecord(int updateFiles, int updatesPerFile) {
+      final JournalRecord[] records = new JournalRecord[RECORDS];
+      final long start = allocatedBytes();
+      for (int i = 0; i < RECORDS; i++) {
+         final JournalRecord record = new JournalRecord(files[0], 100);
+         for (int file = 1; file <= updateFiles; file++) {
+            for (int update = 0; update < updatesPerFile; update++) {
+               record.addUpdateFile(files[file], 10, false);
+            }
+         }
+         records[i] = record;
+      }
+      return (allocatedBytes() - start) / records.length;
+   }
+
+   private long allocatedBytesPerList(int initialCapacity, int updateFiles) {
+      final Object[] lists = new Object[RECORDS];
+      final long start = allocatedBytes();
+      for (int i = 0; i < RECORDS; i++) {
+         final ObjIntIntArrayList<JournalFile> list = new ObjIntIntArrayList<>(initialCapacity);
+         for (int file = 1; file <= updateFiles; file++) {
+            list.add(files[file], 10, 1);
+         }
+         lists[i] = list;
+      }
+      return (allocatedBytes() - start) / lists.length;
+   }
+
+   private static long allocatedBytes() {
+      return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+   }
+}
@@ -31,7 +31,7 @@ import java.util.Map;
 import java.util.Set;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQPropertyConversionException;
@@ -735,10 +735,10 @@ public abstract class AMQPMessage extends RefCountMessage implements org.apache.
    /**
     * Gets a ByteBuf from the Message that contains the encoded bytes to be sent on the wire.
     * <p>
-    * When possible this method will present the bytes to the caller without copying them into
-    * a new buffer copy.  If copying is needed a new Netty buffer is created and returned. The
-    * caller should ensure that the reference count on the returned buffer is always decremented
-    * to avoid a leak in the case of a copied buffer being returned.
+    * The bytes of the message are never copied: when the header or the delivery annotations have
+    * to be rewritten the returned buffer is a composite of the rewritten sections and of a view on
+    * the remaining sections of the message.  The returned buffer is never pooled, so the caller
+    * doesn't need to release it, but it must not be kept beyond the message data.
     *
     * @param deliveryCount
     *       The new delivery count for this message.
@@ -766,13 +766,17 @@ public abstract class AMQPMessage extends RefCountMessage implements org.apache.
       }
    }
 
-   /** it will create a copy with the relevant delivery annotation and its copy */
+   /**
+    * it will compose the relevant header and delivery annotation with a view on the other sections of the message,
+    * without copying them
+    */
    protected ReadableBuffer createDeliveryCopy(int deliveryCount, DeliveryAnnotations deliveryAnnotations) {
       ReadableBuffer duplicate = getData().duplicate();
 
       final int amqpDeliveryCount = deliveryCount - 1;
 
-      final ByteBuf result = PooledByteBufAllocator.DEFAULT.heapBuffer(getEncodeSize());
+      // only the rewritten sections are encoded, they're usually a few dozens of bytes
+      final ByteBuf result = Unpooled.buffer(encodedHeaderSize + encodedDeliveryAnnotationsSize + getDeliveryAnnotationsForSendBufferSize() + 32);
 
       // If this is re-delivering the message then the header must be re-encoded
       // otherwise we want to write the original header if present.  When a
@@ -797,9 +801,8 @@ public abstract class AMQPMessage extends RefCountMessage implements org.apache.
       writeDeliveryAnnotationsForSendBuffer(result, deliveryAnnotations);
       // skip existing delivery annotations of the original message
       duplicate.position(encodedHeaderSize + encodedDeliveryAnnotationsSize);
-      result.writeBytes(duplicate.byteBuffer());
 
-      return new NettyReadable(result);
+      return new NettyReadable(Unpooled.wrappedBuffer(result, Unpooled.wrappedBuffer(duplicate.byteBuffer())));
    }
 
    protected void writeDeliveryAnnotationsForSendBuffer(ByteBuf result, DeliveryAnnotations deliveryAnnotations) {
@@ -805,12 +805,11 @@ public class ProtonServerSenderContext extends ProtonInitializable implements Pr
    }
 
    private void deliverStandard(MessageReference messageReference, AMQPMessage message) {
-      // Let the Message decide how to present the message bytes
+      // Let the Message decide how to present the message bytes, they're never copied nor pooled
       ReadableBuffer sendBuffer = message.getSendBuffer(messageReference.getDeliveryCount(), messageReference);
       // we only need a tag if we are going to settle later
       byte[] tag = preSettle ? new byte[0] : protonSession.getTag();
 
-      boolean releaseRequired = sendBuffer instanceof NettyReadable;
       final Delivery delivery;
       delivery = sender.delivery(tag, 0, tag.length);
       delivery.setMessageFormat((int) message.getMessageFormat());
@@ -818,15 +817,8 @@ public class ProtonServerSenderContext extends ProtonInitializable implements Pr
 
       try {
 
-         if (releaseRequired) {
-            sender.send(sendBuffer);
-            // Above send copied, so release now if needed
-            releaseRequired = false;
-            ((NettyReadable) sendBuffer).getByteBuf().release();
-         } else {
-            // Don't have pooled content, no need to release or copy.
-            sender.sendNoCopy(sendBuffer);
-         }
+         // Don't have pooled content, no need to release or copy.
+         sender.sendNoCopy(sendBuffer);
 
          if (preSettle) {
             // Presettled means the client implicitly accepts any delivery we send it.
@@ -845,9 +837,6 @@ public class ProtonServerSenderContext extends ProtonInitializable implements Pr
          synchronized (creditsLock) {
             pending.decrementAndGet();
          }
-         if (releaseRequired) {
-            ((NettyReadable) sendBuffer).getByteBuf().release();
-         }
       }
    }
 
@@ -213,6 +213,11 @@ public class NettyReadable implements ReadableBuffer {
 
       if (buffer.hasArray()) {
          target.put(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes());
+      } else if (buffer.nioBufferCount() > 1) {
+         // a composite buffer would be merged into a copy by nioBuffer()
+         for (ByteBuffer component : buffer.nioBuffers()) {
+            target.put(component);
+         }
       } else {
          target.put(buffer.nioBuffer());
       }
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -84,6 +85,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 
 public class AMQPMessageTest {
@@ -1847,6 +1849,19 @@ public class AMQPMessageTest {
       assertEquals(6, copyProtonMessage.getHeader().getDeliveryCount().intValue());
    }
 
+   @Test
+   public void testGetSendBufferDoesNotCopyMessage() {
+      AMQPStandardMessage message = new AMQPStandardMessage(0, encodedProtonMessage, null, null);
+
+      ReadableBuffer buffer = message.getSendBuffer(7, null);
+      assertTrue(buffer instanceof NettyReadable);
+      CompositeByteBuf composite = (CompositeByteBuf) ((NettyReadable) buffer).getByteBuf();
+      assertEquals(2, composite.numComponents());
+      // the rewritten header is followed by a view on the other sections of the message
+      assertSame(encodedProtonMessage, composite.component(1).array());
+      assertEquals(6, new AMQPStandardMessage(0, buffer, null, null).getProtonMessage().getHeader().getDeliveryCount().intValue());
+   }
+
    @Test
    public void testGetSendBufferRemoveDeliveryAnnotations() {
       MessageImpl protonMessage = createProtonMessage();
@@ -2041,14 +2056,14 @@ public class AMQPMessageTest {
       AMQPStandardMessage decoded = encodeAndDecodeMessage(protonMessage);
 
       ReadableBuffer sendBuffer = decoded.getSendBuffer(1, null);
-      assertEquals(decoded.getEncodeSize(), sendBuffer.capacity());
+      assertTrue(sendBuffer.capacity() <= decoded.getEncodeSize());
       AMQPStandardMessage msgFromSendBuffer = new AMQPStandardMessage(0, sendBuffer, null, null);
       assertEquals("someNiceLocal", msgFromSendBuffer.getAddress());
       assertNull(msgFromSendBuffer.getDeliveryAnnotations());
 
       // again with higher deliveryCount
       ReadableBuffer sendBuffer2 = decoded.getSendBuffer(5, null);
-      assertEquals(decoded.getEncodeSize(), sendBuffer2.capacity());
+      assertTrue(sendBuffer2.capacity() <= decoded.getEncodeSize());
       AMQPStandardMessage msgFromSendBuffer2 = new AMQPStandardMessage(0, sendBuffer2, null, null);
       assertEquals("someNiceLocal", msgFromSendBuffer2.getAddress());
       assertNull(msgFromSendBuffer2.getDeliveryAnnotations());
@@ -2074,7 +2089,7 @@ public class AMQPMessageTest {
       decoded.setDeliveryAnnotationsForSendBuffer(newDeliveryAnnotations);
 
       ReadableBuffer sendBuffer = decoded.getSendBuffer(1, null);
-      assertEquals(decoded.getEncodeSize(), sendBuffer.capacity());
+      assertTrue(sendBuffer.capacity() <= decoded.getEncodeSize());
       AMQPStandardMessage msgFromSendBuffer = new AMQPStandardMessage(0, sendBuffer, null, null);
       assertEquals("someNiceLocal", msgFromSendBuffer.getAddress());
       assertNotNull(msgFromSendBuffer.getDeliveryAnnotations());
@@ -2089,7 +2104,7 @@ public class AMQPMessageTest {
       decoded.setDeliveryAnnotationsForSendBuffer(newDeliveryAnnotations2);
 
       ReadableBuffer sendBuffer2 = decoded.getSendBuffer(5, null);
-      assertEquals(decoded.getEncodeSize(), sendBuffer2.capacity());
+      assertTrue(sendBuffer2.capacity() <= decoded.getEncodeSize());
       AMQPStandardMessage msgFromSendBuffer2 = new AMQPStandardMessage(0, sendBuffer2, null, null);
       assertEquals("someNiceLocal", msgFromSendBuffer2.getAddress());
       assertNotNull(msgFromSendBuffer2.getDeliveryAnnotations());
@@ -2116,7 +2131,7 @@ public class AMQPMessageTest {
       decoded.setDeliveryAnnotationsForSendBuffer(newDeliveryAnnotations);
 
       ReadableBuffer sendBuffer = decoded.getSendBuffer(1, null);
-      assertEquals(decoded.getEncodeSize(), sendBuffer.capacity());
+      assertTrue(sendBuffer.capacity() <= decoded.getEncodeSize());
       AMQPStandardMessage msgFromSendBuffer = new AMQPStandardMessage(0, sendBuffer, null, null);
       assertEquals("someNiceLocal", msgFromSendBuffer.getAddress());
       assertNull(msgFromSendBuffer.getProtonMessage().getHeader());
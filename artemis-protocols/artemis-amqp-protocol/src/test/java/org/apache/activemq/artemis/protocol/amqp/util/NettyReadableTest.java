@@ -261,6 +261,19 @@ public class NettyReadableTest {
       }
    }
 
+   @Test
+   public void testGetBytesToWritableBufferFromComposite() {
+      byte[] header = new byte[] {0, 1};
+      byte[] body = new byte[] {2, 3, 4};
+      NettyReadable buffer = new NettyReadable(Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(header), Unpooled.wrappedBuffer(body)));
+      ByteBuf targetBuffer = Unpooled.buffer(5, 5);
+      NettyWritable target = new NettyWritable(targetBuffer);
+
+      buffer.get(target);
+      assertFalse(buffer.hasRemaining());
+      assertArrayEquals(new byte[] {0, 1, 2, 3, 4}, targetBuffer.array());
+   }
+
    @Test
    public void testDuplicate() {
       byte[] data = new byte[] {0, 1, 2, 3, 4};
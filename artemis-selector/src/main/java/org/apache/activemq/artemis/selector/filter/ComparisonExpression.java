@@ -42,6 +42,13 @@ public abstract class ComparisonExpression extends BinaryExpression implements B
       convertStringExpressions = CONVERT_STRING_EXPRESSIONS.get() != null;
    }
 
+   /**
+    * @return {@code true} if string values are converted to the type of the value they are compared with
+    */
+   public boolean isConvertStringExpressions() {
+      return convertStringExpressions;
+   }
+
    public static BooleanExpression createBetween(Expression value, Expression left, Expression right) {
       return LogicExpression.createAND(createGreaterThanEqual(value, left), createLessThanEqual(value, right));
    }
@@ -44,6 +44,10 @@ public class PropertyExpression implements Expression {
       return name.toString();
    }
 
+   SimpleString getSimpleName() {
+      return name;
+   }
+
    /**
     * @see java.lang.Object#toString()
     */
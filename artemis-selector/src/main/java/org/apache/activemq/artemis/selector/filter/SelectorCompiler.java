@@ -0,0 +1,445 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.selector.filter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+
+/**
+ * Compiles a parsed selector into a tree of {@link MethodHandle}s the JIT turns into code specialized for the
+ * selector: the property lookups are bound to their names, the comparisons with a literal to the type of the literal
+ * and the {@code AND}, {@code OR} and {@code NOT} operators are combinators working on a three-valued {@code int}, so
+ * evaluating the selector neither boxes the intermediate results nor dispatches on the type of each node.
+ * <p>
+ * The compiled selector evaluates exactly as the interpreted one: the nodes that have no specialized form are
+ * evaluated by their interpreted expression, and the selectors using XPath or XQuery aren't compiled at all.
+ */
+public final class SelectorCompiler {
+
+   // the three-valued results of the compiled expressions
+   private static final int TRUE = 1;
+   private static final int FALSE = 0;
+   private static final int UNKNOWN = -1;
+
+   // the results of comparing a property with a literal that aren't an ordering
+   private static final int NULL_VALUE = Integer.MIN_VALUE;
+   private static final int INCOMPARABLE = Integer.MIN_VALUE + 1;
+
+   private static final MethodHandle GET_PROPERTY;
+   private static final MethodHandle INTERPRET;
+   private static final MethodHandle IS_TRUE;
+   private static final MethodHandle NOT;
+   private static final MethodHandle BOOLEAN_VALUE;
+   private static final MethodHandle IS_NULL;
+   private static final MethodHandle IN;
+   private static final MethodHandle LIKE;
+   private static final MethodHandle COMPARE_TO_INTEGRAL;
+   private static final MethodHandle COMPARE_TO_FLOATING;
+   private static final MethodHandle COMPARE_EQUALS;
+   private static final MethodHandle EQUAL;
+   private static final MethodHandle GREATER_THAN;
+   private static final MethodHandle GREATER_THAN_EQUAL;
+   private static final MethodHandle LESS_THAN;
+   private static final MethodHandle LESS_THAN_EQUAL;
+
+   static {
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      try {
+         GET_PROPERTY = lookup.findVirtual(Filterable.class, "getProperty", MethodType.methodType(Object.class, SimpleString.class));
+         INTERPRET = lookup.findStatic(SelectorCompiler.class, "interpret", MethodType.methodType(int.class, BooleanExpression.class, Filterable.class));
+         IS_TRUE = lookup.findStatic(SelectorCompiler.class, "isTrue", MethodType.methodType(boolean.class, int.class));
+         NOT = lookup.findStatic(SelectorCompiler.class, "not", MethodType.methodType(int.class, int.class));
+         BOOLEAN_VALUE = lookup.findStatic(SelectorCompiler.class, "booleanValue", MethodType.methodType(int.class, Object.class));
+         IS_NULL = lookup.findStatic(SelectorCompiler.class, "isNull", MethodType.methodType(int.class, Object.class));
+         IN = lookup.findStatic(SelectorCompiler.class, "in", MethodType.methodType(int.class, Set.class, boolean.class, Object.class));
+         LIKE = lookup.findStatic(SelectorCompiler.class, "like", MethodType.methodType(int.class, Pattern.class, Object.class));
+         COMPARE_TO_INTEGRAL = lookup.findStatic(SelectorCompiler.class, "compareToIntegral", MethodType.methodType(int.class, long.class, boolean.class, boolean.class, Object.class));
+         COMPARE_TO_FLOATING = lookup.findStatic(SelectorCompiler.class, "compareToFloating", MethodType.methodType(int.class, double.class, boolean.class, boolean.class, Object.class));
+         COMPARE_EQUALS = lookup.findStatic(SelectorCompiler.class, "compareEquals", MethodType.methodType(int.class, Object.class, Object.class));
+         EQUAL = lookup.findStatic(SelectorCompiler.class, "equal", MethodType.methodType(int.class, int.class));
+         GREATER_THAN = lookup.findStatic(SelectorCompiler.class, "greaterThan", MethodType.methodType(int.class, int.class));
+         GREATER_THAN_EQUAL = lookup.findStatic(SelectorCompiler.class, "greaterThanEqual", MethodType.methodType(int.class, int.class));
+         LESS_THAN = lookup.findStatic(SelectorCompiler.class, "lessThan", MethodType.methodType(int.class, int.class));
+         LESS_THAN_EQUAL = lookup.findStatic(SelectorCompiler.class, "lessThanEqual", MethodType.methodType(int.class, int.class));
+      } catch (ReflectiveOperationException e) {
+         throw new ExceptionInInitializerError(e);
+      }
+   }
+
+   private SelectorCompiler() {
+   }
+
+   /**
+    * A selector compiled by {@link #compile(BooleanExpression)}.
+    */
+   public static final class CompiledExpression implements BooleanExpression {
+
+      private final BooleanExpression source;
+
+      // (Filterable)int
+      private final MethodHandle handle;
+
+      private CompiledExpression(BooleanExpression source, MethodHandle handle) {
+         this.source = source;
+         this.handle = handle;
+      }
+
+      /**
+       * @return the interpreted expression this one was compiled from
+       */
+      public BooleanExpression getSource() {
+         return source;
+      }
+
+      @Override
+      public Object evaluate(Filterable message) throws FilterException {
+         final int result = invoke(message);
+         return result == UNKNOWN ? null : result == TRUE;
+      }
+
+      @Override
+      public boolean matches(Filterable message) throws FilterException {
+         return invoke(message) == TRUE;
+      }
+
+      private int invoke(Filterable message) throws FilterException {
+         try {
+            return (int) handle.invokeExact(message);
+         } catch (FilterException | RuntimeException | Error e) {
+            throw e;
+         } catch (Throwable t) {
+            // the compiled nodes can only throw what the interpreted ones do
+            throw new IllegalStateException(t);
+         }
+      }
+
+      @Override
+      public String toString() {
+         return source.toString();
+      }
+   }
+
+   /**
+    * @return the compiled form of {@code expression}, or {@code expression} itself if it cannot be compiled
+    */
+   public static BooleanExpression compile(BooleanExpression expression) {
+      if (expression == null || expression instanceof CompiledExpression || isContentBased(expression)) {
+         return expression;
+      }
+      final MethodHandle handle = compileNode(expression);
+      if (handle == null) {
+         // there is nothing to gain compiling a single interpreted node
+         return expression;
+      }
+      return new CompiledExpression(expression, handle);
+   }
+
+   private static boolean isContentBased(Expression expression) {
+      if (expression instanceof XPathExpression || expression instanceof XQueryExpression) {
+         return true;
+      }
+      if (expression instanceof BinaryExpression) {
+         final BinaryExpression binary = (BinaryExpression) expression;
+         return isContentBased(binary.getLeft()) || isContentBased(binary.getRight());
+      }
+      if (expression instanceof UnaryExpression) {
+         return isContentBased(((UnaryExpression) expression).getRight());
+      }
+      return false;
+   }
+
+   /**
+    * @return a {@code (Filterable)int} handle evaluating {@code expression}, or {@code null} if it has no specialized
+    * form
+    */
+   private static MethodHandle compileNode(BooleanExpression expression) {
+      if (expression instanceof LogicExpression) {
+         return compileLogic((LogicExpression) expression);
+      }
+      if (expression instanceof ComparisonExpression) {
+         return compileComparison((ComparisonExpression) expression);
+      }
+      if (expression instanceof UnaryExpression.InExpression) {
+         final UnaryExpression.InExpression in = (UnaryExpression.InExpression) expression;
+         final MethodHandle test = MethodHandles.insertArguments(IN, 0, new HashSet<>(in.getElements()), in.isNot());
+         return MethodHandles.filterReturnValue(property(in.getProperty()), test);
+      }
+      if (expression instanceof ComparisonExpression.LikeExpression) {
+         final ComparisonExpression.LikeExpression like = (ComparisonExpression.LikeExpression) expression;
+         if (!(like.getRight() instanceof PropertyExpression)) {
+            return null;
+         }
+         final MethodHandle test = MethodHandles.insertArguments(LIKE, 0, like.likePattern);
+         return MethodHandles.filterReturnValue(property((PropertyExpression) like.getRight()), test);
+      }
+      if (expression instanceof UnaryExpression) {
+         return compileUnary((UnaryExpression) expression);
+      }
+      if (expression instanceof ConstantExpression) {
+         final Object value = ((ConstantExpression) expression).getValue();
+         if (value != null && !(value instanceof Boolean)) {
+            return null;
+         }
+         final int result = value == null ? UNKNOWN : value == Boolean.TRUE ? TRUE : FALSE;
+         return MethodHandles.dropArguments(MethodHandles.constant(int.class, result), 0, Filterable.class);
+      }
+      return null;
+   }
+
+   /**
+    * @return the compiled form of {@code expression}, or a handle evaluating it with the interpreter
+    */
+   private static MethodHandle compileOrInterpret(BooleanExpression expression) {
+      final MethodHandle handle = compileNode(expression);
+      if (handle != null) {
+         return handle;
+      }
+      return MethodHandles.insertArguments(INTERPRET, 0, expression);
+   }
+
+   private static MethodHandle compileLogic(LogicExpression logic) {
+      final boolean and;
+      switch (logic.getExpressionSymbol()) {
+         case "AND":
+            and = true;
+            break;
+         case "OR":
+            and = false;
+            break;
+         default:
+            return null;
+      }
+      final MethodHandle left = compileOrInterpret((BooleanExpression) logic.getLeft());
+      final MethodHandle right = MethodHandles.dropArguments(compileOrInterpret((BooleanExpression) logic.getRight()), 0, int.class);
+      // (int, Filterable)int returning the result of the left operand
+      final MethodHandle leftResult = MethodHandles.dropArguments(MethodHandles.identity(int.class), 1, Filterable.class);
+      // AND evaluates the right operand only if the left one is true, OR only if it isn't
+      final MethodHandle operator = and ? MethodHandles.guardWithTest(IS_TRUE, right, leftResult) : MethodHandles.guardWithTest(IS_TRUE, leftResult, right);
+      return MethodHandles.foldArguments(operator, left);
+   }
+
+   private static MethodHandle compileUnary(UnaryExpression unary) {
+      switch (unary.getExpressionSymbol()) {
+         case "NOT":
+            return MethodHandles.filterReturnValue(compileOrInterpret((BooleanExpression) unary.getRight()), NOT);
+         case "":
+            // a boolean cast
+            if (unary instanceof BooleanExpression && unary.getRight() instanceof PropertyExpression) {
+               return MethodHandles.filterReturnValue(property((PropertyExpression) unary.getRight()), BOOLEAN_VALUE);
+            }
+            return null;
+         default:
+            return null;
+      }
+   }
+
+   private static MethodHandle compileComparison(ComparisonExpression comparison) {
+      if (comparison.isConvertStringExpressions()) {
+         return null;
+      }
+      final PropertyExpression property;
+      final ConstantExpression constant;
+      final boolean reversed;
+      if (comparison.getLeft() instanceof PropertyExpression && comparison.getRight() instanceof ConstantExpression) {
+         property = (PropertyExpression) comparison.getLeft();
+         constant = (ConstantExpression) comparison.getRight();
+         reversed = false;
+      } else if (comparison.getLeft() instanceof ConstantExpression && comparison.getRight() instanceof PropertyExpression) {
+         property = (PropertyExpression) comparison.getRight();
+         constant = (ConstantExpression) comparison.getLeft();
+         reversed = true;
+      } else {
+         return null;
+      }
+      // the literal is always compared as the right operand, swapping the operator if it's the left one
+      final MethodHandle result;
+      switch (comparison.getExpressionSymbol()) {
+         case "=":
+            result = EQUAL;
+            break;
+         case ">":
+            result = reversed ? LESS_THAN : GREATER_THAN;
+            break;
+         case ">=":
+            result = reversed ? LESS_THAN_EQUAL : GREATER_THAN_EQUAL;
+            break;
+         case "<":
+            result = reversed ? GREATER_THAN : LESS_THAN;
+            break;
+         case "<=":
+            result = reversed ? GREATER_THAN_EQUAL : LESS_THAN_EQUAL;
+            break;
+         default:
+            return null;
+      }
+      final boolean ordering = result != EQUAL;
+      final Object value = constant.getValue();
+      final MethodHandle compare;
+      if (value == null) {
+         // IS NULL
+         if (ordering) {
+            return null;
+         }
+         return MethodHandles.filterReturnValue(property(property), IS_NULL);
+      } else if (value instanceof Integer || value instanceof Long) {
+         compare = MethodHandles.insertArguments(COMPARE_TO_INTEGRAL, 0, ((Number) value).longValue(), ordering, !reversed);
+      } else if (value instanceof Double) {
+         compare = MethodHandles.insertArguments(COMPARE_TO_FLOATING, 0, ((Number) value).doubleValue(), ordering, !reversed);
+      } else if (!ordering && (value instanceof String || value instanceof Boolean)) {
+         compare = MethodHandles.insertArguments(COMPARE_EQUALS, 0, value);
+      } else {
+         return null;
+      }
+      return MethodHandles.filterReturnValue(MethodHandles.filterReturnValue(property(property), compare), result);
+   }
+
+   // (Filterable)Object
+   private static MethodHandle property(PropertyExpression property) {
+      return MethodHandles.insertArguments(GET_PROPERTY, 1, property.getSimpleName());
+   }
+
+   private static int interpret(BooleanExpression expression, Filterable message) throws FilterException {
+      final Object result = expression.evaluate(message);
+      if (result == null) {
+         return UNKNOWN;
+      }
+      return ((Boolean) result).booleanValue() ? TRUE : FALSE;
+   }
+
+   private static boolean isTrue(int result) {
+      return result == TRUE;
+   }
+
+   private static int not(int result) {
+      return result == UNKNOWN ? UNKNOWN : TRUE - result;
+   }
+
+   private static int booleanValue(Object value) {
+      if (value == null) {
+         return UNKNOWN;
+      }
+      if (value.getClass() != Boolean.class) {
+         return FALSE;
+      }
+      return ((Boolean) value).booleanValue() ? TRUE : FALSE;
+   }
+
+   private static int isNull(Object value) {
+      return value == null ? TRUE : FALSE;
+   }
+
+   private static int in(Set<Object> elements, boolean not, Object value) {
+      if (value == null || value.getClass() != String.class) {
+         return UNKNOWN;
+      }
+      return elements.contains(value) ^ not ? TRUE : FALSE;
+   }
+
+   private static int like(Pattern pattern, Object value) {
+      if (value == null) {
+         return UNKNOWN;
+      }
+      if (!(value instanceof String)) {
+         return FALSE;
+      }
+      return pattern.matcher((String) value).matches() ? TRUE : FALSE;
+   }
+
+   // the comparisons of a property with a literal convert the operands as ComparisonExpression::compare does, which
+   // widens a byte or short value to the type of the literal only when the value is the left operand
+
+   private static int compareToIntegral(long constant, boolean ordering, boolean widenValue, Object value) {
+      if (value == null) {
+         return NULL_VALUE;
+      }
+      final Class<?> type = value.getClass();
+      if (type == Integer.class || type == Long.class || (widenValue && (type == Short.class || type == Byte.class))) {
+         return Long.compare(((Number) value).longValue(), constant);
+      }
+      if (type == Float.class) {
+         return Float.compare((Float) value, (float) constant);
+      }
+      if (type == Double.class) {
+         return Double.compare((Double) value, (double) constant);
+      }
+      return incomparable(ordering, value);
+   }
+
+   private static int compareToFloating(double constant, boolean ordering, boolean widenValue, Object value) {
+      if (value == null) {
+         return NULL_VALUE;
+      }
+      final Class<?> type = value.getClass();
+      if (type == Double.class || type == Float.class || type == Integer.class || type == Long.class || (widenValue && (type == Short.class || type == Byte.class))) {
+         return Double.compare(((Number) value).doubleValue(), constant);
+      }
+      return incomparable(ordering, value);
+   }
+
+   private static int incomparable(boolean ordering, Object value) {
+      if (ordering) {
+         // the interpreter fails the same way comparing a value that isn't Comparable
+         Comparable.class.cast(value);
+      }
+      return INCOMPARABLE;
+   }
+
+   private static int compareEquals(Object constant, Object value) {
+      if (value == null) {
+         return NULL_VALUE;
+      }
+      return constant.equals(value) ? 0 : INCOMPARABLE;
+   }
+
+   private static int equal(int comparison) {
+      return comparison == 0 ? TRUE : FALSE;
+   }
+
+   private static int greaterThan(int comparison) {
+      if (comparison == NULL_VALUE) {
+         return UNKNOWN;
+      }
+      return comparison != INCOMPARABLE && comparison > 0 ? TRUE : FALSE;
+   }
+
+   private static int greaterThanEqual(int comparison) {
+      if (comparison == NULL_VALUE) {
+         return UNKNOWN;
+      }
+      return comparison != INCOMPARABLE && comparison >= 0 ? TRUE : FALSE;
+   }
+
+   private static int lessThan(int comparison) {
+      if (comparison == NULL_VALUE) {
+         return UNKNOWN;
+      }
+      return comparison != INCOMPARABLE && comparison < 0 ? TRUE : FALSE;
+   }
+
+   private static int lessThanEqual(int comparison) {
+      if (comparison == NULL_VALUE) {
+         return UNKNOWN;
+      }
+      return comparison != INCOMPARABLE && comparison <= 0 ? TRUE : FALSE;
+   }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.selector.filter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SelectorCompilerTest {
+
+   private static final String[] SELECTORS = {
+      "color = 'red'",
+      "'red' = color",
+      "color <> 'red'",
+      "color IS NULL",
+      "color IS NOT NULL",
+      "color IN ('red', 'blue')",
+      "color NOT IN ('red', 'blue', 'green', 'yellow', 'white', 'black')",
+      "color LIKE 'r%'",
+      "color NOT LIKE 'r%'",
+      "flag",
+      "NOT flag",
+      "flag = TRUE",
+      "price = 2",
+      "price > 2",
+      "2 > price",
+      "price >= 5000000000",
+      "price < 2.5",
+      "2.5 <= price",
+      "price BETWEEN 1 AND 2.5",
+      "price NOT BETWEEN 1 AND 2.5",
+      "price + 1 > 2 AND flag",
+      "color = 'red' AND price > 2",
+      "color = 'red' OR price > 2",
+      "NOT (color = 'red' OR price > 2) AND flag",
+      "(color IN ('red', 'blue') AND price < 2.5) OR NOT flag",
+      "TRUE",
+      "FALSE OR color = 'red'"
+   };
+
+   private static final Object[] VALUES = {null, 2, 3, 2L, 5000000000L, 2.0f, 2.5f, 2.0d, Double.NaN, (short) 2, (byte) 2, "red", "blue", "2", Boolean.TRUE, Boolean.FALSE, 'r'};
+
+   private static final class MockMessage implements Filterable {
+
+      private final Map<String, Object> properties = new HashMap<>();
+
+      @Override
+      public <T> T getBodyAs(Class<T> type) {
+         return null;
+      }
+
+      @Override
+      public Object getProperty(SimpleString name) {
+         return properties.get(name.toString());
+      }
+
+      @Override
+      public Object getLocalConnectionId() {
+         return null;
+      }
+   }
+
+   @Test
+   public void testCompiledMatchesInterpreted() throws Exception {
+      for (String selector : SELECTORS) {
+         final BooleanExpression interpreted = SelectorParser.parse(selector);
+         final BooleanExpression compiled = SelectorCompiler.compile(interpreted);
+         Assert.assertTrue(selector, compiled instanceof SelectorCompiler.CompiledExpression);
+         Assert.assertSame(interpreted, ((SelectorCompiler.CompiledExpression) compiled).getSource());
+         for (Object color : VALUES) {
+            for (Object price : VALUES) {
+               for (Object flag : VALUES) {
+                  final MockMessage message = new MockMessage();
+                  message.properties.put("color", color);
+                  message.properties.put("price", price);
+                  message.properties.put("flag", flag);
+                  final String description = selector + " with " + message.properties;
+                  Assert.assertEquals(description, evaluate(interpreted, message), evaluate(compiled, message));
+               }
+            }
+         }
+      }
+   }
+
+   private static Object evaluate(BooleanExpression expression, Filterable message) {
+      try {
+         final Object result = expression.evaluate(message);
+         Assert.assertEquals(result == Boolean.TRUE, expression.matches(message));
+         return result;
+      } catch (Exception e) {
+         return e.getClass();
+      }
+   }
+
+   @Test
+   public void testConvertStringExpressions() throws Exception {
+      final BooleanExpression interpreted = SelectorParser.parse("convert_string_expressions:price = 2 AND color = 'red'");
+      final BooleanExpression compiled = SelectorCompiler.compile(interpreted);
+      final MockMessage message = new MockMessage();
+      message.properties.put("price", "2");
+      message.properties.put("color", "red");
+      Assert.assertTrue(interpreted.matches(message));
+      Assert.assertTrue(compiled.matches(message));
+   }
+
+   @Test
+   public void testContentBasedSelectorsAreInterpreted() throws Exception {
+      final BooleanExpression xpath = SelectorParser.parse("XPATH '//root' AND color = 'red'");
+      Assert.assertSame(xpath, SelectorCompiler.compile(xpath));
+   }
+}
@@ -151,6 +151,19 @@ public interface Configuration {
     */
    Configuration setJournalDatasync(boolean enable);
 
+   /**
+    * Should the journal buffer adapt the time it waits after a flush to the observed rate of sync requests,
+    * flushing right away when no other sync request is expected within the buffer timeout.
+    * <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_BUFFER_ADAPTIVE_TIMEOUT}.
+    */
+   boolean isJournalBufferAdaptiveTimeout();
+
+   /**
+    * documented at {@link #isJournalBufferAdaptiveTimeout()}
+    */
+   Configuration setJournalBufferAdaptiveTimeout(boolean enable);
+
    /**
     * @return usernames mapped to ResourceLimitSettings
     */
@@ -651,6 +664,28 @@ public interface Configuration {
     */
    Configuration setReadWholePage(boolean read);
 
+   /**
+    * Returns whether page files are memory mapped while being read, instead of being copied into buffers. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_READ_MAPPED_PAGE}.
+    */
+   boolean isReadMappedPage();
+
+   /**
+    * Sets whether page files are memory mapped while being read, instead of being copied into buffers.
+    */
+   Configuration setReadMappedPage(boolean readMapped);
+
+   /**
+    * Returns whether every page file keeps a sidecar index with the file offsets of its messages. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_PAGE_OFFSET_INDEX}.
+    */
+   boolean isPageOffsetIndex();
+
+   /**
+    * Sets whether every page file keeps a sidecar index with the file offsets of its messages.
+    */
+   Configuration setPageOffsetIndex(boolean pageOffsetIndex);
+
    /**
     * Returns the file system directory used to store journal log. <br>
     * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_DIR}.
@@ -890,6 +925,18 @@ public interface Configuration {
     */
    Configuration setJournalMaxAtticFiles(int maxAtticFiles);
 
+   /**
+    * Returns the number of journal files read and parsed concurrently when the message journal is loaded.
+    * <br>
+    * Default value is  {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_LOAD_PARALLELISM}.
+    */
+   int getJournalLoadParallelism();
+
+   /**
+    * Sets the number of journal files read and parsed concurrently when the message journal is loaded.
+    */
+   Configuration setJournalLoadParallelism(int journalLoadParallelism);
+
    /**
     * Returns whether the bindings directory is created on this server startup. <br>
     * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_CREATE_BINDINGS_DIR}.
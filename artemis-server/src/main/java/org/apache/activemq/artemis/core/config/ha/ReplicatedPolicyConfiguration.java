@@ -29,6 +29,8 @@ public class ReplicatedPolicyConfiguration implements HAPolicyConfiguration {
 
    private long initialReplicationSyncTimeout = ActiveMQDefaultConfiguration.getDefaultInitialReplicationSyncTimeout();
 
+   private int initialReplicationSyncParallelism = ActiveMQDefaultConfiguration.getDefaultInitialReplicationSyncParallelism();
+
    private boolean voteOnReplicationFailure = ActiveMQDefaultConfiguration.getDefaultVoteOnReplicationFailure();
 
    private int quorumSize = ActiveMQDefaultConfiguration.getDefaultQuorumSize();
@@ -86,6 +88,15 @@ public class ReplicatedPolicyConfiguration implements HAPolicyConfiguration {
       return this;
    }
 
+   public int getInitialReplicationSyncParallelism() {
+      return initialReplicationSyncParallelism;
+   }
+
+   public ReplicatedPolicyConfiguration setInitialReplicationSyncParallelism(int initialReplicationSyncParallelism) {
+      this.initialReplicationSyncParallelism = initialReplicationSyncParallelism;
+      return this;
+   }
+
    public boolean getVoteOnReplicationFailure() {
       return voteOnReplicationFailure;
    }
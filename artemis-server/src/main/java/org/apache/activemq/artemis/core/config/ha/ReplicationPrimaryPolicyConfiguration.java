@@ -27,6 +27,8 @@ public class ReplicationPrimaryPolicyConfiguration implements HAPolicyConfigurat
 
    private long initialReplicationSyncTimeout = ActiveMQDefaultConfiguration.getDefaultInitialReplicationSyncTimeout();
 
+   private int initialReplicationSyncParallelism = ActiveMQDefaultConfiguration.getDefaultInitialReplicationSyncParallelism();
+
    private Long retryReplicationWait = ActiveMQDefaultConfiguration.getDefaultRetryReplicationWait();
 
    private DistributedPrimitiveManagerConfiguration distributedManagerConfiguration = null;
@@ -72,6 +74,15 @@ public class ReplicationPrimaryPolicyConfiguration implements HAPolicyConfigurat
       return this;
    }
 
+   public int getInitialReplicationSyncParallelism() {
+      return initialReplicationSyncParallelism;
+   }
+
+   public ReplicationPrimaryPolicyConfiguration setInitialReplicationSyncParallelism(int initialReplicationSyncParallelism) {
+      this.initialReplicationSyncParallelism = initialReplicationSyncParallelism;
+      return this;
+   }
+
    public void setRetryReplicationWait(Long retryReplicationWait) {
       this.retryReplicationWait = retryReplicationWait;
    }
@@ -129,6 +129,8 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    private boolean journalDatasync = ActiveMQDefaultConfiguration.isDefaultJournalDatasync();
 
+   private boolean journalBufferAdaptiveTimeout = ActiveMQDefaultConfiguration.isDefaultJournalBufferAdaptiveTimeout();
+
    protected long fileDeploymentScanPeriod = ActiveMQDefaultConfiguration.getDefaultFileDeployerScanPeriod();
 
    private boolean persistDeliveryCountBeforeDelivery = ActiveMQDefaultConfiguration.isDefaultPersistDeliveryCountBeforeDelivery();
@@ -209,6 +211,10 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    private boolean readWholePage = ActiveMQDefaultConfiguration.isDefaultReadWholePage();
 
+   private boolean readMappedPage = ActiveMQDefaultConfiguration.isDefaultReadMappedPage();
+
+   private boolean pageOffsetIndex = ActiveMQDefaultConfiguration.isDefaultPageOffsetIndex();
+
    protected String largeMessagesDirectory = ActiveMQDefaultConfiguration.getDefaultLargeMessagesDir();
 
    protected String bindingsDirectory = ActiveMQDefaultConfiguration.getDefaultBindingsDirectory();
@@ -247,6 +253,8 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    protected int journalMaxAtticFilesFiles = ActiveMQDefaultConfiguration.getDefaultJournalMaxAtticFiles();
 
+   protected int journalLoadParallelism = ActiveMQDefaultConfiguration.getDefaultJournalLoadParallelism();
+
    // AIO and NIO need different values for these attributes
 
    protected int journalMaxIO_AIO = ActiveMQDefaultConfiguration.getDefaultJournalMaxIoAio();
@@ -572,6 +580,17 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   @Override
+   public boolean isJournalBufferAdaptiveTimeout() {
+      return journalBufferAdaptiveTimeout;
+   }
+
+   @Override
+   public ConfigurationImpl setJournalBufferAdaptiveTimeout(boolean enable) {
+      journalBufferAdaptiveTimeout = enable;
+      return this;
+   }
+
    @Override
    public long getFileDeployerScanPeriod() {
       return fileDeploymentScanPeriod;
@@ -1045,6 +1064,28 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   @Override
+   public boolean isReadMappedPage() {
+      return readMappedPage;
+   }
+
+   @Override
+   public ConfigurationImpl setReadMappedPage(boolean readMapped) {
+      readMappedPage = readMapped;
+      return this;
+   }
+
+   @Override
+   public boolean isPageOffsetIndex() {
+      return pageOffsetIndex;
+   }
+
+   @Override
+   public ConfigurationImpl setPageOffsetIndex(boolean pageOffsetIndex) {
+      this.pageOffsetIndex = pageOffsetIndex;
+      return this;
+   }
+
    @Override
    public File getJournalLocation() {
       return subFolder(getJournalDirectory());
@@ -2677,6 +2718,17 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   @Override
+   public int getJournalLoadParallelism() {
+      return journalLoadParallelism;
+   }
+
+   @Override
+   public Configuration setJournalLoadParallelism(int journalLoadParallelism) {
+      this.journalLoadParallelism = journalLoadParallelism;
+      return this;
+   }
+
    // extend property utils with ability to auto-fill and locate from collections
    // collection entries are identified by the name() property
    private static class CollectionAutoFillPropertiesUtil extends PropertyUtilsBean {
@@ -67,6 +67,14 @@ public class DatabaseStorageConfiguration implements StoreConfiguration {
 
    private long jdbcJournalSyncPeriodMillis = ActiveMQDefaultConfiguration.getDefaultJdbcJournalSyncPeriodMillis();
 
+   private int jdbcJournalSyncConnections = ActiveMQDefaultConfiguration.getDefaultJdbcJournalSyncConnections();
+
+   private int jdbcJournalLoadFetchSize = ActiveMQDefaultConfiguration.getDefaultJdbcJournalLoadFetchSize();
+
+   private int jdbcJournalLoadPartitions = ActiveMQDefaultConfiguration.getDefaultJdbcJournalLoadPartitions();
+
+   private boolean jdbcJournalBulkInsert = ActiveMQDefaultConfiguration.isDefaultJdbcJournalBulkInsert();
+
    @Override
    public StoreType getStoreType() {
       return StoreType.DATABASE;
@@ -296,4 +304,36 @@ public class DatabaseStorageConfiguration implements StoreConfiguration {
    public void setJdbcJournalSyncPeriodMillis(long jdbcJournalSyncPeriodMillis) {
       this.jdbcJournalSyncPeriodMillis = jdbcJournalSyncPeriodMillis;
    }
+
+   public int getJdbcJournalSyncConnections() {
+      return jdbcJournalSyncConnections;
+   }
+
+   public void setJdbcJournalSyncConnections(int jdbcJournalSyncConnections) {
+      this.jdbcJournalSyncConnections = jdbcJournalSyncConnections;
+   }
+
+   public int getJdbcJournalLoadFetchSize() {
+      return jdbcJournalLoadFetchSize;
+   }
+
+   public void setJdbcJournalLoadFetchSize(int jdbcJournalLoadFetchSize) {
+      this.jdbcJournalLoadFetchSize = jdbcJournalLoadFetchSize;
+   }
+
+   public int getJdbcJournalLoadPartitions() {
+      return jdbcJournalLoadPartitions;
+   }
+
+   public void setJdbcJournalLoadPartitions(int jdbcJournalLoadPartitions) {
+      this.jdbcJournalLoadPartitions = jdbcJournalLoadPartitions;
+   }
+
+   public boolean isJdbcJournalBulkInsert() {
+      return jdbcJournalBulkInsert;
+   }
+
+   public void setJdbcJournalBulkInsert(boolean jdbcJournalBulkInsert) {
+      this.jdbcJournalBulkInsert = jdbcJournalBulkInsert;
+   }
 }
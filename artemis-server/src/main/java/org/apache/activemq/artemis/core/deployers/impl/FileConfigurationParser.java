@@ -322,6 +322,20 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
    private static final String ENABLE_INGRESS_TIMESTAMP = "enable-ingress-timestamp";
 
+   private static final String ID_CACHE_FILTER_SIZE = "id-cache-filter-size";
+
+   private static final String ID_CACHE_FILTER_FALSE_POSITIVE_RATE = "id-cache-filter-false-positive-rate";
+
+   private static final String SCHEDULED_DELIVERY_TIMING_WHEEL_TICK = "scheduled-delivery-timing-wheel-tick";
+
+   private static final String QUEUE_SHARDS = "queue-shards";
+
+   private static final String ENABLE_SELECTOR_INDEX = "enable-selector-index";
+
+   private static final String REFERENCE_COMPACTION_THRESHOLD = "reference-compaction-threshold";
+
+   private static final String GROUP_VIRTUAL_NODES = "group-virtual-nodes";
+
 
    private boolean validateAIO = false;
 
@@ -663,6 +677,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setReadWholePage(getBoolean(e, "read-whole-page", config.isReadWholePage()));
 
+      config.setReadMappedPage(getBoolean(e, "read-mapped-page", config.isReadMappedPage()));
+
+      config.setPageOffsetIndex(getBoolean(e, "page-offset-index", config.isPageOffsetIndex()));
+
       config.setPagingDirectory(getString(e, "paging-directory", config.getPagingDirectory(), Validators.NOT_NULL_OR_EMPTY));
 
       config.setCreateJournalDir(getBoolean(e, "create-journal-dir", config.isCreateJournalDir()));
@@ -688,6 +706,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setJournalDatasync(getBoolean(e, "journal-datasync", config.isJournalDatasync()));
 
+      config.setJournalBufferAdaptiveTimeout(getBoolean(e, "journal-buffer-adaptive-timeout", config.isJournalBufferAdaptiveTimeout()));
+
       config.setJournalSyncTransactional(getBoolean(e, "journal-sync-transactional", config.isJournalSyncTransactional()));
 
       config.setJournalSyncNonTransactional(getBoolean(e, "journal-sync-non-transactional", config.isJournalSyncNonTransactional()));
@@ -696,6 +716,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setJournalMaxAtticFiles(getInteger(e, "journal-max-attic-files", config.getJournalMaxAtticFiles(), Validators.NO_CHECK));
 
+      config.setJournalLoadParallelism(getInteger(e, "journal-load-parallelism", config.getJournalLoadParallelism(), Validators.GT_ZERO));
+
       int journalBufferTimeout = getInteger(e, "journal-buffer-timeout", config.getJournalType() == JournalType.ASYNCIO ? ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_AIO : ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_NIO, Validators.GE_ZERO);
 
       int journalBufferSize = getTextBytesAsIntBytes(e, "journal-buffer-size", config.getJournalType() == JournalType.ASYNCIO ? ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_AIO : ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_NIO, Validators.POSITIVE_INT);
@@ -1387,6 +1409,33 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
             addressSettings.setEnableMetrics(XMLUtil.parseBoolean(child));
          } else if (ENABLE_INGRESS_TIMESTAMP.equalsIgnoreCase(name)) {
             addressSettings.setEnableIngressTimestamp(XMLUtil.parseBoolean(child));
+         } else if (ID_CACHE_FILTER_SIZE.equalsIgnoreCase(name)) {
+            int idCacheFilterSize = XMLUtil.parseInt(child);
+            Validators.GE_ZERO.validate(ID_CACHE_FILTER_SIZE, idCacheFilterSize);
+            addressSettings.setIDCacheFilterSize(idCacheFilterSize);
+         } else if (ID_CACHE_FILTER_FALSE_POSITIVE_RATE.equalsIgnoreCase(name)) {
+            double idCacheFilterFalsePositiveRate = XMLUtil.parseDouble(child);
+            Validators.GT_ZERO.validate(ID_CACHE_FILTER_FALSE_POSITIVE_RATE, idCacheFilterFalsePositiveRate);
+            Validators.LE_ONE.validate(ID_CACHE_FILTER_FALSE_POSITIVE_RATE, idCacheFilterFalsePositiveRate);
+            addressSettings.setIDCacheFilterFalsePositiveRate(idCacheFilterFalsePositiveRate);
+         } else if (SCHEDULED_DELIVERY_TIMING_WHEEL_TICK.equalsIgnoreCase(name)) {
+            long scheduledDeliveryTimingWheelTick = XMLUtil.parseLong(child);
+            Validators.GE_ZERO.validate(SCHEDULED_DELIVERY_TIMING_WHEEL_TICK, scheduledDeliveryTimingWheelTick);
+            addressSettings.setScheduledDeliveryTimingWheelTick(scheduledDeliveryTimingWheelTick);
+         } else if (QUEUE_SHARDS.equalsIgnoreCase(name)) {
+            int queueShards = XMLUtil.parseInt(child);
+            Validators.GT_ZERO.validate(QUEUE_SHARDS, queueShards);
+            addressSettings.setQueueShards(queueShards);
+         } else if (ENABLE_SELECTOR_INDEX.equalsIgnoreCase(name)) {
+            addressSettings.setEnableSelectorIndex(XMLUtil.parseBoolean(child));
+         } else if (REFERENCE_COMPACTION_THRESHOLD.equalsIgnoreCase(name)) {
+            int referenceCompactionThreshold = XMLUtil.parseInt(child);
+            Validators.MINUS_ONE_OR_GT_ZERO.validate(REFERENCE_COMPACTION_THRESHOLD, referenceCompactionThreshold);
+            addressSettings.setReferenceCompactionThreshold(referenceCompactionThreshold);
+         } else if (GROUP_VIRTUAL_NODES.equalsIgnoreCase(name)) {
+            int groupVirtualNodes = XMLUtil.parseInt(child);
+            Validators.GE_ZERO.validate(GROUP_VIRTUAL_NODES, groupVirtualNodes);
+            addressSettings.setGroupVirtualNodes(groupVirtualNodes);
          }
       }
       return setting;
@@ -1686,6 +1735,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       configuration.setInitialReplicationSyncTimeout(getLong(policyNode, "initial-replication-sync-timeout", configuration.getInitialReplicationSyncTimeout(), Validators.GT_ZERO));
 
+      configuration.setInitialReplicationSyncParallelism(getInteger(policyNode, "initial-replication-sync-parallelism", configuration.getInitialReplicationSyncParallelism(), Validators.GT_ZERO));
+
       configuration.setVoteOnReplicationFailure(getBoolean(policyNode, "vote-on-replication-failure", configuration.getVoteOnReplicationFailure()));
 
       configuration.setVoteRetries(getInteger(policyNode, "vote-retries", configuration.getVoteRetries(), Validators.MINUS_ONE_OR_GE_ZERO));
@@ -1741,6 +1792,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       configuration.setInitialReplicationSyncTimeout(getLong(policyNode, "initial-replication-sync-timeout", configuration.getInitialReplicationSyncTimeout(), Validators.GT_ZERO));
 
+      configuration.setInitialReplicationSyncParallelism(getInteger(policyNode, "initial-replication-sync-parallelism", configuration.getInitialReplicationSyncParallelism(), Validators.GT_ZERO));
+
       configuration.setRetryReplicationWait(getLong(policyNode, "retry-replication-wait", configuration.getRetryReplicationWait(), Validators.GT_ZERO));
 
       configuration.setDistributedManagerConfiguration(createDistributedPrimitiveManagerConfiguration(policyNode, config));
@@ -1917,6 +1970,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
       conf.setJdbcLockRenewPeriodMillis(getLong(storeNode, "jdbc-lock-renew-period", conf.getJdbcLockRenewPeriodMillis(), Validators.NO_CHECK));
       conf.setJdbcLockExpirationMillis(getLong(storeNode, "jdbc-lock-expiration", conf.getJdbcLockExpirationMillis(), Validators.NO_CHECK));
       conf.setJdbcJournalSyncPeriodMillis(getLong(storeNode, "jdbc-journal-sync-period", conf.getJdbcJournalSyncPeriodMillis(), Validators.NO_CHECK));
+      conf.setJdbcJournalSyncConnections(getInteger(storeNode, "jdbc-journal-sync-connections", conf.getJdbcJournalSyncConnections(), Validators.GT_ZERO));
+      conf.setJdbcJournalLoadFetchSize(getInteger(storeNode, "jdbc-journal-load-fetch-size", conf.getJdbcJournalLoadFetchSize(), Validators.GT_ZERO));
+      conf.setJdbcJournalLoadPartitions(getInteger(storeNode, "jdbc-journal-load-partitions", conf.getJdbcJournalLoadPartitions(), Validators.GT_ZERO));
+      conf.setJdbcJournalBulkInsert(getBoolean(storeNode, "jdbc-journal-bulk-insert", conf.isJdbcJournalBulkInsert()));
       String jdbcUser = getString(storeNode, "jdbc-user", conf.getJdbcUser(), Validators.NO_CHECK);
       if (jdbcUser != null) {
          jdbcUser = PasswordMaskingUtil.resolveMask(mainConfig.isMaskPassword(), jdbcUser, mainConfig.getPasswordCodec());
@@ -29,6 +29,7 @@ import org.apache.activemq.artemis.core.server.federation.address.FederatedAddre
 import org.apache.activemq.artemis.selector.filter.BooleanExpression;
 import org.apache.activemq.artemis.selector.filter.FilterException;
 import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.filter.SelectorCompiler;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
 import org.apache.activemq.artemis.utils.ByteUtil;
 
@@ -79,7 +80,7 @@ public class FilterImpl implements Filter {
 
       BooleanExpression booleanExpression;
       try {
-         booleanExpression = SelectorParser.parse(filterStr.toString());
+         booleanExpression = SelectorCompiler.compile(SelectorParser.parse(filterStr.toString()));
       } catch (Throwable e) {
          ActiveMQServerLogger.LOGGER.invalidFilter(filterStr);
          if (ActiveMQServerLogger.LOGGER.isDebugEnabled()) {
@@ -102,6 +103,16 @@ public class FilterImpl implements Filter {
       return sfilterString;
    }
 
+   /**
+    * @return the parsed expression of this filter, before it's compiled
+    */
+   BooleanExpression getBooleanExpression() {
+      if (booleanExpression instanceof SelectorCompiler.CompiledExpression) {
+         return ((SelectorCompiler.CompiledExpression) booleanExpression).getSource();
+      }
+      return booleanExpression;
+   }
+
    @Override
    public boolean match(final Message message) {
       return match(new FilterableServerMessage(message));
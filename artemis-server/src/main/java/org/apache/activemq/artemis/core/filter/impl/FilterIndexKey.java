@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.filter.impl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.FilterConstants;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.server.federation.address.FederatedAddress;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.ComparisonExpression;
+import org.apache.activemq.artemis.selector.filter.ConstantExpression;
+import org.apache.activemq.artemis.selector.filter.Expression;
+import org.apache.activemq.artemis.selector.filter.LogicExpression;
+import org.apache.activemq.artemis.selector.filter.PropertyExpression;
+import org.apache.activemq.artemis.selector.filter.UnaryExpression;
+
+/**
+ * The message property and the values of it a filter selects, when the filter can only match messages with one of
+ * these values:
+ * <ul>
+ *    <li>{@code property = value} and {@code property IN (value, ...)}</li>
+ *    <li>{@code a OR b} if both select values of the same property</li>
+ *    <li>{@code a AND b} if any of them selects values of a property</li>
+ * </ul>
+ * The values of the messages are compared with {@link #indexValue(Message)} which maps all the values a selector
+ * considers equal to the same key, so the messages with one of the values are a superset of the messages matching
+ * the filter.
+ */
+public final class FilterIndexKey {
+
+   private final SimpleString property;
+
+   private final Set<Object> values;
+
+   private FilterIndexKey(SimpleString property, Set<Object> values) {
+      this.property = property;
+      this.values = values;
+   }
+
+   /**
+    * @return the key of {@code filter}, {@code null} if it can match messages without selecting values of a property
+    */
+   public static FilterIndexKey of(Filter filter) {
+      if (!(filter instanceof FilterImpl)) {
+         return null;
+      }
+      return of(((FilterImpl) filter).getBooleanExpression());
+   }
+
+   private static FilterIndexKey of(Expression expression) {
+      if (expression instanceof UnaryExpression.InExpression) {
+         final UnaryExpression.InExpression in = (UnaryExpression.InExpression) expression;
+         if (in.isNot()) {
+            return null;
+         }
+         final Set<Object> values = new HashSet<>();
+         for (Object element : in.getElements()) {
+            // only strings are IN an expression
+            if (!(element instanceof String)) {
+               return null;
+            }
+            values.add(element);
+         }
+         return create(in.getProperty(), values);
+      }
+      if (expression instanceof ComparisonExpression) {
+         final ComparisonExpression comparison = (ComparisonExpression) expression;
+         if (!"=".equals(comparison.getExpressionSymbol()) || comparison.isConvertStringExpressions()) {
+            return null;
+         }
+         if (comparison.getLeft() instanceof PropertyExpression && comparison.getRight() instanceof ConstantExpression) {
+            return create((PropertyExpression) comparison.getLeft(), (ConstantExpression) comparison.getRight());
+         }
+         if (comparison.getRight() instanceof PropertyExpression && comparison.getLeft() instanceof ConstantExpression) {
+            return create((PropertyExpression) comparison.getRight(), (ConstantExpression) comparison.getLeft());
+         }
+         return null;
+      }
+      if (expression instanceof LogicExpression) {
+         final LogicExpression logic = (LogicExpression) expression;
+         final FilterIndexKey left = of(logic.getLeft());
+         final FilterIndexKey right = of(logic.getRight());
+         if ("AND".equals(logic.getExpressionSymbol())) {
+            return left != null ? left : right;
+         }
+         if ("OR".equals(logic.getExpressionSymbol()) && left != null && right != null && left.property.equals(right.property)) {
+            final Set<Object> values = new HashSet<>(left.values);
+            values.addAll(right.values);
+            return new FilterIndexKey(left.property, Collections.unmodifiableSet(values));
+         }
+      }
+      return null;
+   }
+
+   private static FilterIndexKey create(PropertyExpression property, ConstantExpression constant) {
+      final Object value = constant.getValue();
+      // BigDecimal literals never equal a property value
+      if (value instanceof String || value instanceof Boolean || value instanceof Long || value instanceof Double) {
+         return create(property, Collections.singleton(indexValue(value)));
+      }
+      return null;
+   }
+
+   private static FilterIndexKey create(PropertyExpression property, Set<Object> values) {
+      final SimpleString name = SimpleString.toSimpleString(property.getName());
+      // the headers and the federation hops aren't plain message properties
+      if (name.startsWith(FilterConstants.ACTIVEMQ_PREFIX) || name.startsWith(FederatedAddress.HDR_HOPS)) {
+         return null;
+      }
+      return new FilterIndexKey(name, Collections.unmodifiableSet(values));
+   }
+
+   /**
+    * The selector converts numbers of different types before comparing them: every number is mapped to a float as
+    * numbers equal after any of these conversions are equal as floats too.
+    *
+    * @return the key of {@code value} in an index, {@code null} if a selector can't find it equal to a literal
+    */
+   public static Object indexValue(Object value) {
+      if (value instanceof String || value instanceof Boolean) {
+         return value;
+      }
+      if (value instanceof SimpleString) {
+         return value.toString();
+      }
+      if (value instanceof Long || value instanceof Integer || value instanceof Double || value instanceof Float || value instanceof Short || value instanceof Byte) {
+         return ((Number) value).floatValue();
+      }
+      return null;
+   }
+
+   /**
+    * @return the key of the value of the indexed property of {@code message}
+    */
+   public Object indexValue(Message message) {
+      return indexValue(message.getObjectPropertyForFilter(property));
+   }
+
+   public SimpleString getProperty() {
+      return property;
+   }
+
+   public Set<Object> getValues() {
+      return values;
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) {
+         return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+         return false;
+      }
+      final FilterIndexKey that = (FilterIndexKey) o;
+      return property.equals(that.property) && values.equals(that.values);
+   }
+
+   @Override
+   public int hashCode() {
+      return Objects.hash(property, values);
+   }
+
+   @Override
+   public String toString() {
+      return "FilterIndexKey[property=" + property + ", values=" + values + "]";
+   }
+}
@@ -90,6 +90,7 @@ import org.apache.activemq.artemis.core.postoffice.DuplicateIDCache;
 import org.apache.activemq.artemis.core.postoffice.PostOffice;
 import org.apache.activemq.artemis.core.postoffice.impl.LocalQueueBinding;
 import org.apache.activemq.artemis.core.remoting.server.RemotingService;
+import org.apache.activemq.artemis.core.replication.ReplicationManager;
 import org.apache.activemq.artemis.core.security.CheckType;
 import org.apache.activemq.artemis.core.security.Role;
 import org.apache.activemq.artemis.core.security.impl.SecurityStoreImpl;
@@ -1524,6 +1525,32 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
       }
    }
 
+   @Override
+   public String getReplicaSyncProgress() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getReplicaSyncProgress(this.server);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         JsonObjectBuilder progress = JsonLoader.createObjectBuilder();
+         ReplicationManager replicationManager = server.getReplicationManager();
+         if (replicationManager != null) {
+            progress.add("synchronizing", replicationManager.isSynchronizing())
+                    .add("filesToSend", replicationManager.getSyncFilesToSend())
+                    .add("filesSent", replicationManager.getSyncFilesSent())
+                    .add("bytesToSend", replicationManager.getSyncBytesToSend())
+                    .add("bytesSent", replicationManager.getSyncBytesSent())
+                    .add("elapsedMillis", replicationManager.getSyncElapsedMillis())
+                    .add("bytesPerSecond", replicationManager.getSyncBytesPerSecond());
+         }
+         return progress.build().toString();
+      } finally {
+         blockOnIO();
+      }
+   }
+
    @Override
    public int getAddressCount() {
       if (AuditLogger.isBaseLoggingEnabled()) {
@@ -2727,7 +2754,7 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
    }
 
    private JsonObject toJSONObject(ServerConsumer consumer) throws Exception {
-      JsonObjectBuilder obj = JsonLoader.createObjectBuilder().add("consumerID", consumer.getID()).add("connectionID", consumer.getConnectionID().toString()).add("sessionID", consumer.getSessionID()).add("queueName", consumer.getQueue().getName().toString()).add("browseOnly", consumer.isBrowseOnly()).add("creationTime", consumer.getCreationTime()).add("deliveringCount", consumer.getDeliveringMessages().size());
+      JsonObjectBuilder obj = JsonLoader.createObjectBuilder().add("consumerID", consumer.getID()).add("connectionID", consumer.getConnectionID().toString()).add("sessionID", consumer.getSessionID()).add("queueName", consumer.getQueue().getName().toString()).add("browseOnly", consumer.isBrowseOnly()).add("creationTime", consumer.getCreationTime()).add("deliveringCount", consumer.getDeliveringMessages().size()).add("creditWindowSize", consumer.getCreditWindowSize()).add("groupCount", consumer.getQueue().getGroupCount(consumer));
       if (consumer.getFilter() != null) {
          obj.add("filter", consumer.getFilter().getFilterString().toString());
       }
@@ -50,6 +50,7 @@ import org.apache.activemq.artemis.core.server.Consumer;
 import org.apache.activemq.artemis.core.server.MessageReference;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.ServerConsumer;
+import org.apache.activemq.artemis.core.server.impl.QueueShards;
 import org.apache.activemq.artemis.core.server.impl.RefsOperation;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepository;
 import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
@@ -259,7 +260,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getMessageCount();
+         return QueueShards.sum(queue, Queue::getMessageCount);
       } finally {
          blockOnIO();
       }
@@ -275,7 +276,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getPersistentSize();
+         return QueueShards.sum(queue, Queue::getPersistentSize);
       } finally {
          blockOnIO();
       }
@@ -290,7 +291,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDurableMessageCount();
+         return QueueShards.sum(queue, Queue::getDurableMessageCount);
       } finally {
          blockOnIO();
       }
@@ -305,7 +306,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDurablePersistentSize();
+         return QueueShards.sum(queue, Queue::getDurablePersistentSize);
       } finally {
          blockOnIO();
       }
@@ -320,7 +321,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getConsumerCount();
+         return (int) QueueShards.sum(queue, Queue::getConsumerCount);
       } finally {
          blockOnIO();
       }
@@ -335,7 +336,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDeliveringCount();
+         return (int) QueueShards.sum(queue, Queue::getDeliveringCount);
       } finally {
          blockOnIO();
       }
@@ -350,7 +351,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDeliveringSize();
+         return QueueShards.sum(queue, Queue::getDeliveringSize);
       } finally {
          blockOnIO();
       }
@@ -365,7 +366,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDurableDeliveringCount();
+         return (int) QueueShards.sum(queue, Queue::getDurableDeliveringCount);
       } finally {
          blockOnIO();
       }
@@ -380,7 +381,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDurableDeliveringSize();
+         return QueueShards.sum(queue, Queue::getDurableDeliveringSize);
       } finally {
          blockOnIO();
       }
@@ -395,7 +396,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getMessagesAdded();
+         return QueueShards.sum(queue, Queue::getMessagesAdded);
       } finally {
          blockOnIO();
       }
@@ -410,7 +411,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getMessagesAcknowledged();
+         return QueueShards.sum(queue, Queue::getMessagesAcknowledged);
       } finally {
          blockOnIO();
       }
@@ -425,7 +426,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getAcknowledgeAttempts();
+         return QueueShards.sum(queue, Queue::getAcknowledgeAttempts);
       } finally {
          blockOnIO();
       }
@@ -440,7 +441,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getMessagesExpired();
+         return QueueShards.sum(queue, Queue::getMessagesExpired);
       } finally {
          blockOnIO();
       }
@@ -455,7 +456,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getMessagesKilled();
+         return QueueShards.sum(queue, Queue::getMessagesKilled);
       } finally {
          blockOnIO();
       }
@@ -485,7 +486,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getScheduledCount();
+         return QueueShards.sum(queue, Queue::getScheduledCount);
       } finally {
          blockOnIO();
       }
@@ -500,7 +501,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getScheduledSize();
+         return QueueShards.sum(queue, Queue::getScheduledSize);
       } finally {
          blockOnIO();
       }
@@ -515,7 +516,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDurableScheduledCount();
+         return QueueShards.sum(queue, Queue::getDurableScheduledCount);
       } finally {
          blockOnIO();
       }
@@ -530,7 +531,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
 
       clearIO();
       try {
-         return queue.getDurableScheduledSize();
+         return QueueShards.sum(queue, Queue::getDurableScheduledSize);
       } finally {
          blockOnIO();
       }
@@ -31,7 +31,9 @@ public enum ConsumerField {
    LOCAL_ADDRESS("localAddress"),
    REMOTE_ADDRESS("remoteAddress"),
    QUEUE_TYPE("queueType"),
-   CREATION_TIME("creationTime");
+   CREATION_TIME("creationTime"),
+   CREDIT_WINDOW_SIZE("creditWindowSize"),
+   GROUP_COUNT("groupCount");
 
    private static final Map<String, ConsumerField> lookup = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
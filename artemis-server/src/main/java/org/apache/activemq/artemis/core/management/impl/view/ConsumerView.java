@@ -70,7 +70,9 @@ public class ConsumerView extends ActiveMQAbstractView<ServerConsumer> {
          .add(ConsumerField.ADDRESS.getName(), toString(consumer.getQueueAddress()))
          .add(ConsumerField.LOCAL_ADDRESS.getName(), toString(consumer.getConnectionLocalAddress()))
          .add(ConsumerField.REMOTE_ADDRESS.getName(), toString(consumer.getConnectionRemoteAddress()))
-         .add(ConsumerField.CREATION_TIME.getName(), new Date(consumer.getCreationTime()).toString());
+         .add(ConsumerField.CREATION_TIME.getName(), new Date(consumer.getCreationTime()).toString())
+         .add(ConsumerField.CREDIT_WINDOW_SIZE.getName(), consumer.getCreditWindowSize())
+         .add(ConsumerField.GROUP_COUNT.getName(), consumer.getQueue().getGroupCount(consumer));
       return obj;
    }
 
@@ -108,6 +110,10 @@ public class ConsumerView extends ActiveMQAbstractView<ServerConsumer> {
             return consumer.getConnectionRemoteAddress();
          case CREATION_TIME:
             return new Date(consumer.getCreationTime());
+         case CREDIT_WINDOW_SIZE:
+            return consumer.getCreditWindowSize();
+         case GROUP_COUNT:
+            return consumer.getQueue().getGroupCount(consumer);
          default:
             throw new IllegalArgumentException("Unsupported field, " + fieldName);
       }
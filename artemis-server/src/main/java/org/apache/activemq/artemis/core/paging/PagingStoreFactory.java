@@ -61,6 +61,20 @@ public interface PagingStoreFactory {
       return null;
    }
 
+   /**
+    * @return {@code true} if the pages of the stores should be memory mapped while being read
+    */
+   default boolean isReadMappedPage() {
+      return false;
+   }
+
+   /**
+    * @return {@code true} if the pages of the stores should keep a sidecar index with the file offsets of their messages
+    */
+   default boolean isPageOffsetIndex() {
+      return false;
+   }
+
 
 
 }
@@ -17,7 +17,11 @@
 package org.apache.activemq.artemis.core.paging.impl;
 
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -25,6 +29,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.buffers.impl.ChannelBufferWrapper;
 import org.apache.activemq.artemis.core.io.SequentialFile;
@@ -84,6 +89,19 @@ public final class Page implements Comparable<Page> {
    private ChannelBufferWrapper readFileBufferWrapper;
    private int readProcessedBytes;
 
+   private boolean readMapped = false;
+   // read-only mapping of the page file, valid until the page is closed
+   private MappedByteBuffer mappedFile;
+   private ChannelBufferWrapper mappedFileWrapper;
+
+   private boolean offsetIndex = false;
+   // file offsets of the messages by message number, the first messageOffsetsCount are valid
+   private int[] messageOffsets;
+   private int messageOffsetsCount;
+   // the offsets are not on the index file yet: they will be written on close
+   private boolean messageOffsetsChanged;
+   private boolean offsetIndexLoaded;
+
    public Page(final SimpleString storeName,
                final StorageManager storageManager,
                final SequentialFileFactory factory,
@@ -109,6 +127,33 @@ public final class Page implements Comparable<Page> {
       return pageCache;
    }
 
+   /**
+    * If {@code true} the page file is memory mapped while being read and the messages are decoded in place,
+    * instead of copying the file content into buffers first.
+    */
+   public synchronized Page setReadMapped(boolean readMapped) {
+      this.readMapped = readMapped;
+      return this;
+   }
+
+   public synchronized boolean isReadMapped() {
+      return readMapped;
+   }
+
+   /**
+    * If {@code true} the file offsets of the messages are kept on a sidecar index file, written when the page is
+    * closed, so a message can be read without scanning the page from its start.
+    * A missing, corrupt or stale index is rebuilt by the first read that needs it.
+    */
+   public synchronized Page setOffsetIndex(boolean offsetIndex) {
+      this.offsetIndex = offsetIndex;
+      return this;
+   }
+
+   public synchronized boolean isOffsetIndex() {
+      return offsetIndex;
+   }
+
    private synchronized void resetReadMessageStatus() {
       lastReadMessageNumber = -3;
       readProcessedBytes = 0;
@@ -122,6 +167,16 @@ public final class Page implements Comparable<Page> {
       if (!file.isOpen()) {
          throw ActiveMQMessageBundle.BUNDLE.invalidPageIO();
       }
+      if (offsetIndex && startMessageNumber != targetMessageNumber) {
+         final int indexedOffset = getMessageOffset(targetMessageNumber);
+         if (indexedOffset >= 0) {
+            startOffset = indexedOffset;
+            startMessageNumber = targetMessageNumber;
+         }
+      }
+      if (readMapped) {
+         return readMappedMessage(startOffset, startMessageNumber, targetMessageNumber);
+      }
       final int fileSize = (int) file.size();
       try {
          if (readFileBuffer == null) {
@@ -235,6 +290,7 @@ public final class Page implements Comparable<Page> {
       ActiveMQServerLogger.LOGGER.pageLookupError(this.pageId, targetMessageNumber, startOffset, startMessageNumber);
 
       if (startOffset > 0) {
+         discardMessageOffsets();
          return readMessage(0, 0, targetMessageNumber);
       } else {
          return null;
@@ -263,7 +319,10 @@ public final class Page implements Comparable<Page> {
 
       final List<PagedMessage> messages = new ArrayList<>();
 
-      final int totalMessageCount = readFromSequentialFile(storage, messages, onlyLargeMessages);
+      // all the offsets are going to be collected again
+      messageOffsetsCount = 0;
+
+      final int totalMessageCount = readMapped ? readFromMappedFile(storage, messages, onlyLargeMessages) : readFromSequentialFile(storage, messages, onlyLargeMessages);
 
       numberOfMessages.lazySet(totalMessageCount);
 
@@ -411,6 +470,9 @@ public final class Page implements Comparable<Page> {
                            }
                            messages.add(msg);
                         }
+                        if (offsetIndex) {
+                           addMessageOffset(totalMessageCount, processedBytes);
+                        }
                         totalMessageCount++;
                         fileBuffer.position(endPosition + 1);
                         processedBytes = nextPosition;
@@ -446,6 +508,250 @@ public final class Page implements Comparable<Page> {
       }
    }
 
+   private PagedMessage readMappedMessage(int startOffset,
+                                          int startMessageNumber,
+                                          int targetMessageNumber) throws Exception {
+      final int fileSize = (int) file.size();
+      if (startOffset > fileSize) {
+         return readMappedMessage(0, 0, targetMessageNumber);
+      }
+      if (fileSize >= MINIMUM_MSG_PERSISTENT_SIZE) {
+         mapFile(fileSize);
+         int position = startOffset;
+         int currentMessageNumber = startMessageNumber;
+         int encodedSize;
+         // the messages before the target one are skipped just by looking at their headers
+         while ((encodedSize = mappedRecordSize(position, fileSize, currentMessageNumber)) >= 0) {
+            if (currentMessageNumber == targetMessageNumber) {
+               final PagedMessageImpl msg = new PagedMessageImpl(encodedSize, storageManager);
+               mappedFileWrapper.setIndex(position + HEADER_SIZE, position + HEADER_SIZE + encodedSize);
+               msg.decode(mappedFileWrapper);
+               msg.initMessage(storageManager);
+               assert validateLargeMessageStorageManager(msg);
+               if (logger.isTraceEnabled()) {
+                  logger.tracef("Reading mapped message %s on pageId=%d for address=%s", msg, pageId, storeName);
+               }
+               return msg;
+            }
+            position += HEADER_AND_TRAILER_SIZE + encodedSize;
+            currentMessageNumber++;
+         }
+      }
+
+      ActiveMQServerLogger.LOGGER.pageLookupError(this.pageId, targetMessageNumber, startOffset, startMessageNumber);
+
+      if (startOffset > 0) {
+         discardMessageOffsets();
+         return readMappedMessage(0, 0, targetMessageNumber);
+      } else {
+         return null;
+      }
+   }
+
+   private int readFromMappedFile(StorageManager storage,
+                                  List<PagedMessage> messages,
+                                  boolean onlyLargeMessages) throws Exception {
+      final int fileSize = (int) file.size();
+      int processedBytes = 0;
+      int totalMessageCount = 0;
+      try {
+         if (fileSize >= MINIMUM_MSG_PERSISTENT_SIZE) {
+            mapFile(fileSize);
+            int encodedSize;
+            while ((encodedSize = mappedRecordSize(processedBytes, fileSize, totalMessageCount + 1)) >= 0) {
+               mappedFileWrapper.setIndex(processedBytes + HEADER_SIZE, processedBytes + HEADER_SIZE + encodedSize);
+               final boolean skipMessage = onlyLargeMessages && !PagedMessageImpl.isLargeMessage(mappedFileWrapper);
+               if (!skipMessage) {
+                  final PagedMessageImpl msg = new PagedMessageImpl(encodedSize, storageManager);
+                  msg.decode(mappedFileWrapper);
+                  msg.initMessage(storage);
+                  assert validateLargeMessageStorageManager(msg);
+                  if (logger.isTraceEnabled()) {
+                     logger.tracef("Reading mapped message %s on pageId=%d for address=%s", msg, pageId, storeName);
+                  }
+                  messages.add(msg);
+               }
+               if (offsetIndex) {
+                  addMessageOffset(totalMessageCount, processedBytes);
+               }
+               totalMessageCount++;
+               processedBytes += HEADER_AND_TRAILER_SIZE + encodedSize;
+            }
+         }
+         //ignore incomplete messages at the end of the file
+         if (logger.isTraceEnabled()) {
+            logger.tracef("%s has %d bytes of unknown data at position = %d", file.getFileName(), fileSize - processedBytes, processedBytes);
+         }
+         return totalMessageCount;
+      } finally {
+         size.lazySet(processedBytes);
+         if (file.position() != processedBytes) {
+            file.position(processedBytes);
+         }
+      }
+   }
+
+   /**
+    * @return the encoded size of the message record starting at {@code position} of the mapped file or {@code -1}
+    * if there isn't any valid record there
+    */
+   private int mappedRecordSize(int position, int fileSize, int messageNumber) {
+      if (fileSize - position < MINIMUM_MSG_PERSISTENT_SIZE) {
+         return -1;
+      }
+      if (mappedFile.get(position) == START_BYTE) {
+         final int encodedSize = mappedFile.getInt(position + 1);
+         final long nextPosition = (long) position + HEADER_AND_TRAILER_SIZE + encodedSize;
+         if (encodedSize >= 0 && nextPosition <= fileSize && mappedFile.get((int) nextPosition - 1) == END_BYTE) {
+            return encodedSize;
+         }
+      }
+      markFileAsSuspect(file.getFileName(), position, messageNumber);
+      return -1;
+   }
+
+   /**
+    * @return the file offset of the message or {@code -1} if it isn't known
+    */
+   private int getMessageOffset(int messageNumber) throws Exception {
+      if (messageOffsets == null && !offsetIndexLoaded) {
+         offsetIndexLoaded = true;
+         final int fileSize = (int) file.size();
+         int[] offsets = PageOffsetIndex.load(fileFactory, file.getFileName(), fileSize);
+         if (offsets == null) {
+            offsets = scanMessageOffsets(fileSize);
+            // the rebuilt index is written on close
+            messageOffsetsChanged = true;
+            if (logger.isDebugEnabled()) {
+               logger.debugf("Rebuilt the offset index of pageNr=%d on address=%s with %d messages", pageId, storeName, offsets.length);
+            }
+         }
+         messageOffsets = offsets;
+         messageOffsetsCount = offsets.length;
+      }
+      return messageOffsets != null && messageNumber < messageOffsetsCount ? messageOffsets[messageNumber] : -1;
+   }
+
+   /**
+    * Collects the file offsets of the messages just by looking at their headers, without decoding them.
+    */
+   private int[] scanMessageOffsets(int fileSize) throws Exception {
+      int[] offsets = new int[Math.max(numberOfMessages.get(), 16)];
+      int count = 0;
+      int position = 0;
+      if (readMapped) {
+         if (fileSize >= MINIMUM_MSG_PERSISTENT_SIZE) {
+            mapFile(fileSize);
+            int encodedSize;
+            while ((encodedSize = mappedRecordSize(position, fileSize, count)) >= 0) {
+               offsets = append(offsets, count++, position);
+               position += HEADER_AND_TRAILER_SIZE + encodedSize;
+            }
+         }
+      } else {
+         final long filePosition = file.position();
+         try {
+            while (fileSize - position >= MINIMUM_MSG_PERSISTENT_SIZE) {
+               file.position(position);
+               headerBuffer.clear();
+               file.read(headerBuffer);
+               headerBuffer.flip();
+               if (headerBuffer.remaining() < HEADER_SIZE || headerBuffer.get() != START_BYTE) {
+                  break;
+               }
+               final int encodedSize = headerBuffer.getInt();
+               final long nextPosition = (long) position + HEADER_AND_TRAILER_SIZE + encodedSize;
+               if (encodedSize < 0 || nextPosition > fileSize) {
+                  break;
+               }
+               file.position(nextPosition - 1);
+               headerBuffer.clear();
+               headerBuffer.limit(1);
+               file.read(headerBuffer);
+               headerBuffer.flip();
+               if (!headerBuffer.hasRemaining() || headerBuffer.get() != END_BYTE) {
+                  break;
+               }
+               offsets = append(offsets, count++, position);
+               position = (int) nextPosition;
+            }
+         } finally {
+            file.position(filePosition);
+         }
+      }
+      return Arrays.copyOf(offsets, count);
+   }
+
+   private void addMessageOffset(int messageNumber, int offset) {
+      if (messageNumber != messageOffsetsCount) {
+         // the offsets of the previous messages are unknown: leave it to the readers to rebuild the index
+         messageOffsets = null;
+         messageOffsetsCount = 0;
+         messageOffsetsChanged = false;
+         return;
+      }
+      if (messageOffsets == null) {
+         messageOffsets = new int[16];
+      }
+      messageOffsets = append(messageOffsets, messageOffsetsCount++, offset);
+   }
+
+   private synchronized void addWrittenMessageOffset(int messageNumber, int offset) {
+      if (offsetIndex) {
+         addMessageOffset(messageNumber, offset);
+         messageOffsetsChanged = messageOffsets != null;
+      }
+   }
+
+   /**
+    * The offsets don't match the page file: don't use them anymore.
+    */
+   private void discardMessageOffsets() {
+      if (offsetIndex) {
+         messageOffsets = null;
+         messageOffsetsCount = 0;
+         messageOffsetsChanged = false;
+         offsetIndexLoaded = true;
+      }
+   }
+
+   private static int[] append(int[] array, int index, int value) {
+      if (index == array.length) {
+         array = Arrays.copyOf(array, array.length * 2);
+      }
+      array[index] = value;
+      return array;
+   }
+
+   private void writeOffsetIndex() {
+      messageOffsetsChanged = false;
+      try {
+         PageOffsetIndex.write(fileFactory, file.getFileName(), (int) file.size(), messageOffsets, messageOffsetsCount);
+      } catch (Exception e) {
+         logger.warn("Cannot write the offset index of pageNr=" + pageId + " on address=" + storeName, e);
+      }
+   }
+
+   private void mapFile(int fileSize) throws Exception {
+      // the file could have grown since it has been mapped
+      if (mappedFile == null || mappedFile.capacity() < fileSize) {
+         unmapFile();
+         try (FileChannel channel = FileChannel.open(file.getJavaFile().toPath(), StandardOpenOption.READ)) {
+            mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+         }
+         mappedFileWrapper = wrapWhole(mappedFile);
+      }
+   }
+
+   private void unmapFile() {
+      if (mappedFile != null) {
+         mappedFileWrapper = null;
+         //unmap in a deterministic way: do not rely on GC to do it
+         PlatformDependent.freeDirectBuffer(mappedFile);
+         mappedFile = null;
+      }
+   }
+
    public synchronized void write(final PagedMessage message) throws Exception {
       writeDirect(message);
       storageManager.pageWrite(message, pageId);
@@ -469,6 +775,7 @@ public final class Page implements Comparable<Page> {
       assert (activeMQBuffer.readableBytes() == bufferSize) : "messageEncodedSize is different from expected";
       //buffer limit and position are the same
       assert (buffer.remaining() == bufferSize) : "buffer position or limit are changed";
+      addWrittenMessageOffset(numberOfMessages.get(), size.get());
       file.writeDirect(buffer, false);
       if (pageCache != null) {
          pageCache.addLiveMessage(message);
@@ -503,6 +810,11 @@ public final class Page implements Comparable<Page> {
          fileFactory.releaseDirectBuffer(readFileBuffer);
          readFileBuffer = null;
       }
+      unmapFile();
+
+      if (messageOffsetsChanged && messageOffsets != null && file.isOpen()) {
+         writeOffsetIndex();
+      }
 
       if (sendEvent && storageManager != null) {
          storageManager.pageClosed(storeName, pageId);
@@ -554,6 +866,9 @@ public final class Page implements Comparable<Page> {
          if (!storageManager.waitOnOperations(5000)) {
             ActiveMQServerLogger.LOGGER.timedOutWaitingForLargeMessagesDeletion(largeMessageIds);
          }
+         if (offsetIndex) {
+            PageOffsetIndex.delete(fileFactory, file.getFileName());
+         }
          if (suspiciousRecords) {
             ActiveMQServerLogger.LOGGER.pageInvalid(file.getFileName(), file.getFileName());
             file.renameTo(file.getFileName() + ".invalidPage");
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import org.apache.activemq.artemis.core.io.SequentialFile;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.utils.DataConstants;
+import org.jboss.logging.Logger;
+
+/**
+ * Sidecar file of a {@link Page} holding the file offset of each of its messages, used to seek straight to a
+ * message instead of scanning the page from its start.
+ *
+ * <p>The index records the size of the page file it has been built for: an index that doesn't match the page file
+ * anymore is stale and it is ignored, as a missing or corrupt one.</p>
+ */
+final class PageOffsetIndex {
+
+   private static final Logger logger = Logger.getLogger(PageOffsetIndex.class);
+
+   static final String EXTENSION = "index";
+
+   private static final int VERSION = 1;
+
+   // version + page file size + number of messages
+   private static final int HEADER_SIZE = 3 * DataConstants.SIZE_INT;
+
+   private static final int CHECKSUM_SIZE = DataConstants.SIZE_LONG;
+
+   private PageOffsetIndex() {
+   }
+
+   static String getIndexFileName(String pageFileName) {
+      final int extensionStart = pageFileName.lastIndexOf('.');
+      return (extensionStart < 0 ? pageFileName : pageFileName.substring(0, extensionStart)) + "." + EXTENSION;
+   }
+
+   /**
+    * @return the file offsets of the messages of the page or {@code null} if the index is missing, corrupt or stale
+    */
+   static int[] load(SequentialFileFactory factory, String pageFileName, int pageFileSize) {
+      final SequentialFile indexFile = factory.createSequentialFile(getIndexFileName(pageFileName));
+      if (!indexFile.exists()) {
+         return null;
+      }
+      ByteBuffer buffer = null;
+      try {
+         indexFile.open();
+         try {
+            final long indexSize = indexFile.size();
+            if (indexSize < HEADER_SIZE + CHECKSUM_SIZE || indexSize > Integer.MAX_VALUE) {
+               logger.debugf("Ignoring %s: invalid size %d", indexFile.getFileName(), indexSize);
+               return null;
+            }
+            buffer = factory.newBuffer((int) indexSize);
+            indexFile.position(0);
+            while (buffer.hasRemaining() && indexFile.read(buffer) > 0) {
+            }
+            if (buffer.hasRemaining()) {
+               logger.debugf("Ignoring %s: cannot read it whole", indexFile.getFileName());
+               return null;
+            }
+            buffer.flip();
+            final int version = buffer.getInt();
+            final int indexedPageFileSize = buffer.getInt();
+            final int numberOfMessages = buffer.getInt();
+            if (version != VERSION || numberOfMessages < 0 ||
+               indexSize != HEADER_SIZE + (long) numberOfMessages * DataConstants.SIZE_INT + CHECKSUM_SIZE) {
+               logger.debugf("Ignoring %s: invalid header", indexFile.getFileName());
+               return null;
+            }
+            if (indexedPageFileSize != pageFileSize) {
+               logger.debugf("Ignoring %s: built for a page file of %d bytes while it is %d bytes",
+                             indexFile.getFileName(), indexedPageFileSize, pageFileSize);
+               return null;
+            }
+            final int[] offsets = new int[numberOfMessages];
+            for (int i = 0; i < numberOfMessages; i++) {
+               offsets[i] = buffer.getInt();
+            }
+            final long checksum = buffer.getLong();
+            buffer.flip();
+            buffer.limit((int) indexSize - CHECKSUM_SIZE);
+            if (checksum(buffer) != checksum) {
+               logger.debugf("Ignoring %s: invalid checksum", indexFile.getFileName());
+               return null;
+            }
+            return offsets;
+         } finally {
+            indexFile.close();
+         }
+      } catch (Exception e) {
+         logger.debug("Cannot load " + indexFile.getFileName() + ", ignoring it", e);
+         return null;
+      } finally {
+         if (buffer != null) {
+            factory.releaseBuffer(buffer);
+         }
+      }
+   }
+
+   /**
+    * Writes the index of a page, replacing any previous one.
+    *
+    * @param offsets the file offsets of the first {@code numberOfMessages} messages of the page
+    */
+   static void write(SequentialFileFactory factory,
+                     String pageFileName,
+                     int pageFileSize,
+                     int[] offsets,
+                     int numberOfMessages) throws Exception {
+      final String indexFileName = getIndexFileName(pageFileName);
+      final int indexSize = HEADER_SIZE + numberOfMessages * DataConstants.SIZE_INT + CHECKSUM_SIZE;
+      final ByteBuffer buffer = factory.newBuffer(indexSize);
+      buffer.putInt(VERSION);
+      buffer.putInt(pageFileSize);
+      buffer.putInt(numberOfMessages);
+      for (int i = 0; i < numberOfMessages; i++) {
+         buffer.putInt(offsets[i]);
+      }
+      buffer.flip();
+      final long checksum = checksum(buffer);
+      buffer.limit(indexSize);
+      buffer.position(indexSize - CHECKSUM_SIZE);
+      buffer.putLong(checksum);
+      buffer.flip();
+      // all the pages of a store share the same factory: this prevents concurrent writers of the same index
+      synchronized (factory) {
+         final SequentialFile tmpFile = factory.createSequentialFile(indexFileName + ".tmp");
+         // a leftover of a previous crash would leave garbage at the end of the new index
+         if (tmpFile.exists()) {
+            tmpFile.delete();
+         }
+         tmpFile.open();
+         try {
+            tmpFile.writeDirect(buffer, true);
+         } finally {
+            tmpFile.close();
+         }
+         final SequentialFile indexFile = factory.createSequentialFile(indexFileName);
+         if (indexFile.exists()) {
+            indexFile.delete();
+         }
+         tmpFile.renameTo(indexFileName);
+      }
+      if (logger.isTraceEnabled()) {
+         logger.tracef("Written %s with %d messages", indexFileName, numberOfMessages);
+      }
+   }
+
+   static void delete(SequentialFileFactory factory, String pageFileName) throws Exception {
+      synchronized (factory) {
+         final SequentialFile indexFile = factory.createSequentialFile(getIndexFileName(pageFileName));
+         if (indexFile.exists()) {
+            indexFile.delete();
+         }
+      }
+   }
+
+   private static long checksum(ByteBuffer buffer) {
+      final CRC32 crc = new CRC32();
+      // it doesn't change the position of the given buffer
+      crc.update(buffer.duplicate());
+      return crc.getValue();
+   }
+}
@@ -76,6 +76,10 @@ public class PagingStoreFactoryNIO implements PagingStoreFactory {
 
    private final boolean readWholePage;
 
+   private final boolean readMappedPage;
+
+   private final boolean pageOffsetIndex;
+
    public File getDirectory() {
       return directory;
    }
@@ -122,6 +126,31 @@ public class PagingStoreFactoryNIO implements PagingStoreFactory {
                                 final boolean syncNonTransactional,
                                 final IOCriticalErrorListener critialErrorListener,
                                 final boolean readWholePage) {
+      this(storageManager, directory, syncTimeout, scheduledExecutor, executorFactory, syncNonTransactional, critialErrorListener, readWholePage, false);
+   }
+
+   public PagingStoreFactoryNIO(final StorageManager storageManager,
+                                final File directory,
+                                final long syncTimeout,
+                                final ScheduledExecutorService scheduledExecutor,
+                                final ExecutorFactory executorFactory,
+                                final boolean syncNonTransactional,
+                                final IOCriticalErrorListener critialErrorListener,
+                                final boolean readWholePage,
+                                final boolean readMappedPage) {
+      this(storageManager, directory, syncTimeout, scheduledExecutor, executorFactory, syncNonTransactional, critialErrorListener, readWholePage, readMappedPage, false);
+   }
+
+   public PagingStoreFactoryNIO(final StorageManager storageManager,
+                                final File directory,
+                                final long syncTimeout,
+                                final ScheduledExecutorService scheduledExecutor,
+                                final ExecutorFactory executorFactory,
+                                final boolean syncNonTransactional,
+                                final IOCriticalErrorListener critialErrorListener,
+                                final boolean readWholePage,
+                                final boolean readMappedPage,
+                                final boolean pageOffsetIndex) {
       this.storageManager = storageManager;
       this.directory = directory;
       this.executorFactory = executorFactory;
@@ -130,9 +159,21 @@ public class PagingStoreFactoryNIO implements PagingStoreFactory {
       this.syncTimeout = syncTimeout;
       this.critialErrorListener = critialErrorListener;
       this.readWholePage = readWholePage;
+      this.readMappedPage = readMappedPage;
+      this.pageOffsetIndex = pageOffsetIndex;
    }
 
 
+   @Override
+   public boolean isReadMappedPage() {
+      return readMappedPage;
+   }
+
+   @Override
+   public boolean isPageOffsetIndex() {
+      return pageOffsetIndex;
+   }
+
    @Override
    public ScheduledExecutorService getScheduledExecutor() {
       return scheduledExecutor;
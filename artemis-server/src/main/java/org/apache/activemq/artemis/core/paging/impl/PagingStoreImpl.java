@@ -587,6 +587,10 @@ public class PagingStoreImpl implements PagingStore {
 
       Page page = new Page(storeName, storageManager, factory, file, pageNumber);
 
+      page.setReadMapped(storeFactory.isReadMappedPage());
+
+      page.setOffsetIndex(storeFactory.isPageOffsetIndex());
+
       // To create the file
       file.open();
 
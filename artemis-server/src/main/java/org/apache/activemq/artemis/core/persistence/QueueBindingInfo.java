@@ -105,4 +105,11 @@ public interface QueueBindingInfo {
    long getAutoDeleteMessageCount();
 
    long getRingSize();
+
+   /**
+    * @return the name of the sharded queue this queue is a shard of, {@code null} if it isn't a shard
+    */
+   SimpleString getShardOf();
+
+   int getShardIndex();
 }
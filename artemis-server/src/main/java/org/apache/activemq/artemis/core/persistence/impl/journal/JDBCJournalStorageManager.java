@@ -69,13 +69,21 @@ public class JDBCJournalStorageManager extends JournalStorageManager {
                  sqlProviderFactory.create(dbConf.getBindingsTableName(), SQLProvider.DatabaseStoreType.BINDINGS_JOURNAL),
                  scheduledExecutorService,
                  executorFactory.getExecutor(),
-                 criticalErrorListener,dbConf.getJdbcJournalSyncPeriodMillis());
+                 criticalErrorListener,dbConf.getJdbcJournalSyncPeriodMillis(),
+                 dbConf.getJdbcJournalSyncConnections());
          messageJournal = new JDBCJournalImpl(
                  connectionProvider,
                  sqlProviderFactory.create(dbConf.getMessageTableName(), SQLProvider.DatabaseStoreType.MESSAGE_JOURNAL),
                  scheduledExecutorService, executorFactory.getExecutor(),
                  criticalErrorListener,
-                 dbConf.getJdbcJournalSyncPeriodMillis());
+                 dbConf.getJdbcJournalSyncPeriodMillis(),
+                 dbConf.getJdbcJournalSyncConnections());
+         bindingsJournal.setLoadFetchSize(dbConf.getJdbcJournalLoadFetchSize());
+         bindingsJournal.setLoadPartitions(dbConf.getJdbcJournalLoadPartitions());
+         messageJournal.setLoadFetchSize(dbConf.getJdbcJournalLoadFetchSize());
+         messageJournal.setLoadPartitions(dbConf.getJdbcJournalLoadPartitions());
+         bindingsJournal.setBulkInsert(dbConf.isJdbcJournalBulkInsert());
+         messageJournal.setBulkInsert(dbConf.isJdbcJournalBulkInsert());
          largeMessagesFactory = new JDBCSequentialFileFactory(
                  connectionProvider,
                  sqlProviderFactory.create(dbConf.getLargeMessageTableName(), SQLProvider.DatabaseStoreType.LARGE_MESSAGE),
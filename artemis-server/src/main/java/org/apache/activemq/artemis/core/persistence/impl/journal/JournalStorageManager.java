@@ -169,6 +169,7 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
       }
 
       journalFF.setDatasync(config.isJournalDatasync());
+      journalFF.setAdaptiveBufferTimeout(config.isJournalBufferAdaptiveTimeout());
 
 
       int fileSize = fixJournalFileSize(config.getJournalFileSize(), journalFF.getAlignment());
@@ -218,7 +219,8 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
    protected Journal createMessageJournal(Configuration config,
                                         IOCriticalErrorListener criticalErrorListener,
                                         int fileSize) {
-      return new JournalImpl(ioExecutorFactory, fileSize, config.getJournalMinFiles(), config.getJournalPoolFiles(), config.getJournalCompactMinFiles(), config.getJournalCompactPercentage(), config.getJournalFileOpenTimeout(), journalFF, ACTIVEMQ_DATA, "amq", journalFF.getMaxIO(), 0, criticalErrorListener, config.getJournalMaxAtticFiles());
+      return new JournalImpl(ioExecutorFactory, fileSize, config.getJournalMinFiles(), config.getJournalPoolFiles(), config.getJournalCompactMinFiles(), config.getJournalCompactPercentage(), config.getJournalFileOpenTimeout(), journalFF, ACTIVEMQ_DATA, "amq", journalFF.getMaxIO(), 0, criticalErrorListener, config.getJournalMaxAtticFiles())
+         .setLoadParallelism(config.getJournalLoadParallelism());
    }
 
    // Life Cycle Handlers
@@ -708,6 +710,7 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
          sendJournalFile(bindingsFiles, JournalContent.BINDINGS);
          sendLargeMessageFiles(pendingLargeMessages);
          sendPagesToBackup(pageFilesToSync, pagingManager);
+         replicationManager.awaitSyncFiles();
 
          storageManagerLock.writeLock().lock();
          try {
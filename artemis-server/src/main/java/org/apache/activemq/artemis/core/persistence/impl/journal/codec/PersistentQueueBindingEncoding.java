@@ -80,6 +80,10 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
 
    public long ringSize;
 
+   public SimpleString shardOf;
+
+   public int shardIndex;
+
    public PersistentQueueBindingEncoding() {
    }
 
@@ -132,6 +136,10 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
          autoDeleteDelay +
          ", autoDeleteMessageCount=" +
          autoDeleteMessageCount +
+         ", shardOf=" +
+         shardOf +
+         ", shardIndex=" +
+         shardIndex +
          "]";
    }
 
@@ -158,7 +166,9 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
                                          final long autoDeleteMessageCount,
                                          final byte routingType,
                                          final boolean configurationManaged,
-                                         final long ringSize) {
+                                         final long ringSize,
+                                         final SimpleString shardOf,
+                                         final int shardIndex) {
       this.name = name;
       this.address = address;
       this.filterString = filterString;
@@ -183,6 +193,8 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
       this.routingType = routingType;
       this.configurationManaged = configurationManaged;
       this.ringSize = ringSize;
+      this.shardOf = shardOf;
+      this.shardIndex = shardIndex;
    }
 
    @Override
@@ -387,6 +399,16 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
       return ringSize;
    }
 
+   @Override
+   public SimpleString getShardOf() {
+      return shardOf;
+   }
+
+   @Override
+   public int getShardIndex() {
+      return shardIndex;
+   }
+
    @Override
    public void decode(final ActiveMQBuffer buffer) {
       name = buffer.readSimpleString();
@@ -499,6 +521,14 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
       } else {
          groupRebalancePauseDispatch = ActiveMQDefaultConfiguration.getDefaultGroupRebalancePauseDispatch();
       }
+
+      if (buffer.readableBytes() > 0) {
+         shardOf = buffer.readNullableSimpleString();
+         shardIndex = buffer.readInt();
+      } else {
+         shardOf = null;
+         shardIndex = 0;
+      }
    }
 
    @Override
@@ -527,6 +557,8 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
       buffer.writeLong(ringSize);
       buffer.writeBoolean(enabled);
       buffer.writeBoolean(groupRebalancePauseDispatch);
+      buffer.writeNullableSimpleString(shardOf);
+      buffer.writeInt(shardIndex);
    }
 
    @Override
@@ -552,7 +584,9 @@ public class PersistentQueueBindingEncoding implements EncodingSupport, QueueBin
          SimpleString.sizeofNullableString(groupFirstKey) +
          DataConstants.SIZE_LONG +
          DataConstants.SIZE_BOOLEAN +
-         DataConstants.SIZE_BOOLEAN;
+         DataConstants.SIZE_BOOLEAN +
+         SimpleString.sizeofNullableString(shardOf) +
+         DataConstants.SIZE_INT;
    }
 
    private SimpleString createMetadata() {
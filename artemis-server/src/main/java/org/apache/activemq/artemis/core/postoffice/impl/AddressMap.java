@@ -17,28 +17,68 @@
 
 package org.apache.activemq.artemis.core.postoffice.impl;
 
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.activemq.artemis.api.core.SimpleString;
 
 public class AddressMap<T> {
 
+   // bounds the memory used by the cached matches of addresses that are never seen again
+   public static final int DEFAULT_MATCHES_CACHE_SIZE = 16 * 1024;
+
+   private static final Object[] NO_MATCHES = new Object[0];
+
    private final AddressPartNode<T> rootNode;
    private final char DELIMITER;
 
+   /**
+    * Results of {@link #visitMatchingWildcards} by address: any change to the map invalidates all of them, by
+    * increasing {@link #version}.
+    */
+   private final Map<SimpleString, CachedMatches> matchesCache = new ConcurrentHashMap<>();
+   private final AtomicLong version = new AtomicLong();
+   private final int matchesCacheSize;
+
    public AddressMap(final String any, String single, char delimiter) {
+      this(any, single, delimiter, DEFAULT_MATCHES_CACHE_SIZE);
+   }
+
+   /**
+    * @param matchesCacheSize how many addresses can have their matches cached, {@code 0} to disable the cache
+    */
+   public AddressMap(final String any, String single, char delimiter, int matchesCacheSize) {
       rootNode = new AddressPartNode<>(any, single);
       this.DELIMITER = delimiter;
+      this.matchesCacheSize = matchesCacheSize;
    }
 
    public void put(final SimpleString key, T value) {
       rootNode.add(getPaths(key), 0, value);
+      invalidateMatches();
    }
 
    public void remove(final SimpleString key, T value) {
       rootNode.remove(getPaths(key), 0, value);
+      invalidateMatches();
    }
 
    public void reset() {
       rootNode.reset();
+      invalidateMatches();
+      matchesCache.clear();
+   }
+
+   /**
+    * It must be called after the map has changed: a concurrent lookup that has read the previous version can only
+    * cache its (possibly stale) matches with that version, which is not valid anymore.
+    */
+   private void invalidateMatches() {
+      if (matchesCacheSize > 0) {
+         version.incrementAndGet();
+      }
    }
 
    public String[] getPaths(final SimpleString address) {
@@ -48,11 +88,34 @@ public class AddressMap<T> {
    /**
     * @param address - a non wildcard to match against wildcards in the map
     */
+   @SuppressWarnings("unchecked")
    public void visitMatchingWildcards(SimpleString address,
                                       AddressMapVisitor<T> collector) throws Exception {
+      if (matchesCacheSize <= 0) {
+         final String[] paths = getPaths(address);
+         rootNode.visitMatchingWildcards(paths, 0, collector);
+         return;
+      }
+      for (Object match : getMatchingWildcards(address)) {
+         collector.visit((T) match);
+      }
+   }
 
-      final String[] paths = getPaths(address);
-      rootNode.visitMatchingWildcards(paths, 0, collector);
+   private Object[] getMatchingWildcards(SimpleString address) throws Exception {
+      // read it before walking the map, see invalidateMatches
+      final long currentVersion = version.get();
+      final CachedMatches cached = matchesCache.get(address);
+      if (cached != null && cached.version == currentVersion) {
+         return cached.matches;
+      }
+      final ArrayList<T> matches = new ArrayList<>();
+      rootNode.visitMatchingWildcards(getPaths(address), 0, matches::add);
+      final Object[] result = matches.isEmpty() ? NO_MATCHES : matches.toArray();
+      if (cached == null && matchesCache.size() >= matchesCacheSize) {
+         matchesCache.clear();
+      }
+      matchesCache.put(address, new CachedMatches(currentVersion, result));
+      return result;
    }
 
    /**
@@ -64,5 +127,14 @@ public class AddressMap<T> {
       rootNode.visitNonWildcard(paths, 0, collector);
    }
 
-}
+   private static final class CachedMatches {
+
+      final long version;
+      final Object[] matches;
 
+      CachedMatches(long version, Object[] matches) {
+         this.version = version;
+         this.matches = matches;
+      }
+   }
+}
@@ -20,6 +20,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -65,6 +66,12 @@ public final class BindingsImpl implements Bindings {
 
    private final Set<Binding> exclusiveBindings = new CopyOnWriteArraySet<>();
 
+   /**
+    * The bindings of the sharded queues of this address and of their shards, indexed on the binding's uniqueName. The
+    * bindings of a sharded queue and of its shards share the same {@link QueueShardBindings}.
+    */
+   private final Map<SimpleString, QueueShardBindings> queueShardBindings = new ConcurrentHashMap<>();
+
    private volatile MessageLoadBalancingType messageLoadBalancingType = MessageLoadBalancingType.OFF;
 
    private final GroupingHandler groupingHandler;
@@ -127,6 +134,10 @@ public final class BindingsImpl implements Bindings {
          bindingsIdMap.put(binding.getID(), binding);
          bindingsNameMap.put(binding.getUniqueName(), binding);
 
+         if (binding instanceof LocalQueueBinding) {
+            addQueueShardBinding((LocalQueueBinding) binding);
+         }
+
          if (binding instanceof RemoteQueueBinding) {
             setMessageLoadBalancingType(((RemoteQueueBinding) binding).getMessageLoadBalancingType());
          }
@@ -163,6 +174,10 @@ public final class BindingsImpl implements Bindings {
          bindingsIdMap.remove(binding.getID());
          assert !bindingsNameMap.containsKey(binding.getUniqueName());
 
+         if (binding instanceof LocalQueueBinding) {
+            removeQueueShardBinding((LocalQueueBinding) binding);
+         }
+
          if (logger.isTraceEnabled()) {
             logger.trace("Removing binding " + binding + " from " + this + " bindingTable: " + debugBindings());
          }
@@ -181,6 +196,21 @@ public final class BindingsImpl implements Bindings {
    public boolean redistribute(final Message message,
                                final Queue originatingQueue,
                                final RoutingContext context) throws Exception {
+      final QueueShardBindings shardBindings = queueShardBindings.isEmpty() ? null : queueShardBindings.get(originatingQueue.getName());
+      if (shardBindings != null) {
+         // the messages of a shard without consumers go to the other shards of its queue
+         final SimpleString groupID = message.getGroupID();
+         final int hash = groupID != null ? groupID.hashCode() : Long.hashCode(message.getMessageID());
+         final Binding shardBinding = getQueueShardBinding(message, shardBindings.getBindings(), hash, originatingQueue, true);
+         if (shardBinding != null) {
+            shardBinding.route(message, context);
+            return true;
+         }
+         if (groupID != null) {
+            return false;
+         }
+      }
+
       final MessageLoadBalancingType loadBalancingType = this.messageLoadBalancingType;
       if (loadBalancingType.equals(MessageLoadBalancingType.STRICT) || loadBalancingType.equals(MessageLoadBalancingType.OFF)) {
          return false;
@@ -331,7 +361,18 @@ public final class BindingsImpl implements Bindings {
       }
 
       routingNameBindingMap.forEachBindings((bindings, nextPosition) -> {
-         final Binding nextBinding = getNextBinding(message, bindings, nextPosition);
+         Binding nextBinding = getNextBinding(message, bindings, nextPosition);
+         SimpleString groupID;
+         if (nextBinding != null && !queueShardBindings.isEmpty() && (groupID = message.getGroupID()) != null) {
+            // the messages of a group must stay on the same shard of a sharded queue to be consumed in order
+            final QueueShardBindings shardBindings = queueShardBindings.get(nextBinding.getUniqueName());
+            if (shardBindings != null) {
+               final Binding shardBinding = getQueueShardBinding(message, shardBindings.getBindings(), groupID.hashCode(), null, false);
+               if (shardBinding != null) {
+                  nextBinding = shardBinding;
+               }
+            }
+         }
          if (nextBinding != null && nextBinding.getFilter() == null && nextBinding.isLocal() && bindings.length == 1) {
             context.setReusable(true, currentVersion);
          } else {
@@ -405,6 +446,71 @@ public final class BindingsImpl implements Bindings {
       return nextBinding;
    }
 
+   /**
+    * Walks the shards of a sharded queue from the one {@code hash} falls on.
+    *
+    * @return the first matching shard with a matching consumer, else the first matching shard unless
+    * {@code requireConsumers}, skipping the shard {@code excluded}
+    */
+   private static Binding getQueueShardBinding(final Message message,
+                                               final Binding[] shardBindings,
+                                               final int hash,
+                                               final Queue excluded,
+                                               final boolean requireConsumers) {
+      final int shardsCount = shardBindings.length;
+      if (shardsCount == 0) {
+         return null;
+      }
+      int position = Math.floorMod(hash, shardsCount);
+      Binding firstMatching = null;
+      for (int i = 0; i < shardsCount; i++) {
+         final Binding binding = shardBindings[position];
+         position = moveNextPosition(position, shardsCount);
+         if (binding == null || binding.getBindable() == excluded) {
+            continue;
+         }
+         final Filter filter = binding.getFilter();
+         if (filter != null && !filter.match(message)) {
+            continue;
+         }
+         if (binding.isHighAcceptPriority(message)) {
+            return binding;
+         }
+         if (firstMatching == null) {
+            firstMatching = binding;
+         }
+      }
+      return requireConsumers ? null : firstMatching;
+   }
+
+   private void addQueueShardBinding(final LocalQueueBinding binding) {
+      final SimpleString uniqueName = binding.getUniqueName();
+      final Queue queue = binding.getQueue();
+      final SimpleString shardedQueueName = queue.getShardOf();
+      if (shardedQueueName == null) {
+         // the shards of the queue can be loaded before it
+         final QueueShardBindings shardBindings = queueShardBindings.get(uniqueName);
+         if (shardBindings != null) {
+            shardBindings.set(0, binding);
+         }
+         return;
+      }
+      final QueueShardBindings shardBindings = queueShardBindings.computeIfAbsent(shardedQueueName, name -> new QueueShardBindings());
+      shardBindings.set(queue.getShardIndex(), binding);
+      queueShardBindings.put(uniqueName, shardBindings);
+      final Binding shardedQueueBinding = bindingsNameMap.get(shardedQueueName);
+      if (shardedQueueBinding != null) {
+         shardBindings.set(0, shardedQueueBinding);
+      }
+   }
+
+   private void removeQueueShardBinding(final LocalQueueBinding binding) {
+      final QueueShardBindings shardBindings = queueShardBindings.remove(binding.getUniqueName());
+      if (shardBindings != null) {
+         shardBindings.set(binding.getQueue().getShardIndex(), null);
+      }
+   }
+
    private static boolean matchBinding(final Message message,
                                        final Binding binding,
                                        final MessageLoadBalancingType loadBalancingType) {
@@ -597,4 +703,31 @@ public final class BindingsImpl implements Bindings {
    public Map<SimpleString, List<Binding>> getRoutingNameBindingMap() {
       return routingNameBindingMap.copyAsMap();
    }
+
+   /**
+    * The bindings of a sharded queue and of its shards, ordered by shard so that the messages of a group go to the
+    * same shard after a restart.
+    */
+   private static final class QueueShardBindings {
+
+      private volatile Binding[] bindings = new Binding[0];
+
+      Binding[] getBindings() {
+         return bindings;
+      }
+
+      synchronized void set(final int index, final Binding binding) {
+         Binding[] newBindings = bindings;
+         if (index >= newBindings.length) {
+            if (binding == null) {
+               return;
+            }
+            newBindings = Arrays.copyOf(newBindings, index + 1);
+         } else {
+            newBindings = newBindings.clone();
+         }
+         newBindings[index] = binding;
+         bindings = newBindings;
+      }
+   }
 }
@@ -32,8 +32,37 @@ public final class DuplicateIDCaches {
       return new PersistentDuplicateIDCache(address, size, storageManager);
    }
 
+   /**
+    * @param filterSize        how many ids evicted from the cache are still remembered by a probabilistic filter,
+    *                          {@code 0} to not use any filter
+    * @param falsePositiveRate the probability of the filter to report a new id as a duplicate
+    */
+   public static DuplicateIDCache persistent(final SimpleString address,
+                                             final int size,
+                                             final StorageManager storageManager,
+                                             final int filterSize,
+                                             final double falsePositiveRate) {
+      return new PersistentDuplicateIDCache(address, size, storageManager, evictedIdsFilter(filterSize, falsePositiveRate));
+   }
+
    public static DuplicateIDCache inMemory(final SimpleString address, final int size) {
       return new InMemoryDuplicateIDCache(address, size);
    }
 
+   /**
+    * @param filterSize        how many ids evicted from the cache are still remembered by a probabilistic filter,
+    *                          {@code 0} to not use any filter
+    * @param falsePositiveRate the probability of the filter to report a new id as a duplicate
+    */
+   public static DuplicateIDCache inMemory(final SimpleString address,
+                                           final int size,
+                                           final int filterSize,
+                                           final double falsePositiveRate) {
+      return new InMemoryDuplicateIDCache(address, size, evictedIdsFilter(filterSize, falsePositiveRate));
+   }
+
+   private static RollingBloomFilter evictedIdsFilter(final int filterSize, final double falsePositiveRate) {
+      return filterSize > 0 ? new RollingBloomFilter(filterSize, falsePositiveRate) : null;
+   }
+
 }
@@ -58,7 +58,14 @@ final class InMemoryDuplicateIDCache implements DuplicateIDCache {
 
    private final int cacheSize;
 
+   // remembers the ids evicted from the cache, if any
+   private final RollingBloomFilter evictedIds;
+
    InMemoryDuplicateIDCache(final SimpleString address, final int size) {
+      this(address, size, null);
+   }
+
+   InMemoryDuplicateIDCache(final SimpleString address, final int size, final RollingBloomFilter evictedIds) {
       this.address = address;
 
       cacheSize = size;
@@ -66,6 +73,8 @@ final class InMemoryDuplicateIDCache implements DuplicateIDCache {
       ids = new ArrayList<>(size);
 
       cachedBoxedInts = boxedInts(size);
+
+      this.evictedIds = evictedIds;
    }
 
    @Override
@@ -120,6 +129,13 @@ final class InMemoryDuplicateIDCache implements DuplicateIDCache {
             LOGGER.tracef("address = %s found a duplicate ", address, describeID(id.bytes));
          }
       }
+
+      if (!contains && evictedIds != null) {
+         contains = evictedIds.mightContain(id.bytes);
+         if (contains && LOGGER.isTraceEnabled()) {
+            LOGGER.tracef("address = %s found a probable duplicate of an evicted id %s", address, describeID(id.bytes));
+         }
+      }
       return contains;
    }
 
@@ -192,6 +208,11 @@ final class InMemoryDuplicateIDCache implements DuplicateIDCache {
                LOGGER.tracef("address = %s removing excess duplicateDetection %s", address, describeID(id.bytes));
             }
 
+            // remember it before it leaves the cache, so concurrent lookups cannot miss it
+            if (evictedIds != null) {
+               evictedIds.add(id.bytes);
+            }
+
             cache.remove(id);
          }
 
@@ -219,6 +240,9 @@ final class InMemoryDuplicateIDCache implements DuplicateIDCache {
       }
       ids.clear();
       cache.clear();
+      if (evictedIds != null) {
+         evictedIds.clear();
+      }
       pos = 0;
    }
 
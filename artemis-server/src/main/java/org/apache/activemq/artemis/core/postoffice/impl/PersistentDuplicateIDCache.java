@@ -62,9 +62,19 @@ final class PersistentDuplicateIDCache implements DuplicateIDCache {
 
    private final int cacheSize;
 
+   // remembers the ids evicted from the cache, if any
+   private final RollingBloomFilter evictedIds;
+
    private final StorageManager storageManager;
 
    PersistentDuplicateIDCache(final SimpleString address, final int size, final StorageManager storageManager) {
+      this(address, size, storageManager, null);
+   }
+
+   PersistentDuplicateIDCache(final SimpleString address,
+                              final int size,
+                              final StorageManager storageManager,
+                              final RollingBloomFilter evictedIds) {
       this.address = address;
 
       cacheSize = size;
@@ -74,6 +84,8 @@ final class PersistentDuplicateIDCache implements DuplicateIDCache {
       cachedBoxedInts = boxedInts(size);
 
       this.storageManager = storageManager;
+
+      this.evictedIds = evictedIds;
    }
 
    @Override
@@ -113,6 +125,9 @@ final class PersistentDuplicateIDCache implements DuplicateIDCache {
             }
 
             storageManager.deleteDuplicateIDTransactional(txID, id.getB());
+            if (evictedIds != null) {
+               evictedIds.add(id.getA());
+            }
             toNotBeAdded--;
          } else {
             ByteArray bah = new ByteArray(id.getA());
@@ -192,6 +207,13 @@ final class PersistentDuplicateIDCache implements DuplicateIDCache {
             LOGGER.tracef("address = %s found a duplicate %s", address, describeID(duplID.bytes));
          }
       }
+
+      if (!contains && evictedIds != null) {
+         contains = evictedIds.mightContain(duplID.bytes);
+         if (contains && LOGGER.isTraceEnabled()) {
+            LOGGER.tracef("address = %s found a probable duplicate of an evicted id %s", address, describeID(duplID.bytes));
+         }
+      }
       return contains;
    }
 
@@ -280,6 +302,11 @@ final class PersistentDuplicateIDCache implements DuplicateIDCache {
                LOGGER.tracef("address = %s removing excess duplicateDetection %s", address, describeID(id.getA().bytes, id.getB()));
             }
 
+            // remember it before it leaves the cache, so concurrent lookups cannot miss it
+            if (evictedIds != null) {
+               evictedIds.add(id.getA().bytes);
+            }
+
             cache.remove(id.getA());
 
             assert id.getB() != NIL;
@@ -332,6 +359,9 @@ final class PersistentDuplicateIDCache implements DuplicateIDCache {
 
       ids.clear();
       cache.clear();
+      if (evictedIds != null) {
+         evictedIds.clear();
+      }
       pos = 0;
    }
 
@@ -86,6 +86,7 @@ import org.apache.activemq.artemis.core.server.group.GroupingHandler;
 import org.apache.activemq.artemis.core.server.impl.AckReason;
 import org.apache.activemq.artemis.core.server.impl.AddressInfo;
 import org.apache.activemq.artemis.core.server.impl.QueueManagerImpl;
+import org.apache.activemq.artemis.core.server.impl.QueueShards;
 import org.apache.activemq.artemis.core.server.impl.RoutingContextImpl;
 import org.apache.activemq.artemis.core.server.management.ManagementService;
 import org.apache.activemq.artemis.core.server.management.Notification;
@@ -1327,7 +1328,8 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                                                      final Transaction tx) throws Exception {
       Bindings bindings = addressManager.getBindingsForRoutingAddress(message.getAddressSimpleString());
 
-      if (bindings != null && bindings.allowRedistribute()) {
+      // the shards of a queue redistribute to each other whatever the cluster redistribution
+      if (bindings != null && (bindings.allowRedistribute() || QueueShards.isSharded(originatingQueue))) {
          // We have to copy the message and store it separately, otherwise we may lose remote bindings in case of restart before the message
          // arrived the target node
          // as described on https://issues.jboss.org/browse/JBPAPP-6130
@@ -1356,10 +1358,13 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       DuplicateIDCache cache = duplicateIDCaches.get(address);
 
       if (cache == null) {
+         final AddressSettings addressSettings = addressSettingsRepository.getMatch(address.toString());
+         final int filterSize = addressSettings.getIDCacheFilterSize();
+         final double falsePositiveRate = addressSettings.getIDCacheFilterFalsePositiveRate();
          if (persistIDCache) {
-            cache = DuplicateIDCaches.persistent(address, cacheSizeToUse, storageManager);
+            cache = DuplicateIDCaches.persistent(address, cacheSizeToUse, storageManager, filterSize, falsePositiveRate);
          } else {
-            cache = DuplicateIDCaches.inMemory(address, cacheSizeToUse);
+            cache = DuplicateIDCaches.inMemory(address, cacheSizeToUse, filterSize, falsePositiveRate);
          }
 
          DuplicateIDCache oldCache = duplicateIDCaches.putIfAbsent(address, cache);
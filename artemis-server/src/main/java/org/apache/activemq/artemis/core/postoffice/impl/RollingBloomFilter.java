@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter remembering (at least) the last {@code capacity} added ids, used by the duplicate ID caches to keep
+ * detecting duplicates of ids already evicted from their exact window.
+ *
+ * <p>The filter is split in a few generations: ids are added to the current one and, once it is full, the oldest
+ * generation is cleared and becomes the current one. This bounds the false positive rate without ever growing,
+ * while forgetting the oldest ids.</p>
+ *
+ * <p>{@link #add(byte[])} and {@link #clear()} must be serialized by the caller, {@link #mightContain(byte[])} can
+ * be called concurrently with them.</p>
+ */
+final class RollingBloomFilter {
+
+   private static final int GENERATIONS = 4;
+
+   private static final double LN2 = Math.log(2);
+
+   private final AtomicLongArray[] generations;
+
+   private final int generationCapacity;
+
+   private final long bitsPerGeneration;
+
+   private final int hashes;
+
+   private int current;
+
+   private int currentCount;
+
+   /**
+    * @param capacity          how many of the last added ids must be remembered
+    * @param falsePositiveRate the probability of {@link #mightContain(byte[])} to return {@code true} for an id
+    *                          never added
+    */
+   RollingBloomFilter(final int capacity, final double falsePositiveRate) {
+      if (capacity <= 0) {
+         throw new IllegalArgumentException("capacity must be > 0");
+      }
+      if (falsePositiveRate <= 0 || falsePositiveRate > 1) {
+         throw new IllegalArgumentException("falsePositiveRate must be > 0 and <= 1");
+      }
+      // the current generation is being filled while the other ones are full: they must hold capacity ids
+      generationCapacity = (capacity + GENERATIONS - 2) / (GENERATIONS - 1);
+      // a lookup hits any of the generations
+      final double generationFalsePositiveRate = falsePositiveRate / GENERATIONS;
+      final long bits = (long) Math.ceil(-generationCapacity * Math.log(generationFalsePositiveRate) / (LN2 * LN2));
+      final long words = Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+      if (words > Integer.MAX_VALUE) {
+         throw new IllegalArgumentException("capacity " + capacity + " is too big for a false positive rate of " + falsePositiveRate);
+      }
+      bitsPerGeneration = words * Long.SIZE;
+      hashes = Math.max(1, (int) Math.round((double) bitsPerGeneration / generationCapacity * LN2));
+      generations = new AtomicLongArray[GENERATIONS];
+      for (int i = 0; i < GENERATIONS; i++) {
+         generations[i] = new AtomicLongArray((int) words);
+      }
+   }
+
+   void add(final byte[] id) {
+      if (currentCount == generationCapacity) {
+         current = (current + 1) % GENERATIONS;
+         final AtomicLongArray oldest = generations[current];
+         for (int i = 0, length = oldest.length(); i < length; i++) {
+            oldest.lazySet(i, 0);
+         }
+         currentCount = 0;
+      }
+      final AtomicLongArray generation = generations[current];
+      final long hash = hash(id);
+      final long increment = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+      long combined = hash;
+      for (int i = 0; i < hashes; i++) {
+         final long bit = Long.remainderUnsigned(combined, bitsPerGeneration);
+         final int word = (int) (bit >>> 6);
+         // adds are serialized: no need to CAS
+         generation.set(word, generation.get(word) | (1L << bit));
+         combined += increment;
+      }
+      currentCount++;
+   }
+
+   boolean mightContain(final byte[] id) {
+      final long hash = hash(id);
+      final long increment = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+      for (AtomicLongArray generation : generations) {
+         if (mightContain(generation, hash, increment)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private boolean mightContain(final AtomicLongArray generation, final long hash, final long increment) {
+      long combined = hash;
+      for (int i = 0; i < hashes; i++) {
+         final long bit = Long.remainderUnsigned(combined, bitsPerGeneration);
+         if ((generation.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+            return false;
+         }
+         combined += increment;
+      }
+      return true;
+   }
+
+   void clear() {
+      for (AtomicLongArray generation : generations) {
+         for (int i = 0, length = generation.length(); i < length; i++) {
+            generation.lazySet(i, 0);
+         }
+      }
+      current = 0;
+      currentCount = 0;
+   }
+
+   /**
+    * 64 bits FNV-1a, finalized with the MurmurHash3 mixer to spread the few bytes changing between sequential ids.
+    */
+   private static long hash(final byte[] id) {
+      long hash = 0xcbf29ce484222325L;
+      for (byte b : id) {
+         hash ^= b & 0xFF;
+         hash *= 0x100000001b3L;
+      }
+      return mix(hash);
+   }
+
+   private static long mix(long hash) {
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      hash *= 0xc4ceb9fe1a85ec53L;
+      hash ^= hash >>> 33;
+      return hash;
+   }
+}
@@ -57,6 +57,9 @@ public class WildcardAddressManager extends SimpleAddressManager {
 
          final Bindings[] lazyCreateResult = new Bindings[1];
 
+         // the address map caches the matching wildcards of each address, even if none:
+         // publishing again to an address without bindings won't walk it again until the map changes
+
          addressMap.visitMatchingWildcards(address, new AddressMapVisitor<Bindings>() {
 
             Bindings newBindings = null;
@@ -93,6 +93,7 @@ import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.BindingQueryResult;
 import org.apache.activemq.artemis.core.server.LargeServerMessage;
 import org.apache.activemq.artemis.core.server.QueueQueryResult;
+import org.apache.activemq.artemis.core.server.ServerConsumer;
 import org.apache.activemq.artemis.core.server.ServerSession;
 import org.apache.activemq.artemis.logs.AuditLogger;
 import org.apache.activemq.artemis.spi.core.protocol.EmbedMessageUtil;
@@ -799,6 +800,12 @@ public class ServerSessionPacketHandler implements ChannelHandler {
          boolean requiresResponse = false;
          try {
             SessionConsumerFlowCreditMessage message = (SessionConsumerFlowCreditMessage) packet;
+            if (message.getWindowSize() >= 0) {
+               ServerConsumer consumer = session.locateConsumer(message.getConsumerID());
+               if (consumer != null) {
+                  consumer.setCreditWindowSize(message.getWindowSize());
+               }
+            }
             session.receiveConsumerCredits(message.getConsumerID(), message.getCredits());
          } catch (ActiveMQIOErrorException e) {
             response = onActiveMQIOErrorExceptionWhileHandlePacket(packet, e, requiresResponse, response, this.session);
@@ -170,6 +170,11 @@ public final class CoreSessionCallback implements SessionCallback {
       }
    }
 
+   @Override
+   public boolean supportsBatchedHandling() {
+      return true;
+   }
+
    @Override
    public boolean hasCredits(ServerConsumer consumer) {
       // This one will always return has credits
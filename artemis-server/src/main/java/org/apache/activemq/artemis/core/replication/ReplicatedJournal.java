@@ -638,6 +638,16 @@ public class ReplicatedJournal implements Journal {
       return localJournal.getFileSize();
    }
 
+   @Override
+   public long getCompactBytesReclaimed() {
+      return localJournal.getCompactBytesReclaimed();
+   }
+
+   @Override
+   public long getCompactPauseTime() {
+      return localJournal.getCompactPauseTime();
+   }
+
    @Override
    public void scheduleCompactAndBlock(int timeout) throws Exception {
       localJournal.scheduleCompactAndBlock(timeout);
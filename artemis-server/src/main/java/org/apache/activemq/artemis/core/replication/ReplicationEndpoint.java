@@ -73,6 +73,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Replicatio
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationPrepareMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV2;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV3;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage.SyncDataType;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncFileMessage;
@@ -141,6 +142,11 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
 
    private final ArrayDeque<Packet> pendingPackets;
 
+   /**
+    * Plain responses not sent yet, to be acknowledged at once at the end of the batch.
+    */
+   private int pendingResponses;
+
 
 
    public ReplicationEndpoint(final ActiveMQServerImpl server,
@@ -253,7 +259,13 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
             logger.trace("Returning " + response);
          }
          if (supportResponseBatching) {
-            pendingPackets.add(response);
+            if (response.getType() == PacketImpl.REPLICATION_RESPONSE && channel.getConnection().isVersionSupportCumulativeReplicationResponse()) {
+               pendingResponses++;
+            } else {
+               // the live server completes the responses in order
+               addPendingResponses();
+               pendingPackets.add(response);
+            }
          } else {
             channel.send(response);
          }
@@ -264,6 +276,7 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
 
    @Override
    public void endOfBatch() {
+      addPendingResponses();
       final ArrayDeque<Packet> pendingPackets = this.pendingPackets;
       if (pendingPackets.isEmpty()) {
          return;
@@ -275,6 +288,15 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
       }
    }
 
+   private void addPendingResponses() {
+      final int responses = pendingResponses;
+      if (responses == 0) {
+         return;
+      }
+      pendingResponses = 0;
+      pendingPackets.add(responses == 1 ? new ReplicationResponseMessage() : new ReplicationResponseMessageV3(responses));
+   }
+
    /**
     * @param packet
     */
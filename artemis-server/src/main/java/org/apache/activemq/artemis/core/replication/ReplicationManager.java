@@ -28,7 +28,11 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
@@ -72,6 +76,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Replicatio
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationPageWriteMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationPrepareMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV2;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV3;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncFileMessage;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
@@ -155,6 +160,28 @@ public final class ReplicationManager implements ActiveMQComponent {
 
    private final long initialReplicationSyncTimeout;
 
+   private final int initialReplicationSyncParallelism;
+
+   /**
+    * Bounds the files being sent at once during the initial synchronization, {@code null} if they are sent one at a
+    * time by the synchronizing thread.
+    */
+   private final Semaphore syncPermits;
+
+   private final AtomicReference<Exception> syncFailure = new AtomicReference<>();
+
+   private final AtomicLong syncFilesToSend = new AtomicLong();
+
+   private final AtomicLong syncFilesSent = new AtomicLong();
+
+   private final AtomicLong syncBytesToSend = new AtomicLong();
+
+   private final AtomicLong syncBytesSent = new AtomicLong();
+
+   private volatile long syncStartNanos;
+
+   private volatile long syncEndNanos;
+
    private volatile boolean inSync = true;
 
    private final ReusableLatch synchronizationIsFinishedAcknowledgement = new ReusableLatch(0);
@@ -176,6 +203,9 @@ public final class ReplicationManager implements ActiveMQComponent {
    }
 
    private final Queue<ReplicatePacketRequest> replicatePacketRequests;
+   // whether a task draining replicatePacketRequests is already on its way to the replicationStream
+   private final AtomicBoolean drainScheduled = new AtomicBoolean();
+   private final Runnable drainReplicatePacketRequests = this::drainReplicatePacketRequests;
    private final Executor replicationStream;
    private final ScheduledExecutorService scheduledExecutorService;
    private ScheduledFuture<?> slowReplicationChecker;
@@ -185,17 +215,29 @@ public final class ReplicationManager implements ActiveMQComponent {
    private boolean isFlushing;
    private boolean awaitingResume;
 
+   public ReplicationManager(ActiveMQServer server,
+                             CoreRemotingConnection remotingConnection,
+                             final long timeout,
+                             final long initialReplicationSyncTimeout,
+                             final ExecutorFactory ioExecutorFactory) {
+      this(server, remotingConnection, timeout, initialReplicationSyncTimeout, 1, ioExecutorFactory);
+   }
+
    /**
     * @param remotingConnection
+    * @param initialReplicationSyncParallelism how many files are sent at once during the initial synchronization
     */
    public ReplicationManager(ActiveMQServer server,
                              CoreRemotingConnection remotingConnection,
                              final long timeout,
                              final long initialReplicationSyncTimeout,
+                             final int initialReplicationSyncParallelism,
                              final ExecutorFactory ioExecutorFactory) {
       this.server = server;
       this.ioExecutorFactory = ioExecutorFactory;
       this.initialReplicationSyncTimeout = initialReplicationSyncTimeout;
+      this.initialReplicationSyncParallelism = initialReplicationSyncParallelism;
+      this.syncPermits = initialReplicationSyncParallelism > 1 ? new Semaphore(initialReplicationSyncParallelism) : null;
       this.replicatingChannel = remotingConnection.getChannel(CHANNEL_ID.REPLICATION.id, -1);
       this.remotingConnection = remotingConnection;
       final Connection transportConnection = this.remotingConnection.getTransportConnection();
@@ -473,17 +515,24 @@ public final class ReplicationManager implements ActiveMQComponent {
       }
       final ReplicatePacketRequest request = new ReplicatePacketRequest(packet, repliToken, done);
       replicatePacketRequests.add(request);
-      replicationStream.execute(() -> {
-         if (enabled) {
-            sendReplicatedPackets(false);
-         } else {
-            releaseReplicatedPackets(replicatePacketRequests);
-         }
-      });
+      // a single task sends every request added until it runs, with a single flush
+      if (!drainScheduled.get() && drainScheduled.compareAndSet(false, true)) {
+         replicationStream.execute(drainReplicatePacketRequests);
+      }
 
       return repliToken;
    }
 
+   private void drainReplicatePacketRequests() {
+      // requests added from now on need another task: this one could have already polled the last one
+      drainScheduled.set(false);
+      if (enabled) {
+         sendReplicatedPackets(false);
+      } else {
+         releaseReplicatedPackets(replicatePacketRequests);
+      }
+   }
+
    private void releaseReplicatedPackets(Queue<ReplicatePacketRequest> requests) {
       assert checkEventLoop();
       ReplicatePacketRequest req;
@@ -616,6 +665,15 @@ public final class ReplicationManager implements ActiveMQComponent {
       ctx.replicationDone();
    }
 
+   /**
+    * Completes the given number of replicated packets at once, in the order they were sent.
+    */
+   private void replicated(int responses) {
+      for (int i = 0; i < responses; i++) {
+         replicated();
+      }
+   }
+
 
    private final class ReplicatedSessionFailureListener implements SessionFailureListener {
 
@@ -657,6 +715,8 @@ public final class ReplicationManager implements ActiveMQComponent {
                   synchronizationIsFinishedAcknowledgement.countDown();
                }
             }
+         } else if (packet.getType() == PacketImpl.REPLICATION_RESPONSE_V3) {
+            replicated(((ReplicationResponseMessageV3) packet).getResponses());
          }
       }
 
@@ -691,24 +751,94 @@ public final class ReplicationManager implements ActiveMQComponent {
          return;
       }
       SequentialFile file = jf.getFile().cloneFile();
-      try {
-         ActiveMQServerLogger.LOGGER.replicaSyncFile(file, file.size());
-         sendLargeFile(content, null, jf.getFileID(), file, Long.MAX_VALUE);
-      } finally {
-         if (file.isOpen())
-            file.close();
-      }
+      syncFile(file.size(), () -> {
+         try {
+            ActiveMQServerLogger.LOGGER.replicaSyncFile(file, file.size());
+            sendLargeFile(content, null, jf.getFileID(), file, Long.MAX_VALUE);
+         } finally {
+            if (file.isOpen())
+               file.close();
+         }
+      });
    }
 
    public void syncLargeMessageFile(SequentialFile file, long size, long id) throws Exception {
       if (enabled) {
-         sendLargeFile(null, null, id, file, size);
+         syncFile(size, () -> sendLargeFile(null, null, id, file, size));
       }
    }
 
    public void syncPages(SequentialFile file, long id, SimpleString queueName) throws Exception {
       if (enabled)
-         sendLargeFile(null, queueName, id, file, Long.MAX_VALUE);
+         syncFile(file.size(), () -> sendLargeFile(null, queueName, id, file, Long.MAX_VALUE));
+   }
+
+   @FunctionalInterface
+   private interface SyncFileTask {
+
+      void send() throws Exception;
+   }
+
+   /**
+    * Sends a file to the backup on the calling thread or, if several files can be sent at once, on an IO thread, in
+    * which case it only waits for one of the files being sent to be done.
+    * <p>
+    * The chunks of the files being sent at once are interleaved on the replication channel: while a file waits for
+    * its chunks to be flushed, the others keep the channel busy.
+    *
+    * @see #awaitSyncFiles()
+    */
+   private void syncFile(long size, SyncFileTask task) throws Exception {
+      if (syncStartNanos == 0) {
+         syncStartNanos = System.nanoTime();
+      }
+      syncFilesToSend.incrementAndGet();
+      syncBytesToSend.addAndGet(size);
+      if (syncPermits == null) {
+         task.send();
+         syncFilesSent.incrementAndGet();
+         return;
+      }
+      checkSyncFailure();
+      syncPermits.acquire();
+      try {
+         ioExecutorFactory.getExecutor().execute(() -> {
+            try {
+               task.send();
+               syncFilesSent.incrementAndGet();
+            } catch (Exception e) {
+               syncFailure.compareAndSet(null, e);
+            } finally {
+               // the packets of the file have been lined up on the context of this IO thread
+               OperationContextImpl.clearContext();
+               syncPermits.release();
+            }
+         });
+      } catch (Throwable e) {
+         syncPermits.release();
+         throw e;
+      }
+   }
+
+   /**
+    * Waits for the files being sent to the backup to be done, rethrowing the first failure of any of them.
+    * <p>
+    * It must be called before {@link #sendSynchronizationDone}.
+    */
+   public void awaitSyncFiles() throws Exception {
+      if (syncPermits != null) {
+         // each file waits at most initialReplicationSyncTimeout for every chunk to be flushed
+         syncPermits.acquire(initialReplicationSyncParallelism);
+         syncPermits.release(initialReplicationSyncParallelism);
+      }
+      checkSyncFailure();
+   }
+
+   private void checkSyncFailure() throws Exception {
+      final Exception failure = syncFailure.get();
+      if (failure != null) {
+         throw failure;
+      }
    }
 
    /**
@@ -772,6 +902,9 @@ public final class ReplicationManager implements ActiveMQComponent {
                   sendReplicatePacket(new ReplicationSyncFileMessage(content, pageStore, id, toSend, buffer), true);
                }
                packetsSent++;
+               if (toSend > 0) {
+                  syncBytesSent.addAndGet(toSend);
+               }
 
                if (lastPacket)
                   break;
@@ -847,6 +980,7 @@ public final class ReplicationManager implements ActiveMQComponent {
             logger.debug(e);
          }
          inSync = false;
+         syncEndNanos = System.nanoTime();
 
          logger.trace("sendSynchronizationDone finished");
       }
@@ -900,4 +1034,55 @@ public final class ReplicationManager implements ActiveMQComponent {
    public boolean isSynchronizing() {
       return inSync;
    }
+
+   /**
+    * @return how many files have been handed over so far to be sent to the backup during the initial synchronization
+    */
+   public long getSyncFilesToSend() {
+      return syncFilesToSend.get();
+   }
+
+   /**
+    * @return how many files have been completely sent to the backup during the initial synchronization
+    */
+   public long getSyncFilesSent() {
+      return syncFilesSent.get();
+   }
+
+   /**
+    * @return the size of the files handed over so far to be sent to the backup during the initial synchronization
+    */
+   public long getSyncBytesToSend() {
+      return syncBytesToSend.get();
+   }
+
+   /**
+    * @return how many bytes of files have been sent to the backup during the initial synchronization
+    */
+   public long getSyncBytesSent() {
+      return syncBytesSent.get();
+   }
+
+   /**
+    * @return how long the initial synchronization has been sending files for, or took to complete
+    */
+   public long getSyncElapsedMillis() {
+      final long start = syncStartNanos;
+      if (start == 0) {
+         return 0;
+      }
+      final long end = syncEndNanos;
+      return TimeUnit.NANOSECONDS.toMillis((end != 0 ? end : System.nanoTime()) - start);
+   }
+
+   /**
+    * @return the average throughput of the initial synchronization, in bytes per second
+    */
+   public long getSyncBytesPerSecond() {
+      final long elapsedMillis = getSyncElapsedMillis();
+      if (elapsedMillis == 0) {
+         return 0;
+      }
+      return syncBytesSent.get() * 1000 / elapsedMillis;
+   }
 }
@@ -33,6 +33,15 @@ public interface Consumer extends PriorityAware {
       return true;
    }
 
+   /**
+    * Whether {@link #handle(MessageReference)} can accept another reference before the ones it accepted are delivered.
+    *
+    * @see SessionCallback#supportsBatchedHandling()
+    */
+   default boolean supportsBatchedHandling() {
+      return false;
+   }
+
    /**
     * There was a change on semantic during 2.3 here.<br>
     * We now first accept the message, and the actual deliver is done as part of
@@ -40,7 +49,8 @@ public interface Consumer extends PriorityAware {
     * the delivery is being accomplished To avoid a lock on the queue in case of misbehaving
     * consumers.
     * <p>
-    * This should return busy if handle is called before proceed deliver is called
+    * This should return busy if handle is called before proceed deliver is called, unless
+    * {@link #supportsBatchedHandling()}
     *
     * @param reference
     * @return
@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.server;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -184,6 +185,35 @@ public interface Queue extends Bindable,CriticalComponent {
    default void setMirrorController(boolean mirrorController) {
    }
 
+   /**
+    * The other shards of this queue, when its address was configured with more than one queue shard.
+    *
+    * @see org.apache.activemq.artemis.core.server.impl.QueueShards
+    */
+   default List<Queue> getShards() {
+      return Collections.emptyList();
+   }
+
+   default void addShard(Queue shard) {
+   }
+
+   default void removeShard(Queue shard) {
+   }
+
+   /**
+    * @return the name of the sharded queue this queue is a shard of, {@code null} if it isn't a shard
+    */
+   default SimpleString getShardOf() {
+      return null;
+   }
+
+   /**
+    * @return the index of this queue among the shards of its sharded queue, {@code 0} for the sharded queue itself
+    */
+   default int getShardIndex() {
+      return 0;
+   }
+
     /**
     * This will hold a reference counter for every consumer present on the queue.
     * The ReferenceCounter will know what to do when the counter became zeroed.
@@ -399,6 +429,19 @@ public interface Queue extends Bindable,CriticalComponent {
 
    int getGroupCount();
 
+   /**
+    * @return the number of groups assigned to {@code consumer}
+    */
+   default int getGroupCount(Consumer consumer) {
+      int count = 0;
+      for (Consumer assigned : getGroups().values()) {
+         if (assigned == consumer) {
+            count++;
+         }
+      }
+      return count;
+   }
+
    /**
     *
     * @param ref
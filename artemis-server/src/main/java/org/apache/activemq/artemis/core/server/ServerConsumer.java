@@ -110,4 +110,14 @@ public interface ServerConsumer extends Consumer, ConsumerInfo {
    long getCreationTime();
 
    String getSessionID();
+
+   /**
+    * The window a client sizing it by adaptive flow control reported for this consumer.
+    */
+   void setCreditWindowSize(int creditWindowSize);
+
+   /**
+    * @return the window last reported by the client of this consumer, -1 if it doesn't size it adaptively
+    */
+   int getCreditWindowSize();
 }
\ No newline at end of file
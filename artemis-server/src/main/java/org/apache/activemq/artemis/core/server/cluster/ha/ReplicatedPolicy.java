@@ -35,6 +35,8 @@ public class ReplicatedPolicy implements HAPolicy<LiveActivation> {
 
    private long initialReplicationSyncTimeout = ActiveMQDefaultConfiguration.getDefaultInitialReplicationSyncTimeout();
 
+   private int initialReplicationSyncParallelism = ActiveMQDefaultConfiguration.getDefaultInitialReplicationSyncParallelism();
+
    /*
    * these are only set by the ReplicaPolicy after failover to decide if the live server can failback, these should not
    * be exposed in configuration.
@@ -149,6 +151,14 @@ public class ReplicatedPolicy implements HAPolicy<LiveActivation> {
       this.initialReplicationSyncTimeout = initialReplicationSyncTimeout;
    }
 
+   public int getInitialReplicationSyncParallelism() {
+      return initialReplicationSyncParallelism;
+   }
+
+   public void setInitialReplicationSyncParallelism(int initialReplicationSyncParallelism) {
+      this.initialReplicationSyncParallelism = initialReplicationSyncParallelism;
+   }
+
    public String getClusterName() {
       return clusterName;
    }
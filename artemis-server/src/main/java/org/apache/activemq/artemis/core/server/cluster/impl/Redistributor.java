@@ -32,6 +32,7 @@ import org.apache.activemq.artemis.core.server.HandleStatus;
 import org.apache.activemq.artemis.core.server.MessageReference;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
+import org.apache.activemq.artemis.core.server.impl.QueueShards;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
 import org.apache.activemq.artemis.utils.ReusableLatch;
@@ -50,6 +51,9 @@ public class Redistributor implements Consumer {
 
    private final Queue queue;
 
+   // the groups of a sharded queue are redistributed to the other shards of the queue only, never to other nodes
+   private final boolean redistributeGroups;
+
    private int count;
 
    private final long sequentialID;
@@ -66,6 +70,8 @@ public class Redistributor implements Consumer {
                         final int batchSize) {
       this.queue = queue;
 
+      this.redistributeGroups = QueueShards.isSharded(queue);
+
       this.sequentialID = storageManager.generateID();
 
       this.storageManager = storageManager;
@@ -140,7 +146,7 @@ public class Redistributor implements Consumer {
    public synchronized HandleStatus handle(final MessageReference reference) throws Exception {
       if (!active) {
          return HandleStatus.BUSY;
-      } else if (reference.getMessage().getGroupID() != null) {
+      } else if (!redistributeGroups && reference.getMessage().getGroupID() != null) {
          //we shouldn't redistribute with message groups return NO_MATCH so other messages can be delivered
          return HandleStatus.NO_MATCH;
       }
@@ -2385,14 +2385,14 @@ public class ActiveMQServerImpl implements ActiveMQServer {
          }
 
          // This check is only valid if checkConsumerCount == true
-         if (checkConsumerCount && queue.getConsumerCount() != 0) {
+         if (checkConsumerCount && QueueShards.sum(queue, Queue::getConsumerCount) != 0) {
             throw ActiveMQMessageBundle.BUNDLE.cannotDeleteQueueWithConsumers(queue.getName(), queueName, binding.getClass().getName());
          }
 
          // This check is only valid if checkMessageCount == true
          if (checkMessageCount && queue.getAutoDeleteMessageCount() != -1) {
-            long messageCount = queue.getMessageCount();
-            if (queue.getMessageCount() > queue.getAutoDeleteMessageCount()) {
+            long messageCount = QueueShards.sum(queue, Queue::getMessageCount);
+            if (messageCount > queue.getAutoDeleteMessageCount()) {
                throw ActiveMQMessageBundle.BUNDLE.cannotDeleteQueueWithMessages(queue.getName(), queueName, messageCount);
             }
          }
@@ -2405,6 +2405,15 @@ public class ActiveMQServerImpl implements ActiveMQServer {
             mirrorControllerService.deleteQueue(queue.getAddress(), queue.getName());
          }
 
+         for (Queue shard : queue.getShards()) {
+            destroyQueue(shard.getName(), null, false, removeConsumers, false);
+         }
+
+         final Queue shardedQueue = QueueShards.getShardedQueue(postOffice, queue);
+         if (shardedQueue != null) {
+            shardedQueue.removeShard(queue);
+         }
+
          queue.deleteQueue(removeConsumers);
 
          if (hasBrokerQueuePlugins()) {
@@ -2940,7 +2949,7 @@ public class ActiveMQServerImpl implements ActiveMQServer {
          DatabaseStorageConfiguration dbConf = (DatabaseStorageConfiguration) configuration.getStoreConfiguration();
          return new PagingStoreFactoryDatabase(dbConf, storageManager, configuration.getPageSyncTimeout(), scheduledPool, ioExecutorFactory, false, ioCriticalErrorListener, configuration.isReadWholePage());
       }
-      return new PagingStoreFactoryNIO(storageManager, configuration.getPagingLocation(), configuration.getPageSyncTimeout(), scheduledPool, ioExecutorFactory, configuration.isJournalSyncNonTransactional(), ioCriticalErrorListener, configuration.isReadWholePage());
+      return new PagingStoreFactoryNIO(storageManager, configuration.getPagingLocation(), configuration.getPageSyncTimeout(), scheduledPool, ioExecutorFactory, configuration.isJournalSyncNonTransactional(), ioCriticalErrorListener, configuration.isReadWholePage(), configuration.isReadMappedPage(), configuration.isPageOffsetIndex());
    }
 
    /**
@@ -3822,6 +3831,25 @@ public class ActiveMQServerImpl implements ActiveMQServer {
             throw ActiveMQMessageBundle.BUNDLE.invalidRoutingTypeForAddress(queueConfiguration.getRoutingType(), info.getName().toString(), info.getRoutingTypes());
          }
 
+         Queue shardedQueue = null;
+         if (queueConfiguration.getShardOf() != null) {
+            final Binding shardedQueueBinding = postOfficeInUse.getBinding(queueConfiguration.getShardOf());
+            if (!(shardedQueueBinding instanceof LocalQueueBinding) || !shardedQueueBinding.getAddress().equals(queueConfiguration.getAddress())) {
+               throw ActiveMQMessageBundle.BUNDLE.noSuchQueue(queueConfiguration.getShardOf());
+            }
+            shardedQueue = ((LocalQueueBinding) shardedQueueBinding).getQueue();
+            final int queueShards = addressSettingsRepository.getMatch(shardedQueue.getAddress().toString()).getQueueShards();
+            final Integer shardIndex = queueConfiguration.getShardIndex();
+            if (shardIndex == null || shardIndex < 1 || shardIndex >= queueShards) {
+               throw ActiveMQMessageBundle.BUNDLE.mustbeBetween(QueueConfiguration.SHARD_INDEX, 1, queueShards - 1, shardIndex);
+            }
+            for (Queue shard : shardedQueue.getShards()) {
+               if (shard.getShardIndex() == shardIndex) {
+                  throw ActiveMQMessageBundle.BUNDLE.queueAlreadyExists(shard.getName(), shard.getAddress());
+               }
+            }
+         }
+
          if (hasBrokerQueuePlugins()) {
             callBrokerQueuePlugins(plugin -> plugin.beforeCreateQueue(queueConfiguration));
          }
@@ -3868,7 +3896,9 @@ public class ActiveMQServerImpl implements ActiveMQServer {
             throw e;
          }
 
-         if (!queueConfiguration.isInternal()) {
+         if (shardedQueue != null) {
+            shardedQueue.addShard(queue);
+         } else if (!queueConfiguration.isInternal()) {
             managementService.registerQueue(queue, queue.getAddress(), storageManager);
          }
 
@@ -3880,10 +3910,29 @@ public class ActiveMQServerImpl implements ActiveMQServer {
 
          callPostQueueCreationCallbacks(queue.getName());
 
+         createQueueShards(queue, queueConfiguration);
+
          return queue;
       }
    }
 
+   private void createQueueShards(final Queue queue, final QueueConfiguration queueConfiguration) throws Exception {
+      if (!QueueShards.canBeSharded(queue)) {
+         return;
+      }
+      final int queueShards = addressSettingsRepository.getMatch(queue.getAddress().toString()).getQueueShards();
+      for (int i = 1; i < queueShards; i++) {
+         // the shards live and die with the queue
+         final QueueConfiguration shardConfiguration = QueueConfiguration.fromJSON(queueConfiguration.toJSON())
+            .setName(QueueShards.getShardName(queue.getName(), i, name -> postOffice.getBinding(name) != null))
+            .setShardOf(queue.getName())
+            .setShardIndex(i)
+            .setAutoDelete(false)
+            .setConfigurationManaged(false);
+         createQueue(shardConfiguration);
+      }
+   }
+
    public String getRuntimeTempQueueNamespace(boolean temporary) {
       StringBuilder runtimeTempQueueNamespace = new StringBuilder();
       if (temporary && configuration.getTemporaryQueueNamespace() != null && configuration.getTemporaryQueueNamespace().length() > 0) {
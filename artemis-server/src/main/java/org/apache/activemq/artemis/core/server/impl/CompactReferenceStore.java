@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.core.server.MessageReference;
+
+/**
+ * The references of a deep queue packed in arrays rather than kept as {@link MessageReferenceImpl}s linked to its
+ * references list: a packed reference costs the slot of its message in an array, plus the slot of its delivery count
+ * in the chunks holding redelivered references, against the 72 bytes of a {@link MessageReferenceImpl} and the entry
+ * of its node store.
+ * <p>
+ * Each priority is a FIFO of chunks: the references of a priority are packed once the queue holds
+ * {@link #getThreshold()} references of that priority in its list, and moved back to the tail of the list, as new
+ * {@link MessageReferenceImpl}s, once it holds less than half of them. So the packed references are always behind the
+ * ones in the list and the order of the queue is kept.
+ * <p>
+ * The packed references are walked in place with a {@link Cursor}, which can remove the one it's on: its slot is left
+ * empty and skipped until the chunk is drained.
+ * <p>
+ * This class isn't thread-safe, it's guarded by the queue lock.
+ */
+final class CompactReferenceStore {
+
+   static final int CHUNK_SIZE = 1024;
+
+   interface ReferenceConsumer {
+
+      /**
+       * @param sequence the position of the reference among all the ones ever packed with its priority
+       */
+      void accept(Message message, int deliveryCount, int priority, long sequence);
+   }
+
+   /**
+    * A position in the store, moving from the highest priority to the lowest and, in each priority, from the oldest
+    * reference to the newest. The references unpacked before it reaches them are skipped and the ones packed after it
+    * left their priority aren't walked.
+    */
+   static final class Cursor {
+
+      private int priority;
+
+      // null until the cursor is on a reference of the priority
+      private Chunk chunk;
+
+      private int position;
+
+      private long sequence;
+
+      private Cursor(int priority) {
+         this.priority = priority;
+      }
+   }
+
+   private static final class Chunk {
+
+      private final Message[] messages = new Message[CHUNK_SIZE];
+
+      // allocated once a reference with a delivery count is packed in the chunk
+      private int[] deliveryCounts;
+
+      private Chunk next;
+   }
+
+   private final int threshold;
+
+   // per priority: the oldest chunk and the position of its oldest reference
+   private final Chunk[] heads;
+
+   private final int[] headPositions;
+
+   // per priority: the newest chunk and the position after its newest reference
+   private final Chunk[] tails;
+
+   private final int[] tailPositions;
+
+   // per priority: the sequence of the head and tail positions, i.e. the number of references ever taken or packed
+   private final long[] headSequences;
+
+   private final long[] tailSequences;
+
+   private final int[] sizes;
+
+   private int size;
+
+   CompactReferenceStore(int priorities, int threshold) {
+      this.threshold = threshold;
+      this.heads = new Chunk[priorities];
+      this.headPositions = new int[priorities];
+      this.tails = new Chunk[priorities];
+      this.tailPositions = new int[priorities];
+      this.headSequences = new long[priorities];
+      this.tailSequences = new long[priorities];
+      this.sizes = new int[priorities];
+   }
+
+   /**
+    * @return the number of references of a priority the queue keeps in its list before packing the next ones
+    */
+   int getThreshold() {
+      return threshold;
+   }
+
+   int size() {
+      return size;
+   }
+
+   int size(int priority) {
+      return sizes[priority];
+   }
+
+   boolean isEmpty() {
+      return size == 0;
+   }
+
+   /**
+    * Only the plain references of the queue are packed: the paged, scheduled or acked ones, the ones holding protocol
+    * data or a consumer and the ones of other types can't be recreated from their message and delivery count.
+    */
+   static boolean isCompactable(MessageReference ref) {
+      return ref.getClass() == MessageReferenceImpl.class && !ref.isPaged() && ref.getScheduledDeliveryTime() == 0 &&
+         ref.getProtocolData() == null && !ref.hasConsumerId() && !ref.isAlreadyAcked() &&
+         ref.getDeliveryCount() == ref.getPersistedCount();
+   }
+
+   /**
+    * Packs {@code ref} if there are already packed references of its priority or the queue list holds
+    * {@link #getThreshold()} of them.
+    *
+    * @param listed the number of references of the priority in the queue list
+    * @return {@code true} if {@code ref} was packed, the caller must then drop it
+    */
+   boolean offer(MessageReference ref, int priority, int listed) {
+      if (sizes[priority] == 0 && listed < threshold || !isCompactable(ref)) {
+         return false;
+      }
+      Chunk tail = tails[priority];
+      int position = tailPositions[priority];
+      if (tail == null || position == CHUNK_SIZE) {
+         final Chunk chunk = new Chunk();
+         if (tail == null) {
+            heads[priority] = chunk;
+            headPositions[priority] = 0;
+         } else {
+            tail.next = chunk;
+         }
+         tails[priority] = tail = chunk;
+         position = 0;
+      }
+      tail.messages[position] = ref.getMessage();
+      final int deliveryCount = ref.getDeliveryCount();
+      if (deliveryCount != 0) {
+         if (tail.deliveryCounts == null) {
+            tail.deliveryCounts = new int[CHUNK_SIZE];
+         }
+         tail.deliveryCounts[position] = deliveryCount;
+      }
+      tailPositions[priority] = position + 1;
+      tailSequences[priority]++;
+      sizes[priority]++;
+      size++;
+      return true;
+   }
+
+   /**
+    * Unpacks the oldest references of a priority, up to {@code max}, to {@code consumer}.
+    *
+    * @return the number of references unpacked
+    */
+   int drain(int priority, int max, ReferenceConsumer consumer) {
+      int drained = 0;
+      while (drained < max && sizes[priority] > 0) {
+         final Chunk head = heads[priority];
+         final int position = headPositions[priority];
+         final long sequence = headSequences[priority];
+         final Message message = head.messages[position];
+         headSequences[priority] = sequence + 1;
+         if (position + 1 == CHUNK_SIZE) {
+            heads[priority] = head.next;
+            headPositions[priority] = 0;
+         } else {
+            headPositions[priority] = position + 1;
+         }
+         // the slots of the references removed in place are empty
+         if (message == null) {
+            continue;
+         }
+         head.messages[position] = null;
+         removed(priority);
+         drained++;
+         consumer.accept(message, head.deliveryCounts == null ? 0 : head.deliveryCounts[position], priority, sequence);
+      }
+      return drained;
+   }
+
+   Cursor cursor() {
+      return new Cursor(heads.length - 1);
+   }
+
+   /**
+    * Moves {@code cursor} to the next packed reference.
+    *
+    * @return {@code false} if there's none left
+    */
+   boolean advance(Cursor cursor) {
+      if (cursor.chunk != null) {
+         cursor.position++;
+         cursor.sequence++;
+      }
+      while (cursor.priority >= 0) {
+         final int priority = cursor.priority;
+         if (cursor.chunk == null || cursor.sequence <= headSequences[priority]) {
+            // the references between the cursor and the head, if any, have been unpacked
+            if (sizes[priority] == 0) {
+               cursor.chunk = null;
+               cursor.priority--;
+               continue;
+            }
+            cursor.chunk = heads[priority];
+            cursor.position = headPositions[priority];
+            cursor.sequence = headSequences[priority];
+         }
+         for (; cursor.sequence < tailSequences[priority]; cursor.position++, cursor.sequence++) {
+            if (cursor.position == CHUNK_SIZE) {
+               cursor.chunk = cursor.chunk.next;
+               cursor.position = 0;
+            }
+            if (cursor.chunk.messages[cursor.position] != null) {
+               return true;
+            }
+         }
+         cursor.chunk = null;
+         cursor.priority--;
+      }
+      return false;
+   }
+
+   /**
+    * @return {@code true} if the reference of {@code message} {@code cursor} was moved to is still packed
+    */
+   boolean isPacked(Cursor cursor, Message message) {
+      return cursor.chunk != null && cursor.sequence >= headSequences[cursor.priority] &&
+         cursor.chunk.messages[cursor.position] == message;
+   }
+
+   Message getMessage(Cursor cursor) {
+      return cursor.chunk.messages[cursor.position];
+   }
+
+   int getDeliveryCount(Cursor cursor) {
+      return cursor.chunk.deliveryCounts == null ? 0 : cursor.chunk.deliveryCounts[cursor.position];
+   }
+
+   int getPriority(Cursor cursor) {
+      return cursor.priority;
+   }
+
+   long getSequence(Cursor cursor) {
+      return cursor.sequence;
+   }
+
+   /**
+    * Removes the reference {@code cursor} is on, which must still be packed.
+    */
+   void remove(Cursor cursor) {
+      cursor.chunk.messages[cursor.position] = null;
+      removed(cursor.priority);
+   }
+
+   private void removed(int priority) {
+      sizes[priority]--;
+      size--;
+      if (sizes[priority] == 0) {
+         heads[priority] = tails[priority] = null;
+         headPositions[priority] = tailPositions[priority] = 0;
+         headSequences[priority] = tailSequences[priority];
+      }
+   }
+}
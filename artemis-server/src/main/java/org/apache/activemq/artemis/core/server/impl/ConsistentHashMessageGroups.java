@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+
+/**
+ * ConsistentHashMessageGroups, assigns the new groups to consumers through a consistent hash ring, where each consumer
+ * owns a number of virtual nodes.
+ *
+ * A group is assigned to the owner of the first node following its hash on the ring, unless that consumer already holds
+ * more than {@link #LOAD_FACTOR} times its share of the groups: the next nodes are then tried, so no consumer gets
+ * overloaded by unlucky hashes. Once assigned a group sticks to its consumer, as with {@link SimpleMessageGroups}; when a
+ * consumer leaves only its groups are reassigned, and when the groups are reset, e.g. on group rebalance, they mostly go
+ * back to the same consumers, only the ones whose nodes were taken over by a new consumer move.
+ *
+ * The number of groups held by each consumer is tracked, so {@link #getGroupCount(Object)} is cheap.
+ */
+public class ConsistentHashMessageGroups<C> implements MessageGroups<C> {
+
+   static final float LOAD_FACTOR = 1.25f;
+
+   private static final class Load {
+
+      private int groups;
+   }
+
+   private final int virtualNodes;
+
+   private final Map<SimpleString, C> groups = new HashMap<>();
+
+   private final Map<C, Load> loads = new HashMap<>();
+
+   private final List<C> members = new ArrayList<>();
+
+   // the sorted hashes of the nodes of the ring and the consumers owning them
+   private int[] nodeHashes = new int[0];
+
+   private Object[] nodeOwners = new Object[0];
+
+   public ConsistentHashMessageGroups(int virtualNodes) {
+      if (virtualNodes < 1) {
+         throw new IllegalArgumentException("Virtual nodes must be greater than 0");
+      }
+      this.virtualNodes = virtualNodes;
+   }
+
+   @Override
+   public void put(SimpleString key, C consumer) {
+      final C previous = groups.put(key, consumer);
+      if (previous != consumer) {
+         if (previous != null) {
+            decrementLoad(previous);
+         }
+         loads.computeIfAbsent(consumer, c -> new Load()).groups++;
+      }
+   }
+
+   @Override
+   public C get(SimpleString key) {
+      return groups.get(key);
+   }
+
+   @Override
+   public C remove(SimpleString key) {
+      final C removed = groups.remove(key);
+      if (removed != null) {
+         decrementLoad(removed);
+      }
+      return removed;
+   }
+
+   private void decrementLoad(C consumer) {
+      final Load load = loads.get(consumer);
+      if (load != null && --load.groups == 0) {
+         loads.remove(consumer);
+      }
+   }
+
+   @Override
+   public boolean removeIf(Predicate<? super C> filter) {
+      if (groups.values().removeIf(filter)) {
+         // all the groups of the matching consumers are gone
+         loads.keySet().removeIf(filter);
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public void removeAll() {
+      groups.clear();
+      loads.clear();
+   }
+
+   @Override
+   public int size() {
+      return groups.size();
+   }
+
+   @Override
+   public Map<SimpleString, C> toMap() {
+      return new HashMap<>(groups);
+   }
+
+   @Override
+   public int getGroupCount(C consumer) {
+      final Load load = loads.get(consumer);
+      return load == null ? 0 : load.groups;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public C assign(SimpleString key, Predicate<? super C> accepts) {
+      final int nodes = nodeHashes.length;
+      if (nodes == 0) {
+         return null;
+      }
+      // someone always holds less than the average, so there is always a consumer below it
+      final int maxLoad = (int) Math.ceil(LOAD_FACTOR * (groups.size() + 1) / members.size());
+      final int first = nodeIndex(mix(key.hashCode()));
+      C firstAccepted = null;
+      for (int i = 0; i < nodes; i++) {
+         final C owner = (C) nodeOwners[(first + i) % nodes];
+         // e.g. the filter of the owner doesn't match the message: its node is skipped
+         if (!accepts.test(owner)) {
+            continue;
+         }
+         if (getGroupCount(owner) < maxLoad) {
+            return owner;
+         }
+         if (firstAccepted == null) {
+            firstAccepted = owner;
+         }
+      }
+      return firstAccepted;
+   }
+
+   private int nodeIndex(int hash) {
+      int index = Arrays.binarySearch(nodeHashes, hash);
+      if (index < 0) {
+         index = -index - 1;
+      }
+      return index == nodeHashes.length ? 0 : index;
+   }
+
+   @Override
+   public void consumerAdded(C consumer) {
+      members.add(consumer);
+      buildRing();
+   }
+
+   @Override
+   public void consumerRemoved(C consumer) {
+      if (members.remove(consumer)) {
+         buildRing();
+      }
+   }
+
+   private void buildRing() {
+      final int nodes = members.size() * virtualNodes;
+      // the hash of each node in the high bits and the index of its owner in the low bits, to sort them together
+      final long[] ring = new long[nodes];
+      for (int m = 0; m < members.size(); m++) {
+         final int seed = System.identityHashCode(members.get(m)) * 31;
+         for (int v = 0; v < virtualNodes; v++) {
+            ring[m * virtualNodes + v] = ((long) mix(seed + v) << 32) | m;
+         }
+      }
+      Arrays.sort(ring);
+      final int[] hashes = new int[nodes];
+      final Object[] owners = new Object[nodes];
+      for (int i = 0; i < nodes; i++) {
+         hashes[i] = (int) (ring[i] >> 32);
+         owners[i] = members.get((int) ring[i]);
+      }
+      nodeHashes = hashes;
+      nodeOwners = owners;
+   }
+
+   /**
+    * The murmur3 finalizer, to spread the poorly distributed hash codes around the ring.
+    */
+   private static int mix(int hash) {
+      hash ^= hash >>> 16;
+      hash *= 0x85ebca6b;
+      hash ^= hash >>> 13;
+      hash *= 0xc2b2ae35;
+      hash ^= hash >>> 16;
+      return hash;
+   }
+}
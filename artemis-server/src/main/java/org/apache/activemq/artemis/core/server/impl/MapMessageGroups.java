@@ -66,4 +66,15 @@ abstract class MapMessageGroups<C> implements MessageGroups<C> {
    public Map<SimpleString, C> toMap() {
       return new HashMap<>(groups);
    }
+
+   @Override
+   public int getGroupCount(C consumer) {
+      int count = 0;
+      for (C assigned : groups.values()) {
+         if (assigned == consumer) {
+            count++;
+         }
+      }
+      return count;
+   }
 }
@@ -36,5 +36,37 @@ public interface MessageGroups<C> {
 
    Map<SimpleString, C> toMap();
 
+   /**
+    * @return the number of groups assigned to {@code consumer}
+    */
+   default int getGroupCount(C consumer) {
+      int count = 0;
+      for (C assigned : toMap().values()) {
+         if (assigned == consumer) {
+            count++;
+         }
+      }
+      return count;
+   }
 
+   /**
+    * @return the consumer a group without one should be assigned to, or {@code null} to let the queue pick one
+    */
+   default C assign(SimpleString key) {
+      return assign(key, consumer -> true);
+   }
+
+   /**
+    * @return the consumer accepted by {@code accepts} a group without one should be assigned to, or {@code null} to let
+    * the queue pick one
+    */
+   default C assign(SimpleString key, Predicate<? super C> accepts) {
+      return null;
+   }
+
+   default void consumerAdded(C consumer) {
+   }
+
+   default void consumerRemoved(C consumer) {
+   }
 }
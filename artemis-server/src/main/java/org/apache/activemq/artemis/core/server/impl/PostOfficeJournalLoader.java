@@ -158,7 +158,9 @@ public class PostOfficeJournalLoader implements JournalLoader {
                                                              .setAutoDeleteMessageCount(queueBindingInfo.getAutoDeleteMessageCount())
                                                              .setRoutingType(RoutingType.getType(queueBindingInfo.getRoutingType()))
                                                              .setConfigurationManaged(queueBindingInfo.isConfigurationManaged())
-                                                             .setRingSize(queueBindingInfo.getRingSize()),
+                                                             .setRingSize(queueBindingInfo.getRingSize())
+                                                             .setShardOf(queueBindingInfo.getShardOf())
+                                                             .setShardIndex(queueBindingInfo.getShardOf() == null ? null : queueBindingInfo.getShardIndex()),
                                                           pagingManager);
 
 
@@ -173,8 +175,18 @@ public class PostOfficeJournalLoader implements JournalLoader {
 
          queues.put(queue.getID(), queue);
          postOffice.addBinding(binding);
-         managementService.registerQueue(queue, queue.getAddress(), storageManager);
+         if (!QueueShards.isShard(queue)) {
+            managementService.registerQueue(queue, queue.getAddress(), storageManager);
+         }
+
+      }
 
+      // the shards can be loaded before their queue
+      for (Queue queue : queues.values()) {
+         final Queue shardedQueue = QueueShards.getShardedQueue(postOffice, queue);
+         if (shardedQueue != null) {
+            shardedQueue.addShard(queue);
+         }
       }
    }
 
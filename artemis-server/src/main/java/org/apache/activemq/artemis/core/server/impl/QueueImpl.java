@@ -20,8 +20,12 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -30,6 +34,7 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -56,6 +61,7 @@ import org.apache.activemq.artemis.api.core.management.ManagementHelper;
 import org.apache.activemq.artemis.core.PriorityAware;
 import org.apache.activemq.artemis.core.filter.Filter;
 import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.filter.impl.FilterIndexKey;
 import org.apache.activemq.artemis.core.io.IOCallback;
 import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.paging.cursor.PageIterator;
@@ -110,6 +116,7 @@ import org.apache.activemq.artemis.utils.ReusableLatch;
 import org.apache.activemq.artemis.utils.actors.ArtemisExecutor;
 import org.apache.activemq.artemis.utils.collections.ConcurrentHashSet;
 import org.apache.activemq.artemis.utils.collections.NodeStore;
+import org.apache.activemq.artemis.utils.collections.LinkedListImpl;
 import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
 import org.apache.activemq.artemis.utils.collections.PriorityLinkedList;
 import org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl;
@@ -147,6 +154,17 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    public static final int MAX_DELIVERIES_IN_LOOP = 1000;
 
+   /**
+    * The maximum number of delivery attempts made while holding the queue lock once, the references handled by the
+    * consumers are then delivered after releasing it.
+    */
+   public static final int DELIVERY_BATCH_SIZE = 32;
+
+   /**
+    * The maximum number of references a browser iterator copies while holding the queue lock once.
+    */
+   public static final int BROWSE_BATCH_SIZE = 256;
+
    public static final int CHECK_QUEUE_SIZE_PERIOD = 1000;
 
    /**
@@ -187,6 +205,12 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    private boolean mirrorController;
 
+   private final List<Queue> shards = new CopyOnWriteArrayList<>();
+
+   private final SimpleString shardOf;
+
+   private final int shardIndex;
+
    private volatile boolean hasUnMatchedPending = false;
 
    // Messages will first enter intermediateMessageReferences
@@ -197,6 +221,15 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
    // This is where messages are stored
    private final PriorityLinkedList<MessageReference> messageReferences = new PriorityLinkedListImpl<>(QueueImpl.NUM_PRIORITIES, MessageReferenceImpl.getIDComparator());
 
+   // The indexes of messageReferences on the properties selected by the consumers, null when they're disabled
+   private final QueuePropertyIndexes propertyIndexes;
+
+   // the references of a deep queue packed behind the ones in messageReferences, null unless configured
+   private final CompactReferenceStore compactReferences;
+
+   // the open iterators over all the references, told about the packed references unpacked after they went past them
+   private final List<ReferenceIterator> referenceIterators = new ArrayList<>();
+
    private NodeStore<MessageReference> nodeStore;
 
    private void checkIDSupplier(NodeStore<MessageReference> nodeStore) {
@@ -281,6 +314,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    private MessageGroups<Consumer> groups;
 
+   // the virtual nodes of each consumer on the consistent hash ring assigning the new groups, 0 if not used
+   private final int groupVirtualNodes;
+
    private volatile Consumer exclusiveConsumer;
 
    private volatile SimpleString expiryAddress;
@@ -689,7 +725,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       this.groupBuckets = queueConfiguration.getGroupBuckets() == null ? ActiveMQDefaultConfiguration.getDefaultGroupBuckets() : queueConfiguration.getGroupBuckets();
 
-      this.groups = groupMap(this.groupBuckets);
+      this.groupVirtualNodes = addressSettingsRepository == null || address == null ? AddressSettings.DEFAULT_GROUP_VIRTUAL_NODES : addressSettingsRepository.getMatch(address.toString()).getGroupVirtualNodes();
+
+      this.groups = createGroups(this.groupBuckets);
 
       this.groupFirstKey = queueConfiguration.getGroupFirstKey() == null ? ActiveMQDefaultConfiguration.getDefaultGroupFirstKey() : queueConfiguration.getGroupFirstKey();
 
@@ -711,7 +749,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       this.server = server;
 
-      scheduledDeliveryHandler = new ScheduledDeliveryHandlerImpl(scheduledExecutor, this);
+      scheduledDeliveryHandler = createScheduledDeliveryHandler();
+
+      propertyIndexes = createPropertyIndexes();
+
+      compactReferences = createCompactReferences();
 
       if (addressSettingsRepository != null) {
          addressSettingsRepositoryListener = new AddressSettingsRepositoryListener();
@@ -738,6 +780,10 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       }
 
       this.ringSize = queueConfiguration.getRingSize() == null ? ActiveMQDefaultConfiguration.getDefaultRingSize() : queueConfiguration.getRingSize();
+
+      this.shardOf = queueConfiguration.getShardOf();
+
+      this.shardIndex = queueConfiguration.getShardIndex() == null ? 0 : queueConfiguration.getShardIndex();
    }
 
    // Bindable implementation -------------------------------------------------------------------------------------
@@ -759,6 +805,31 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       this.mirrorController = mirrorController;
    }
 
+   @Override
+   public List<Queue> getShards() {
+      return shards;
+   }
+
+   @Override
+   public void addShard(Queue shard) {
+      shards.add(shard);
+   }
+
+   @Override
+   public void removeShard(Queue shard) {
+      shards.remove(shard);
+   }
+
+   @Override
+   public SimpleString getShardOf() {
+      return shardOf;
+   }
+
+   @Override
+   public int getShardIndex() {
+      return shardIndex;
+   }
+
    public SimpleString getRoutingName() {
       return name;
    }
@@ -850,6 +921,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
    @Override
    public synchronized void setNonDestructive(boolean nonDestructive) {
       this.nonDestructive = nonDestructive;
+      if (nonDestructive) {
+         materializeReferences(true);
+      }
    }
 
    @Override
@@ -951,7 +1025,12 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
    @Override
    public synchronized void setGroupBuckets(int groupBuckets) {
       if (this.groupBuckets != groupBuckets) {
-         this.groups = groupMap(groupBuckets);
+         this.groups = createGroups(groupBuckets);
+         for (ConsumerHolder<? extends Consumer> holder : consumers) {
+            if (holder != redistributor) {
+               groups.consumerAdded(holder.consumer);
+            }
+         }
          this.groupBuckets = groupBuckets;
       }
    }
@@ -1231,6 +1310,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
                if (deliveriesInTransit.getCount() == 0 && getExecutor().isFlushed() &&
                   intermediateMessageReferences.isEmpty() && messageReferences.isEmpty() &&
+                  (compactReferences == null || compactReferences.isEmpty()) &&
                   pageIterator != null && !pageIterator.hasNext() &&
                   pageSubscription != null && !pageSubscription.isPaging()) {
                   // We must block on the executor to ensure any async deliveries have completed or we might get out of order
@@ -1446,6 +1526,13 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
             ConsumerHolder<Consumer> newConsumerHolder = new ConsumerHolder<>(consumer);
             if (consumers.add(newConsumerHolder)) {
+               groups.consumerAdded(consumer);
+               if (propertyIndexes != null && !isLastValue()) {
+                  final FilterIndexKey indexKey = FilterIndexKey.of(consumer.getFilter());
+                  if (indexKey != null) {
+                     newConsumerHolder.index = propertyIndexes.acquire(indexKey, messageReferences.iterator(), this::getPriority);
+                  }
+               }
                if (delayBeforeDispatch >= 0) {
                   dispatchStartTimeUpdater.compareAndSet(this,-1, delayBeforeDispatch + System.currentTimeMillis());
                }
@@ -1453,6 +1540,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             }
          }
       }
+
+      // out of the lock, as it takes the locks of the other shards
+      QueueShards.redistribute(postOffice, this);
    }
 
    @Override
@@ -1477,6 +1567,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                   if (holder.iter != null) {
                      holder.iter.close();
                   }
+                  if (holder.index != null) {
+                     propertyIndexes.release(holder.index);
+                  }
                   consumers.remove(holder);
                   consumerRemoved = true;
                   break;
@@ -1497,9 +1590,12 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             }
 
             groups.removeIf(consumer::equals);
+            groups.consumerRemoved(consumer);
 
          }
       }
+
+      QueueShards.redistribute(postOffice, this);
    }
 
    private void stopDispatch() {
@@ -1620,6 +1716,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       return groups.size();
    }
 
+   @Override
+   public synchronized int getGroupCount(Consumer consumer) {
+      return groups.getGroupCount(consumer);
+   }
+
    @Override
    public boolean hasMatchingConsumer(final Message message) {
       for (ConsumerHolder holder : consumers) {
@@ -1644,7 +1745,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    @Override
    public LinkedListIterator<MessageReference> iterator() {
-      return new SynchronizedIterator(messageReferences.iterator());
+      return new SynchronizedIterator(referenceIterator());
    }
 
    @Override
@@ -1652,6 +1753,12 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       return new QueueBrowserIterator();
    }
 
+   private synchronized ReferenceIterator referenceIterator() {
+      final ReferenceIterator iterator = new ReferenceIterator();
+      referenceIterators.add(iterator);
+      return iterator;
+   }
+
    @Override
    public synchronized MessageReference removeReferenceWithID(final long id1) throws Exception {
       try (LinkedListIterator<MessageReference> iterator = iterator()) {
@@ -2429,6 +2536,8 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       public Runnable doneCallback;
       public AtomicInteger scannerRunning = new AtomicInteger(0);
       LinkedListIterator<MessageReference> iter = null;
+      // the packed references are scanned in place, after the listed ones
+      CompactReferenceStore.Cursor packed = null;
 
       @Override
       public void run() {
@@ -2456,10 +2565,12 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                      logger.warn(e.getMessage(), e);
                   }
                }
-               iter = iterator();
+               iter = messageReferences.iterator();
+               packed = compactReferences == null ? null : compactReferences.cursor();
             }
 
             try {
+               boolean more = false;
                while (postOffice.isStarted() && iter.hasNext()) {
                   hasElements = true;
                   MessageReference ref = iter.next();
@@ -2471,12 +2582,30 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                      iter.remove();
                   }
                   if (++elementsIterated >= MAX_DELIVERIES_IN_LOOP) {
-                     logger.debug("Breaking loop of expiring");
-                     scannerRunning.incrementAndGet();
-                     getExecutor().execute(this);
+                     more = true;
                      break;
                   }
                }
+               // only the references of the expired messages are recreated
+               while (!more && packed != null && postOffice.isStarted() && compactReferences.advance(packed)) {
+                  hasElements = true;
+                  if (compactReferences.getMessage(packed).isExpired()) {
+                     final MessageReference ref = createReference(compactReferences.getMessage(packed), compactReferences.getDeliveryCount(packed));
+                     compactReferences.remove(packed);
+                     elementsExpired++;
+                     incDelivering(ref);
+                     expired = true;
+                     expiredMessages.add(ref);
+                  }
+                  if (++elementsIterated >= MAX_DELIVERIES_IN_LOOP) {
+                     more = true;
+                  }
+               }
+               if (more) {
+                  logger.debug("Breaking loop of expiring");
+                  scannerRunning.incrementAndGet();
+                  getExecutor().execute(this);
+               }
             } finally {
                if (scannerRunning.decrementAndGet() == 0) {
                   if (server.hasBrokerQueuePlugins()) {
@@ -2489,6 +2618,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
                   iter.close();
                   iter = null;
+                  packed = null;
 
                   if (doneCallback != null) {
                      doneCallback.run();
@@ -2874,11 +3004,98 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    private synchronized void internalAddTail(final MessageReference ref) {
       refAdded(ref);
-      messageReferences.addTail(ref, getPriority(ref));
+      final int priority = getPriority(ref);
+      if (compactReferences != null && !nonDestructive && ringSize == -1 &&
+         compactReferences.offer(ref, priority, messageReferences.size(priority))) {
+         // the message is kept by the store, the reference is dropped
+         pendingMetrics.incrementMetrics(ref);
+         return;
+      }
+      listTail(ref, priority);
       pendingMetrics.incrementMetrics(ref);
       enforceRing(false);
    }
 
+   private void listTail(final MessageReference ref, final int priority) {
+      messageReferences.addTail(ref, priority);
+      if (propertyIndexes != null && propertyIndexes.addTail(ref, priority, messageReferences.size())) {
+         resetAllIterators();
+      }
+   }
+
+   /**
+    * Packs back the references unpacked to look a message up by id, i.e. for each priority without packed references
+    * the ones listed beyond the threshold.
+    * The caller of this method requires synchronized on the queue.
+    */
+   private void repackReferences() {
+      if (compactReferences == null || nonDestructive || ringSize != -1) {
+         return;
+      }
+      final int threshold = compactReferences.getThreshold();
+      for (int priority = 0; priority < NUM_PRIORITIES; priority++) {
+         final int excess = messageReferences.size(priority) - threshold;
+         if (excess <= 0 || compactReferences.size(priority) != 0) {
+            continue;
+         }
+         // the references are taken from the tail of the list, newest first, and packed oldest first
+         final MessageReference[] newest = new MessageReference[excess];
+         int taken = 0;
+         MessageReference ref;
+         while (taken < excess && (ref = messageReferences.peekTail(priority)) != null && CompactReferenceStore.isCompactable(ref)) {
+            newest[taken++] = messageReferences.pollTail(priority);
+         }
+         for (int i = taken - 1; i >= 0; i--) {
+            if (!compactReferences.offer(newest[i], priority, threshold)) {
+               listTail(newest[i], priority);
+            }
+            newest[i] = null;
+         }
+      }
+   }
+
+   /**
+    * Moves the packed references back to the tail of messageReferences, all of them or, for each priority holding less
+    * than half the threshold in the list, enough of them to fill it up to the threshold.
+    * The caller of this method requires synchronized on the queue.
+    */
+   private void materializeReferences(boolean all) {
+      if (compactReferences == null || compactReferences.isEmpty()) {
+         return;
+      }
+      final int threshold = compactReferences.getThreshold();
+      for (int priority = NUM_PRIORITIES - 1; priority >= 0; priority--) {
+         if (compactReferences.size(priority) == 0) {
+            continue;
+         }
+         if (all) {
+            compactReferences.drain(priority, Integer.MAX_VALUE, this::materializeReference);
+         } else {
+            final int listed = messageReferences.size(priority);
+            if (listed < threshold >> 1) {
+               compactReferences.drain(priority, threshold - listed, this::materializeReference);
+            }
+         }
+      }
+   }
+
+   private void materializeReference(Message message, int deliveryCount, int priority, long sequence) {
+      final MessageReference ref = createReference(message, deliveryCount);
+      listTail(ref, priority);
+      for (ReferenceIterator iterator : referenceIterators) {
+         iterator.unpacked(ref, priority, sequence);
+      }
+   }
+
+   private MessageReference createReference(Message message, int deliveryCount) {
+      final MessageReference ref = MessageReference.Factory.createReference(message, this);
+      if (deliveryCount != 0) {
+         ref.setDeliveryCount(deliveryCount);
+         ref.setPersistedCount(deliveryCount);
+      }
+      return ref;
+   }
+
    /**
     * The caller of this method requires synchronized on the queue.
     * I'm not going to add synchronized to this method just for a precaution,
@@ -2894,6 +3111,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       int priority = getPriority(ref);
 
       messageReferences.addHead(ref, priority);
+      if (propertyIndexes != null && propertyIndexes.addHead(ref, priority, messageReferences.size())) {
+         resetAllIterators();
+      }
 
       ref.setInDelivery(false);
    }
@@ -2913,6 +3133,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       int priority = getPriority(ref);
 
       messageReferences.addSorted(ref, priority);
+      if (propertyIndexes != null && propertyIndexes.addSorted(ref, priority, messageReferences.size())) {
+         resetAllIterators();
+      }
 
       ref.setInDelivery(false);
    }
@@ -2971,10 +3194,15 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       int handled = 0;
 
+      // the references handled while holding the queue lock once, they're delivered after releasing it
+      final Consumer[] batchConsumers = new Consumer[DELIVERY_BATCH_SIZE];
+      final MessageReference[] batchRefs = new MessageReference[DELIVERY_BATCH_SIZE];
+
       long timeout = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DELIVERY_TIMEOUT);
       consumers.reset();
-      while (true) {
-         if (handled == MAX_DELIVERIES_IN_LOOP) {
+      boolean done = false;
+      while (!done) {
+         if (handled >= MAX_DELIVERIES_IN_LOOP) {
             // Schedule another one - we do this to prevent a single thread getting caught up in this loop for too
             // long
 
@@ -2993,157 +3221,243 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             return false;
          }
 
-         MessageReference ref;
+         int batched = 0;
 
-         Consumer handledconsumer = null;
+         boolean stopped = false;
 
          synchronized (this) {
 
-            // Need to do these checks inside the synchronized
-            if (isPaused() || !canDispatch()) {
-               return false;
-            }
-
-            if (messageReferences.size() == 0) {
-               break;
-            }
-
-            ConsumerHolder<? extends Consumer> holder;
-            if (consumers.hasNext()) {
-               holder = consumers.next();
-            } else {
-               break;
-            }
+            // the lock is held for a bounded number of attempts, matching or not, to let producers in
+            for (int attempt = 0; attempt < DELIVERY_BATCH_SIZE && handled < MAX_DELIVERIES_IN_LOOP; attempt++) {
 
-            Consumer consumer = holder.consumer;
-            Consumer groupConsumer = null;
-
-            if (holder.iter == null) {
-               holder.iter = messageReferences.iterator();
-            }
-
-            // LVQ support
-            ref = nextDelivery();
-            boolean nextDelivery = false;
-            if (ref != null) {
-               nextDelivery = true;
-            }
+               // Need to do these checks inside the synchronized
+               if (isPaused() || !canDispatch()) {
+                  stopped = true;
+                  break;
+               }
 
-            if (ref == null && holder.iter.hasNext()) {
-               ref = holder.iter.next();
-            }
+               materializeReferences(false);
 
-            if (ref == null) {
-               noDelivery++;
-            } else {
-               if (checkExpired(ref)) {
-                  if (logger.isTraceEnabled()) {
-                     logger.trace("Reference " + ref + " being expired");
+               if (messageReferences.size() == 0) {
+                  if (propertyIndexes != null && propertyIndexes.queueEmptied()) {
+                     resetAllIterators();
                   }
-                  removeMessageReference(holder, ref);
-                  handled++;
-                  consumers.reset();
-                  continue;
+                  done = true;
+                  break;
                }
 
-               if (logger.isTraceEnabled()) {
-                  logger.trace("Queue " + this.getName() + " is delivering reference " + ref);
+               ConsumerHolder<? extends Consumer> holder;
+               if (consumers.hasNext()) {
+                  holder = consumers.next();
+               } else {
+                  done = true;
+                  break;
                }
 
-               final SimpleString groupID = extractGroupID(ref);
-               groupConsumer = getGroupConsumer(groupID);
+               Consumer consumer = holder.consumer;
+               Consumer groupConsumer = null;
+               boolean handledConsumer = false;
 
-               if (groupConsumer != null) {
-                  consumer = groupConsumer;
+               if (holder.iter == null) {
+                  // a consumer with an indexed filter only iterates the references it can match
+                  holder.indexed = holder.index != null && propertyIndexes.isComplete();
+                  holder.iter = holder.indexed ? holder.index.iterator() : messageReferences.iterator();
                }
 
-               numAttempts++;
-               HandleStatus status = handle(ref, consumer);
+               // LVQ support
+               MessageReference ref = nextDelivery();
+               boolean nextDelivery = false;
+               if (ref != null) {
+                  nextDelivery = true;
+               }
 
-               if (status == HandleStatus.HANDLED) {
+               if (ref == null) {
+                  ref = nextReference(holder);
+               }
 
-                  // if a message was delivered, any previous negative attempts need to be cleared
-                  // this is to avoid breaks on the loop when checking for any other factors.
-                  noDelivery = 0;
-                  numNoMatch = 0;
-                  numAttempts = 0;
+               if (ref == null) {
+                  noDelivery++;
+                  if (holder.indexed) {
+                     // none of the queued references can match this consumer
+                     numAttempts++;
+                     numNoMatch++;
+                     if (numNoMatch == numAttempts && numAttempts == consumers.size() && redistributor == null) {
+                        hasUnMatchedPending = true;
+                     }
+                  }
+               } else {
+                  if (checkExpired(ref)) {
+                     if (logger.isTraceEnabled()) {
+                        logger.trace("Reference " + ref + " being expired");
+                     }
+                     removeMessageReference(holder, ref);
+                     handled++;
+                     consumers.reset();
+                     continue;
+                  }
 
-                  ref = handleMessageGroup(ref, consumer, groupConsumer, groupID);
+                  final SimpleString groupID = extractGroupID(ref);
+                  groupConsumer = getGroupConsumer(groupID);
 
-                  deliveriesInTransit.countUp();
+                  if (groupConsumer != null) {
+                     consumer = groupConsumer;
+                  } else if (groupID != null) {
+                     consumer = assignGroupConsumer(groupID, ref, consumer);
+                  }
 
-                  if (!nonDestructive) {
-                     removeMessageReference(holder, ref);
+                  if (isBusyInBatch(batchConsumers, batched, consumer)) {
+                     // the credits of this consumer are only taken when the reference it handled is delivered so it
+                     // can't handle another one in the same batch: deliver the batch and come back to this consumer
+                     repeatReference(holder, ref, nextDelivery);
+                     consumers.repeat();
+                     break;
                   }
-                  ref.setInDelivery(true);
-                  handledconsumer = consumer;
-                  handled++;
-                  consumers.reset();
-               } else if (status == HandleStatus.BUSY) {
-                  if (nextDelivery) {
-                     repeatNextDelivery(ref);
-                  } else {
-                     try {
-                        holder.iter.repeat();
-                     } catch (NoSuchElementException e) {
-                        // this could happen if there was an exception on the queue handling
-                        // and it returned BUSY because of that exception
-                        //
-                        // We will just log it as there's nothing else we can do now.
-                        logger.warn(e.getMessage(), e);
-                     }
+
+                  if (logger.isTraceEnabled()) {
+                     logger.trace("Queue " + this.getName() + " is delivering reference " + ref);
                   }
 
-                  noDelivery++;
-                  numNoMatch = 0;
-                  numAttempts = 0;
-                  // no consumers.reset() b/c we skip this consumer
-               } else if (status == HandleStatus.NO_MATCH) {
-                  consumers.reset();
-                  numNoMatch++;
-                  // every attempt resulted in noMatch for number of consumers means we tried all consumers for a single message
-                  if (numNoMatch == numAttempts && numAttempts == consumers.size() && redistributor == null) {
-                     hasUnMatchedPending = true;
-                     // one hit of unmatched message is enough, no need to reset counters
+                  numAttempts++;
+                  HandleStatus status = handle(ref, consumer);
+
+                  if (status != HandleStatus.HANDLED && groupConsumer == null && consumer != holder.consumer && !isBusyInBatch(batchConsumers, batched, holder.consumer)) {
+                     // the consumer picked for the new group is busy: fall back to the round-robin consumer
+                     consumer = holder.consumer;
+                     status = handle(ref, consumer);
                   }
-               }
-            }
 
-            if (groupConsumer != null) {
-               if (noDelivery > 0) {
-                  break;
-               }
-               noDelivery = 0;
-            } else if (!consumers.hasNext()) {
-               // Round robin'd all
-
-               if (noDelivery == this.consumers.size()) {
-                  if (handledconsumer != null) {
-                     // this shouldn't really happen,
-                     // however I'm keeping this as an assertion case future developers ever change the logic here on this class
-                     ActiveMQServerLogger.LOGGER.nonDeliveryHandled();
-                  } else {
-                     if (logger.isDebugEnabled()) {
-                        logger.debug(this + "::All the consumers were busy, giving up now");
+                  if (status == HandleStatus.HANDLED) {
+
+                     // if a message was delivered, any previous negative attempts need to be cleared
+                     // this is to avoid breaks on the loop when checking for any other factors.
+                     noDelivery = 0;
+                     numNoMatch = 0;
+                     numAttempts = 0;
+
+                     final MessageReference handledRef = handleMessageGroup(ref, consumer, groupConsumer, groupID);
+
+                     deliveriesInTransit.countUp();
+
+                     if (!nonDestructive) {
+                        removeMessageReference(holder, ref);
+                     }
+                     ref = handledRef;
+                     ref.setInDelivery(true);
+                     batchConsumers[batched] = consumer;
+                     batchRefs[batched] = ref;
+                     batched++;
+                     handledConsumer = true;
+                     handled++;
+                     consumers.reset();
+                  } else if (status == HandleStatus.BUSY) {
+                     repeatReference(holder, ref, nextDelivery);
+
+                     noDelivery++;
+                     numNoMatch = 0;
+                     numAttempts = 0;
+                     // no consumers.reset() b/c we skip this consumer
+                  } else if (status == HandleStatus.NO_MATCH) {
+                     consumers.reset();
+                     numNoMatch++;
+                     // every attempt resulted in noMatch for number of consumers means we tried all consumers for a single message
+                     if (numNoMatch == numAttempts && numAttempts == consumers.size() && redistributor == null) {
+                        hasUnMatchedPending = true;
+                        // one hit of unmatched message is enough, no need to reset counters
                      }
-                     break;
                   }
                }
 
-               noDelivery = 0;
+               if (groupConsumer != null) {
+                  if (noDelivery > 0) {
+                     done = true;
+                     break;
+                  }
+                  noDelivery = 0;
+               } else if (!consumers.hasNext()) {
+                  // Round robin'd all
+
+                  if (noDelivery == this.consumers.size()) {
+                     if (handledConsumer) {
+                        // this shouldn't really happen,
+                        // however I'm keeping this as an assertion case future developers ever change the logic here on this class
+                        ActiveMQServerLogger.LOGGER.nonDeliveryHandled();
+                     } else {
+                        if (logger.isDebugEnabled()) {
+                           logger.debug(this + "::All the consumers were busy, giving up now");
+                        }
+                        done = true;
+                        break;
+                     }
+                  }
+
+                  noDelivery = 0;
+               }
             }
          }
 
-         if (handledconsumer != null) {
-            proceedDeliver(handledconsumer, ref);
+         for (int i = 0; i < batched; i++) {
+            proceedDeliver(batchConsumers[i], batchRefs[i]);
+            batchConsumers[i] = null;
+            batchRefs[i] = null;
+         }
+
+         if (stopped) {
+            return false;
          }
       }
 
       return true;
    }
 
+   /**
+    * @return {@code true} if {@code consumer} handled a reference of the batch and can't handle another one before it's
+    * delivered
+    */
+   private static boolean isBusyInBatch(Consumer[] batchConsumers, int batched, Consumer consumer) {
+      if (consumer.supportsBatchedHandling()) {
+         return false;
+      }
+      for (int i = 0; i < batched; i++) {
+         if (batchConsumers[i] == consumer) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private void repeatReference(ConsumerHolder<? extends Consumer> holder, MessageReference ref, boolean nextDelivery) {
+      if (nextDelivery) {
+         repeatNextDelivery(ref);
+      } else {
+         try {
+            holder.iter.repeat();
+         } catch (NoSuchElementException e) {
+            // this could happen if there was an exception on the queue handling
+            // and it returned BUSY because of that exception
+            //
+            // We will just log it as there's nothing else we can do now.
+            logger.warn(e.getMessage(), e);
+         }
+      }
+   }
+
+   private static MessageReference nextReference(ConsumerHolder<? extends Consumer> holder) {
+      while (holder.iter.hasNext()) {
+         final MessageReference ref = holder.iter.next();
+         // the references an index holds may have been removed from the queue in the meantime
+         if (!holder.indexed || LinkedListImpl.isLinked(ref)) {
+            return ref;
+         }
+         holder.iter.remove();
+      }
+      return null;
+   }
+
    protected void removeMessageReference(ConsumerHolder<? extends Consumer> holder, MessageReference ref) {
       holder.iter.remove();
+      if (holder.indexed) {
+         messageReferences.removeLinked(ref, getPriority(ref));
+      }
       refRemoved(ref);
    }
 
@@ -3169,7 +3483,8 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
           * maybe discarded by gc collector in response to memory demand and we need to read it again at
           * a great cost when delivering.
           */
-         intermediateMessageReferences.size() + messageReferences.size() < MAX_DEPAGE_NUM;
+         intermediateMessageReferences.size() + messageReferences.size() < MAX_DEPAGE_NUM &&
+         (compactReferences == null || compactReferences.isEmpty());
    }
 
    private SimpleString extractGroupID(MessageReference ref) {
@@ -3298,7 +3613,15 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
    @Override
    public synchronized MessageReference removeWithSuppliedID(String serverID, long id, NodeStore<MessageReference> nodeStore) {
       checkIDSupplier(nodeStore);
-      return messageReferences.removeWithID(serverID, id);
+      MessageReference removed = messageReferences.removeWithID(serverID, id);
+      if (removed == null && compactReferences != null && !compactReferences.isEmpty()) {
+         materializeReferences(true);
+         removed = messageReferences.removeWithID(serverID, id);
+         if (referenceIterators.isEmpty()) {
+            repackReferences();
+         }
+      }
+      return removed;
    }
 
    private void internalAddRedistributor(final ArtemisExecutor executor) {
@@ -3770,9 +4093,16 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
             if (groupConsumer != null) {
                consumer = groupConsumer;
+            } else if (groupID != null) {
+               consumer = assignGroupConsumer(groupID, ref, consumer);
             }
 
             HandleStatus status = handle(ref, consumer);
+            if (status != HandleStatus.HANDLED && groupConsumer == null && consumer != holder.consumer) {
+               // the consumer picked for the new group is busy: fall back to the round-robin consumer
+               consumer = holder.consumer;
+               status = handle(ref, consumer);
+            }
             if (status == HandleStatus.HANDLED) {
                final MessageReference reference = handleMessageGroup(ref, consumer, groupConsumer, groupID);
 
@@ -3785,7 +4115,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                return true;
             }
 
-            if (groupConsumer != null) {
+            if (groupConsumer != null || consumer != holder.consumer) {
                break;
             }
          }
@@ -3811,6 +4141,18 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       return groupConsumer;
    }
 
+   /**
+    * @return the consumer a new group is assigned to, {@code consumer} unless the groups pick another one whose filter
+    * matches {@code ref}
+    */
+   private Consumer assignGroupConsumer(SimpleString groupID, MessageReference ref, Consumer consumer) {
+      final Consumer assigned = groups.assign(groupID, candidate -> {
+         final Filter filter = candidate.getFilter();
+         return filter == null || filter.match(ref.getMessage());
+      });
+      return assigned == null ? consumer : assigned;
+   }
+
    private MessageReference handleMessageGroup(MessageReference ref, Consumer consumer, Consumer groupConsumer, SimpleString groupID) {
       if (exclusive) {
          if (groupConsumer == null) {
@@ -4084,6 +4426,13 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    }
 
+   private MessageGroups<Consumer> createGroups(int groupBuckets) {
+      if (groupBuckets == -1 && groupVirtualNodes > 0) {
+         return new ConsistentHashMessageGroups<>(groupVirtualNodes);
+      }
+      return groupMap(groupBuckets);
+   }
+
    public static MessageGroups<Consumer> groupMap(int groupBuckets) {
       if (groupBuckets == -1) {
          return new SimpleMessageGroups<>();
@@ -4122,7 +4471,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
          .setTemporary(temporary)
          .setInternal(internalQueue)
          .setTransient(refCountForConsumers instanceof TransientQueueManagerImpl)
-         .setAutoCreated(autoCreated);
+         .setAutoCreated(autoCreated)
+         .setShardOf(shardOf)
+         .setShardIndex(shardOf == null ? null : shardIndex);
    }
 
    protected static class ConsumerHolder<T extends Consumer> implements PriorityAware {
@@ -4135,6 +4486,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       LinkedListIterator<MessageReference> iter;
 
+      QueuePropertyIndexes.Index index;
+
+      // true if iter is iterating the index instead of the queue
+      boolean indexed;
+
       private void resetIterator() {
          if (iter != null) {
             iter.close();
@@ -4257,6 +4613,143 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       public abstract boolean actMessage(Transaction tx, MessageReference ref) throws Exception;
    }
 
+   /**
+    * An iterator over the references listed in the queue and then over the packed ones, which are walked in place: a
+    * packed reference is recreated when the iterator reaches it and taken out of the store only if it's removed.
+    * <p>
+    * Within a priority the references come in the order of the queue, but the listed references of every priority come
+    * before the packed ones. The packed references unpacked by the deliveries once it went past them are skipped when it
+    * meets them again in the list. It must be guarded by the queue lock.
+    */
+   private final class ReferenceIterator implements LinkedListIterator<MessageReference> {
+
+      private final LinkedListIterator<MessageReference> listed = messageReferences.iterator();
+
+      private final CompactReferenceStore.Cursor packed = compactReferences == null ? null : compactReferences.cursor();
+
+      // per priority, the sequence after the last packed reference returned, null until one is
+      private long[] returnedSequences;
+
+      // the references unpacked after being returned, until they're met in the list
+      private Set<MessageReference> returned;
+
+      private MessageReference nextPacked;
+
+      private MessageReference last;
+
+      private boolean lastPacked;
+
+      private boolean repeat;
+
+      private boolean closed;
+
+      @Override
+      public boolean hasNext() {
+         if (repeat || nextPacked != null) {
+            return true;
+         }
+         while (listed.hasNext()) {
+            final MessageReference ref = listed.next();
+            if (returned == null || !returned.remove(ref)) {
+               listed.repeat();
+               return true;
+            }
+         }
+         if (packed != null && compactReferences.advance(packed)) {
+            nextPacked = createReference(compactReferences.getMessage(packed), compactReferences.getDeliveryCount(packed));
+            return true;
+         }
+         return false;
+      }
+
+      @Override
+      public MessageReference next() {
+         if (repeat) {
+            repeat = false;
+            return last;
+         }
+         while (hasNext()) {
+            if (nextPacked == null) {
+               lastPacked = false;
+               return last = listed.next();
+            }
+            final MessageReference ref = nextPacked;
+            nextPacked = null;
+            // otherwise it's been unpacked since, it's met in the list
+            if (compactReferences.isPacked(packed, ref.getMessage())) {
+               if (returnedSequences == null) {
+                  returnedSequences = new long[NUM_PRIORITIES];
+               }
+               returnedSequences[compactReferences.getPriority(packed)] = compactReferences.getSequence(packed) + 1;
+               lastPacked = true;
+               return last = ref;
+            }
+         }
+         throw new NoSuchElementException();
+      }
+
+      @Override
+      public void remove() {
+         if (!lastPacked) {
+            listed.remove();
+         } else if (last == null) {
+            throw new NoSuchElementException();
+         } else if (compactReferences.isPacked(packed, last.getMessage())) {
+            compactReferences.remove(packed);
+         } else {
+            removeUnpacked(last.getMessage());
+         }
+         last = null;
+         repeat = false;
+      }
+
+      private void removeUnpacked(Message message) {
+         if (returned != null) {
+            for (MessageReference ref : returned) {
+               if (ref.getMessage() == message) {
+                  returned.remove(ref);
+                  if (messageReferences.removeLinked(ref, getPriority(ref))) {
+                     return;
+                  }
+                  break;
+               }
+            }
+         }
+         throw new IllegalStateException("The reference of message " + message.getMessageID() + " has been removed from the queue");
+      }
+
+      @Override
+      public void repeat() {
+         if (last == null) {
+            throw new NoSuchElementException();
+         }
+         if (lastPacked) {
+            repeat = true;
+         } else {
+            listed.repeat();
+         }
+      }
+
+      @Override
+      public void close() {
+         if (!closed) {
+            closed = true;
+            listed.close();
+            referenceIterators.remove(this);
+            returned = null;
+         }
+      }
+
+      void unpacked(MessageReference ref, int priority, long sequence) {
+         if (returnedSequences != null && sequence < returnedSequences[priority]) {
+            if (returned == null) {
+               returned = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+            returned.add(ref);
+         }
+      }
+   }
+
    /* For external use we need to use a synchronized version since the list is not thread safe */
    private class SynchronizedIterator implements LinkedListIterator<MessageReference> {
 
@@ -4302,6 +4795,103 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       }
    }
 
+   /**
+    * A read-only iterator copying the references of the queue in snapshots of up to {@link #BROWSE_BATCH_SIZE} while
+    * holding the queue lock, so browsers and management queries acquire it once per snapshot rather than twice per
+    * reference, and don't hold it while handling the references.
+    * <p>
+    * The listed references removed from the queue after being copied are skipped, as far as the iterating thread sees
+    * it, the packed ones aren't. Like the iterators of the references list, it must be confined to a thread or guarded
+    * by the queue lock.
+    */
+   private class SnapshotIterator implements LinkedListIterator<MessageReference> {
+
+      private final ReferenceIterator iter;
+
+      private final MessageReference[] snapshot = new MessageReference[BROWSE_BATCH_SIZE];
+
+      // the packed references are recreated to be iterated, they're never linked
+      private final boolean[] packed = new boolean[BROWSE_BATCH_SIZE];
+
+      private int position;
+
+      private int limit;
+
+      private MessageReference last;
+
+      private boolean repeat;
+
+      SnapshotIterator(ReferenceIterator iter) {
+         this.iter = iter;
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (repeat && last != null) {
+            return true;
+         }
+         while (true) {
+            while (position < limit) {
+               final MessageReference ref = snapshot[position];
+               // intrusive references are unlinked when removed from the queue
+               if (packed[position] || !(ref instanceof LinkedListImpl.Node) || LinkedListImpl.isLinked(ref)) {
+                  return true;
+               }
+               snapshot[position++] = null;
+            }
+            if (!takeSnapshot()) {
+               return false;
+            }
+         }
+      }
+
+      @Override
+      public MessageReference next() {
+         if (repeat && last != null) {
+            repeat = false;
+            return last;
+         }
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         last = snapshot[position];
+         snapshot[position++] = null;
+         repeat = false;
+         return last;
+      }
+
+      private boolean takeSnapshot() {
+         position = 0;
+         limit = 0;
+         synchronized (QueueImpl.this) {
+            while (limit < snapshot.length && iter.hasNext()) {
+               snapshot[limit] = iter.next();
+               packed[limit++] = iter.lastPacked;
+            }
+         }
+         return limit > 0;
+      }
+
+      @Override
+      public void repeat() {
+         repeat = true;
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void close() {
+         Arrays.fill(snapshot, position, limit, null);
+         position = limit = 0;
+         synchronized (QueueImpl.this) {
+            iter.close();
+         }
+      }
+   }
+
    //Readonly (no remove) iterator over the messages in the queue, in order of
    //paging store, intermediateMessageReferences and MessageReferences
    private final class QueueBrowserIterator implements LinkedListIterator<MessageReference> {
@@ -4322,7 +4912,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       HashSet<PagePosition> previouslyBrowsed = new HashSet<>();
 
       private QueueBrowserIterator() {
-         messagesIterator = new SynchronizedIterator(messageReferences.iterator());
+         messagesIterator = new SnapshotIterator(referenceIterator());
       }
 
       @Override
@@ -4391,6 +4981,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
          }
          if (messagesIterator != null) {
             messagesIterator.close();
+            messagesIterator = null;
          }
       }
    }
@@ -4487,6 +5078,29 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       }
    }
 
+   private ScheduledDeliveryHandler createScheduledDeliveryHandler() {
+      final long timingWheelTick = addressSettingsRepository == null || address == null ? AddressSettings.DEFAULT_SCHEDULED_DELIVERY_TIMING_WHEEL_TICK : addressSettingsRepository.getMatch(address.toString()).getScheduledDeliveryTimingWheelTick();
+      if (timingWheelTick > 0) {
+         return new TimingWheelScheduledDeliveryHandler(scheduledExecutor, this, timingWheelTick);
+      }
+      return new ScheduledDeliveryHandlerImpl(scheduledExecutor, this);
+   }
+
+   private QueuePropertyIndexes createPropertyIndexes() {
+      if (addressSettingsRepository == null || address == null || !addressSettingsRepository.getMatch(address.toString()).isEnableSelectorIndex()) {
+         return null;
+      }
+      return new QueuePropertyIndexes(QueueImpl.NUM_PRIORITIES, MessageReferenceImpl.getIDComparator());
+   }
+
+   private CompactReferenceStore createCompactReferences() {
+      final int threshold = addressSettingsRepository == null || address == null ? AddressSettings.DEFAULT_REFERENCE_COMPACTION_THRESHOLD : addressSettingsRepository.getMatch(address.toString()).getReferenceCompactionThreshold();
+      if (threshold <= 0) {
+         return null;
+      }
+      return new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, threshold);
+   }
+
    private class AddressSettingsRepositoryListener implements HierarchicalRepositoryChangeListener {
 
       @Override
@@ -83,7 +83,7 @@ public class QueueManagerImpl extends ReferenceCounterUtil implements QueueManag
    }
 
    public static boolean messageCountCheck(Queue queue) {
-      return queue.getAutoDeleteMessageCount() == -1 || queue.getMessageCount() <= queue.getAutoDeleteMessageCount();
+      return queue.getAutoDeleteMessageCount() == -1 || QueueShards.sum(queue, Queue::getMessageCount) <= queue.getAutoDeleteMessageCount();
    }
 
    public static boolean delayCheck(Queue queue) {
@@ -91,7 +91,7 @@ public class QueueManagerImpl extends ReferenceCounterUtil implements QueueManag
    }
 
    public static boolean consumerCountCheck(Queue queue) {
-      return queue.getConsumerCount() == 0;
+      return QueueShards.sum(queue, Queue::getConsumerCount) == 0;
    }
 
    public QueueManagerImpl(ActiveMQServer server, SimpleString queueName) {
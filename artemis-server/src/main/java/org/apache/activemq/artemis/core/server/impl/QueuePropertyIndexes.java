@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.impl.FilterIndexKey;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.utils.collections.LinkedListImpl;
+import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
+import org.apache.activemq.artemis.utils.collections.PriorityLinkedList;
+import org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl;
+
+/**
+ * The secondary indexes of the references of a queue on the message properties its consumers select.
+ * <p>
+ * There is an index for each distinct {@link FilterIndexKey} of the consumers: it lists the references of the queue
+ * whose property has one of the values of the key, in the order of the queue, so these consumers iterate only the
+ * references they can match.
+ * <p>
+ * The references are only added to the indexes: the ones removed from the queue are left in the indexes until they're
+ * found not {@link LinkedListImpl#isLinked(Object) linked} to the queue anymore, so the references must be intrusive
+ * nodes of the queue list. While the queue holds a reference that isn't, the indexes are incomplete and the consumers
+ * must scan the queue.
+ * <p>
+ * This class isn't thread-safe, it's guarded by the queue lock.
+ */
+final class QueuePropertyIndexes {
+
+   /**
+    * The size over the queue size an index is allowed to grow to with stale references before being pruned.
+    */
+   private static final int PRUNE_THRESHOLD = 1024;
+
+   static final class Index {
+
+      private final FilterIndexKey key;
+
+      private final PriorityLinkedList<MessageReference> references;
+
+      private int consumers;
+
+      private Index(FilterIndexKey key, PriorityLinkedList<MessageReference> references) {
+         this.key = key;
+         this.references = references;
+      }
+
+      LinkedListIterator<MessageReference> iterator() {
+         return references.iterator();
+      }
+
+      int size() {
+         return references.size();
+      }
+   }
+
+   private final int priorities;
+
+   private final Comparator<MessageReference> comparator;
+
+   private final Map<FilterIndexKey, Index> indexes = new HashMap<>();
+
+   // indexed property -> value -> indexes with this value in their key
+   private final Map<SimpleString, Map<Object, List<Index>>> lookup = new HashMap<>();
+
+   private boolean complete = true;
+
+   private boolean dirty = false;
+
+   QueuePropertyIndexes(int priorities, Comparator<MessageReference> comparator) {
+      this.priorities = priorities;
+      this.comparator = comparator;
+   }
+
+   /**
+    * @return {@code true} if the indexes hold every reference of the queue they should
+    */
+   boolean isComplete() {
+      return complete;
+   }
+
+   /**
+    * Returns the index of {@code key}, creating it from the references of the queue if no other consumer uses it.
+    */
+   Index acquire(FilterIndexKey key, LinkedListIterator<MessageReference> queued, ToIntFunction<MessageReference> priority) {
+      Index index = indexes.get(key);
+      if (index == null) {
+         index = new Index(key, new PriorityLinkedListImpl<>(priorities, comparator));
+         try {
+            while (queued.hasNext()) {
+               final MessageReference ref = queued.next();
+               if (key.getValues().contains(key.indexValue(ref.getMessage()))) {
+                  index.references.addTail(ref, priority.applyAsInt(ref));
+                  dirty = true;
+               }
+            }
+         } finally {
+            queued.close();
+         }
+         indexes.put(key, index);
+         final Map<Object, List<Index>> values = lookup.computeIfAbsent(key.getProperty(), property -> new HashMap<>());
+         for (Object value : key.getValues()) {
+            values.computeIfAbsent(value, v -> new ArrayList<>(1)).add(index);
+         }
+      }
+      index.consumers++;
+      return index;
+   }
+
+   /**
+    * Releases the index used by a consumer, it's dropped once no consumer uses it.
+    */
+   void release(Index index) {
+      if (--index.consumers > 0) {
+         return;
+      }
+      indexes.remove(index.key);
+      final Map<Object, List<Index>> values = lookup.get(index.key.getProperty());
+      for (Object value : index.key.getValues()) {
+         final List<Index> valueIndexes = values.get(value);
+         valueIndexes.remove(index);
+         if (valueIndexes.isEmpty()) {
+            values.remove(value);
+         }
+      }
+      if (values.isEmpty()) {
+         lookup.remove(index.key.getProperty());
+      }
+      index.references.clear();
+   }
+
+   private enum Position {
+      HEAD, TAIL, SORTED
+   }
+
+   /**
+    * @return {@code true} if the indexes became incomplete
+    */
+   boolean addTail(MessageReference ref, int priority, int queueSize) {
+      return add(ref, priority, queueSize, Position.TAIL);
+   }
+
+   /**
+    * @return {@code true} if the indexes became incomplete
+    */
+   boolean addHead(MessageReference ref, int priority, int queueSize) {
+      return add(ref, priority, queueSize, Position.HEAD);
+   }
+
+   /**
+    * @return {@code true} if the indexes became incomplete
+    */
+   boolean addSorted(MessageReference ref, int priority, int queueSize) {
+      return add(ref, priority, queueSize, Position.SORTED);
+   }
+
+   private boolean add(MessageReference ref, int priority, int queueSize, Position position) {
+      if (!LinkedListImpl.isLinked(ref)) {
+         return markIncomplete();
+      }
+      if (lookup.isEmpty()) {
+         return false;
+      }
+      for (Map.Entry<SimpleString, Map<Object, List<Index>>> property : lookup.entrySet()) {
+         final List<Index> valueIndexes = property.getValue().get(FilterIndexKey.indexValue(ref.getMessage().getObjectPropertyForFilter(property.getKey())));
+         if (valueIndexes != null) {
+            for (Index index : valueIndexes) {
+               switch (position) {
+                  case HEAD:
+                     index.references.addHead(ref, priority);
+                     break;
+                  case TAIL:
+                     index.references.addTail(ref, priority);
+                     break;
+                  default:
+                     index.references.addSorted(ref, priority);
+               }
+               indexed(index, queueSize);
+            }
+         }
+      }
+      return false;
+   }
+
+   private boolean markIncomplete() {
+      dirty = true;
+      if (complete) {
+         complete = false;
+         return true;
+      }
+      return false;
+   }
+
+   private void indexed(Index index, int queueSize) {
+      dirty = true;
+      if (index.references.size() > 2 * queueSize + PRUNE_THRESHOLD) {
+         try (LinkedListIterator<MessageReference> iter = index.references.iterator()) {
+            while (iter.hasNext()) {
+               if (!LinkedListImpl.isLinked(iter.next())) {
+                  iter.remove();
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Clears the stale references of the indexes once the queue is empty.
+    *
+    * @return {@code true} if the indexes became complete
+    */
+   boolean queueEmptied() {
+      if (!dirty) {
+         return false;
+      }
+      dirty = false;
+      for (Index index : indexes.values()) {
+         index.references.clear();
+      }
+      if (!complete) {
+         complete = true;
+         return true;
+      }
+      return false;
+   }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.postoffice.Binding;
+import org.apache.activemq.artemis.core.postoffice.PostOffice;
+import org.apache.activemq.artemis.core.postoffice.impl.LocalQueueBinding;
+import org.apache.activemq.artemis.core.server.Queue;
+
+/**
+ * A sharded queue is an anycast queue created along with {@code queue-shards - 1} other queues, its shards, bound to
+ * the same address. Each shard has its own lock and executor so a single hot queue can be served by more than one
+ * core:
+ * <ul>
+ *    <li>producers are load balanced across the shards as for any anycast address, while the messages with a group ID
+ *    go to the same shard to keep them ordered, preferably one with consumers</li>
+ *    <li>consumers of the queue are attached to the shard with the fewest consumers, and the messages of the shards
+ *    without consumers are redistributed to the shards with consumers</li>
+ *    <li>browsers of the queue browse all its shards</li>
+ *    <li>the management view of the queue aggregates the counters of all its shards</li>
+ * </ul>
+ * The shards are named after the queue, but they are tied to it by their {@link Queue#getShardOf()} and
+ * {@link Queue#getShardIndex()}, persisted with their binding, whatever their name: they are not registered to
+ * management and are destroyed with it.
+ */
+public final class QueueShards {
+
+   private static final SimpleString SHARD_SEPARATOR = SimpleString.toSimpleString("$shard-");
+
+   private QueueShards() {
+   }
+
+   /**
+    * @return the name of the shard {@code shard} of the queue named {@code queueName}, suffixed by {@code -<n>} if
+    * {@code isTaken} says the name is already used by some other queue
+    */
+   public static SimpleString getShardName(SimpleString queueName, int shard, Predicate<SimpleString> isTaken) {
+      final SimpleString shardName = queueName.concat(SHARD_SEPARATOR).concat(Integer.toString(shard));
+      SimpleString name = shardName;
+      for (int n = 1; isTaken.test(name); n++) {
+         name = shardName.concat("-").concat(Integer.toString(n));
+      }
+      return name;
+   }
+
+   public static boolean isShard(Queue queue) {
+      return queue.getShardOf() != null;
+   }
+
+   /**
+    * @return {@code true} if {@code queue} is a sharded queue or one of its shards
+    */
+   public static boolean isSharded(Queue queue) {
+      return !queue.getShards().isEmpty() || isShard(queue);
+   }
+
+   public static boolean canBeSharded(Queue queue) {
+      return queue.getRoutingType() == RoutingType.ANYCAST && !queue.isTemporary() && !queue.isInternalQueue() && !isShard(queue);
+   }
+
+   /**
+    * @return the sharded queue {@code shard} is a shard of, {@code null} if it isn't a shard or its queue isn't bound
+    */
+   public static Queue getShardedQueue(PostOffice postOffice, Queue shard) {
+      final SimpleString shardOf = shard.getShardOf();
+      if (shardOf == null || postOffice == null) {
+         return null;
+      }
+      final Binding binding = postOffice.getBinding(shardOf);
+      return binding instanceof LocalQueueBinding ? ((LocalQueueBinding) binding).getQueue() : null;
+   }
+
+   /**
+    * @return the shard of {@code queue} (including itself) a new consumer should be attached to
+    */
+   public static Queue selectShardForConsumer(Queue queue) {
+      Queue selected = queue;
+      int consumers = queue.getConsumerCount();
+      for (Queue shard : queue.getShards()) {
+         final int shardConsumers = shard.getConsumerCount();
+         if (shardConsumers < consumers) {
+            selected = shard;
+            consumers = shardConsumers;
+         }
+      }
+      return selected;
+   }
+
+   /**
+    * Adds a redistributor to the shards without consumers of the sharded queue of {@code queue}, when some of its
+    * shards have consumers, so that no message is left on a shard that nobody consumes.
+    */
+   public static void redistribute(PostOffice postOffice, Queue queue) {
+      final Queue shardedQueue = isShard(queue) ? getShardedQueue(postOffice, queue) : queue;
+      if (shardedQueue == null || shardedQueue.getShards().isEmpty() || sum(shardedQueue, Queue::getConsumerCount) == 0) {
+         return;
+      }
+      if (shardedQueue.getConsumerCount() == 0) {
+         shardedQueue.addRedistributor(0);
+      }
+      for (Queue shard : shardedQueue.getShards()) {
+         if (shard.getConsumerCount() == 0) {
+            shard.addRedistributor(0);
+         }
+      }
+   }
+
+   /**
+    * @return the sum of {@code metric} over {@code queue} and its shards
+    */
+   public static long sum(Queue queue, ToLongFunction<Queue> metric) {
+      long sum = metric.applyAsLong(queue);
+      for (Queue shard : queue.getShards()) {
+         sum += metric.applyAsLong(shard);
+      }
+      return sum;
+   }
+}
@@ -223,7 +223,7 @@ public class ReplicationPrimaryActivation extends LiveActivation implements Dist
          final ReplicationFailureListener listener = new ReplicationFailureListener();
          remotingConnection.addCloseListener(listener);
          remotingConnection.addFailureListener(listener);
-         final ReplicationManager replicationManager = new ReplicationManager(activeMQServer, remotingConnection, clusterConnection.getCallTimeout(), policy.getInitialReplicationSyncTimeout(), activeMQServer.getIOExecutorFactory());
+         final ReplicationManager replicationManager = new ReplicationManager(activeMQServer, remotingConnection, clusterConnection.getCallTimeout(), policy.getInitialReplicationSyncTimeout(), policy.getInitialReplicationSyncParallelism(), activeMQServer.getIOExecutorFactory());
          this.replicationManager = replicationManager;
          replicationManager.start();
          final Thread replicatingThread = new Thread(() -> replicate(replicationManager, clusterConnection, isFailBackRequest, backupTransport));
@@ -110,6 +110,11 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
    private volatile AtomicInteger availableCredits = new AtomicInteger(0);
 
+   // the size of the references handled but not delivered yet, held against the available credits
+   private final AtomicInteger handledCredits = new AtomicInteger(0);
+
+   private volatile int creditWindowSize = -1;
+
    private boolean started;
 
    private volatile CoreLargeMessageDeliverer largeMessageDeliverer = null;
@@ -253,7 +258,7 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
       this.server = server;
 
       if (browseOnly) {
-         browserDeliverer = new BrowserDeliverer(messageQueue.browserIterator());
+         browserDeliverer = new BrowserDeliverer(messageQueue);
       } else {
          messageQueue.addConsumer(this);
       }
@@ -344,6 +349,16 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
       return creationTime;
    }
 
+   @Override
+   public void setCreditWindowSize(int creditWindowSize) {
+      this.creditWindowSize = creditWindowSize;
+   }
+
+   @Override
+   public int getCreditWindowSize() {
+      return creditWindowSize;
+   }
+
    @Override
    public String getConnectionID() {
       return this.session.getConnectionID().toString();
@@ -381,6 +396,14 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
       return callback.supportsDirectDelivery();
    }
 
+   /**
+    * @see SessionCallback#supportsBatchedHandling()
+    */
+   @Override
+   public boolean supportsBatchedHandling() {
+      return callback.supportsBatchedHandling();
+   }
+
    @Override
    public void errorProcessing(Throwable e, MessageReference deliveryObject) {
       messageQueue.errorProcessing(this, e, deliveryObject);
@@ -390,7 +413,7 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
    public HandleStatus handle(final MessageReference ref) throws Exception {
       // available credits can be set back to null with a flow control option.
       AtomicInteger checkInteger = availableCredits;
-      if (callback != null && !callback.hasCredits(this) || checkInteger != null && checkInteger.get() <= 0) {
+      if (callback != null && !callback.hasCredits(this) || checkInteger != null && checkInteger.get() - handledCredits.get() <= 0) {
          if (logger.isDebugEnabled()) {
             logger.debug(this + " is busy for the lack of credits. Current credits = " +
                             availableCredits +
@@ -478,6 +501,8 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
          }
 
+         handledCredits.addAndGet(message.getEncodeSize());
+
          pendingDelivery.countUp();
 
          return HandleStatus.HANDLED;
@@ -486,6 +511,8 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
    @Override
    public void proceedDeliver(MessageReference reference) throws Exception {
+      // taken before the message is sent, which may change its size
+      final int handledSize = reference.getMessage().getEncodeSize();
       try {
          Message message = reference.getMessage();
 
@@ -510,6 +537,7 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
             deliverStandardMessage(reference, message);
          }
       } finally {
+         handledCredits.addAndGet(-handledSize);
          pendingDelivery.countDown();
          callback.afterDelivery();
          if (server.hasBrokerMessagePlugins()) {
@@ -1420,11 +1448,18 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
       protected MessageReference current = null;
 
-      public BrowserDeliverer(final LinkedListIterator<MessageReference> iterator) {
-         this.iterator = iterator;
-      }
+      // the shards of a sharded queue are browsed after it, one after the other
+      private final Iterator<Queue> nextShards;
 
-      public final LinkedListIterator<MessageReference> iterator;
+      private volatile Queue browsedQueue;
+
+      public volatile LinkedListIterator<MessageReference> iterator;
+
+      public BrowserDeliverer(final Queue queue) {
+         this.browsedQueue = queue;
+         this.iterator = queue.browserIterator();
+         this.nextShards = queue.getShards().iterator();
+      }
 
       public synchronized void close() {
          iterator.close();
@@ -1458,8 +1493,14 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
          while (true) {
             try {
                ref = null;
-               synchronized (messageQueue) {
+               synchronized (browsedQueue) {
                   if (!iterator.hasNext()) {
+                     if (nextShards.hasNext()) {
+                        iterator.close();
+                        browsedQueue = nextShards.next();
+                        iterator = browsedQueue.browserIterator();
+                        continue;
+                     }
                      callback.browserFinished(ServerConsumerImpl.this);
                      break;
                   }
@@ -1486,8 +1527,10 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
       public boolean isBrowsed() {
          messageQueue.deliverAsync();
-         boolean b = !iterator.hasNext();
-         return b;
+         // the browser iterator is guarded by the lock of the browsed queue
+         synchronized (browsedQueue) {
+            return !iterator.hasNext() && !nextShards.hasNext();
+         }
       }
    }
 
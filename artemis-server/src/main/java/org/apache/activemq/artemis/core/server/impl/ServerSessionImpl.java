@@ -531,13 +531,13 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
       }
       final SimpleString unPrefixedQueueName = removePrefix(queueName);
 
-      Binding binding = postOffice.getBinding(unPrefixedQueueName);
+      Binding queueBinding = postOffice.getBinding(unPrefixedQueueName);
 
-      if (binding == null || binding.getType() != BindingType.LOCAL_QUEUE) {
+      if (queueBinding == null || queueBinding.getType() != BindingType.LOCAL_QUEUE) {
          throw ActiveMQMessageBundle.BUNDLE.noSuchQueue(unPrefixedQueueName);
       }
 
-      SimpleString address = removePrefix(binding.getAddress());
+      SimpleString address = removePrefix(queueBinding.getAddress());
       try {
          securityCheck(address, unPrefixedQueueName, browseOnly ? CheckType.BROWSE : CheckType.CONSUME, this);
       } catch (Exception e) {
@@ -554,6 +554,9 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
          }
       }
 
+      // a consumer of a sharded queue is attached to one of its shards
+      final Binding binding = browseOnly ? queueBinding : selectShardForConsumer((QueueBinding) queueBinding);
+
       Filter filter = FilterImpl.createFilter(filterString);
 
       if (server.hasBrokerConsumerPlugins()) {
@@ -625,6 +628,17 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
       return consumer;
    }
 
+   private Binding selectShardForConsumer(final QueueBinding binding) {
+      final Queue queue = binding.getQueue();
+      final Queue shard = QueueShards.selectShardForConsumer(queue);
+      if (shard == queue) {
+         return binding;
+      }
+      final Binding shardBinding = postOffice.getBinding(shard.getName());
+      // the shard could have just been removed
+      return shardBinding != null ? shardBinding : binding;
+   }
+
    /**
     * Some protocols may chose to hold their transactions outside of the ServerSession.
     * This can be used to replace the transaction.
@@ -0,0 +1,504 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.server.ScheduledDeliveryHandler;
+import org.apache.activemq.artemis.core.transaction.Transaction;
+import org.jboss.logging.Logger;
+
+/**
+ * Handles scheduling deliveries to a queue using a hierarchical timing wheel, with a resolution of
+ * {@code tickMillis}.
+ *
+ * <p>Differently from {@link ScheduledDeliveryHandlerImpl}, scheduling and removing a reference costs O(1) and
+ * there is at most a single pending task on the scheduled executor, releasing all the due references in a batch:
+ * a reference is delivered at most {@code tickMillis} after its scheduled delivery time.</p>
+ *
+ * <p>Each of the {@link #LEVELS} wheels has {@link #WHEEL_SIZE} buckets, each one covering {@link #WHEEL_SIZE}
+ * times the time span of a bucket of the wheel below: once a lower wheel has completed a turn, the references of
+ * the next bucket of the upper one are moved down. References scheduled beyond the span of the top wheel wait in
+ * an overflow bucket, moved down once the top wheel has completed a turn.</p>
+ */
+public class TimingWheelScheduledDeliveryHandler implements ScheduledDeliveryHandler {
+
+   private static final Logger logger = Logger.getLogger(TimingWheelScheduledDeliveryHandler.class);
+
+   private static final int WHEEL_BITS = 8;
+
+   private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+   private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+   private static final int LEVELS = 3;
+
+   // same order of ScheduledDeliveryHandlerImpl.MessageReferenceComparator
+   private static final Comparator<Entry> ENTRY_COMPARATOR = (entry1, entry2) -> {
+      final int byTime = Long.compare(entry1.deliveryTime, entry2.deliveryTime);
+      if (byTime != 0) {
+         return byTime;
+      }
+      if (entry1.tail != entry2.tail) {
+         return entry1.tail ? 1 : -1;
+      }
+      // heads are delivered in the reverse order they have been scheduled
+      return entry1.tail ? Long.compare(entry1.sequence, entry2.sequence) : Long.compare(entry2.sequence, entry1.sequence);
+   };
+
+   private final ScheduledExecutorService scheduledExecutor;
+
+   private final long tickMillis;
+
+   private final QueueMessageMetrics metrics;
+
+   private final Bucket[][] wheels;
+
+   // references already due, waiting for the next tick to be delivered
+   private final Bucket due = new Bucket();
+
+   private final Bucket overflow = new Bucket();
+
+   private final Map<Long, Entry> entriesByMessageID = new HashMap<>();
+
+   private final Runnable tickTask = this::tick;
+
+   private long currentTick;
+
+   private int size;
+
+   private long sequence;
+
+   private ScheduledFuture<?> nextTickFuture;
+
+   private long nextTick;
+
+   public TimingWheelScheduledDeliveryHandler(final ScheduledExecutorService scheduledExecutor,
+                                              final Queue queue,
+                                              final long tickMillis) {
+      if (tickMillis <= 0) {
+         throw new IllegalArgumentException("tickMillis must be > 0");
+      }
+      this.scheduledExecutor = scheduledExecutor;
+      this.tickMillis = tickMillis;
+      this.metrics = new QueueMessageMetrics(queue, "scheduled");
+      this.wheels = new Bucket[LEVELS][WHEEL_SIZE];
+      for (Bucket[] wheel : wheels) {
+         for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Bucket();
+         }
+      }
+      this.currentTick = System.currentTimeMillis() / tickMillis;
+   }
+
+   @Override
+   public boolean checkAndSchedule(final MessageReference ref, final boolean tail) {
+      long deliveryTime = ref.getScheduledDeliveryTime();
+
+      if (deliveryTime > 0 && scheduledExecutor != null) {
+         if (logger.isTraceEnabled()) {
+            logger.trace("Scheduling delivery for " + ref + " to occur at " + deliveryTime);
+         }
+
+         addInPlace(deliveryTime, ref, tail);
+
+         return true;
+      }
+      return false;
+   }
+
+   public void addInPlace(final long deliveryTime, final MessageReference ref, final boolean tail) {
+      final long tick = deliveryTime / tickMillis + (deliveryTime % tickMillis == 0 ? 0 : 1);
+      final Entry entry = new Entry(ref, tail, deliveryTime, tick);
+      synchronized (this) {
+         entry.sequence = sequence++;
+         if (size == 0) {
+            // the wheels don't turn while idle: place the entry relative to the current time
+            currentTick = Math.max(currentTick, System.currentTimeMillis() / tickMillis);
+         }
+         index(entry);
+         insert(entry);
+         size++;
+         metrics.incrementMetrics(ref);
+         scheduleTick(Math.max(currentTick, entry.tick));
+      }
+   }
+
+   @Override
+   public int getScheduledCount() {
+      return metrics.getMessageCount();
+   }
+
+   @Override
+   public int getDurableScheduledCount() {
+      return metrics.getDurableMessageCount();
+   }
+
+   @Override
+   public long getScheduledSize() {
+      return metrics.getPersistentSize();
+   }
+
+   @Override
+   public long getDurableScheduledSize() {
+      return metrics.getDurablePersistentSize();
+   }
+
+   @Override
+   public List<MessageReference> getScheduledReferences() {
+      final List<Entry> entries;
+      synchronized (this) {
+         entries = new ArrayList<>(size);
+         forEachBucket(bucket -> {
+            for (Entry entry = bucket.head; entry != null; entry = entry.next) {
+               entries.add(entry);
+            }
+         });
+      }
+      entries.sort(ENTRY_COMPARATOR);
+      final List<MessageReference> refs = new LinkedList<>();
+      for (Entry entry : entries) {
+         refs.add(entry.ref);
+      }
+      return refs;
+   }
+
+   @Override
+   public List<MessageReference> cancel(final Filter filter) throws ActiveMQException {
+      final List<Entry> cancelled = new ArrayList<>();
+      synchronized (this) {
+         forEachBucket(bucket -> {
+            Entry entry = bucket.head;
+            while (entry != null) {
+               final Entry next = entry.next;
+               if (filter == null || filter.match(entry.ref.getMessage())) {
+                  bucket.remove(entry);
+                  remove(entry);
+                  cancelled.add(entry);
+               }
+               entry = next;
+            }
+         });
+      }
+      cancelled.sort(ENTRY_COMPARATOR);
+      final List<MessageReference> refs = new ArrayList<>(cancelled.size());
+      for (Entry entry : cancelled) {
+         refs.add(entry.ref);
+      }
+      return refs;
+   }
+
+   @Override
+   public MessageReference removeReferenceWithID(final long id) throws Exception {
+      return removeReferenceWithID(id, null);
+   }
+
+   @Override
+   public MessageReference removeReferenceWithID(final long id, Transaction tx) throws Exception {
+      synchronized (this) {
+         final Entry entry = entriesByMessageID.get(id);
+         if (entry == null) {
+            return null;
+         }
+         final MessageReference ref = entry.ref;
+         ref.acknowledge(tx);
+         entry.bucket.remove(entry);
+         remove(entry);
+         return ref;
+      }
+   }
+
+   private void index(final Entry entry) {
+      final Entry sameID = entriesByMessageID.putIfAbsent(entry.ref.getMessage().getMessageID(), entry);
+      if (sameID != null) {
+         entry.nextSameID = sameID.nextSameID;
+         sameID.nextSameID = entry;
+      }
+   }
+
+   /**
+    * Forgets an entry already removed from its bucket.
+    */
+   private void remove(final Entry entry) {
+      final Long messageID = entry.ref.getMessage().getMessageID();
+      final Entry first = entriesByMessageID.get(messageID);
+      if (first == entry) {
+         if (entry.nextSameID == null) {
+            entriesByMessageID.remove(messageID);
+         } else {
+            entriesByMessageID.put(messageID, entry.nextSameID);
+         }
+      } else if (first != null) {
+         Entry previous = first;
+         while (previous.nextSameID != null && previous.nextSameID != entry) {
+            previous = previous.nextSameID;
+         }
+         previous.nextSameID = entry.nextSameID;
+      }
+      entry.nextSameID = null;
+      size--;
+      metrics.decrementMetrics(entry.ref);
+   }
+
+   private void insert(final Entry entry) {
+      final long tick = entry.tick;
+      if (tick <= currentTick) {
+         due.add(entry);
+         return;
+      }
+      for (int level = 0; level < LEVELS; level++) {
+         final int shift = level * WHEEL_BITS;
+         if ((tick >>> shift) - (currentTick >>> shift) <= WHEEL_MASK) {
+            wheels[level][(int) ((tick >>> shift) & WHEEL_MASK)].add(entry);
+            return;
+         }
+      }
+      overflow.add(entry);
+   }
+
+   private void forEachBucket(final Consumer<Bucket> action) {
+      action.accept(due);
+      for (Bucket[] wheel : wheels) {
+         for (Bucket bucket : wheel) {
+            if (!bucket.isEmpty()) {
+               action.accept(bucket);
+            }
+         }
+      }
+      action.accept(overflow);
+   }
+
+   /**
+    * Moves the wheels up to {@code nowTick}, collecting the due entries into {@code released}.
+    */
+   private void advance(final long nowTick, final List<Entry> released) {
+      while (currentTick < nowTick) {
+         // the buckets in between are empty: jump straight to the next one that could release or move down any entry
+         final long tick = Math.min(nextWheelTick(), nowTick);
+         currentTick = tick;
+         if ((tick & WHEEL_MASK) == 0) {
+            cascade(tick);
+         }
+         wheels[0][(int) (tick & WHEEL_MASK)].drainTo(released);
+      }
+      due.drainTo(released);
+   }
+
+   private void cascade(final long tick) {
+      for (int level = 1; level <= LEVELS; level++) {
+         final int shift = level * WHEEL_BITS;
+         final Bucket bucket = level == LEVELS ? overflow : wheels[level][(int) ((tick >>> shift) & WHEEL_MASK)];
+         Entry entry = bucket.removeAll();
+         while (entry != null) {
+            final Entry next = entry.next;
+            entry.next = null;
+            insert(entry);
+            entry = next;
+         }
+         // the upper wheel has not completed a turn yet
+         if (level < LEVELS && ((tick >>> shift) & WHEEL_MASK) != 0) {
+            break;
+         }
+      }
+   }
+
+   /**
+    * @return the first tick that could release or move down any entry
+    */
+   private long nextTick() {
+      if (!due.isEmpty()) {
+         return currentTick;
+      }
+      return nextWheelTick();
+   }
+
+   /**
+    * @return the first tick after {@link #currentTick} that could release or move down any entry of the wheels,
+    * or {@link Long#MAX_VALUE} if they are empty
+    */
+   private long nextWheelTick() {
+      long nextTick = Long.MAX_VALUE;
+      for (int level = 0; level < LEVELS; level++) {
+         final int shift = level * WHEEL_BITS;
+         final long currentSlot = currentTick >>> shift;
+         for (long slot = currentSlot + 1; slot <= currentSlot + WHEEL_MASK; slot++) {
+            if (!wheels[level][(int) (slot & WHEEL_MASK)].isEmpty()) {
+               nextTick = Math.min(nextTick, slot << shift);
+               break;
+            }
+         }
+      }
+      if (!overflow.isEmpty()) {
+         final int shift = LEVELS * WHEEL_BITS;
+         nextTick = Math.min(nextTick, ((currentTick >>> shift) + 1) << shift);
+      }
+      return nextTick;
+   }
+
+   private void scheduleTick(final long tick) {
+      if (scheduledExecutor == null) {
+         return;
+      }
+      if (nextTickFuture != null) {
+         if (nextTick <= tick) {
+            return;
+         }
+         nextTickFuture.cancel(false);
+      }
+      final long delay = Math.max(0, tick * tickMillis - System.currentTimeMillis());
+      if (logger.isTraceEnabled()) {
+         logger.trace("Setting up the next tick " + tick + " with a delay of " + delay);
+      }
+      nextTick = tick;
+      nextTickFuture = scheduledExecutor.schedule(tickTask, delay, TimeUnit.MILLISECONDS);
+   }
+
+   private void tick() {
+      final List<Entry> released = new ArrayList<>();
+      synchronized (this) {
+         nextTickFuture = null;
+         // the scheduled executor could be a bit early: the due entries are based on the current time anyway
+         advance(System.currentTimeMillis() / tickMillis, released);
+         for (Entry entry : released) {
+            remove(entry);
+            entry.ref.setScheduledDeliveryTime(0);
+         }
+         if (size > 0) {
+            scheduleTick(nextTick());
+         }
+      }
+      if (released.isEmpty()) {
+         return;
+      }
+      released.sort(ENTRY_COMPARATOR);
+
+      final Map<Queue, LinkedList<MessageReference>> refs = new HashMap<>();
+      for (Entry entry : released) {
+         final MessageReference reference = entry.ref;
+         if (logger.isTraceEnabled()) {
+            logger.trace("sending message " + reference + " to delivery, deliveryTime = " + entry.deliveryTime);
+         }
+         refs.computeIfAbsent(reference.getQueue(), queue -> new LinkedList<>()).addFirst(reference);
+      }
+      for (Map.Entry<Queue, LinkedList<MessageReference>> entry : refs.entrySet()) {
+         final Queue queue = entry.getKey();
+         final LinkedList<MessageReference> list = entry.getValue();
+         if (logger.isTraceEnabled()) {
+            logger.trace("Delivering " + list.size() + " elements on list to queue " + queue);
+         }
+         queue.addHead(list, true);
+      }
+   }
+
+   private static final class Entry {
+
+      final MessageReference ref;
+      final boolean tail;
+      final long deliveryTime;
+      // the first tick not earlier than deliveryTime
+      final long tick;
+      long sequence;
+      Bucket bucket;
+      Entry prev;
+      Entry next;
+      Entry nextSameID;
+
+      Entry(final MessageReference ref, final boolean tail, final long deliveryTime, final long tick) {
+         this.ref = ref;
+         this.tail = tail;
+         this.deliveryTime = deliveryTime;
+         this.tick = tick;
+      }
+   }
+
+   private static final class Bucket {
+
+      Entry head;
+      int size;
+
+      boolean isEmpty() {
+         return head == null;
+      }
+
+      void add(final Entry entry) {
+         entry.bucket = this;
+         entry.prev = null;
+         entry.next = head;
+         if (head != null) {
+            head.prev = entry;
+         }
+         head = entry;
+         size++;
+      }
+
+      void remove(final Entry entry) {
+         if (entry.prev != null) {
+            entry.prev.next = entry.next;
+         } else {
+            head = entry.next;
+         }
+         if (entry.next != null) {
+            entry.next.prev = entry.prev;
+         }
+         entry.prev = null;
+         entry.next = null;
+         entry.bucket = null;
+         size--;
+      }
+
+      /**
+       * @return the first of the removed entries, still linked to the next ones
+       */
+      Entry removeAll() {
+         final Entry first = head;
+         head = null;
+         size = 0;
+         for (Entry entry = first; entry != null; entry = entry.next) {
+            entry.prev = null;
+            entry.bucket = null;
+         }
+         return first;
+      }
+
+      void drainTo(final List<Entry> entries) {
+         Entry entry = head;
+         head = null;
+         size = 0;
+         while (entry != null) {
+            final Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+            entries.add(entry);
+            entry = next;
+         }
+      }
+   }
+}
@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.activemq.artemis.api.core.BroadcastEndpointFactory;
 import org.apache.activemq.artemis.api.core.BroadcastGroupConfiguration;
@@ -61,6 +62,9 @@ import org.apache.activemq.artemis.api.core.management.ResourceNames;
 import org.apache.activemq.artemis.core.config.BridgeConfiguration;
 import org.apache.activemq.artemis.core.config.ClusterConnectionConfiguration;
 import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.io.buffer.TimedBuffer;
+import org.apache.activemq.artemis.core.journal.Journal;
 import org.apache.activemq.artemis.core.management.impl.AcceptorControlImpl;
 import org.apache.activemq.artemis.core.management.impl.ActiveMQServerControlImpl;
 import org.apache.activemq.artemis.core.management.impl.AddressControlImpl;
@@ -233,10 +237,40 @@ public class ManagementServiceImpl implements ManagementService {
             builder.register(BrokerMetricNames.ADDRESS_MEMORY_USAGE, this, metrics -> Double.valueOf(messagingServerControl.getAddressMemoryUsage()), ActiveMQServerControl.ADDRESS_MEMORY_USAGE_DESCRIPTION);
             builder.register(BrokerMetricNames.ADDRESS_MEMORY_USAGE_PERCENTAGE, this, metrics -> Double.valueOf(messagingServerControl.getAddressMemoryUsagePercentage()), ActiveMQServerControl.ADDRESS_MEMORY_USAGE_PERCENTAGE_DESCRIPTION);
             builder.register(BrokerMetricNames.DISK_STORE_USAGE, this, metrics -> Double.valueOf(messagingServer.getDiskStoreUsage()), ActiveMQServerControl.DISK_STORE_USAGE_DESCRIPTION);
+            builder.register(BrokerMetricNames.JOURNAL_COMPACT_BYTES_RECLAIMED, this, metrics -> {
+               Journal journal = getMessageJournal();
+               return Double.valueOf(journal == null ? 0 : journal.getCompactBytesReclaimed());
+            }, ActiveMQServerControl.JOURNAL_COMPACT_BYTES_RECLAIMED_DESCRIPTION);
+            builder.register(BrokerMetricNames.JOURNAL_COMPACT_PAUSE_TIME, this, metrics -> {
+               Journal journal = getMessageJournal();
+               return Double.valueOf(journal == null ? 0 : TimeUnit.NANOSECONDS.toMillis(journal.getCompactPauseTime()));
+            }, ActiveMQServerControl.JOURNAL_COMPACT_PAUSE_TIME_DESCRIPTION);
+            builder.register(BrokerMetricNames.JOURNAL_BUFFER_IMMEDIATE_FLUSH_COUNT, this, metrics -> {
+               TimedBuffer timedBuffer = getMessageJournalBuffer();
+               return Double.valueOf(timedBuffer == null ? 0 : timedBuffer.getImmediateFlushes());
+            }, ActiveMQServerControl.JOURNAL_BUFFER_IMMEDIATE_FLUSH_COUNT_DESCRIPTION);
+            builder.register(BrokerMetricNames.JOURNAL_BUFFER_TIMED_FLUSH_COUNT, this, metrics -> {
+               TimedBuffer timedBuffer = getMessageJournalBuffer();
+               return Double.valueOf(timedBuffer == null ? 0 : timedBuffer.getTimedFlushes());
+            }, ActiveMQServerControl.JOURNAL_BUFFER_TIMED_FLUSH_COUNT_DESCRIPTION);
          });
       }
    }
 
+   private Journal getMessageJournal() {
+      final StorageManager storageManager = this.storageManager;
+      return storageManager == null ? null : storageManager.getMessageJournal();
+   }
+
+   private TimedBuffer getMessageJournalBuffer() {
+      final Journal journal = getMessageJournal();
+      if (journal == null) {
+         return null;
+      }
+      final SequentialFileFactory fileFactory = journal.getFileFactory();
+      return fileFactory == null ? null : fileFactory.getTimedBuffer();
+   }
+
    @Override
    public synchronized void unregisterServer() throws Exception {
       ObjectName objectName = objectNameBuilder.getActiveMQServerObjectName();
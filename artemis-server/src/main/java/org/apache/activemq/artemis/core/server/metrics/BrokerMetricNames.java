@@ -24,4 +24,8 @@ public class BrokerMetricNames {
    public static final String ADDRESS_MEMORY_USAGE = "address.memory.usage";
    public static final String ADDRESS_MEMORY_USAGE_PERCENTAGE = "address.memory.usage.percentage";
    public static final String DISK_STORE_USAGE = "disk.store.usage";
+   public static final String JOURNAL_COMPACT_BYTES_RECLAIMED = "journal.compact.bytes.reclaimed";
+   public static final String JOURNAL_COMPACT_PAUSE_TIME = "journal.compact.pause.time";
+   public static final String JOURNAL_BUFFER_IMMEDIATE_FLUSH_COUNT = "journal.buffer.immediate.flush.count";
+   public static final String JOURNAL_BUFFER_TIMED_FLUSH_COUNT = "journal.buffer.timed.flush.count";
 }
@@ -135,6 +135,20 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    public static final boolean DEFAULT_ENABLE_INGRESS_TIMESTAMP = false;
 
+   public static final int DEFAULT_ID_CACHE_FILTER_SIZE = 0;
+
+   public static final double DEFAULT_ID_CACHE_FILTER_FALSE_POSITIVE_RATE = 0.001;
+
+   public static final long DEFAULT_SCHEDULED_DELIVERY_TIMING_WHEEL_TICK = 0;
+
+   public static final int DEFAULT_QUEUE_SHARDS = 1;
+
+   public static final boolean DEFAULT_ENABLE_SELECTOR_INDEX = false;
+
+   public static final int DEFAULT_REFERENCE_COMPACTION_THRESHOLD = -1;
+
+   public static final int DEFAULT_GROUP_VIRTUAL_NODES = 0;
+
    private AddressFullMessagePolicy addressFullMessagePolicy = null;
 
    private Long maxSizeBytes = null;
@@ -269,6 +283,20 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    private Boolean enableIngressTimestamp = null;
 
+   private Integer idCacheFilterSize = null;
+
+   private Double idCacheFilterFalsePositiveRate = null;
+
+   private Long scheduledDeliveryTimingWheelTick = null;
+
+   private Integer queueShards = null;
+
+   private Boolean enableSelectorIndex = null;
+
+   private Integer referenceCompactionThreshold = null;
+
+   private Integer groupVirtualNodes = null;
+
    //from amq5
    //make it transient
    private transient Integer queuePrefetch = null;
@@ -338,6 +366,13 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       this.managementMessageAttributeSizeLimit = other.managementMessageAttributeSizeLimit;
       this.slowConsumerThresholdMeasurementUnit = other.slowConsumerThresholdMeasurementUnit;
       this.enableIngressTimestamp = other.enableIngressTimestamp;
+      this.idCacheFilterSize = other.idCacheFilterSize;
+      this.idCacheFilterFalsePositiveRate = other.idCacheFilterFalsePositiveRate;
+      this.scheduledDeliveryTimingWheelTick = other.scheduledDeliveryTimingWheelTick;
+      this.queueShards = other.queueShards;
+      this.enableSelectorIndex = other.enableSelectorIndex;
+      this.referenceCompactionThreshold = other.referenceCompactionThreshold;
+      this.groupVirtualNodes = other.groupVirtualNodes;
    }
 
    public AddressSettings() {
@@ -970,6 +1005,94 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       return this;
    }
 
+   public int getIDCacheFilterSize() {
+      return idCacheFilterSize != null ? idCacheFilterSize : AddressSettings.DEFAULT_ID_CACHE_FILTER_SIZE;
+   }
+
+   /**
+    * Sets how many duplicate IDs evicted from the duplicate ID cache are still remembered by a probabilistic filter,
+    * {@code 0} to disable it.
+    */
+   public AddressSettings setIDCacheFilterSize(final int idCacheFilterSize) {
+      this.idCacheFilterSize = idCacheFilterSize;
+      return this;
+   }
+
+   public double getIDCacheFilterFalsePositiveRate() {
+      return idCacheFilterFalsePositiveRate != null ? idCacheFilterFalsePositiveRate : AddressSettings.DEFAULT_ID_CACHE_FILTER_FALSE_POSITIVE_RATE;
+   }
+
+   /**
+    * Sets the probability of the duplicate ID cache filter to report a new ID as a duplicate.
+    */
+   public AddressSettings setIDCacheFilterFalsePositiveRate(final double idCacheFilterFalsePositiveRate) {
+      this.idCacheFilterFalsePositiveRate = idCacheFilterFalsePositiveRate;
+      return this;
+   }
+
+   public long getScheduledDeliveryTimingWheelTick() {
+      return scheduledDeliveryTimingWheelTick != null ? scheduledDeliveryTimingWheelTick : AddressSettings.DEFAULT_SCHEDULED_DELIVERY_TIMING_WHEEL_TICK;
+   }
+
+   /**
+    * Sets the resolution, in milliseconds, of the timing wheel holding the scheduled messages of the queues created
+    * afterwards, {@code 0} to keep them in a sorted set.
+    */
+   public AddressSettings setScheduledDeliveryTimingWheelTick(final long scheduledDeliveryTimingWheelTick) {
+      this.scheduledDeliveryTimingWheelTick = scheduledDeliveryTimingWheelTick;
+      return this;
+   }
+
+   public int getQueueShards() {
+      return queueShards != null ? queueShards : AddressSettings.DEFAULT_QUEUE_SHARDS;
+   }
+
+   /**
+    * Sets in how many independent shards the anycast queues created afterwards are split.
+    */
+   public AddressSettings setQueueShards(final int queueShards) {
+      this.queueShards = queueShards;
+      return this;
+   }
+
+   public boolean isEnableSelectorIndex() {
+      return enableSelectorIndex != null ? enableSelectorIndex : AddressSettings.DEFAULT_ENABLE_SELECTOR_INDEX;
+   }
+
+   /**
+    * Sets whether the queues created afterwards index their messages on the properties selected by their consumers.
+    */
+   public AddressSettings setEnableSelectorIndex(final boolean enableSelectorIndex) {
+      this.enableSelectorIndex = enableSelectorIndex;
+      return this;
+   }
+
+   public int getReferenceCompactionThreshold() {
+      return referenceCompactionThreshold != null ? referenceCompactionThreshold : AddressSettings.DEFAULT_REFERENCE_COMPACTION_THRESHOLD;
+   }
+
+   /**
+    * Sets how many references of each priority the queues created afterwards keep as objects before packing the next
+    * ones in arrays, -1 to never pack them.
+    */
+   public AddressSettings setReferenceCompactionThreshold(final int referenceCompactionThreshold) {
+      this.referenceCompactionThreshold = referenceCompactionThreshold;
+      return this;
+   }
+
+   public int getGroupVirtualNodes() {
+      return groupVirtualNodes != null ? groupVirtualNodes : AddressSettings.DEFAULT_GROUP_VIRTUAL_NODES;
+   }
+
+   /**
+    * Sets how many virtual nodes each consumer owns on the consistent hash ring assigning the new message groups of the
+    * queues created afterwards with unbounded groups, 0 to assign them round-robin.
+    */
+   public AddressSettings setGroupVirtualNodes(final int groupVirtualNodes) {
+      this.groupVirtualNodes = groupVirtualNodes;
+      return this;
+   }
+
    /**
     * merge 2 objects in to 1
     *
@@ -1175,6 +1298,27 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       if (enableIngressTimestamp == null) {
          enableIngressTimestamp = merged.enableIngressTimestamp;
       }
+      if (idCacheFilterSize == null) {
+         idCacheFilterSize = merged.idCacheFilterSize;
+      }
+      if (idCacheFilterFalsePositiveRate == null) {
+         idCacheFilterFalsePositiveRate = merged.idCacheFilterFalsePositiveRate;
+      }
+      if (scheduledDeliveryTimingWheelTick == null) {
+         scheduledDeliveryTimingWheelTick = merged.scheduledDeliveryTimingWheelTick;
+      }
+      if (queueShards == null) {
+         queueShards = merged.queueShards;
+      }
+      if (enableSelectorIndex == null) {
+         enableSelectorIndex = merged.enableSelectorIndex;
+      }
+      if (referenceCompactionThreshold == null) {
+         referenceCompactionThreshold = merged.referenceCompactionThreshold;
+      }
+      if (groupVirtualNodes == null) {
+         groupVirtualNodes = merged.groupVirtualNodes;
+      }
    }
 
    @Override
@@ -1412,6 +1556,34 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
             configDeleteDiverts = null;
          }
       }
+
+      if (buffer.readableBytes() > 0) {
+         idCacheFilterSize = BufferHelper.readNullableInteger(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         idCacheFilterFalsePositiveRate = BufferHelper.readNullableDouble(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         scheduledDeliveryTimingWheelTick = BufferHelper.readNullableLong(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         queueShards = BufferHelper.readNullableInteger(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         enableSelectorIndex = BufferHelper.readNullableBoolean(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         referenceCompactionThreshold = BufferHelper.readNullableInteger(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         groupVirtualNodes = BufferHelper.readNullableInteger(buffer);
+      }
    }
 
    @Override
@@ -1479,7 +1651,14 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          BufferHelper.sizeOfNullableBoolean(defaultGroupRebalancePauseDispatch) +
          BufferHelper.sizeOfNullableInteger(managementMessageAttributeSizeLimit) +
          BufferHelper.sizeOfNullableInteger(slowConsumerThresholdMeasurementUnit.getValue()) +
-         BufferHelper.sizeOfNullableBoolean(enableIngressTimestamp);
+         BufferHelper.sizeOfNullableBoolean(enableIngressTimestamp) +
+         BufferHelper.sizeOfNullableInteger(idCacheFilterSize) +
+         BufferHelper.sizeOfNullableDouble(idCacheFilterFalsePositiveRate) +
+         BufferHelper.sizeOfNullableLong(scheduledDeliveryTimingWheelTick) +
+         BufferHelper.sizeOfNullableInteger(queueShards) +
+         BufferHelper.sizeOfNullableBoolean(enableSelectorIndex) +
+         BufferHelper.sizeOfNullableInteger(referenceCompactionThreshold) +
+         BufferHelper.sizeOfNullableInteger(groupVirtualNodes);
    }
 
    @Override
@@ -1613,6 +1792,20 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       BufferHelper.writeNullableBoolean(buffer, enableIngressTimestamp);
 
       buffer.writeNullableSimpleString(configDeleteDiverts != null ? new SimpleString(configDeleteDiverts.toString()) : null);
+
+      BufferHelper.writeNullableInteger(buffer, idCacheFilterSize);
+
+      BufferHelper.writeNullableDouble(buffer, idCacheFilterFalsePositiveRate);
+
+      BufferHelper.writeNullableLong(buffer, scheduledDeliveryTimingWheelTick);
+
+      BufferHelper.writeNullableInteger(buffer, queueShards);
+
+      BufferHelper.writeNullableBoolean(buffer, enableSelectorIndex);
+
+      BufferHelper.writeNullableInteger(buffer, referenceCompactionThreshold);
+
+      BufferHelper.writeNullableInteger(buffer, groupVirtualNodes);
    }
 
    /* (non-Javadoc)
@@ -1688,6 +1881,13 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       result = prime * result + ((managementMessageAttributeSizeLimit == null) ? 0 : managementMessageAttributeSizeLimit.hashCode());
       result = prime * result + ((slowConsumerThresholdMeasurementUnit == null) ? 0 : slowConsumerThresholdMeasurementUnit.hashCode());
       result = prime * result + ((enableIngressTimestamp == null) ? 0 : enableIngressTimestamp.hashCode());
+      result = prime * result + ((idCacheFilterSize == null) ? 0 : idCacheFilterSize.hashCode());
+      result = prime * result + ((idCacheFilterFalsePositiveRate == null) ? 0 : idCacheFilterFalsePositiveRate.hashCode());
+      result = prime * result + ((scheduledDeliveryTimingWheelTick == null) ? 0 : scheduledDeliveryTimingWheelTick.hashCode());
+      result = prime * result + ((queueShards == null) ? 0 : queueShards.hashCode());
+      result = prime * result + ((enableSelectorIndex == null) ? 0 : enableSelectorIndex.hashCode());
+      result = prime * result + ((referenceCompactionThreshold == null) ? 0 : referenceCompactionThreshold.hashCode());
+      result = prime * result + ((groupVirtualNodes == null) ? 0 : groupVirtualNodes.hashCode());
       return result;
    }
 
@@ -2054,6 +2254,48 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       } else if (!enableIngressTimestamp.equals(other.enableIngressTimestamp))
          return false;
 
+      if (idCacheFilterSize == null) {
+         if (other.idCacheFilterSize != null)
+            return false;
+      } else if (!idCacheFilterSize.equals(other.idCacheFilterSize))
+         return false;
+
+      if (idCacheFilterFalsePositiveRate == null) {
+         if (other.idCacheFilterFalsePositiveRate != null)
+            return false;
+      } else if (!idCacheFilterFalsePositiveRate.equals(other.idCacheFilterFalsePositiveRate))
+         return false;
+
+      if (scheduledDeliveryTimingWheelTick == null) {
+         if (other.scheduledDeliveryTimingWheelTick != null)
+            return false;
+      } else if (!scheduledDeliveryTimingWheelTick.equals(other.scheduledDeliveryTimingWheelTick))
+         return false;
+
+      if (queueShards == null) {
+         if (other.queueShards != null)
+            return false;
+      } else if (!queueShards.equals(other.queueShards))
+         return false;
+
+      if (enableSelectorIndex == null) {
+         if (other.enableSelectorIndex != null)
+            return false;
+      } else if (!enableSelectorIndex.equals(other.enableSelectorIndex))
+         return false;
+
+      if (referenceCompactionThreshold == null) {
+         if (other.referenceCompactionThreshold != null)
+            return false;
+      } else if (!referenceCompactionThreshold.equals(other.referenceCompactionThreshold))
+         return false;
+
+      if (groupVirtualNodes == null) {
+         if (other.groupVirtualNodes != null)
+            return false;
+      } else if (!groupVirtualNodes.equals(other.groupVirtualNodes))
+         return false;
+
       return true;
    }
 
@@ -2191,6 +2433,20 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          enableMetrics +
          ", enableIngressTime=" +
          enableIngressTimestamp +
+         ", idCacheFilterSize=" +
+         idCacheFilterSize +
+         ", idCacheFilterFalsePositiveRate=" +
+         idCacheFilterFalsePositiveRate +
+         ", scheduledDeliveryTimingWheelTick=" +
+         scheduledDeliveryTimingWheelTick +
+         ", queueShards=" +
+         queueShards +
+         ", enableSelectorIndex=" +
+         enableSelectorIndex +
+         ", referenceCompactionThreshold=" +
+         referenceCompactionThreshold +
+         ", groupVirtualNodes=" +
+         groupVirtualNodes +
          "]";
    }
 }
@@ -35,6 +35,15 @@ public interface SessionCallback {
       return true;
    }
 
+   /**
+    * Whether the consumers of this session can handle several references before the first one is delivered, i.e. the
+    * only flow control of the protocol is the credits of the {@link ServerConsumer}, which holds the references it
+    * handled against them. A protocol taking its own credits when the message is sent would overrun its window.
+    */
+   default boolean supportsBatchedHandling() {
+      return false;
+   }
+
 
    /**
     * This one gives a chance for Proton to have its own flow control.
@@ -95,6 +95,8 @@ public class ConfigurationImplTest extends ActiveMQTestBase {
       Assert.assertEquals(conf.getJournalLocation(), conf.getNodeManagerLockLocation());
       Assert.assertNull(conf.getJournalDeviceBlockSize());
       Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultReadWholePage(), conf.isReadWholePage());
+      Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultReadMappedPage(), conf.isReadMappedPage());
+      Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultPageOffsetIndex(), conf.isPageOffsetIndex());
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalBufferTimeoutNio(), conf.getPageSyncTimeout());
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultTemporaryQueueNamespace(), conf.getTemporaryQueueNamespace());
    }
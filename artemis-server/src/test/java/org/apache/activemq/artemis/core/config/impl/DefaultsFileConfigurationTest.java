@@ -92,6 +92,10 @@ public class DefaultsFileConfigurationTest extends ConfigurationImplTest {
 
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalMaxAtticFiles(), conf.getJournalMaxAtticFiles());
 
+      Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalLoadParallelism(), conf.getJournalLoadParallelism());
+
+      Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultJournalBufferAdaptiveTimeout(), conf.isJournalBufferAdaptiveTimeout());
+
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalCompactMinFiles(), conf.getJournalCompactMinFiles());
 
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalCompactPercentage(), conf.getJournalCompactPercentage());
@@ -139,6 +139,8 @@ public class FileConfigurationTest extends ConfigurationImplTest {
 
       Assert.assertEquals("max concurrent io", 17, conf.getPageMaxConcurrentIO());
       Assert.assertEquals(true, conf.isReadWholePage());
+      Assert.assertEquals(true, conf.isReadMappedPage());
+      Assert.assertEquals(true, conf.isPageOffsetIndex());
       Assert.assertEquals("somedir2", conf.getJournalDirectory());
       Assert.assertEquals("history", conf.getJournalRetentionDirectory());
       Assert.assertEquals(10L * 1024L * 1024L * 1024L, conf.getJournalRetentionMaxBytes());
@@ -149,6 +151,7 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       Assert.assertEquals(1000, conf.getJournalBufferTimeout_NIO());
       Assert.assertEquals(56546, conf.getJournalMaxIO_NIO());
       Assert.assertEquals(9876, conf.getJournalFileOpenTimeout());
+      Assert.assertEquals(4, conf.getJournalLoadParallelism());
 
       Assert.assertEquals(false, conf.isJournalSyncTransactional());
       Assert.assertEquals(true, conf.isJournalSyncNonTransactional());
@@ -440,6 +443,13 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       assertEquals(0, conf.getAddressesSettings().get("a1").getRetroactiveMessageCount());
       assertTrue(conf.getAddressesSettings().get("a1").isEnableMetrics());
       assertTrue(conf.getAddressesSettings().get("a1").isEnableIngressTimestamp());
+      assertEquals(100000, conf.getAddressesSettings().get("a1").getIDCacheFilterSize());
+      assertEquals(0.01, conf.getAddressesSettings().get("a1").getIDCacheFilterFalsePositiveRate(), 0);
+      assertEquals(5, conf.getAddressesSettings().get("a1").getScheduledDeliveryTimingWheelTick());
+      assertEquals(4, conf.getAddressesSettings().get("a1").getQueueShards());
+      assertTrue(conf.getAddressesSettings().get("a1").isEnableSelectorIndex());
+      assertEquals(10000, conf.getAddressesSettings().get("a1").getReferenceCompactionThreshold());
+      assertEquals(100, conf.getAddressesSettings().get("a1").getGroupVirtualNodes());
 
       assertEquals("a2.1", conf.getAddressesSettings().get("a2").getDeadLetterAddress().toString());
       assertEquals(true, conf.getAddressesSettings().get("a2").isAutoCreateDeadLetterResources());
@@ -477,6 +487,12 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       assertEquals(10, conf.getAddressesSettings().get("a2").getRetroactiveMessageCount());
       assertFalse(conf.getAddressesSettings().get("a2").isEnableMetrics());
       assertFalse(conf.getAddressesSettings().get("a2").isEnableIngressTimestamp());
+      assertEquals(AddressSettings.DEFAULT_ID_CACHE_FILTER_SIZE, conf.getAddressesSettings().get("a2").getIDCacheFilterSize());
+      assertEquals(AddressSettings.DEFAULT_SCHEDULED_DELIVERY_TIMING_WHEEL_TICK, conf.getAddressesSettings().get("a2").getScheduledDeliveryTimingWheelTick());
+      assertEquals(AddressSettings.DEFAULT_QUEUE_SHARDS, conf.getAddressesSettings().get("a2").getQueueShards());
+      assertFalse(conf.getAddressesSettings().get("a2").isEnableSelectorIndex());
+      assertEquals(AddressSettings.DEFAULT_REFERENCE_COMPACTION_THRESHOLD, conf.getAddressesSettings().get("a2").getReferenceCompactionThreshold());
+      assertEquals(AddressSettings.DEFAULT_GROUP_VIRTUAL_NODES, conf.getAddressesSettings().get("a2").getGroupVirtualNodes());
 
       assertTrue(conf.getResourceLimitSettings().containsKey("myUser"));
       assertEquals(104, conf.getResourceLimitSettings().get("myUser").getMaxConnections());
@@ -533,6 +549,7 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       assertEquals(CriticalAnalyzerPolicy.HALT, conf.getCriticalAnalyzerPolicy());
 
       assertEquals(false, conf.isJournalDatasync());
+      assertEquals(true, conf.isJournalBufferAdaptiveTimeout());
 
       // keep test for backwards compatibility
       ActiveMQMetricsPlugin metricsPlugin = conf.getMetricsPlugin();
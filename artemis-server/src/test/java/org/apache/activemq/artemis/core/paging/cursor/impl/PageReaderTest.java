@@ -17,6 +17,8 @@
 
 package org.apache.activemq.artemis.core.paging.cursor.impl;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Arrays;
 
 import org.apache.activemq.artemis.api.core.ICoreMessage;
@@ -73,6 +75,69 @@ public class PageReaderTest extends ActiveMQTestBase {
       pageReader.close();
    }
 
+   @Test
+   public void testMappedPageReadMessage() throws Exception {
+      recreateDirectory(getTestDir());
+
+      int num = 50;
+      int[] offsets = createPage(num);
+      PageReader pageReader = getPageReader(true);
+
+      PagedMessage[] pagedMessages = pageReader.readMessages();
+      assertEquals(pagedMessages.length, num);
+
+      for (int i = 0; i < num; i++) {
+         assertEquals(pagedMessages[i].getMessage().getMessageID(), i);
+         // with and without a file offset
+         PagedMessage pagedMessage = pageReader.getMessage(new PagePositionImpl(10, i, randomBoolean() ? offsets[i] : -1));
+         assertNotNull(pagedMessage);
+         assertEquals(pagedMessage.getMessage().getMessageID(), i);
+         assertEquals(pagedMessages[i].getEncodeSize(), pagedMessage.getEncodeSize());
+      }
+
+      assertNull(pageReader.getMessage(new PagePositionImpl(10, num)));
+
+      pageReader.close();
+   }
+
+   @Test
+   public void testPageOffsetIndex() throws Exception {
+      recreateDirectory(getTestDir());
+
+      int num = 50;
+      createPage(num, true);
+      File indexFile = new File(getTestDirfile(), "00010.index");
+      assertTrue("the index should be written when the page is closed", indexFile.exists());
+      final long indexSize = indexFile.length();
+
+      readMessagesWithoutOffset(num);
+
+      // a corrupt index is rebuilt
+      Files.write(indexFile.toPath(), new byte[(int) indexSize]);
+      readMessagesWithoutOffset(num);
+      assertEquals(indexSize, indexFile.length());
+
+      // as a missing one
+      assertTrue(indexFile.delete());
+      readMessagesWithoutOffset(num);
+      assertTrue("the rebuilt index should be written when the page is closed", indexFile.exists());
+      readMessagesWithoutOffset(num);
+   }
+
+   private void readMessagesWithoutOffset(int num) throws Exception {
+      SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+      SequentialFile file = factory.createSequentialFile("00010.page");
+      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10).setOffsetIndex(true);
+      page.open();
+      // backward, to never rely on the previous read
+      for (int i = num - 1; i >= 0; i--) {
+         PagedMessage pagedMessage = page.readMessage(0, 0, i);
+         assertNotNull(pagedMessage);
+         assertEquals(i, pagedMessage.getMessage().getMessageID());
+      }
+      page.close(false, false);
+   }
+
    @Test
    public void testShortPageReadMessage() throws Exception {
       recreateDirectory(getTestDir());
@@ -166,9 +231,13 @@ public class PageReaderTest extends ActiveMQTestBase {
    }
 
    private int[] createPage(int num) throws Exception {
+      return createPage(num, false);
+   }
+
+   private int[] createPage(int num, boolean offsetIndex) throws Exception {
       SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
       SequentialFile file = factory.createSequentialFile("00010.page");
-      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10).setOffsetIndex(offsetIndex);
       page.open();
       SimpleString simpleDestination = new SimpleString("Test");
       final int msgSize = 100;
@@ -201,10 +270,14 @@ public class PageReaderTest extends ActiveMQTestBase {
    }
 
    private PageReader getPageReader() throws Exception {
+      return getPageReader(false);
+   }
+
+   private PageReader getPageReader(boolean readMapped) throws Exception {
       SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
       SequentialFile file = factory.createSequentialFile("00010.page");
       file.open();
-      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10).setReadMapped(readMapped);
       page.open();
       page.read(new NullStorageManager());
       PageReader pageReader = new PageReader(page, page.getNumberOfMessages());
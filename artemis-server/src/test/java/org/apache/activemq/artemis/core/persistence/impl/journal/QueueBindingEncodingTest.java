@@ -52,6 +52,8 @@ public class QueueBindingEncodingTest extends Assert {
       final long ringSize = RandomUtil.randomLong();
       final boolean enabled = RandomUtil.randomBoolean();
       final boolean groupRebalancePauseDispatch = RandomUtil.randomBoolean();
+      final SimpleString shardOf = RandomUtil.randomSimpleString();
+      final int shardIndex = RandomUtil.randomInt();
 
       PersistentQueueBindingEncoding encoding = new PersistentQueueBindingEncoding(name,
                                                                                    address,
@@ -76,7 +78,9 @@ public class QueueBindingEncodingTest extends Assert {
                                                                                    autoDeleteMessageCount,
                                                                                    routingType,
                                                                                    configurationManaged,
-                                                                                   ringSize);
+                                                                                   ringSize,
+                                                                                   shardOf,
+                                                                                   shardIndex);
       int size = encoding.getEncodeSize();
       ActiveMQBuffer encodedBuffer = ActiveMQBuffers.fixedBuffer(size);
       encoding.encode(encodedBuffer);
@@ -107,6 +111,8 @@ public class QueueBindingEncodingTest extends Assert {
       assertEquals(routingType, decoding.getRoutingType());
       assertEquals(configurationManaged, decoding.isConfigurationManaged());
       assertEquals(ringSize, decoding.getRingSize());
+      assertEquals(shardOf, decoding.getShardOf());
+      assertEquals(shardIndex, decoding.getShardIndex());
 
       assertEquals(groupRebalancePauseDispatch, decoding.isGroupRebalancePauseDispatch());
 
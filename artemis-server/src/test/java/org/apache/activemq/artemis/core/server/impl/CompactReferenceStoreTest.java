@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.utils.MemorySize;
+import org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl;
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactReferenceStoreTest {
+
+   private static final Logger log = Logger.getLogger(CompactReferenceStoreTest.class);
+
+   private final List<Message> messages = new ArrayList<>();
+
+   private final List<Integer> deliveryCounts = new ArrayList<>();
+
+   @Test
+   public void testPacksBeyondThreshold() {
+      final CompactReferenceStore store = new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, 10);
+
+      assertFalse(store.offer(newReference(1), 4, 9));
+      assertTrue(store.offer(newReference(2), 4, 10));
+      // once a priority has packed references the next ones are packed too, to keep their order
+      assertTrue(store.offer(newReference(3), 4, 0));
+      assertFalse(store.offer(newReference(4), 5, 0));
+
+      assertEquals(2, store.size());
+      assertEquals(2, store.size(4));
+      assertEquals(0, store.size(5));
+   }
+
+   @Test
+   public void testDrainInOrderAcrossChunks() {
+      final CompactReferenceStore store = new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, 1);
+      final int count = CompactReferenceStore.CHUNK_SIZE * 3 + 7;
+      final List<Message> packed = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         final MessageReference ref = newReference(i);
+         packed.add(ref.getMessage());
+         assertTrue(store.offer(ref, 0, 1));
+      }
+
+      assertEquals(10, store.drain(0, 10, this::accept));
+      assertEquals(count - 10, store.drain(0, Integer.MAX_VALUE, this::accept));
+      assertTrue(store.isEmpty());
+      assertEquals(0, store.drain(0, 10, this::accept));
+
+      assertEquals(count, messages.size());
+      for (int i = 0; i < count; i++) {
+         assertSame(packed.get(i), messages.get(i));
+      }
+
+      // the store is reusable once drained
+      assertTrue(store.offer(newReference(count), 0, 1));
+      assertEquals(1, store.drain(0, 10, this::accept));
+   }
+
+   @Test
+   public void testKeepsDeliveryCount() {
+      final CompactReferenceStore store = new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, 1);
+      final MessageReference redelivered = newReference(1);
+      redelivered.setDeliveryCount(3);
+      redelivered.setPersistedCount(3);
+      assertTrue(store.offer(newReference(0), 0, 1));
+      assertTrue(store.offer(redelivered, 0, 1));
+
+      store.drain(0, 2, this::accept);
+      assertEquals(List.of(0, 3), deliveryCounts);
+   }
+
+   @Test
+   public void testOnlyPlainReferencesArePacked() {
+      final CompactReferenceStore store = new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, 1);
+
+      final MessageReference scheduled = newReference(1);
+      scheduled.setScheduledDeliveryTime(System.currentTimeMillis() + 1000);
+      assertFalse(store.offer(scheduled, 0, 1));
+
+      final MessageReference acked = newReference(2);
+      acked.setAlreadyAcked();
+      assertFalse(store.offer(acked, 0, 1));
+
+      // a delivery count not persisted yet would be lost
+      final MessageReference delivered = newReference(3);
+      delivered.setDeliveryCount(1);
+      assertFalse(store.offer(delivered, 0, 1));
+
+      final MessageReference consumed = newReference(4);
+      consumed.setConsumerId(1L);
+      assertFalse(store.offer(consumed, 0, 1));
+
+      assertTrue(store.isEmpty());
+   }
+
+   @Test
+   public void testCursorWalksInPlace() {
+      final CompactReferenceStore store = new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, 1);
+      final int count = CompactReferenceStore.CHUNK_SIZE + 10;
+      final List<Message> low = new ArrayList<>();
+      final List<Message> high = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         final MessageReference ref = newReference(i);
+         (i % 2 == 0 ? low : high).add(ref.getMessage());
+         assertTrue(store.offer(ref, i % 2 == 0 ? 0 : 9, 1));
+      }
+
+      // the highest priority first, each in order, and every other reference removed
+      final CompactReferenceStore.Cursor cursor = store.cursor();
+      final List<Message> walked = new ArrayList<>();
+      int removed = 0;
+      while (store.advance(cursor)) {
+         final Message message = store.getMessage(cursor);
+         assertTrue(store.isPacked(cursor, message));
+         walked.add(message);
+         if (walked.size() % 2 == 0) {
+            store.remove(cursor);
+            removed++;
+         }
+      }
+      final List<Message> expected = new ArrayList<>(high);
+      expected.addAll(low);
+      assertEquals(expected, walked);
+      assertEquals(count - removed, store.size());
+
+      // the removed references are skipped when draining
+      assertEquals(count - removed, store.drain(9, Integer.MAX_VALUE, this::accept) + store.drain(0, Integer.MAX_VALUE, this::accept));
+      for (int i = 0; i < messages.size(); i++) {
+         assertSame(expected.get(i * 2), messages.get(i));
+      }
+      assertTrue(store.isEmpty());
+   }
+
+   @Test
+   public void testCursorSkipsUnpacked() {
+      final CompactReferenceStore store = new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, 1);
+      final List<Message> packed = new ArrayList<>();
+      for (int i = 0; i < CompactReferenceStore.CHUNK_SIZE * 2; i++) {
+         final MessageReference ref = newReference(i);
+         packed.add(ref.getMessage());
+         assertTrue(store.offer(ref, 4, 1));
+      }
+
+      final CompactReferenceStore.Cursor cursor = store.cursor();
+      assertTrue(store.advance(cursor));
+      assertTrue(store.advance(cursor));
+      assertSame(packed.get(1), store.getMessage(cursor));
+
+      // the reference the cursor is on and the next ones are unpacked, it moves on to the head
+      store.drain(4, CompactReferenceStore.CHUNK_SIZE + 5, this::accept);
+      assertFalse(store.isPacked(cursor, packed.get(1)));
+      assertTrue(store.advance(cursor));
+      assertSame(packed.get(CompactReferenceStore.CHUNK_SIZE + 5), store.getMessage(cursor));
+
+      // the references packed once the store is emptied are walked too
+      store.drain(4, Integer.MAX_VALUE, this::accept);
+      final MessageReference ref = newReference(-1);
+      assertTrue(store.offer(ref, 4, 1));
+      assertTrue(store.advance(cursor));
+      assertSame(ref.getMessage(), store.getMessage(cursor));
+      assertFalse(store.advance(cursor));
+   }
+
+   @Test
+   public void testHeapPerQueuedMessage() throws Exception {
+      // the messages are shared: only what the queue holds per message is measured
+      final Message message = new CoreMessage(1, 50);
+
+      final PriorityLinkedListImpl<MessageReference> list = new PriorityLinkedListImpl<>(QueueImpl.NUM_PRIORITIES);
+      final int listed = MemorySize.calculateSize(() -> {
+         final MessageReference ref = new MessageReferenceImpl(message, null);
+         list.addTail(ref, 4);
+         return ref;
+      });
+
+      final CompactReferenceStore store = new CompactReferenceStore(QueueImpl.NUM_PRIORITIES, 1);
+      final int packed = MemorySize.calculateSize(() -> {
+         store.offer(new MessageReferenceImpl(message, null), 4, 1);
+         return null;
+      });
+
+      log.info("Heap per queued message: " + listed + " bytes listed, " + packed + " bytes packed");
+      assertTrue(listed + " bytes listed, " + packed + " bytes packed", packed < listed / 4);
+   }
+
+   private void accept(Message message, int deliveryCount, int priority, long sequence) {
+      messages.add(message);
+      deliveryCounts.add(deliveryCount);
+   }
+
+   private static MessageReference newReference(long id) {
+      return new MessageReferenceImpl(new CoreMessage(id, 50), null);
+   }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConsistentHashMessageGroupsTest {
+
+   private static final int GROUPS = 10_000;
+
+   @Test
+   public void testVirtualNodesGreaterThanZero() {
+      try {
+         new ConsistentHashMessageGroups<String>(0);
+         fail("IllegalArgumentException was expected as virtual nodes is NOT greater than 0");
+      } catch (IllegalArgumentException iae) {
+         //Pass we expect exception thrown if virtual nodes is not greater than 0;
+      }
+   }
+
+   @Test
+   public void testNoConsumer() {
+      final MessageGroups<String> groups = new ConsistentHashMessageGroups<>(100);
+      assertNull(groups.assign(group(0)));
+      groups.consumerAdded("a");
+      groups.consumerRemoved("a");
+      assertNull(groups.assign(group(0)));
+   }
+
+   @Test
+   public void testAssignIsStable() {
+      final MessageGroups<String> groups = newGroups("a", "b", "c");
+      for (int i = 0; i < 100; i++) {
+         // an unassigned group always goes to the same consumer
+         assertSame(groups.assign(group(i)), groups.assign(group(i)));
+      }
+   }
+
+   @Test
+   public void testAssignSkipsTheConsumersNotAccepted() {
+      final MessageGroups<String> groups = newGroups("a", "b", "c");
+      for (int i = 0; i < 100; i++) {
+         final String owner = groups.assign(group(i));
+         final String assigned = groups.assign(group(i), consumer -> !consumer.equals(owner));
+         assertNotNull(assigned);
+         assertNotEquals(owner, assigned);
+         assertNull(groups.assign(group(i), consumer -> false));
+      }
+   }
+
+   @Test
+   public void testLoadIsBounded() {
+      final String[] consumers = {"a", "b", "c", "d", "e"};
+      final MessageGroups<String> groups = newGroups(consumers);
+      assignAll(groups);
+
+      int total = 0;
+      for (String consumer : consumers) {
+         final int count = groups.getGroupCount(consumer);
+         assertTrue(consumer + " holds " + count, count <= Math.ceil(ConsistentHashMessageGroups.LOAD_FACTOR * GROUPS / consumers.length));
+         assertTrue(consumer + " holds " + count, count > GROUPS / consumers.length / 2);
+         total += count;
+      }
+      assertEquals(GROUPS, total);
+   }
+
+   @Test
+   public void testConsumerAddedMovesFewGroups() {
+      final MessageGroups<String> groups = newGroups("a", "b", "c", "d");
+      final Map<SimpleString, String> before = assignAll(groups);
+
+      // a consumer joins and the groups are rebalanced
+      groups.consumerAdded("e");
+      groups.removeAll();
+      final Map<SimpleString, String> after = assignAll(groups);
+
+      int moved = 0;
+      int movedToNewConsumer = 0;
+      for (Map.Entry<SimpleString, String> entry : after.entrySet()) {
+         if (!entry.getValue().equals(before.get(entry.getKey()))) {
+            moved++;
+            if (entry.getValue().equals("e")) {
+               movedToNewConsumer++;
+            }
+         }
+      }
+      // a fifth of the groups should move to the new consumer, round-robin would move four fifths of them
+      assertTrue("moved " + moved, moved < GROUPS * 3 / 10);
+      assertTrue("moved to the new consumer " + movedToNewConsumer, movedToNewConsumer > moved * 3 / 4);
+      assertEquals(movedToNewConsumer, groups.getGroupCount("e"));
+   }
+
+   @Test
+   public void testConsumerRemovedOnlyMovesItsGroups() {
+      final MessageGroups<String> groups = newGroups("a", "b", "c", "d");
+      final Map<SimpleString, String> before = assignAll(groups);
+
+      groups.removeIf("c"::equals);
+      groups.consumerRemoved("c");
+      assertEquals(0, groups.getGroupCount("c"));
+      final Map<SimpleString, String> after = assignAll(groups);
+
+      for (Map.Entry<SimpleString, String> entry : before.entrySet()) {
+         if (entry.getValue().equals("c")) {
+            assertTrue(!after.get(entry.getKey()).equals("c"));
+         } else {
+            assertEquals(entry.getValue(), after.get(entry.getKey()));
+         }
+      }
+   }
+
+   @Test
+   public void testGroupCount() {
+      final MessageGroups<String> groups = newGroups("a", "b");
+      groups.put(group(1), "a");
+      groups.put(group(2), "a");
+      groups.put(group(3), "b");
+      assertEquals(2, groups.getGroupCount("a"));
+      assertEquals(1, groups.getGroupCount("b"));
+
+      groups.put(group(2), "b");
+      assertEquals(1, groups.getGroupCount("a"));
+      assertEquals(2, groups.getGroupCount("b"));
+
+      groups.remove(group(1));
+      assertEquals(0, groups.getGroupCount("a"));
+
+      groups.removeIf("b"::equals);
+      assertEquals(0, groups.getGroupCount("b"));
+      assertEquals(0, groups.size());
+
+      groups.put(group(1), "a");
+      groups.removeAll();
+      assertEquals(0, groups.getGroupCount("a"));
+   }
+
+   private static MessageGroups<String> newGroups(String... consumers) {
+      final MessageGroups<String> groups = new ConsistentHashMessageGroups<>(100);
+      for (String consumer : consumers) {
+         groups.consumerAdded(consumer);
+      }
+      return groups;
+   }
+
+   /**
+    * Assigns the unassigned groups as a queue does, on their first message.
+    */
+   private static Map<SimpleString, String> assignAll(MessageGroups<String> groups) {
+      final List<SimpleString> keys = new ArrayList<>(GROUPS);
+      for (int i = 0; i < GROUPS; i++) {
+         keys.add(group(i));
+      }
+      for (SimpleString key : keys) {
+         if (groups.get(key) == null) {
+            groups.put(key, groups.assign(key));
+         }
+      }
+      return new HashMap<>(groups.toMap());
+   }
+
+   private static SimpleString group(int i) {
+      return SimpleString.toSimpleString("group-" + i);
+   }
+}
@@ -50,6 +50,7 @@ import org.apache.activemq.artemis.core.server.Consumer;
 import org.apache.activemq.artemis.core.server.MessageReference;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
+import org.apache.activemq.artemis.core.server.ScheduledDeliveryHandler;
 import org.apache.activemq.artemis.core.server.ServerConsumer;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
@@ -195,12 +196,165 @@ public class ScheduledDeliveryHandlerTest extends Assert {
       }
    }
 
+   @Test
+   public void testTimingWheelScheduleRandom() throws Exception {
+      TimingWheelScheduledDeliveryHandler handler = new TimingWheelScheduledDeliveryHandler(null, new FakeQueueForScheduleUnitTest(0), 10);
+
+      long nextMessage = 0;
+      long NUMBER_OF_SEQUENCES = 10000;
+
+      long now = System.currentTimeMillis();
+      for (int i = 0; i < NUMBER_OF_SEQUENCES; i++) {
+         int numberOfMessages = RandomUtil.randomInt() % 10;
+         if (numberOfMessages == 0)
+            numberOfMessages = 1;
+
+         // spread over all the levels of the wheel, and beyond
+         long nextScheduledTime = RandomUtil.randomBoolean() ? now + RandomUtil.randomPositiveInt() % 1000000 : RandomUtil.randomPositiveLong();
+
+         for (int j = 0; j < numberOfMessages; j++) {
+            boolean tail = RandomUtil.randomBoolean();
+
+            addMessage(handler, nextMessage++, nextScheduledTime, tail);
+         }
+      }
+
+      debugList(true, handler, nextMessage);
+      assertEquals(nextMessage, handler.getScheduledCount());
+   }
+
+   @Test
+   public void testTimingWheelScheduleSameTimeHeadAndTail() throws Exception {
+      TimingWheelScheduledDeliveryHandler handler = new TimingWheelScheduledDeliveryHandler(null, new FakeQueueForScheduleUnitTest(0), 10);
+
+      long time = System.currentTimeMillis() + 10000;
+      for (int i = 10001; i < 20000; i++) {
+         addMessage(handler, i, time, true);
+      }
+      addMessage(handler, 10000, time, false);
+
+      time = System.currentTimeMillis() + 5000;
+      for (int i = 1; i < 10000; i++) {
+         addMessage(handler, i, time, true);
+      }
+      addMessage(handler, 0, time, false);
+
+      debugList(true, handler, 20000);
+
+      validateSequence(handler);
+   }
+
+   @Test
+   public void testTimingWheelScheduleWithAddHeads() throws Exception {
+      TimingWheelScheduledDeliveryHandler handler = new TimingWheelScheduledDeliveryHandler(null, new FakeQueueForScheduleUnitTest(0), 10);
+
+      addMessage(handler, 0, 1, true);
+      addMessage(handler, 1, 2, true);
+      addMessage(handler, 2, 3, true);
+      addMessage(handler, 3, 3, true);
+      addMessage(handler, 4, 4, true);
+
+      addMessage(handler, 10, 5, false);
+      addMessage(handler, 9, 5, false);
+      addMessage(handler, 8, 5, false);
+      addMessage(handler, 7, 5, false);
+      addMessage(handler, 6, 5, false);
+      addMessage(handler, 5, 5, false);
+
+      validateSequence(handler);
+   }
+
+   @Test
+   public void testTimingWheelScheduleNow() throws Exception {
+
+      ExecutorService executor = Executors.newFixedThreadPool(50, ActiveMQThreadFactory.defaultThreadFactory());
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, ActiveMQThreadFactory.defaultThreadFactory());
+      try {
+         for (int i = 0; i < 100; i++) {
+            internalSchedule(executor, scheduler, true);
+         }
+      } finally {
+         scheduler.shutdownNow();
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testTimingWheelDelivery() throws Exception {
+      final int NUMBER_OF_MESSAGES = 1000;
+
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, ActiveMQThreadFactory.defaultThreadFactory());
+      try {
+         final FakeQueueForScheduleUnitTest fakeQueue = new FakeQueueForScheduleUnitTest(NUMBER_OF_MESSAGES - 1);
+         final TimingWheelScheduledDeliveryHandler handler = new TimingWheelScheduledDeliveryHandler(scheduler, fakeQueue, 10);
+
+         final long deliveryTime = System.currentTimeMillis() + 1000;
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            checkAndSchedule(handler, i, deliveryTime + i % 100, true, fakeQueue);
+         }
+         assertNotNull(handler.removeReferenceWithID(NUMBER_OF_MESSAGES / 2));
+         assertNull(handler.removeReferenceWithID(NUMBER_OF_MESSAGES / 2));
+         assertEquals(NUMBER_OF_MESSAGES - 1, handler.getScheduledCount());
+
+         assertTrue(fakeQueue.waitCompletion(10, TimeUnit.SECONDS));
+         assertTrue(System.currentTimeMillis() >= deliveryTime);
+         assertEquals(0, handler.getScheduledCount());
+         assertEquals(NUMBER_OF_MESSAGES - 1, fakeQueue.messages.size());
+
+         Set<Long> delivered = new HashSet<>();
+         for (MessageReference ref : fakeQueue.messages) {
+            assertEquals(0, ref.getScheduledDeliveryTime());
+            assertTrue(delivered.add(ref.getMessage().getMessageID()));
+         }
+         assertFalse(delivered.contains((long) NUMBER_OF_MESSAGES / 2));
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testTimingWheelDeliveryAfterIdle() throws Exception {
+      final int NUMBER_OF_MESSAGES = 100;
+
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, ActiveMQThreadFactory.defaultThreadFactory());
+      try {
+         final FakeQueueForScheduleUnitTest fakeQueue = new FakeQueueForScheduleUnitTest(NUMBER_OF_MESSAGES);
+         // 1 ms ticks: a day ahead is beyond the span of the top wheel
+         final TimingWheelScheduledDeliveryHandler handler = new TimingWheelScheduledDeliveryHandler(scheduler, fakeQueue, 1);
+
+         checkAndSchedule(handler, NUMBER_OF_MESSAGES, System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1), true, fakeQueue);
+         // the wheels don't turn while waiting for the entry in overflow
+         Thread.sleep(500);
+
+         final long deliveryTime = System.currentTimeMillis() + 100;
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            checkAndSchedule(handler, i, deliveryTime + i, true, fakeQueue);
+         }
+
+         assertTrue(fakeQueue.waitCompletion(10, TimeUnit.SECONDS));
+         assertTrue(System.currentTimeMillis() >= deliveryTime + NUMBER_OF_MESSAGES - 1);
+         assertEquals(1, handler.getScheduledCount());
+         assertEquals(NUMBER_OF_MESSAGES, fakeQueue.messages.size());
+         Set<Long> delivered = new HashSet<>();
+         for (MessageReference ref : fakeQueue.messages) {
+            assertTrue(ref.getMessage().getMessageID() < NUMBER_OF_MESSAGES);
+            assertTrue(delivered.add(ref.getMessage().getMessageID()));
+         }
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
    private void internalSchedule(ExecutorService executor, ScheduledThreadPoolExecutor scheduler) throws Exception {
+      internalSchedule(executor, scheduler, false);
+   }
+
+   private void internalSchedule(ExecutorService executor, ScheduledThreadPoolExecutor scheduler, boolean timingWheel) throws Exception {
       final int NUMBER_OF_MESSAGES = 200;
       int NUMBER_OF_THREADS = 20;
 
       final FakeQueueForScheduleUnitTest fakeQueue = new FakeQueueForScheduleUnitTest(NUMBER_OF_MESSAGES * NUMBER_OF_THREADS);
-      final ScheduledDeliveryHandlerImpl handler = new ScheduledDeliveryHandlerImpl(scheduler, fakeQueue);
+      final ScheduledDeliveryHandler handler = timingWheel ? new TimingWheelScheduledDeliveryHandler(scheduler, fakeQueue, 1) : new ScheduledDeliveryHandlerImpl(scheduler, fakeQueue);
 
       final long now = System.currentTimeMillis();
 
@@ -239,7 +393,7 @@ public class ScheduledDeliveryHandlerTest extends Assert {
       }
    }
 
-   private void validateSequence(ScheduledDeliveryHandlerImpl handler) throws Exception {
+   private void validateSequence(ScheduledDeliveryHandler handler) throws Exception {
       long lastSequence = -1;
       for (MessageReference ref : handler.getScheduledReferences()) {
          assertEquals(lastSequence + 1, ref.getMessage().getMessageID());
@@ -247,16 +401,20 @@ public class ScheduledDeliveryHandlerTest extends Assert {
       }
    }
 
-   private void addMessage(ScheduledDeliveryHandlerImpl handler,
+   private void addMessage(ScheduledDeliveryHandler handler,
                            long nextMessageID,
                            long nextScheduledTime,
                            boolean tail) {
       MessageReferenceImpl refImpl = new MessageReferenceImpl(new FakeMessage(nextMessageID), null);
       refImpl.setScheduledDeliveryTime(nextScheduledTime);
-      handler.addInPlace(nextScheduledTime, refImpl, tail);
+      if (handler instanceof TimingWheelScheduledDeliveryHandler) {
+         ((TimingWheelScheduledDeliveryHandler) handler).addInPlace(nextScheduledTime, refImpl, tail);
+      } else {
+         ((ScheduledDeliveryHandlerImpl) handler).addInPlace(nextScheduledTime, refImpl, tail);
+      }
    }
 
-   private void checkAndSchedule(ScheduledDeliveryHandlerImpl handler,
+   private void checkAndSchedule(ScheduledDeliveryHandler handler,
                                  long nextMessageID,
                                  long nextScheduledTime,
                                  boolean tail,
@@ -267,7 +425,7 @@ public class ScheduledDeliveryHandlerTest extends Assert {
    }
 
    private void debugList(boolean fail,
-                          ScheduledDeliveryHandlerImpl handler,
+                          ScheduledDeliveryHandler handler,
                           long numberOfExpectedMessages) throws Exception {
       List<MessageReference> refs = handler.getScheduledReferences();
 
@@ -175,6 +175,16 @@ public class DummyServerConsumer implements ServerConsumer {
       return 0;
    }
 
+   @Override
+   public void setCreditWindowSize(int creditWindowSize) {
+
+   }
+
+   @Override
+   public int getCreditWindowSize() {
+      return -1;
+   }
+
    @Override
    public String getSessionID() {
       return null;
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.JsonUtil;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.client.impl.ClientConsumerImpl;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ServerConsumer;
+import org.apache.activemq.artemis.core.server.ServerSession;
+import org.apache.activemq.artemis.json.JsonArray;
+import org.apache.activemq.artemis.json.JsonObject;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveConsumerWindowTest extends ActiveMQTestBase {
+
+   private static final String QUEUE = "AdaptiveConsumerWindowTestQueue";
+
+   private ActiveMQServer server;
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = createServer(false);
+      server.start();
+   }
+
+   @Test
+   public void testURLParameter() throws Exception {
+      ServerLocator locator = addServerLocator(ActiveMQClient.createServerLocator("vm://0?adaptiveConsumerWindow=true"));
+      assertTrue(locator.isAdaptiveConsumerWindow());
+      assertFalse(createInVMNonHALocator().isAdaptiveConsumerWindow());
+   }
+
+   @Test
+   public void testSlowConsumerShrinksWindow() throws Exception {
+      ServerLocator locator = addServerLocator(ActiveMQClient.createServerLocator("vm://0?adaptiveConsumerWindow=true"));
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST));
+
+      final int messages = 500;
+      ClientProducer producer = session.createProducer(QUEUE);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.putIntProperty("i", i);
+         producer.send(message);
+      }
+
+      ClientConsumerImpl consumer = (ClientConsumerImpl) session.createConsumer(QUEUE);
+      assertEquals(64 * 1024, consumer.getAdaptiveWindowSize());
+      session.start();
+
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+         message.acknowledge();
+         // a consumer spending 2 ms on each message doesn't need to buffer 64 KiB
+         Thread.sleep(2);
+      }
+      assertNull(consumer.receiveImmediate());
+
+      final int windowSize = consumer.getAdaptiveWindowSize();
+      assertTrue("window " + windowSize, windowSize > 0 && windowSize < 64 * 1024);
+      Wait.assertEquals(windowSize, () -> locateConsumer().getCreditWindowSize());
+
+      JsonArray consumers = JsonUtil.readJsonArray(server.getActiveMQServerControl().listAllConsumersAsJSON());
+      assertEquals(1, consumers.size());
+      assertEquals(windowSize, ((JsonObject) consumers.get(0)).getInt("creditWindowSize"));
+   }
+
+   @Test
+   public void testNonAdaptiveConsumer() throws Exception {
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST));
+
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      assertEquals(-1, ((ClientConsumerImpl) consumer).getAdaptiveWindowSize());
+      assertEquals(-1, locateConsumer().getCreditWindowSize());
+
+      JsonArray consumers = JsonUtil.readJsonArray(server.getActiveMQServerControl().listAllConsumersAsJSON());
+      assertEquals(-1, ((JsonObject) consumers.get(0)).getInt("creditWindowSize"));
+   }
+
+   @Test
+   public void testWindowIsBoundedByConsumerWindowSize() throws Exception {
+      ServerLocator locator = addServerLocator(ActiveMQClient.createServerLocator("vm://0?adaptiveConsumerWindow=true&consumerWindowSize=1000"));
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(QUEUE);
+      for (int i = 0; i < 100; i++) {
+         producer.send(session.createMessage(false));
+      }
+
+      ClientConsumerImpl consumer = (ClientConsumerImpl) session.createConsumer(QUEUE);
+      assertEquals(1000, consumer.getAdaptiveWindowSize());
+      session.start();
+      for (int i = 0; i < 100; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      assertTrue(consumer.getAdaptiveWindowSize() <= 1000);
+      Wait.assertTrue(() -> locateConsumer().getCreditWindowSize() > 0, TimeUnit.SECONDS.toMillis(5));
+   }
+
+   private ServerConsumer locateConsumer() {
+      for (ServerSession session : server.getSessions()) {
+         for (ServerConsumer consumer : session.getServerConsumers()) {
+            return consumer;
+         }
+      }
+      return null;
+   }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.impl.QueueImpl;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompactReferenceTest extends ActiveMQTestBase {
+
+   private static final String QUEUE = "CompactReferenceTestQueue";
+
+   private static final int THRESHOLD = 100;
+
+   private ActiveMQServer server;
+
+   private ClientSession session;
+
+   private ClientProducer producer;
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = createServer(false, true);
+      server.start();
+      server.getAddressSettingsRepository().addMatch(QUEUE, new AddressSettings().setReferenceCompactionThreshold(THRESHOLD));
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST));
+      producer = session.createProducer(QUEUE);
+      session.start();
+   }
+
+   @Test
+   public void testDeepQueueIsPacked() throws Exception {
+      final int messages = 5000;
+      for (int i = 0; i < messages; i++) {
+         send(i, (byte) (i % 2 == 0 ? 4 : 6));
+      }
+
+      final QueueImpl queue = (QueueImpl) server.locateQueue(SimpleString.toSimpleString(QUEUE));
+      // only the references of each priority up to the threshold are kept as objects
+      assertEquals(2 * THRESHOLD, queue.getNumberOfReferences());
+      assertEquals(messages, queue.getMessageCount());
+
+      // the higher priority first, each priority in order
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      for (int i = 1; i < messages; i += 2) {
+         assertReceived(consumer, i);
+      }
+      for (int i = 0; i < messages; i += 2) {
+         assertReceived(consumer, i);
+      }
+      assertNull(consumer.receiveImmediate());
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testRedeliveryOfPackedMessages() throws Exception {
+      final int messages = 1000;
+      for (int i = 0; i < messages; i++) {
+         send(i, (byte) 4);
+      }
+
+      ClientSession txSession = addClientSession(createSessionFactory(createInVMNonHALocator()).createSession(false, false, false));
+      ClientConsumer consumer = txSession.createConsumer(QUEUE);
+      txSession.start();
+      for (int i = 0; i < messages; i++) {
+         assertReceived(consumer, i).acknowledge();
+      }
+      txSession.rollback();
+
+      for (int i = 0; i < messages; i++) {
+         final ClientMessage message = assertReceived(consumer, i);
+         assertEquals(2, message.getDeliveryCount());
+         message.acknowledge();
+      }
+      txSession.commit();
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testBrowseAndRemovePackedMessages() throws Exception {
+      final int messages = 1000;
+      for (int i = 0; i < messages; i++) {
+         send(i, (byte) 4);
+      }
+
+      ClientConsumer browser = session.createConsumer(QUEUE, true);
+      for (int i = 0; i < messages; i++) {
+         assertReceived(browser, i);
+      }
+      assertNull(browser.receiveImmediate());
+      browser.close();
+
+      // the references unpacked to be browsed are packed back
+      final QueueImpl queue = (QueueImpl) server.locateQueue(SimpleString.toSimpleString(QUEUE));
+      Wait.assertEquals(THRESHOLD, queue::getNumberOfReferences);
+      assertEquals(messages / 2, queue.deleteMatchingReferences(FilterImpl.createFilter("i >= " + messages / 2)));
+
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      for (int i = 0; i < messages / 2; i++) {
+         assertReceived(consumer, i);
+      }
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testQueueStaysPackedAfterExpiryScan() throws Exception {
+      final int messages = 5000;
+      for (int i = 0; i < messages; i++) {
+         send(i, (byte) 4);
+      }
+
+      final QueueImpl queue = (QueueImpl) server.locateQueue(SimpleString.toSimpleString(QUEUE));
+      assertEquals(THRESHOLD, queue.getNumberOfReferences());
+
+      final CountDownLatch scanned = new CountDownLatch(1);
+      queue.expireReferences(scanned::countDown);
+      assertTrue(scanned.await(10, TimeUnit.SECONDS));
+
+      assertEquals(THRESHOLD, queue.getNumberOfReferences());
+      assertEquals(messages, queue.getMessageCount());
+
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      for (int i = 0; i < messages; i++) {
+         assertReceived(consumer, i);
+      }
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testExpiryScanRemovesPackedMessages() throws Exception {
+      final int messages = 5000;
+      final long expiration = System.currentTimeMillis() + 1000;
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         if (i % 2 == 1) {
+            message.setExpiration(expiration);
+         }
+         producer.send(message);
+      }
+
+      final QueueImpl queue = (QueueImpl) server.locateQueue(SimpleString.toSimpleString(QUEUE));
+      assertEquals(THRESHOLD, queue.getNumberOfReferences());
+      assertTrue(Wait.waitFor(() -> System.currentTimeMillis() > expiration));
+
+      final CountDownLatch scanned = new CountDownLatch(1);
+      queue.expireReferences(scanned::countDown);
+      assertTrue(scanned.await(10, TimeUnit.SECONDS));
+
+      // the expired packed messages are removed in place, the others stay packed
+      Wait.assertEquals((long) messages / 2, queue::getMessageCount);
+      assertEquals(THRESHOLD / 2, queue.getNumberOfReferences());
+
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      for (int i = 0; i < messages; i += 2) {
+         assertReceived(consumer, i);
+      }
+      assertNull(consumer.receiveImmediate());
+   }
+
+   private void send(int i, byte priority) throws Exception {
+      ClientMessage message = session.createMessage(true);
+      message.putIntProperty("i", i);
+      message.setPriority(priority);
+      producer.send(message);
+   }
+
+   private ClientMessage assertReceived(ClientConsumer consumer, int i) throws Exception {
+      ClientMessage message = consumer.receive(5000);
+      assertNotNull(message);
+      assertEquals(i, message.getIntProperty("i").intValue());
+      return message;
+   }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.JsonUtil;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.json.JsonArray;
+import org.apache.activemq.artemis.json.JsonObject;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConsistentHashGroupTest extends ActiveMQTestBase {
+
+   private static final String QUEUE = "ConsistentHashGroupTestQueue";
+
+   private static final int GROUPS = 200;
+
+   private ActiveMQServer server;
+
+   private ClientSession session;
+
+   private ClientProducer producer;
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = createServer(false);
+      server.start();
+      server.getAddressSettingsRepository().addMatch(QUEUE, new AddressSettings().setGroupVirtualNodes(100));
+
+      ClientSessionFactory sf = createSessionFactory(createInVMNonHALocator());
+      session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST).setGroupRebalance(true));
+      producer = session.createProducer(QUEUE);
+      session.start();
+   }
+
+   @Test
+   public void testGroupsSpreadOverConsumers() throws Exception {
+      final ClientConsumer[] consumers = {session.createConsumer(QUEUE), session.createConsumer(QUEUE), session.createConsumer(QUEUE)};
+      sendGroups();
+      final Map<String, ClientConsumer> owners = receiveGroups(consumers);
+      assertEquals(GROUPS, owners.size());
+
+      // each consumer got a share of the groups, reported by the management
+      final Queue queue = server.locateQueue(SimpleString.toSimpleString(QUEUE));
+      assertEquals(GROUPS, queue.getGroupCount());
+      final JsonArray consumersJson = JsonUtil.readJsonArray(server.getActiveMQServerControl().listAllConsumersAsJSON());
+      assertEquals(consumers.length, consumersJson.size());
+      int total = 0;
+      for (int i = 0; i < consumersJson.size(); i++) {
+         final int groupCount = ((JsonObject) consumersJson.get(i)).getInt("groupCount");
+         assertTrue("groupCount " + groupCount, groupCount > GROUPS / consumers.length / 2);
+         total += groupCount;
+      }
+      assertEquals(GROUPS, total);
+
+      // the groups stick to their consumer
+      sendGroups();
+      assertEquals(owners, receiveGroups(consumers));
+   }
+
+   @Test
+   public void testConsumerJoiningTakesFewGroups() throws Exception {
+      final ClientConsumer[] consumers = {session.createConsumer(QUEUE), session.createConsumer(QUEUE), session.createConsumer(QUEUE), null};
+      sendGroups();
+      final Map<String, ClientConsumer> before = receiveGroups(consumers);
+
+      // the groups are rebalanced as the fourth consumer joins
+      consumers[3] = session.createConsumer(QUEUE);
+      sendGroups();
+      final Map<String, ClientConsumer> after = receiveGroups(consumers);
+
+      int moved = 0;
+      for (Map.Entry<String, ClientConsumer> entry : after.entrySet()) {
+         if (entry.getValue() != before.get(entry.getKey())) {
+            moved++;
+         }
+      }
+      // about a quarter of the groups should move, round-robin would move three quarters of them
+      assertTrue("moved " + moved, moved > 0 && moved < GROUPS / 2);
+   }
+
+   @Test
+   public void testConsumerLeavingOnlyMovesItsGroups() throws Exception {
+      final ClientConsumer[] consumers = {session.createConsumer(QUEUE), session.createConsumer(QUEUE), session.createConsumer(QUEUE)};
+      sendGroups();
+      final Map<String, ClientConsumer> before = receiveGroups(consumers);
+
+      consumers[2].close();
+      consumers[2] = null;
+      sendGroups();
+      final Map<String, ClientConsumer> after = receiveGroups(consumers);
+
+      for (Map.Entry<String, ClientConsumer> entry : before.entrySet()) {
+         if (entry.getValue().isClosed()) {
+            assertFalse(after.get(entry.getKey()).isClosed());
+         } else {
+            assertSame(entry.getValue(), after.get(entry.getKey()));
+         }
+      }
+   }
+
+   @Test
+   public void testFilteredConsumerOwningGroupsDoesNotBlockThem() throws Exception {
+      // the filtered consumer owns some of the groups' nodes on the ring but matches none of their messages
+      final ClientConsumer filtered = session.createConsumer(QUEUE, "color = 'red'");
+      final ClientConsumer[] consumers = {session.createConsumer(QUEUE)};
+      sendGroups();
+      final Map<String, ClientConsumer> owners = receiveGroups(consumers);
+      assertEquals(GROUPS, owners.size());
+      assertNull(filtered.receiveImmediate());
+   }
+
+   private void sendGroups() throws Exception {
+      for (int i = 0; i < GROUPS; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.putStringProperty(Message.HDR_GROUP_ID, SimpleString.toSimpleString("group-" + i));
+         producer.send(message);
+      }
+   }
+
+   /**
+    * @return the consumer each group was received by
+    */
+   private Map<String, ClientConsumer> receiveGroups(ClientConsumer[] consumers) throws Exception {
+      final Map<String, ClientConsumer> owners = new HashMap<>();
+      int received = 0;
+      final long deadline = System.currentTimeMillis() + 10_000;
+      while (received < GROUPS && System.currentTimeMillis() < deadline) {
+         for (ClientConsumer consumer : consumers) {
+            if (consumer == null) {
+               continue;
+            }
+            ClientMessage message = consumer.receive(10);
+            if (message != null) {
+               message.acknowledge();
+               final ClientConsumer previous = owners.put(message.getStringProperty(Message.HDR_GROUP_ID), consumer);
+               assertTrue(previous == null || previous == consumer);
+               received++;
+            }
+         }
+      }
+      assertEquals(GROUPS, received);
+      return owners;
+   }
+}
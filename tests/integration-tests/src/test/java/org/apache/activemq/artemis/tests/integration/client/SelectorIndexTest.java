@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.filter.impl.FilterIndexKey;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SelectorIndexTest extends ActiveMQTestBase {
+
+   private static final String QUEUE = "SelectorIndexTestQueue";
+
+   private ActiveMQServer server;
+
+   private ClientSessionFactory sf;
+
+   private ClientSession session;
+
+   private ClientProducer producer;
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = createServer(false);
+      server.start();
+      server.getAddressSettingsRepository().addMatch(QUEUE, new AddressSettings().setEnableSelectorIndex(true));
+
+      ServerLocator locator = createInVMNonHALocator();
+      sf = createSessionFactory(locator);
+      session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST));
+      producer = session.createProducer(QUEUE);
+      session.start();
+   }
+
+   @Test
+   public void testFilterIndexKeys() throws Exception {
+      assertEquals(Set.of("giraffe"), FilterIndexKey.of(FilterImpl.createFilter("animal = 'giraffe'")).getValues());
+      assertEquals(Set.of("giraffe"), FilterIndexKey.of(FilterImpl.createFilter("'giraffe' = animal")).getValues());
+      assertEquals(Set.of("giraffe", "zebra"), FilterIndexKey.of(FilterImpl.createFilter("animal IN ('giraffe', 'zebra')")).getValues());
+      assertEquals(Set.of("giraffe", "zebra"), FilterIndexKey.of(FilterImpl.createFilter("animal = 'giraffe' OR animal = 'zebra'")).getValues());
+      assertEquals(Set.of(4.0f), FilterIndexKey.of(FilterImpl.createFilter("legs > 2 AND legs = 4")).getValues());
+      assertEquals("legs", FilterIndexKey.of(FilterImpl.createFilter("legs > 2 AND legs = 4")).getProperty().toString());
+
+      assertNull(FilterIndexKey.of(FilterImpl.createFilter("animal <> 'giraffe'")));
+      assertNull(FilterIndexKey.of(FilterImpl.createFilter("animal NOT IN ('giraffe', 'zebra')")));
+      assertNull(FilterIndexKey.of(FilterImpl.createFilter("animal = 'giraffe' OR legs = 4")));
+      assertNull(FilterIndexKey.of(FilterImpl.createFilter("animal LIKE 'gir%'")));
+      assertNull(FilterIndexKey.of(FilterImpl.createFilter("AMQPriority = 4")));
+   }
+
+   @Test
+   public void testSelectiveConsumerOnDeepQueue() throws Exception {
+      final int messages = 5000;
+      for (int i = 0; i < messages; i++) {
+         send("hippo", i);
+         if (i % 100 == 0) {
+            send("giraffe", i);
+         }
+      }
+
+      ClientConsumer consumer = session.createConsumer(QUEUE, "animal = 'giraffe'");
+      for (int i = 0; i < messages; i += 100) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals("giraffe", message.getStringProperty("animal"));
+         assertEquals(i, message.getIntProperty("i").intValue());
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+
+      // the messages sent after the consumer are indexed too
+      send("giraffe", messages);
+      ClientMessage message = consumer.receive(5000);
+      assertNotNull(message);
+      assertEquals(messages, message.getIntProperty("i").intValue());
+      message.acknowledge();
+
+      assertEquals(messages, getMessageCount(server.locateQueue(QUEUE)));
+   }
+
+   @Test
+   public void testCombinedSelectors() throws Exception {
+      for (int i = 0; i < 100; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.putStringProperty("animal", i % 3 == 0 ? "giraffe" : i % 3 == 1 ? "zebra" : "hippo");
+         message.putIntProperty("legs", i % 2 == 0 ? 4 : 2);
+         message.putIntProperty("i", i);
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(QUEUE, "animal IN ('giraffe', 'zebra') AND legs = 4");
+      int last = -1;
+      int received = 0;
+      ClientMessage message;
+      while ((message = consumer.receive(500)) != null) {
+         final int i = message.getIntProperty("i");
+         assertTrue(i % 3 != 2 && i % 2 == 0);
+         assertTrue(i > last);
+         last = i;
+         received++;
+         message.acknowledge();
+      }
+      // the even numbers from 0 to 99 not congruent to 2 modulo 3
+      assertEquals(34, received);
+   }
+
+   @Test
+   public void testRollbackIsRedeliveredFirst() throws Exception {
+      for (int i = 0; i < 10; i++) {
+         send("hippo", i);
+         send("giraffe", i);
+      }
+
+      ClientSession txSession = addClientSession(sf.createSession(false, false, false));
+      ClientConsumer consumer = txSession.createConsumer(QUEUE, "animal = 'giraffe'");
+      txSession.start();
+
+      for (int i = 0; i < 3; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+         message.acknowledge();
+      }
+      txSession.rollback();
+
+      for (int i = 0; i < 10; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+         message.acknowledge();
+      }
+      txSession.commit();
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testIndexedAndScanningConsumers() throws Exception {
+      final int messages = 1000;
+      ClientConsumer giraffes = session.createConsumer(QUEUE, "animal = 'giraffe'");
+      ClientConsumer others = session.createConsumer(QUEUE, "animal <> 'giraffe'");
+      ClientConsumer all = session.createConsumer(QUEUE);
+
+      for (int i = 0; i < messages; i++) {
+         send(i % 2 == 0 ? "giraffe" : "hippo", i);
+      }
+
+      final Set<Integer> received = new HashSet<>();
+      for (ClientConsumer consumer : new ClientConsumer[] {giraffes, others, all}) {
+         ClientMessage message;
+         while ((message = consumer.receive(500)) != null) {
+            if (consumer == giraffes) {
+               assertEquals("giraffe", message.getStringProperty("animal"));
+            } else if (consumer == others) {
+               assertEquals("hippo", message.getStringProperty("animal"));
+            }
+            assertTrue(received.add(message.getIntProperty("i")));
+            message.acknowledge();
+         }
+      }
+      assertEquals(messages, received.size());
+   }
+
+   private void send(String animal, int i) throws Exception {
+      ClientMessage message = session.createMessage(false);
+      message.putStringProperty("animal", animal);
+      message.putIntProperty("i", i);
+      producer.send(message);
+   }
+}
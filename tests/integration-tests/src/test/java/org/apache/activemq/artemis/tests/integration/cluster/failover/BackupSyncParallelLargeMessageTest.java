@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.cluster.failover;
+
+import org.apache.activemq.artemis.api.core.JsonUtil;
+import org.apache.activemq.artemis.api.core.management.ActiveMQServerControl;
+import org.apache.activemq.artemis.api.core.management.ResourceNames;
+import org.apache.activemq.artemis.core.config.ha.ReplicatedPolicyConfiguration;
+import org.apache.activemq.artemis.json.JsonObject;
+import org.apache.activemq.artemis.utils.Wait;
+import org.junit.Test;
+
+/**
+ * Runs the large message synchronization tests with the live server sending several files at once to its backup.
+ */
+public class BackupSyncParallelLargeMessageTest extends BackupSyncLargeMessageTest {
+
+   private static final int SYNC_PARALLELISM = 4;
+
+   @Override
+   protected void setupHAPolicyConfiguration() {
+      super.setupHAPolicyConfiguration();
+      ((ReplicatedPolicyConfiguration) liveConfig.getHAPolicyConfiguration()).setInitialReplicationSyncParallelism(SYNC_PARALLELISM);
+   }
+
+   @Test
+   public void testReplicaSyncProgress() throws Exception {
+      setNumberOfMessages(50);
+      createProducerSendSomeMessages();
+      startBackupFinishSyncing();
+      Wait.assertTrue(liveServer.getServer()::isReplicaSync);
+
+      ActiveMQServerControl serverControl = (ActiveMQServerControl) liveServer.getServer().getManagementService().getResource(ResourceNames.BROKER);
+      JsonObject progress = JsonUtil.readJsonObject(serverControl.getReplicaSyncProgress());
+
+      assertFalse(progress.getBoolean("synchronizing"));
+      // the journal files come on top of the large messages
+      assertTrue(progress.getJsonNumber("filesToSend").longValue() > getNumberOfMessages());
+      assertEquals(progress.getJsonNumber("filesToSend").longValue(), progress.getJsonNumber("filesSent").longValue());
+      assertTrue(progress.getJsonNumber("bytesSent").longValue() > 0);
+      assertTrue(progress.getJsonNumber("bytesSent").longValue() <= progress.getJsonNumber("bytesToSend").longValue());
+      assertTrue(progress.getJsonNumber("bytesPerSecond").longValue() >= 0);
+   }
+}
@@ -250,4 +250,42 @@ public class JDBCJournalTest extends ActiveMQTestBase {
       assertEquals(noRecords + (noTxRecords * noTx), recordInfos.size());
    }
 
+   @Test
+   public void testReadJournalInPartitions() throws Exception {
+      int noRecords = 100;
+
+      for (int i = 0; i < noRecords; i++) {
+         journal.appendAddRecord(i, (byte) 1, new byte[]{(byte) i}, false);
+      }
+      // the order of the records of an ID must survive the partitioning
+      for (int i = 0; i < noRecords; i += 2) {
+         journal.appendUpdateRecord(i, (byte) 1, new byte[]{(byte) -i}, false);
+      }
+      for (int i = 1; i < noRecords; i += 4) {
+         journal.appendDeleteRecord(i, false);
+      }
+      // a transaction spanning several partitions
+      for (int i = 0; i < 10; i++) {
+         journal.appendAddRecordTransactional(1000, 1000 + i, (byte) 1, new byte[0]);
+      }
+      journal.appendCommitRecord(1000, true);
+
+      List<RecordInfo> sequentialRecords = new ArrayList<>();
+      journal.load(sequentialRecords, new ArrayList<>(), null);
+
+      journal.setLoadPartitions(7);
+      journal.setLoadFetchSize(3);
+      List<RecordInfo> partitionedRecords = new ArrayList<>();
+      List<PreparedTransactionInfo> txInfos = new ArrayList<>();
+      journal.load(partitionedRecords, txInfos, null);
+
+      assertEquals(noRecords + noRecords / 2 - noRecords / 4 + 10, partitionedRecords.size());
+      assertEquals(sequentialRecords.size(), partitionedRecords.size());
+      for (int i = 0; i < sequentialRecords.size(); i++) {
+         assertEquals(sequentialRecords.get(i).id, partitionedRecords.get(i).id);
+         Assert.assertArrayEquals(sequentialRecords.get(i).data, partitionedRecords.get(i).data);
+      }
+      assertTrue(txInfos.isEmpty());
+   }
+
 }
@@ -228,6 +228,9 @@ public class NIOJournalCompactTest extends JournalImplTestBase {
 
       journal.testCompact();
 
+      assertTrue(journal.getCompactBytesReclaimed() > 0);
+      assertTrue(journal.getCompactPauseTime() > 0);
+
       journal.stop();
 
       List<RecordInfo> records1 = new ArrayList<>();
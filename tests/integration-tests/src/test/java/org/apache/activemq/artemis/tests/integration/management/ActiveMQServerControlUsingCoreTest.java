@@ -468,6 +468,11 @@ public class ActiveMQServerControlUsingCoreTest extends ActiveMQServerControlTes
             return false;
          }
 
+         @Override
+         public String getReplicaSyncProgress() {
+            return (String) proxy.retrieveAttributeValue("replicaSyncProgress");
+         }
+
          @Override
          public int getIDCacheSize() {
             return (Integer) proxy.retrieveAttributeValue("IDCacheSize", Integer.class);
@@ -150,6 +150,10 @@ public class MetricsPluginTest extends ActiveMQTestBase {
               new Metric("artemis.delivering.persistent_size", "persistent size of messages that this queue is currently delivering to its consumers", 0.0),
               new Metric("artemis.disk.store.usage", "Fraction of total disk store used", 0.0),
               new Metric("artemis.durable.message.count", "number of durable messages currently in this queue (includes scheduled, paged, and in-delivery messages)", 0.0),
+              new Metric("artemis.journal.buffer.immediate.flush.count", "Number of message journal buffer timer flushes after which the next sync request is flushed without waiting for the buffer timeout", 0.0),
+              new Metric("artemis.journal.buffer.timed.flush.count", "Number of message journal buffer timer flushes after which the next sync request waits for the buffer timeout, to batch more sync requests", 0.0),
+              new Metric("artemis.journal.compact.bytes.reclaimed", "Bytes of message journal files reclaimed by compacting since the broker was started", 0.0),
+              new Metric("artemis.journal.compact.pause.time", "Time in milliseconds appends to the message journal were blocked by compacting since the broker was started", 0.0),
               new Metric("artemis.durable.persistent.size", "persistent size of durable messages currently in this queue (includes scheduled, paged, and in-delivery messages)", 0.0),
               new Metric("artemis.message.count", "number of messages currently in this queue (includes scheduled, paged, and in-delivery messages)", 0.0),
               new Metric("artemis.messages.acknowledged", "number of messages acknowledged from this queue since it was created", 0.0),
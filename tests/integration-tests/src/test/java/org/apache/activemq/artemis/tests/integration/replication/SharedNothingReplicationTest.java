@@ -18,6 +18,7 @@ package org.apache.activemq.artemis.tests.integration.replication;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Interceptor;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.QueueConfiguration;
 import org.apache.activemq.artemis.api.core.RoutingType;
@@ -45,6 +46,8 @@ import org.apache.activemq.artemis.core.persistence.CoreMessageObjectPools;
 import org.apache.activemq.artemis.core.message.impl.CoreMessagePersister;
 import org.apache.activemq.artemis.core.persistence.Persister;
 import org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV3;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.ActiveMQServers;
 import org.apache.activemq.artemis.core.server.JournalType;
@@ -238,6 +241,68 @@ public class SharedNothingReplicationTest extends ActiveMQTestBase {
       Assert.assertTrue("The test is not valid, slow persister stopped being used", SlowMessagePersister._getInstance().used);
    }
 
+   @Test
+   public void testCumulativeReplicationResponses() throws Exception {
+      Configuration liveConfiguration = createLiveConfiguration();
+      ActiveMQServer liveServer = addServer(ActiveMQServers.newActiveMQServer(liveConfiguration));
+      liveServer.start();
+      Wait.waitFor(liveServer::isStarted);
+
+      final AtomicInteger responsePackets = new AtomicInteger();
+      final AtomicInteger cumulativeResponses = new AtomicInteger();
+      liveServer.getRemotingService().addIncomingInterceptor((Interceptor) (packet, connection) -> {
+         if (packet.getType() == PacketImpl.REPLICATION_RESPONSE) {
+            responsePackets.incrementAndGet();
+         } else if (packet.getType() == PacketImpl.REPLICATION_RESPONSE_V3) {
+            responsePackets.incrementAndGet();
+            cumulativeResponses.addAndGet(((ReplicationResponseMessageV3) packet).getResponses());
+         }
+         return true;
+      });
+
+      Configuration backupConfiguration = createBackupConfiguration();
+      ActiveMQServer backupServer = addServer(ActiveMQServers.newActiveMQServer(backupConfiguration));
+      backupServer.start();
+      Assert.assertTrue("can not replicate in 30 seconds", Wait.waitFor(backupServer::isReplicaSync, 30_000));
+
+      final int producers = 4;
+      final int messages = 500;
+      ServerLocator locator = ServerLocatorImpl.newLocator("tcp://localhost:61616");
+      final ClientSessionFactory csf = locator.createSessionFactory();
+      ClientSession sess = csf.createSession();
+      sess.createQueue(new QueueConfiguration("cumulative").setRoutingType(RoutingType.ANYCAST));
+      sess.close();
+
+      ExecutorService producersExecutor = Executors.newFixedThreadPool(producers);
+      final CountDownLatch allMessagesSent = new CountDownLatch(producers);
+      for (int p = 0; p < producers; p++) {
+         producersExecutor.execute(() -> {
+            try (ClientSession session = csf.createSession(false, false)) {
+               ClientProducer producer = session.createProducer("cumulative");
+               for (int m = 0; m < messages; m++) {
+                  producer.send(session.createMessage(true));
+               }
+               // the commit completes once the backup has acknowledged every replicated record
+               session.commit();
+               allMessagesSent.countDown();
+            } catch (ActiveMQException e) {
+               logger.error("send message", e);
+            }
+         });
+      }
+      Assert.assertTrue("all message sent", allMessagesSent.await(30, TimeUnit.SECONDS));
+      producersExecutor.shutdownNow();
+
+      Assert.assertTrue("The backup did not acknowledge any batch of replicated packets at once", cumulativeResponses.get() > 0);
+      Wait.assertTrue(() -> liveServer.getReplicationManager().getActiveTokens().isEmpty());
+      logger.debugf("%d response packets for %d cumulative responses", responsePackets.get(), cumulativeResponses.get());
+
+      csf.close();
+      locator.close();
+      backupServer.stop(true);
+      liveServer.stop(true);
+   }
+
    protected HAPolicyConfiguration createReplicationLiveConfiguration() {
       return new ReplicatedPolicyConfiguration()
          .setVoteOnReplicationFailure(false)
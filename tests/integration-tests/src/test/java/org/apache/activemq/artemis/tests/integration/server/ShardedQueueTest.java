@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.ActiveMQNonExistentQueueException;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.api.core.management.QueueControl;
+import org.apache.activemq.artemis.api.core.management.ResourceNames;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.server.impl.QueueShards;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ShardedQueueTest extends ActiveMQTestBase {
+
+   private static final int SHARDS = 4;
+
+   private ActiveMQServer server;
+
+   private final SimpleString address = new SimpleString("ShardedQueueTestAddress");
+
+   private final SimpleString qName = new SimpleString("ShardedQueueTestQ");
+
+   @Test
+   public void testShardsLiveAndDieWithTheQueue() throws Exception {
+      final Queue queue = createShardedQueue();
+
+      assertEquals(SHARDS - 1, queue.getShards().size());
+      final List<SimpleString> shardNames = new ArrayList<>();
+      for (Queue shard : queue.getShards()) {
+         shardNames.add(shard.getName());
+         assertEquals(qName, shard.getShardOf());
+         assertEquals(shardNames.size(), shard.getShardIndex());
+         assertNull(server.getManagementService().getResource(ResourceNames.QUEUE + shard.getName()));
+      }
+
+      server.destroyQueue(qName);
+
+      for (SimpleString shardName : shardNames) {
+         assertNull(server.locateQueue(shardName));
+      }
+   }
+
+   @Test
+   public void testProducersAndConsumersAreSpread() throws Exception {
+      final int messages = 100 * SHARDS;
+      final Queue queue = createShardedQueue();
+      final QueueControl queueControl = (QueueControl) server.getManagementService().getResource(ResourceNames.QUEUE + qName);
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      final List<ClientConsumer> consumers = new ArrayList<>();
+      for (int i = 0; i < SHARDS; i++) {
+         consumers.add(session.createConsumer(qName));
+      }
+      assertEquals(SHARDS, queueControl.getConsumerCount());
+      assertEquals(1, queue.getConsumerCount());
+      for (Queue shard : queue.getShards()) {
+         assertEquals(1, shard.getConsumerCount());
+      }
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+
+      Wait.assertEquals((long) messages, queueControl::getMessageCount);
+      Wait.assertEquals(100L, queue::getMessageCount);
+      for (Queue shard : queue.getShards()) {
+         Wait.assertEquals(100L, shard::getMessageCount);
+      }
+
+      session.start();
+      for (ClientConsumer consumer : consumers) {
+         for (int i = 0; i < 100; i++) {
+            ClientMessage message = consumer.receive(5000);
+            assertNotNull(message);
+            message.acknowledge();
+         }
+         assertNull(consumer.receiveImmediate());
+      }
+
+      Wait.assertEquals(0L, queueControl::getMessageCount);
+      Wait.assertEquals((long) messages, queueControl::getMessagesAcknowledged);
+   }
+
+   @Test
+   public void testGroupsStayOnOneShard() throws Exception {
+      final Queue queue = createShardedQueue();
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < 200; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putStringProperty(Message.HDR_GROUP_ID, SimpleString.toSimpleString("group" + i % 20));
+         producer.send(message);
+      }
+
+      final List<Queue> shards = new ArrayList<>(queue.getShards());
+      shards.add(queue);
+      Wait.assertEquals(200L, () -> QueueShards.sum(queue, Queue::getMessageCount));
+
+      final Map<SimpleString, SimpleString> groupShards = new HashMap<>();
+      for (Queue shard : shards) {
+         shard.forEach(ref -> {
+            final SimpleString previous = groupShards.putIfAbsent(ref.getMessage().getGroupID(), shard.getName());
+            assertTrue(previous == null || previous.equals(shard.getName()));
+         });
+      }
+      assertEquals(20, groupShards.size());
+   }
+
+   @Test
+   public void testGroupsGoToShardsWithConsumers() throws Exception {
+      final Queue queue = createShardedQueue();
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createConsumer(qName);
+      assertEquals(1, queue.getConsumerCount());
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < 200; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putStringProperty(Message.HDR_GROUP_ID, SimpleString.toSimpleString("group" + i % 20));
+         producer.send(message);
+      }
+
+      Wait.assertEquals(200L, queue::getMessageCount);
+      for (Queue shard : queue.getShards()) {
+         assertEquals(0L, shard.getMessageCount());
+      }
+   }
+
+   @Test
+   public void testBacklogIsDeliveredToFewerConsumersThanShards() throws Exception {
+      final int messages = 100 * SHARDS;
+      final Queue queue = createShardedQueue();
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+      for (Queue shard : queue.getShards()) {
+         Wait.assertEquals(100L, shard::getMessageCount);
+      }
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+
+      Wait.assertEquals(0L, () -> QueueShards.sum(queue, Queue::getMessageCount));
+   }
+
+   @Test
+   public void testGroupBacklogIsDeliveredInOrderToFewerConsumersThanShards() throws Exception {
+      final int groups = 20;
+      final int messages = 10 * groups;
+      final Queue queue = createShardedQueue();
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putStringProperty(Message.HDR_GROUP_ID, SimpleString.toSimpleString("group" + i % groups));
+         message.putIntProperty("sequence", i / groups);
+         producer.send(message);
+      }
+      Wait.assertEquals((long) messages, () -> QueueShards.sum(queue, Queue::getMessageCount));
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      final Map<SimpleString, Integer> groupSequences = new HashMap<>();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         final int sequence = message.getIntProperty("sequence");
+         final Integer previous = groupSequences.put(message.getGroupID(), sequence);
+         assertEquals(previous == null ? 0 : previous + 1, sequence);
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+      assertEquals(groups, groupSequences.size());
+   }
+
+   @Test
+   public void testMessagesOfClosedConsumersAreRedistributed() throws Exception {
+      final int messages = 100 * SHARDS;
+      final Queue queue = createShardedQueue();
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      final List<ClientConsumer> consumers = new ArrayList<>();
+      for (int i = 0; i < SHARDS; i++) {
+         consumers.add(session.createConsumer(qName));
+      }
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+      for (Queue shard : queue.getShards()) {
+         Wait.assertEquals(100L, shard::getMessageCount);
+      }
+
+      for (int i = 1; i < SHARDS; i++) {
+         consumers.get(i).close();
+      }
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumers.get(0).receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      assertNull(consumers.get(0).receiveImmediate());
+   }
+
+   @Test
+   public void testBrowserSeesAllShards() throws Exception {
+      final int messages = 100 * SHARDS;
+      createShardedQueue();
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+
+      ClientConsumer browser = session.createConsumer(qName, true);
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         assertNotNull(browser.receive(5000));
+      }
+      assertNull(browser.receiveImmediate());
+   }
+
+   @Test
+   public void testShardsAfterRestart() throws Exception {
+      createShardedQueue();
+
+      server.stop();
+      server.start();
+
+      final Queue queue = server.locateQueue(qName);
+      assertEquals(SHARDS - 1, queue.getShards().size());
+      for (int i = 0; i < SHARDS - 1; i++) {
+         final Queue shard = queue.getShards().get(i);
+         assertEquals(qName, shard.getShardOf());
+         assertNull(server.getManagementService().getResource(ResourceNames.QUEUE + shard.getName()));
+      }
+   }
+
+   @Test
+   public void testQueueNamedLikeAShardIsNotAShard() throws Exception {
+      final SimpleString plainAddress = address.concat(".plain");
+      final SimpleString plainName = qName.concat("$shard-1");
+      server.createQueue(new QueueConfiguration(plainName).setAddress(plainAddress).setRoutingType(RoutingType.ANYCAST));
+      Queue queue = createShardedQueue();
+      assertEquals(SHARDS - 1, queue.getShards().size());
+      for (Queue shard : queue.getShards()) {
+         assertNotEquals(plainName, shard.getName());
+      }
+
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      ClientProducer producer = session.createProducer(plainAddress);
+      for (int i = 0; i < 10; i++) {
+         producer.send(session.createMessage(true));
+      }
+      session.close();
+
+      server.stop();
+      server.start();
+
+      queue = server.locateQueue(qName);
+      Queue plainQueue = server.locateQueue(plainName);
+      assertNull(plainQueue.getShardOf());
+      assertFalse(queue.getShards().contains(plainQueue));
+      assertNotNull(server.getManagementService().getResource(ResourceNames.QUEUE + plainName));
+
+      server.destroyQueue(qName);
+
+      plainQueue = server.locateQueue(plainName);
+      assertNotNull(plainQueue);
+      Wait.assertEquals(10L, plainQueue::getMessageCount);
+
+      server.stop();
+      server.start();
+
+      assertNull(server.locateQueue(qName));
+      plainQueue = server.locateQueue(plainName);
+      assertNotNull(plainQueue);
+      Wait.assertEquals(10L, plainQueue::getMessageCount);
+   }
+
+   @Test
+   public void testShardOfUnknownQueueIsRejected() throws Exception {
+      try {
+         server.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST).setShardOf("unknown").setShardIndex(1));
+         fail("a shard of an unknown queue shouldn't be created");
+      } catch (ActiveMQNonExistentQueueException expected) {
+      }
+      assertNull(server.locateQueue(qName));
+   }
+
+   private Queue createShardedQueue() throws Exception {
+      return server.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+   }
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = addServer(createServer(true, createDefaultInVMConfig()));
+      server.start();
+      server.getAddressSettingsRepository().addMatch(address.toString(), new AddressSettings().setQueueShards(SHARDS));
+   }
+}
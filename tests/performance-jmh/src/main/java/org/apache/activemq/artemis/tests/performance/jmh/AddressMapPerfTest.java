@@ -40,9 +40,12 @@ public class AddressMapPerfTest {
 
 
    public AddressMap<Object> objectAddressMap;
+   public AddressMap<Object> stableAddressMap;
 
    @Param({"2", "8", "10"})
    int entriesLog2;
+   @Param({"0", "16384"})
+   int matchesCacheSize;
    int entries;
    private static final WildcardConfiguration WILDCARD_CONFIGURATION;
    SimpleString[] keys;
@@ -56,13 +59,22 @@ public class AddressMapPerfTest {
    @Setup
    public void init()  {
       objectAddressMap =
-         new AddressMap<>(WILDCARD_CONFIGURATION.getAnyWordsString(), WILDCARD_CONFIGURATION.getSingleWordString(), WILDCARD_CONFIGURATION.getDelimiter());
+         new AddressMap<>(WILDCARD_CONFIGURATION.getAnyWordsString(), WILDCARD_CONFIGURATION.getSingleWordString(), WILDCARD_CONFIGURATION.getDelimiter(), matchesCacheSize);
 
       entries = 1 << entriesLog2;
       keys = new SimpleString[entries];
       for (int i = 0; i < entries; i++) {
          keys[i] = SimpleString.toSimpleString("topic." + i % entriesLog2 + "." + i);
       }
+      stableAddressMap =
+         new AddressMap<>(WILDCARD_CONFIGURATION.getAnyWordsString(), WILDCARD_CONFIGURATION.getSingleWordString(), WILDCARD_CONFIGURATION.getDelimiter(), matchesCacheSize);
+      // many subscriptions, each one matching a few of the keys
+      for (int i = 0; i < entries; i++) {
+         final SimpleString wildcard = SimpleString.toSimpleString("topic." + i % entriesLog2 + (i % 2 == 0 ? ".>" : ".*"));
+         stableAddressMap.put(wildcard, wildcard);
+         final SimpleString subscription = SimpleString.toSimpleString("topic.*." + i);
+         stableAddressMap.put(subscription, subscription);
+      }
    }
 
    @State(value = Scope.Thread)
@@ -111,6 +123,10 @@ public class AddressMapPerfTest {
       objectAddressMap.visitMatchingWildcards(s, value -> state.counter.incrementAndGet());
    }
 
+   @Benchmark
+   @GroupThreads(4)
+   public void testVisit(final ThreadState state) throws Exception {
+      stableAddressMap.visitMatchingWildcards(state.nextKeyValue(), value -> state.counter.incrementAndGet());
+   }
 
 }
-
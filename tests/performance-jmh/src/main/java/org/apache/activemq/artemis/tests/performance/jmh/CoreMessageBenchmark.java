@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Decodes a persisted core message and reads the properties the broker looks up while routing it.
+ *
+ * <p>Run it with {@code -prof gc} to compare the allocation per message of the different paths.</p>
+ */
+@State(Scope.Thread)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class CoreMessageBenchmark {
+
+   private static final SimpleString ADDRESS = SimpleString.toSimpleString("benchmark");
+
+   @Param({"4", "16"})
+   private int userProperties;
+
+   @Param({"256"})
+   private int bodySize;
+
+   private ActiveMQBuffer record;
+
+   private ActiveMQBuffer persisted;
+
+   @Setup
+   public void init() {
+      final CoreMessage message = new CoreMessage(1, bodySize + 1024);
+      message.setAddress(ADDRESS);
+      message.setDurable(true);
+      message.setRoutingType(RoutingType.ANYCAST);
+      for (int i = 0; i < userProperties; i++) {
+         message.putLongProperty("property" + i, i);
+      }
+      message.getBodyBuffer().writeBytes(new byte[bodySize]);
+      record = ActiveMQBuffers.fixedBuffer(message.getPersistSize());
+      message.persist(record);
+      persisted = ActiveMQBuffers.fixedBuffer(record.capacity());
+   }
+
+   private CoreMessage decode() {
+      record.readerIndex(0);
+      final CoreMessage message = new CoreMessage();
+      message.reloadPersistence(record, null);
+      return message;
+   }
+
+   @Benchmark
+   public Object decodeOnly() {
+      return decode();
+   }
+
+   @Benchmark
+   public void decodeAndRoute(Blackhole blackhole) {
+      final CoreMessage message = decode();
+      // same lookups of PostOfficeImpl::route and QueueImpl on a plain message
+      blackhole.consume(message.getRoutingType());
+      blackhole.consume(message.getDuplicateProperty());
+      blackhole.consume(message.getScheduledDeliveryTime());
+      blackhole.consume(message.getGroupID());
+      blackhole.consume(message.getLastValueProperty());
+   }
+
+   @Benchmark
+   public void decodeAndReadAllProperties(Blackhole blackhole) {
+      final CoreMessage message = decode();
+      blackhole.consume(message.getProperties());
+      blackhole.consume(message.getObjectProperty(Message.HDR_ROUTING_TYPE));
+   }
+
+   @Benchmark
+   public Object decodeAndPersist() {
+      final CoreMessage message = decode();
+      message.getRoutingType();
+      message.getScheduledDeliveryTime();
+      // untouched properties are written back as they are
+      persisted.clear();
+      message.persist(persisted);
+      return persisted;
+   }
+}
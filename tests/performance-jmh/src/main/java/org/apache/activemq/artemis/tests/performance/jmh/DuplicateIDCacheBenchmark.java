@@ -33,6 +33,10 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 
+/**
+ * With {@code filterSize > 0} the ids evicted from the cache are still detected by its filter, hence
+ * {@link #containsMissingId()} measures the cost of looking up the filter on top of the exact cache.
+ */
 @State(Scope.Benchmark)
 @Fork(2)
 @Warmup(iterations = 5, time = 1)
@@ -43,6 +47,10 @@ public class DuplicateIDCacheBenchmark {
    private int size;
    @Param({"false", "true"})
    private boolean persist;
+   @Param({"0", "100000"})
+   private int filterSize;
+   @Param({"0.001"})
+   private double falsePositiveRate;
 
    private DuplicateIDCache cache;
 
@@ -55,8 +63,8 @@ public class DuplicateIDCacheBenchmark {
    @Setup
    public void init() throws Exception {
       cache = persist ?
-         DuplicateIDCaches.persistent(SimpleString.toSimpleString("benchmark"), size, new NullStorageManager()) :
-         DuplicateIDCaches.inMemory(SimpleString.toSimpleString("benchmark"), size);
+         DuplicateIDCaches.persistent(SimpleString.toSimpleString("benchmark"), size, new NullStorageManager(), filterSize, falsePositiveRate) :
+         DuplicateIDCaches.inMemory(SimpleString.toSimpleString("benchmark"), size, filterSize, falsePositiveRate);
       final int idSize = findNextHigherPowerOf2(size);
       idsMask = idSize - 1;
       nextId = 0;
@@ -75,7 +83,7 @@ public class DuplicateIDCacheBenchmark {
          ids[size + i] = id;
          cache.addToCache(id, null, true);
          // check correctness of eviction policy
-         if (cache.contains(ids[i])) {
+         if (filterSize == 0 && cache.contains(ids[i])) {
             throw new AssertionError("This cache isn't using anymore a FIFO eviction strategy or its real capacity is > " + size);
          }
       }
@@ -89,9 +97,13 @@ public class DuplicateIDCacheBenchmark {
          final int id = random.nextInt(0, evicted);
          randomEvictedIds[i] = ids[id];
          // check correctness of eviction policy
-         if (cache.contains(ids[id])) {
+         if (filterSize == 0 && cache.contains(ids[id])) {
             throw new AssertionError("This cache isn't using anymore a FIFO eviction strategy");
          }
+         // a filter cannot miss any of the ids it has been fed with
+         if (filterSize > 0 && !cache.contains(ids[id])) {
+            throw new AssertionError("This cache has forgotten an evicted id still within its filter size");
+         }
       }
    }
 
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
+import org.apache.activemq.artemis.core.journal.JournalLoadInformation;
+import org.apache.activemq.artemis.core.journal.impl.JournalImpl;
+import org.apache.activemq.artemis.utils.collections.SparseArrayLinkedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time to load a journal made of {@code files} full data files, with different values of
+ * {@link JournalImpl#setLoadParallelism(int)}.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JournalLoadPerfTest {
+
+   private static final String STORE_DIR = System.getProperty("user.dir") + File.separator + "JournalLoadPerfTest";
+   private static final String FILE_PREFIX = "perf";
+   private static final String FILE_EXTENSION = "amq";
+   private static final byte RECORD_TYPE = 0;
+
+   @Param({"10", "100"})
+   private int files;
+   @Param({"1", "2", "4", "8"})
+   private int loadParallelism;
+   @Param({"256"})
+   private int recordSize;
+   @Param({"10485760"})
+   private int fileSize;
+
+   private SequentialFileFactory factory;
+   private long expectedRecords;
+
+   @Setup
+   public void init() throws Exception {
+      File storeDir = new File(STORE_DIR);
+      factory = new NIOSequentialFileFactory(storeDir, true, 1).setDatasync(false);
+      factory.start();
+      factory.createDirs();
+      JournalImpl journal = createJournal();
+      journal.start();
+      journal.loadInternalOnly();
+      final byte[] recordData = new byte[recordSize];
+      Arrays.fill(recordData, (byte) 1);
+      final long recordsPerFile = fileSize / (recordSize + JournalImpl.SIZE_ADD_RECORD + 1);
+      final long records = recordsPerFile * files;
+      for (long id = 0; id < records; id++) {
+         journal.appendAddRecord(id, RECORD_TYPE, recordData, false);
+         // keep some updates and deletes around, as a real journal would have
+         if (id % 10 == 0) {
+            journal.appendUpdateRecord(id, RECORD_TYPE, recordData, false);
+         }
+      }
+      journal.flush();
+      journal.stop();
+      expectedRecords = records;
+   }
+
+   private JournalImpl createJournal() {
+      return new JournalImpl(fileSize, 2, 2, 0, 0, factory, FILE_PREFIX, FILE_EXTENSION, factory.getMaxIO());
+   }
+
+   @Benchmark
+   public long load() throws Exception {
+      JournalImpl journal = createJournal().setLoadParallelism(loadParallelism);
+      journal.start();
+      try {
+         JournalLoadInformation info = journal.load(new SparseArrayLinkedList<>(), null, null);
+         if (info.getNumberOfRecords() != expectedRecords) {
+            throw new IllegalStateException("Expected " + expectedRecords + " records, loaded " + info.getNumberOfRecords());
+         }
+         return info.getMaxID();
+      } finally {
+         journal.stop();
+      }
+   }
+
+   @TearDown
+   public synchronized void stop() {
+      factory.stop();
+      Stream.of(factory.getDirectory().listFiles()).forEach(File::delete);
+      factory.getDirectory().delete();
+   }
+
+}
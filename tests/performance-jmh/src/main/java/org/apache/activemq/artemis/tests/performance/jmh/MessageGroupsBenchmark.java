@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.server.impl.BucketMessageGroups;
+import org.apache.activemq.artemis.core.server.impl.ConsistentHashMessageGroups;
+import org.apache.activemq.artemis.core.server.impl.MessageGroups;
+import org.apache.activemq.artemis.core.server.impl.SimpleMessageGroups;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of assigning {@link #GROUPS} distinct groups to consumers, as a queue does on the first message of
+ * each group, and of reassigning them after a consumer joined and the groups were rebalanced.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MessageGroupsBenchmark {
+
+   private static final int GROUPS = 1_000_000;
+
+   @Param({"round-robin", "buckets", "consistent-hash"})
+   private String type;
+
+   @Param({"4", "64"})
+   private int consumerCount;
+
+   private MessageGroups<Object> groups;
+
+   private Object[] consumers;
+
+   private SimpleString[] keys;
+
+   private long nextConsumer;
+
+   @Setup
+   public void init() {
+      switch (type) {
+         case "round-robin":
+            groups = new SimpleMessageGroups<>();
+            break;
+         case "buckets":
+            groups = new BucketMessageGroups<>(1024);
+            break;
+         case "consistent-hash":
+            groups = new ConsistentHashMessageGroups<>(100);
+            break;
+         default:
+            throw new IllegalArgumentException(type);
+      }
+      consumers = new Object[consumerCount];
+      for (int i = 0; i < consumerCount; i++) {
+         consumers[i] = new Object();
+         groups.consumerAdded(consumers[i]);
+      }
+      keys = new SimpleString[GROUPS];
+      for (int i = 0; i < GROUPS; i++) {
+         keys[i] = SimpleString.toSimpleString("group-" + i);
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(GROUPS)
+   public int assignGroups() {
+      groups.removeAll();
+      assignAll();
+      return groups.size();
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(GROUPS)
+   public int rebalanceGroups() {
+      final Object joining = new Object();
+      groups.consumerAdded(joining);
+      groups.removeAll();
+      assignAll();
+      groups.removeIf(joining::equals);
+      groups.consumerRemoved(joining);
+      return groups.size();
+   }
+
+   private void assignAll() {
+      for (SimpleString key : keys) {
+         if (groups.get(key) == null) {
+            Object consumer = groups.assign(key);
+            if (consumer == null) {
+               // the queue picks the next consumer round-robin
+               consumer = consumers[(int) (nextConsumer++ % consumerCount)];
+            }
+            groups.put(key, consumer);
+         }
+      }
+   }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.filter.SelectorCompiler;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the interpreted and the {@link SelectorCompiler compiled} evaluation of typical selectors on messages
+ * matching them about half of the times.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class SelectorBenchmark {
+
+   @Param({
+      "color = 'red'",
+      "price > 100",
+      "region IN ('EU', 'US', 'APAC') AND price <= 150",
+      "(color = 'red' AND price > 100) OR (region = 'EU' AND NOT urgent)"})
+   private String selector;
+
+   private BooleanExpression interpreted;
+   private BooleanExpression compiled;
+
+   private Filterable[] messages;
+   private int messagesMask;
+   private long nextMessage;
+
+   private static final class PropertiesMessage implements Filterable {
+
+      private final Map<SimpleString, Object> properties = new HashMap<>();
+
+      @Override
+      public <T> T getBodyAs(Class<T> type) {
+         return null;
+      }
+
+      @Override
+      public Object getProperty(SimpleString name) {
+         return properties.get(name);
+      }
+
+      @Override
+      public Object getLocalConnectionId() {
+         return null;
+      }
+   }
+
+   @Setup
+   public void init() throws Exception {
+      interpreted = SelectorParser.parse(selector);
+      compiled = SelectorCompiler.compile(interpreted);
+      if (!(compiled instanceof SelectorCompiler.CompiledExpression)) {
+         throw new AssertionError(selector + " isn't compiled");
+      }
+      // always use the same seed!
+      final SplittableRandom random = new SplittableRandom(0);
+      final String[] regions = {"EU", "US", "APAC", "LATAM"};
+      // set it big enough to trick branch predictors
+      messages = new Filterable[1024];
+      messagesMask = messages.length - 1;
+      for (int i = 0; i < messages.length; i++) {
+         final PropertiesMessage message = new PropertiesMessage();
+         message.properties.put(SimpleString.toSimpleString("color"), random.nextBoolean() ? "red" : "blue");
+         message.properties.put(SimpleString.toSimpleString("price"), random.nextInt(0, 200));
+         message.properties.put(SimpleString.toSimpleString("region"), regions[random.nextInt(regions.length)]);
+         message.properties.put(SimpleString.toSimpleString("urgent"), random.nextBoolean());
+         messages[i] = message;
+         if (interpreted.matches(message) != compiled.matches(message)) {
+            throw new AssertionError("The compiled " + selector + " doesn't match as the interpreted one");
+         }
+      }
+   }
+
+   private Filterable nextMessage() {
+      final long seq = nextMessage;
+      nextMessage = seq + 1;
+      return messages[(int) (seq & messagesMask)];
+   }
+
+   @Benchmark
+   public boolean interpreted() throws Exception {
+      return interpreted.matches(nextMessage());
+   }
+
+   @Benchmark
+   public boolean compiled() throws Exception {
+      return compiled.matches(nextMessage());
+   }
+
+}
@@ -161,6 +161,7 @@ public class WildcardAddressManagerPerfTest {
    AtomicLong topicCounter;
    private static final WildcardConfiguration WILDCARD_CONFIGURATION;
    SimpleString[] addresses;
+   SimpleString[] unmatchedAddresses;
 
    static {
       WILDCARD_CONFIGURATION = new WildcardConfiguration();
@@ -183,6 +184,11 @@ public class WildcardAddressManagerPerfTest {
          addresses[i] = SimpleString.toSimpleString("Topic1." + i);
          addressManager.getBindingsForRoutingAddress(addresses[i]);
       }
+      // no binding matches them: any publish on them has to look for matching wildcards
+      unmatchedAddresses = new SimpleString[topics];
+      for (int i = 0; i < topics; i++) {
+         unmatchedAddresses[i] = SimpleString.toSimpleString("Topic2." + i);
+      }
       topicCounter = new AtomicLong(0);
       topicCounter.set(topics);
    }
@@ -197,12 +203,21 @@ public class WildcardAddressManagerPerfTest {
       Binding binding;
       long next;
       SimpleString[] addresses;
+      SimpleString[] unmatchedAddresses;
 
       @Setup
       public void init(WildcardAddressManagerPerfTest benchmarkState) {
          final long id = benchmarkState.nextId();
          binding = new BindingFake(WILDCARD, SimpleString.toSimpleString("" + id), id);
          addresses = benchmarkState.addresses;
+         unmatchedAddresses = benchmarkState.unmatchedAddresses;
+      }
+
+      public SimpleString nextUnmatchedAddress() {
+         final long current = next;
+         next = current + 1;
+         final int index = (int) (current & (unmatchedAddresses.length - 1));
+         return unmatchedAddresses[index];
       }
 
       public SimpleString nextAddress() {
@@ -235,6 +250,12 @@ public class WildcardAddressManagerPerfTest {
       return addressManager.getBindingsForRoutingAddress(state.nextAddress());
    }
 
+   @Benchmark
+   @GroupThreads(4)
+   public Bindings testJustPublishUnmatched(ThreadState state) throws Exception {
+      return addressManager.getBindingsForRoutingAddress(state.nextUnmatchedAddress());
+   }
+
    @Benchmark
    @GroupThreads(4)
    public Binding testJustAddRemoveNewBinding(ThreadState state) throws Exception {
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.stress.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * A selective consumer on a queue holding a million messages it doesn't match: every rollback resets the delivery
+ * iterators, which without the selector index rescans the whole queue.
+ */
+public class SelectorIndexStressTest extends ActiveMQTestBase {
+
+   private static final String QUEUE = "SelectorIndexStressTestQueue";
+
+   @Test
+   public void testSelectiveConsumerOnDeepQueue() throws Exception {
+      final int nonMatching = 1_000_000;
+      final int matching = 100;
+
+      ActiveMQServer server = createServer(false, createDefaultInVMConfig().setGlobalMaxSize(-1));
+      server.start();
+      server.getAddressSettingsRepository().addMatch(QUEUE, new AddressSettings().setEnableSelectorIndex(true).setMaxSizeBytes(-1));
+
+      ClientSessionFactory sf = createSessionFactory(createInVMNonHALocator());
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(QUEUE);
+      for (int i = 0; i < nonMatching; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.putStringProperty("animal", "hippo");
+         producer.send(message);
+         if (i % 100_000 == 0) {
+            System.out.println("Sent " + i);
+         }
+      }
+      for (int i = 0; i < matching; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.putStringProperty("animal", "giraffe");
+         message.putIntProperty("i", i);
+         producer.send(message);
+      }
+
+      ClientSession txSession = addClientSession(sf.createSession(false, false, false));
+      ClientConsumer consumer = txSession.createConsumer(QUEUE, "animal = 'giraffe'");
+      txSession.start();
+
+      final long start = System.nanoTime();
+      for (int i = 0; i < matching; i++) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(i, message.getIntProperty("i").intValue());
+         message.acknowledge();
+         // the rolled back message goes back to the head of the queue and is delivered again
+         txSession.rollback();
+         message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(i, message.getIntProperty("i").intValue());
+         message.acknowledge();
+         txSession.commit();
+      }
+      final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      System.out.println("Received " + matching + " selected messages in " + elapsed + " ms");
+
+      Assert.assertNull(consumer.receiveImmediate());
+      Assert.assertEquals(nonMatching, getMessageCount(server.locateQueue(QUEUE)));
+      Assert.assertTrue("took " + elapsed + " ms", elapsed < 30_000);
+   }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.stress.journal;
+
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.core.config.storage.DatabaseStorageConfiguration;
+import org.apache.activemq.artemis.core.journal.PreparedTransactionInfo;
+import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.jdbc.store.drivers.JDBCUtils;
+import org.apache.activemq.artemis.jdbc.store.journal.JDBCJournalImpl;
+import org.apache.activemq.artemis.jdbc.store.sql.SQLProvider;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Appends records from many threads to a JDBC journal on an embedded Derby database, using an increasing number of
+ * sync connections, and checks that the records of the same ID were written in the order they were appended.
+ */
+public class JDBCJournalSyncConnectionsStressTest extends ActiveMQTestBase {
+
+   private static final int THREADS = 16;
+
+   private static final int RECORDS_PER_THREAD = 300;
+
+   private static final byte RECORD_TYPE = (byte) 1;
+
+   private ScheduledExecutorService scheduledExecutorService;
+
+   private ExecutorService executorService;
+
+   private DatabaseStorageConfiguration dbConf;
+
+   private SQLProvider sqlProvider;
+
+   @Before
+   public void setupJournal() throws Exception {
+      dbConf = createDefaultDatabaseStorageConfiguration();
+      sqlProvider = JDBCUtils.getSQLProvider(dbConf.getJdbcDriverClassName(), dbConf.getMessageTableName(), SQLProvider.DatabaseStoreType.MESSAGE_JOURNAL);
+      scheduledExecutorService = new ScheduledThreadPoolExecutor(5);
+      executorService = Executors.newSingleThreadExecutor();
+   }
+
+   @After
+   @Override
+   public void tearDown() throws Exception {
+      try {
+         DriverManager.getConnection("jdbc:derby:;shutdown=true");
+      } catch (Exception ignored) {
+      }
+      scheduledExecutorService.shutdownNow();
+      scheduledExecutorService.awaitTermination(5, TimeUnit.SECONDS);
+      executorService.shutdown();
+      executorService.awaitTermination(5, TimeUnit.SECONDS);
+      super.tearDown();
+   }
+
+   @Test
+   public void testThroughputWithSyncConnections() throws Exception {
+      double serial = 0;
+      for (int syncConnections : new int[]{1, 2, 4}) {
+         double throughput = appendConcurrently(syncConnections);
+         if (syncConnections == 1) {
+            serial = throughput;
+         }
+         instanceLog.info(String.format("%d sync connections: %.0f records/s (%.2fx)", syncConnections, throughput, throughput / serial));
+      }
+   }
+
+   private JDBCJournalImpl createJournal(int syncConnections) {
+      return new JDBCJournalImpl(dbConf.getConnectionProvider(), sqlProvider, scheduledExecutorService, executorService, (code, message, file) -> {
+      }, 5, syncConnections);
+   }
+
+   /**
+    * Each ID goes through a different life cycle, all of them depending on the order of their records:
+    * <ul>
+    *    <li>added, updated and deleted</li>
+    *    <li>added and updated</li>
+    *    <li>added and deleted by two transactions</li>
+    * </ul>
+    * Only the IDs of the second kind must survive a reload.
+    */
+   private double appendConcurrently(int syncConnections) throws Exception {
+      JDBCJournalImpl journal = createJournal(syncConnections);
+      journal.start();
+
+      final Set<Long> expectedIds = new HashSet<>();
+      for (int t = 0; t < THREADS; t++) {
+         for (int i = 1; i < RECORDS_PER_THREAD; i += 3) {
+            expectedIds.add(recordId(t, i));
+         }
+      }
+
+      final CyclicBarrier barrier = new CyclicBarrier(THREADS + 1);
+      final CountDownLatch done = new CountDownLatch(THREADS);
+      final AtomicInteger errors = new AtomicInteger(0);
+      final byte[] body = new byte[128];
+
+      for (int t = 0; t < THREADS; t++) {
+         final int thread = t;
+         Thread appender = new Thread(() -> {
+            try {
+               barrier.await();
+               for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                  long id = recordId(thread, i);
+                  switch (i % 3) {
+                     case 0:
+                        journal.appendAddRecord(id, RECORD_TYPE, body, false);
+                        journal.appendUpdateRecord(id, RECORD_TYPE, body, false);
+                        journal.appendDeleteRecord(id, true);
+                        break;
+                     case 1:
+                        journal.appendAddRecord(id, RECORD_TYPE, body, false);
+                        journal.appendUpdateRecord(id, RECORD_TYPE, body, true);
+                        break;
+                     default:
+                        journal.appendAddRecordTransactional(id, id, RECORD_TYPE, body);
+                        journal.appendCommitRecord(id, false);
+                        journal.appendDeleteRecordTransactional(-id, id);
+                        journal.appendCommitRecord(-id, true);
+                        break;
+                  }
+               }
+            } catch (Throwable e) {
+               e.printStackTrace();
+               errors.incrementAndGet();
+            } finally {
+               done.countDown();
+            }
+         });
+         appender.start();
+      }
+
+      barrier.await();
+      long start = System.nanoTime();
+      Assert.assertTrue(done.await(5, TimeUnit.MINUTES));
+      long elapsed = System.nanoTime() - start;
+      Assert.assertEquals(0, errors.get());
+
+      // 3, 2 and 4 records for each kind of ID, ie 3 records per ID on average
+      int appended = THREADS * RECORDS_PER_THREAD * 3;
+      journal.stop();
+
+      JDBCJournalImpl reloaded = createJournal(syncConnections);
+      reloaded.start();
+      try {
+         List<RecordInfo> committedRecords = new ArrayList<>();
+         List<PreparedTransactionInfo> preparedTransactions = new ArrayList<>();
+         reloaded.load(committedRecords, preparedTransactions, null, false);
+
+         Set<Long> loadedIds = new HashSet<>();
+         for (RecordInfo info : committedRecords) {
+            loadedIds.add(info.id);
+         }
+         Assert.assertEquals(expectedIds, loadedIds);
+         Assert.assertTrue(preparedTransactions.isEmpty());
+      } finally {
+         reloaded.destroy();
+      }
+
+      return appended * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+   }
+
+   private static long recordId(int thread, int i) {
+      return thread * 1_000_000L + i + 1;
+   }
+}
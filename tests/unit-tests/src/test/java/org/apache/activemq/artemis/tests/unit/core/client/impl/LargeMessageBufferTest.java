@@ -751,6 +751,11 @@ public class LargeMessageBufferTest extends ActiveMQTestBase {
          return 0;
       }
 
+      @Override
+      public int getAdaptiveWindowSize() {
+         return -1;
+      }
+
       @Override
       public SimpleString getFilterString() {
 
@@ -3198,6 +3198,43 @@ public abstract class JournalImplTestUnit extends JournalImplTestBase {
 
    }
 
+   @Test
+   public void testParallelLoad() throws Exception {
+      setup(2, 10 * 1024, true);
+      createJournal();
+      startJournal();
+      load();
+
+      for (int i = 0; i < 100; i++) {
+         add(i);
+      }
+
+      // transactions crossing file boundaries
+      addTx(1000, 100, 101, 102);
+      update(10, 20, 30);
+      addTx(1001, 103, 104);
+      delete(0, 1, 2);
+      commit(1000);
+      addTx(1002, 105);
+      rollback(1001);
+      prepare(1002, new SimpleEncoding(10, (byte) 0));
+
+      for (int i = 200; i < 300; i++) {
+         add(i);
+         if (i % 3 == 0) {
+            delete(i);
+         }
+      }
+
+      stopJournal(false);
+      createJournal();
+      ((JournalImpl) journal).setLoadParallelism(4);
+      startJournal();
+      loadAndCheck();
+
+      Assert.assertTrue(journal.getDataFilesCount() > 4);
+   }
+
    @Test
    public void testLoadTruncatedFile() throws Exception {
       setup(2, 2 * 1024, true);
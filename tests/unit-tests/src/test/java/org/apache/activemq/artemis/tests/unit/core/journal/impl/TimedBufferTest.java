@@ -19,6 +19,7 @@ package org.apache.activemq.artemis.tests.unit.core.journal.impl;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -432,6 +433,125 @@ public class TimedBufferTest extends ActiveMQTestBase {
       }
    }
 
+   /**
+    * With sparse sync requests an adaptive TimedBuffer shouldn't wait the timeout for other requests to come.
+    */
+   @Test
+   public void adaptiveShouldFlushImmediatelyOnSparseSyncs() throws Exception {
+      final long timeout = TimeUnit.MILLISECONDS.toNanos(100);
+      final int bufferSize = Env.osPageSize();
+      final TimedBuffer timedBuffer = new TimedBuffer(null, bufferSize, (int) timeout, false).setAdaptive(true);
+      timedBuffer.start();
+      try (NonBlockingObserver observer = new NonBlockingObserver(bufferSize, 0)) {
+         timedBuffer.setObserver(observer);
+         for (int i = 1; i <= 5; i++) {
+            timedBuffer.addBytes(LONG_ENCODER, true, DummyCallback.getInstance());
+            observer.waitUntilFlushIsDone(i);
+            // much longer than the timeout: no other sync request could be batched with the previous one
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(3 * timeout));
+         }
+         Assert.assertTrue(timedBuffer.getSyncInterArrivalNanos() >= timeout);
+         Assert.assertTrue("immediate flushes = " + timedBuffer.getImmediateFlushes(), timedBuffer.getImmediateFlushes() > 0);
+      } finally {
+         timedBuffer.stop();
+      }
+   }
+
+   /**
+    * Sync requests coming every 75 ms on a device taking 50 ms to flush, with a 100 ms timeout: the rest of the timeout
+    * after a flush is shorter than the time between sync requests, so an adaptive TimedBuffer shouldn't wait for it.
+    */
+   @Test
+   public void adaptiveShouldLowerSyncLatencyWhenNoSyncIsExpected() throws Exception {
+      final long timeout = TimeUnit.MILLISECONDS.toNanos(100);
+      final long deviceTime = TimeUnit.MILLISECONDS.toNanos(50);
+      final long interArrival = TimeUnit.MILLISECONDS.toNanos(75);
+      final int syncs = 20;
+      final TimedBuffer fixed = new TimedBuffer(null, Env.osPageSize(), (int) timeout, false);
+      final long fixedLatency = averageSyncLatency(fixed, deviceTime, interArrival, syncs);
+      final TimedBuffer adaptive = new TimedBuffer(null, Env.osPageSize(), (int) timeout, false).setAdaptive(true);
+      final long adaptiveLatency = averageSyncLatency(adaptive, deviceTime, interArrival, syncs);
+      log.debug("average sync latency: fixed = " + fixedLatency + " ns (immediate flushes = " + fixed.getImmediateFlushes() +
+                   ", timed flushes = " + fixed.getTimedFlushes() + "), adaptive = " + adaptiveLatency +
+                   " ns (immediate flushes = " + adaptive.getImmediateFlushes() + ", timed flushes = " + adaptive.getTimedFlushes() + ")");
+      Assert.assertEquals(0, fixed.getImmediateFlushes());
+      Assert.assertTrue("immediate flushes = " + adaptive.getImmediateFlushes(), adaptive.getImmediateFlushes() > adaptive.getTimedFlushes());
+      Assert.assertTrue("adaptive = " + adaptiveLatency + " fixed = " + fixedLatency, adaptiveLatency < fixedLatency);
+   }
+
+   /**
+    * Sync requests coming every 5 ms, with a 100 ms timeout: an adaptive TimedBuffer should keep waiting for the timeout
+    * to batch them, as the fixed one does.
+    */
+   @Test
+   public void adaptiveShouldKeepBatchingFrequentSyncs() throws Exception {
+      final long timeout = TimeUnit.MILLISECONDS.toNanos(100);
+      final long interArrival = TimeUnit.MILLISECONDS.toNanos(5);
+      final int syncs = 100;
+      final TimedBuffer adaptive = new TimedBuffer(null, Env.osPageSize(), (int) timeout, false).setAdaptive(true);
+      final long adaptiveLatency = averageSyncLatency(adaptive, 0, interArrival, syncs);
+      log.debug("average sync latency: adaptive = " + adaptiveLatency + " ns (immediate flushes = " + adaptive.getImmediateFlushes() +
+                   ", timed flushes = " + adaptive.getTimedFlushes() + ")");
+      Assert.assertTrue("timed flushes = " + adaptive.getTimedFlushes(), adaptive.getTimedFlushes() > 0);
+      Assert.assertTrue("immediate flushes = " + adaptive.getImmediateFlushes(), adaptive.getImmediateFlushes() <= 1);
+      Assert.assertTrue("flushes = " + (adaptive.getTimedFlushes() + adaptive.getImmediateFlushes()),
+                        adaptive.getTimedFlushes() + adaptive.getImmediateFlushes() < syncs / 2);
+   }
+
+   /**
+    * Issues {@code syncs} sync requests every {@code interArrival} nanoseconds on a device taking {@code deviceTime}
+    * nanoseconds to flush and returns the average time taken to complete them.
+    */
+   private static long averageSyncLatency(TimedBuffer timedBuffer,
+                                          long deviceTime,
+                                          long interArrival,
+                                          int syncs) throws Exception {
+      final long[] completions = new long[syncs];
+      final CountDownLatch completed = new CountDownLatch(syncs);
+      final TimedBufferObserver observer = new TimedBufferObserver() {
+         @Override
+         public void flushBuffer(final ByteBuf byteBuf, final boolean sync, final List<IOCallback> callbacks) {
+            spinSleep(deviceTime);
+            callbacks.forEach(IOCallback::done);
+         }
+
+         @Override
+         public int getRemainingBytes() {
+            return Integer.MAX_VALUE;
+         }
+      };
+      final long[] requests = new long[syncs];
+      timedBuffer.start();
+      try {
+         timedBuffer.setObserver(observer);
+         final long start = System.nanoTime();
+         for (int i = 0; i < syncs; i++) {
+            final int sync = i;
+            spinSleep(start + i * interArrival - System.nanoTime());
+            requests[sync] = System.nanoTime();
+            timedBuffer.addBytes(LONG_ENCODER, true, new IOCallback() {
+               @Override
+               public void done() {
+                  completions[sync] = System.nanoTime();
+                  completed.countDown();
+               }
+
+               @Override
+               public void onError(int errorCode, String errorMessage) {
+               }
+            });
+         }
+         Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+      } finally {
+         timedBuffer.stop();
+      }
+      long totalLatency = 0;
+      for (int i = 0; i < syncs; i++) {
+         totalLatency += completions[i] - requests[i];
+      }
+      return totalLatency / syncs;
+   }
+
    @Test
    public void testTimingAndFlush() throws Exception {
       final ArrayList<ByteBuffer> buffers = new ArrayList<>();
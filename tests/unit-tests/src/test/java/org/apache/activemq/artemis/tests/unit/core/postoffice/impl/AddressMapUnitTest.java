@@ -51,6 +51,47 @@ public class AddressMapUnitTest {
       assertTrue(isEmpty(a));
    }
 
+   @Test
+   public void testCachedMatchesInvalidation() throws Exception {
+
+      SimpleString a = new SimpleString("a.b.c");
+      SimpleString wildcard = new SimpleString("a.#");
+
+      // cache a lookup without matches
+      assertTrue(isEmpty(a));
+      assertTrue(isEmpty(a));
+
+      underTest.put(wildcard, wildcard);
+
+      assertEquals(1, countMatchingWildcards(a));
+      assertEquals(1, countMatchingWildcards(a));
+
+      underTest.put(a, a);
+
+      assertEquals(2, countMatchingWildcards(a));
+
+      underTest.remove(wildcard, wildcard);
+
+      assertEquals(1, countMatchingWildcards(a));
+
+      underTest.reset();
+
+      assertTrue(isEmpty(a));
+   }
+
+   @Test
+   public void testCachedMatchesEviction() throws Exception {
+      AddressMap<SimpleString> smallCache = new AddressMap<>("#", "*", '.', 2);
+      SimpleString wildcard = new SimpleString("a.#");
+      smallCache.put(wildcard, wildcard);
+
+      for (int i = 0; i < 10; i++) {
+         AtomicInteger count = new AtomicInteger();
+         smallCache.visitMatchingWildcards(new SimpleString("a." + i), value -> count.incrementAndGet());
+         assertEquals(1, count.get());
+      }
+   }
+
    private boolean isEmpty(SimpleString match) throws Exception {
       return countMatchingWildcards(match) == 0;
    }
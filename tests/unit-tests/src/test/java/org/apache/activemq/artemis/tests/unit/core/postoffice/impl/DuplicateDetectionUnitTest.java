@@ -154,4 +154,36 @@ public class DuplicateDetectionUnitTest extends ActiveMQTestBase {
       }
 
    }
+
+   @Test
+   public void testEvictedIDsFilter() throws Exception {
+      final SimpleString address = RandomUtil.randomSimpleString();
+      final int cacheSize = 10;
+      final int filterSize = 1000;
+      DuplicateIDCache cacheID = DuplicateIDCaches.inMemory(address, cacheSize, filterSize, 0.001);
+      List<byte[]> ids = new ArrayList<>();
+      for (int i = 0; i < cacheSize + filterSize; i++) {
+         byte[] id = RandomUtil.randomBytes();
+         ids.add(id);
+         cacheID.addToCache(id);
+      }
+      // the ids evicted from the cache are still detected by the filter
+      for (byte[] id : ids) {
+         Assert.assertTrue(cacheID.contains(id));
+      }
+      Assert.assertEquals(cacheSize, cacheID.getMap().size());
+      int falsePositives = 0;
+      for (int i = 0; i < 10000; i++) {
+         if (cacheID.contains(RandomUtil.randomBytes())) {
+            falsePositives++;
+         }
+      }
+      // 10 expected
+      Assert.assertTrue("too many false positives: " + falsePositives, falsePositives < 100);
+
+      cacheID.clear();
+      for (byte[] id : ids) {
+         Assert.assertFalse(cacheID.contains(id));
+      }
+   }
 }
@@ -27,6 +27,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.QueueConfiguration;
@@ -54,6 +55,7 @@ import org.apache.activemq.artemis.tests.unit.core.server.impl.fakes.FakePostOff
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
 import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
 import org.apache.activemq.artemis.utils.FutureLatch;
+import org.apache.activemq.artemis.utils.Wait;
 import org.apache.activemq.artemis.utils.actors.ArtemisExecutor;
 import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
 import org.jboss.logging.Logger;
@@ -638,6 +640,131 @@ public class QueueImplTest extends ActiveMQTestBase {
       }
    }
 
+   @Test
+   public void testBatchedDeliveryHandsOneReferencePerConsumer() throws Exception {
+      QueueImpl queue = getTemporaryQueue();
+
+      final int numConsumers = 5;
+
+      final int numMessages = QueueImpl.DELIVERY_BATCH_SIZE * numConsumers * 3;
+
+      List<MessageReference> refs = new ArrayList<>();
+
+      queue.pause();
+
+      final List<FakeConsumer> consumers = new ArrayList<>();
+
+      final AtomicInteger undelivered = new AtomicInteger();
+
+      for (int i = 0; i < numConsumers; i++) {
+         FakeConsumer consumer = new FakeConsumer() {
+            private int pending;
+
+            @Override
+            public synchronized HandleStatus handle(MessageReference reference) {
+               HandleStatus status = super.handle(reference);
+               if (status == HandleStatus.HANDLED && ++pending > 1) {
+                  // the consumer credits are taken on proceedDeliver, it mustn't handle two references in a batch
+                  undelivered.incrementAndGet();
+               }
+               return status;
+            }
+
+            @Override
+            public synchronized void proceedDeliver(MessageReference ref) {
+               pending--;
+            }
+         };
+         consumers.add(consumer);
+         queue.addConsumer(consumer);
+      }
+
+      for (int i = 0; i < numMessages; i++) {
+         MessageReference ref = generateReference(queue, i);
+
+         refs.add(ref);
+
+         queue.addTail(ref);
+      }
+
+      queue.resume();
+
+      for (FakeConsumer consumer : consumers) {
+         Wait.assertEquals(numMessages / numConsumers, () -> consumer.getReferences().size());
+      }
+
+      Assert.assertEquals(0, undelivered.get());
+
+      for (int i = 0; i < numMessages; i++) {
+         Assert.assertEquals(refs.get(i), consumers.get(i % numConsumers).getReferences().get(i / numConsumers));
+      }
+   }
+
+   @Test
+   public void testBatchedDeliveryToSingleConsumer() throws Exception {
+      final int numMessages = QueueImpl.DELIVERY_BATCH_SIZE * 100;
+
+      final int unbatched = countDeliveryBatches(numMessages, false);
+      final int batched = countDeliveryBatches(numMessages, true);
+
+      log.info("Queue lock acquisitions delivering " + numMessages + " messages to a single consumer: " + unbatched +
+                  " handling one reference per batch, " + batched + " handling several");
+      Assert.assertEquals(numMessages, unbatched);
+      // a batch is cut short when the delivery loop reschedules itself
+      Assert.assertTrue(batched + " batches", batched <= numMessages / QueueImpl.DELIVERY_BATCH_SIZE * 2);
+   }
+
+   private int countDeliveryBatches(int numMessages, boolean batchedHandling) throws Exception {
+      QueueImpl queue = getTemporaryQueue();
+
+      List<MessageReference> refs = new ArrayList<>();
+
+      queue.pause();
+
+      final AtomicInteger batches = new AtomicInteger();
+
+      FakeConsumer consumer = new FakeConsumer() {
+         private boolean handling;
+
+         @Override
+         public boolean supportsBatchedHandling() {
+            return batchedHandling;
+         }
+
+         @Override
+         public synchronized HandleStatus handle(MessageReference reference) {
+            HandleStatus status = super.handle(reference);
+            if (status == HandleStatus.HANDLED && !handling) {
+               // the references of a batch are all handled before the first one is delivered
+               handling = true;
+               batches.incrementAndGet();
+            }
+            return status;
+         }
+
+         @Override
+         public synchronized void proceedDeliver(MessageReference ref) {
+            handling = false;
+         }
+      };
+      queue.addConsumer(consumer);
+
+      for (int i = 0; i < numMessages; i++) {
+         MessageReference ref = generateReference(queue, i);
+
+         refs.add(ref);
+
+         queue.addTail(ref);
+      }
+
+      queue.resume();
+
+      Wait.assertEquals(numMessages, () -> consumer.getReferences().size());
+      Assert.assertEquals(refs, consumer.getReferences());
+
+      return batches.get();
+   }
+
    @Test
    public void testWithPriorities() throws Exception {
       QueueImpl queue = getTemporaryQueue();
@@ -1424,6 +1551,61 @@ public class QueueImplTest extends ActiveMQTestBase {
       }
    }
 
+   @Test
+   public void testBrowserIteratorSnapshots() throws Exception {
+      final String MY_QUEUE = "myQueue";
+
+      ActiveMQServer server = addServer(ActiveMQServers.newActiveMQServer(createDefaultInVMConfig(), false));
+      server.start();
+
+      ServerLocator locator = addServerLocator(createInVMNonHALocator().setBlockOnNonDurableSend(true));
+      ClientSessionFactory factory = createSessionFactory(locator);
+      ClientSession session = addClientSession(factory.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(MY_QUEUE));
+      ClientProducer producer = addClientProducer(session.createProducer(MY_QUEUE));
+
+      final int messages = 2 * QueueImpl.BROWSE_BATCH_SIZE + 100;
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.putIntProperty("order", i);
+         producer.send(message);
+      }
+
+      Queue queue = server.locateQueue(MY_QUEUE);
+      queue.flushExecutor();
+
+      try (LinkedListIterator<MessageReference> iterator = queue.browserIterator()) {
+         // reads the whole first snapshot and the first reference of the second one
+         int i = 0;
+         for (; i <= QueueImpl.BROWSE_BATCH_SIZE; i++) {
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertEquals(i, iterator.next().getMessage().getIntProperty("order").intValue());
+         }
+
+         // removes references from the current snapshot and from the next one
+         final int removedInSnapshot = i + 10;
+         final int removedAfterSnapshot = 2 * QueueImpl.BROWSE_BATCH_SIZE + 10;
+         Assert.assertEquals(20, queue.deleteMatchingReferences(FilterImpl.createFilter("(order >= " + removedInSnapshot + " AND order < " + (removedInSnapshot + 10) + ") OR (order >= " + removedAfterSnapshot + " AND order < " + (removedAfterSnapshot + 10) + ")")));
+
+         // the references added after the iterator are browsed too
+         for (int j = messages; j < messages + 10; j++) {
+            ClientMessage message = session.createMessage(false);
+            message.putIntProperty("order", j);
+            producer.send(message);
+         }
+         queue.flushExecutor();
+
+         for (; i < messages + 10; i++) {
+            if (i == removedInSnapshot || i == removedAfterSnapshot) {
+               i += 10;
+            }
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertEquals(i, iterator.next().getMessage().getIntProperty("order").intValue());
+         }
+         Assert.assertFalse(iterator.hasNext());
+      }
+   }
+
    @Test
    public void testGroupMessageWithManyConsumers() throws Exception {
       final CountDownLatch firstMessageHandled = new CountDownLatch(1);